@@ -0,0 +1,279 @@
+package com.whaleal.quant.backtest.checkpoint;
+
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.model.trading.Order;
+import com.whaleal.quant.model.trading.Position;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 检查点编解码工具
+ * 以紧凑的二进制格式读写检查点中出现的基础类型和交易模型
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class CheckpointCodec {
+
+    /**
+     * 小数未缩放值的最大字节数，读取时超出即视为数据损坏
+     */
+    private static final int MAX_UNSCALED_BYTES = 1 << 16;
+
+    private CheckpointCodec() {
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    public static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        if (unscaled.length > MAX_UNSCALED_BYTES) {
+            throw new IOException("Decimal too large to encode: " + unscaled.length + " bytes");
+        }
+        out.writeByte(unscaled.length > Byte.MAX_VALUE ? Byte.MAX_VALUE : unscaled.length);
+        if (unscaled.length >= Byte.MAX_VALUE) {
+            out.writeInt(unscaled.length);
+        }
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    public static BigDecimal readDecimal(DataInput in) throws IOException {
+        int length = in.readByte();
+        if (length == -1) {
+            return null;
+        }
+        if (length == Byte.MAX_VALUE) {
+            length = in.readInt();
+            if (length < Byte.MAX_VALUE || length > MAX_UNSCALED_BYTES) {
+                throw new IOException("Invalid decimal length: " + length);
+            }
+        } else if (length <= 0) {
+            throw new IOException("Invalid decimal length: " + length);
+        }
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.readInt());
+    }
+
+    public static void writeInstant(DataOutput out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    public static Instant readInstant(DataInput in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+
+    public static void writeOrder(DataOutput out, Order order) throws IOException {
+        writeString(out, order.getOrderId());
+        writeString(out, order.getClientOrderId());
+        writeString(out, order.getSymbol());
+        writeString(out, order.getSide());
+        writeString(out, order.getType());
+        writeString(out, order.getStatus());
+        writeDecimal(out, order.getPrice());
+        writeDecimal(out, order.getQuantity());
+        writeDecimal(out, order.getExecutedQty());
+        writeDecimal(out, order.getExecutedAmount());
+        writeDecimal(out, order.getAvgPrice());
+        writeDecimal(out, order.getStopPrice());
+        writeDecimal(out, order.getTakeProfitPrice());
+        writeInstant(out, order.getTimestamp());
+        writeInstant(out, order.getUpdateTime());
+        writeString(out, order.getSource());
+        writeString(out, order.getMarket());
+    }
+
+    public static Order readOrder(DataInput in) throws IOException {
+        return Order.builder()
+                .orderId(readString(in))
+                .clientOrderId(readString(in))
+                .symbol(readString(in))
+                .side(readString(in))
+                .type(readString(in))
+                .status(readString(in))
+                .price(readDecimal(in))
+                .quantity(readDecimal(in))
+                .executedQty(readDecimal(in))
+                .executedAmount(readDecimal(in))
+                .avgPrice(readDecimal(in))
+                .stopPrice(readDecimal(in))
+                .takeProfitPrice(readDecimal(in))
+                .timestamp(readInstant(in))
+                .updateTime(readInstant(in))
+                .source(readString(in))
+                .market(readString(in))
+                .build();
+    }
+
+    public static void writePosition(DataOutput out, Position position) throws IOException {
+        writeString(out, position.getPositionId());
+        writeString(out, position.getSymbol());
+        writeDecimal(out, position.getQuantity());
+        writeDecimal(out, position.getAveragePrice());
+        writeDecimal(out, position.getCurrentPrice());
+        writeDecimal(out, position.getUnrealizedPnL());
+        writeDecimal(out, position.getRealizedPnL());
+        writeDecimal(out, position.getMarketValue());
+        writeString(out, position.getDirection());
+        writeInstant(out, position.getCreateTime());
+        writeInstant(out, position.getUpdateTime());
+        writeString(out, position.getSource());
+        writeString(out, position.getMarket());
+    }
+
+    public static Position readPosition(DataInput in) throws IOException {
+        return Position.builder()
+                .positionId(readString(in))
+                .symbol(readString(in))
+                .quantity(readDecimal(in))
+                .averagePrice(readDecimal(in))
+                .currentPrice(readDecimal(in))
+                .unrealizedPnL(readDecimal(in))
+                .realizedPnL(readDecimal(in))
+                .marketValue(readDecimal(in))
+                .direction(readString(in))
+                .createTime(readInstant(in))
+                .updateTime(readInstant(in))
+                .source(readString(in))
+                .market(readString(in))
+                .build();
+    }
+
+    public static void writeTicker(DataOutput out, Ticker ticker) throws IOException {
+        out.writeBoolean(ticker != null);
+        if (ticker == null) {
+            return;
+        }
+        writeString(out, ticker.getSymbol());
+        writeDecimal(out, ticker.getPrice());
+        writeDecimal(out, ticker.getLastPrice());
+        writeDecimal(out, ticker.getHigh24h());
+        writeDecimal(out, ticker.getHighPrice());
+        writeDecimal(out, ticker.getLow24h());
+        writeDecimal(out, ticker.getLowPrice());
+        writeDecimal(out, ticker.getVolume24h());
+        writeDecimal(out, ticker.getVolume());
+        writeDecimal(out, ticker.getAmount24h());
+        writeDecimal(out, ticker.getAmount());
+        writeDecimal(out, ticker.getChange24h());
+        writeDecimal(out, ticker.getPriceChange());
+        writeDecimal(out, ticker.getChangePercent24h());
+        writeDecimal(out, ticker.getPriceChangePercent());
+        writeDecimal(out, ticker.getOpen24h());
+        writeDecimal(out, ticker.getOpenPrice());
+        writeDecimal(out, ticker.getPrevClose());
+        writeDecimal(out, ticker.getBidPrice());
+        writeDecimal(out, ticker.getBidQty());
+        writeDecimal(out, ticker.getAskPrice());
+        writeDecimal(out, ticker.getAskQty());
+        writeInstant(out, ticker.getTimestamp());
+        writeString(out, ticker.getSource());
+    }
+
+    public static Ticker readTicker(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return Ticker.builder()
+                .symbol(readString(in))
+                .price(readDecimal(in))
+                .lastPrice(readDecimal(in))
+                .high24h(readDecimal(in))
+                .highPrice(readDecimal(in))
+                .low24h(readDecimal(in))
+                .lowPrice(readDecimal(in))
+                .volume24h(readDecimal(in))
+                .volume(readDecimal(in))
+                .amount24h(readDecimal(in))
+                .amount(readDecimal(in))
+                .change24h(readDecimal(in))
+                .priceChange(readDecimal(in))
+                .changePercent24h(readDecimal(in))
+                .priceChangePercent(readDecimal(in))
+                .open24h(readDecimal(in))
+                .openPrice(readDecimal(in))
+                .prevClose(readDecimal(in))
+                .bidPrice(readDecimal(in))
+                .bidQty(readDecimal(in))
+                .askPrice(readDecimal(in))
+                .askQty(readDecimal(in))
+                .timestamp(readInstant(in))
+                .source(readString(in))
+                .build();
+    }
+
+    public static void writeBar(DataOutput out, Bar bar) throws IOException {
+        writeString(out, bar.getSymbol());
+        writeString(out, bar.getInterval() != null ? bar.getInterval().name() : null);
+        writeInstant(out, bar.getTimestamp());
+        writeDecimal(out, bar.getOpen());
+        writeDecimal(out, bar.getHigh());
+        writeDecimal(out, bar.getLow());
+        writeDecimal(out, bar.getClose());
+        writeDecimal(out, bar.getVolume());
+        writeDecimal(out, bar.getAmount());
+    }
+
+    public static Bar readBar(DataInput in) throws IOException {
+        Bar bar = new Bar();
+        bar.setSymbol(readString(in));
+        String interval = readString(in);
+        bar.setInterval(interval != null ? Interval.valueOf(interval) : null);
+        bar.setTimestamp(readInstant(in));
+        bar.setOpen(readDecimal(in));
+        bar.setHigh(readDecimal(in));
+        bar.setLow(readDecimal(in));
+        bar.setClose(readDecimal(in));
+        bar.setVolume(readDecimal(in));
+        bar.setAmount(readDecimal(in));
+        return bar;
+    }
+
+    public static void writeBars(DataOutput out, List<Bar> bars) throws IOException {
+        out.writeInt(bars != null ? bars.size() : -1);
+        if (bars != null) {
+            for (Bar bar : bars) {
+                writeBar(out, bar);
+            }
+        }
+    }
+
+    public static List<Bar> readBars(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<Bar> bars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            bars.add(readBar(in));
+        }
+        return bars;
+    }
+}
@@ -0,0 +1,304 @@
+package com.whaleal.quant.backtest.checkpoint;
+
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.model.BacktestContext;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.model.trading.Order;
+import com.whaleal.quant.model.trading.Position;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 检查点管理器
+ * 将回测状态写入本地紧凑二进制文件，并在重新运行时从最近一次检查点恢复。保存的内容包括：
+ * 回测上下文、策略的持仓、订单、股票池、各交易对最近的行情与K线、市场指数数据，
+ * 策略中实现了 {@link Checkpointable} 的因子，以及数据游标和其他登记的可检查点组件
+ *
+ * <p>不保存、恢复后从初始状态开始的部分：未实现 {@link Checkpointable} 的因子的内部状态、
+ * 交易服务的状态、回测监听器以及阶段耗时统计。带内部状态的因子需要实现 {@link Checkpointable}，
+ * 否则从检查点继续的结果可能与一次跑完不同
+ *
+ * <p>写入先落到临时文件再原子替换，进程在写入途中退出也不会损坏已有检查点
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class CheckpointManager {
+
+    private static final int MAGIC = 0x57514350;
+    private static final int VERSION = 2;
+    private static final String EXTENSION = ".ckpt";
+
+    private final Path checkpointPath;
+    private final long fingerprint;
+
+    /**
+     * 构造方法
+     * @param directory 检查点目录
+     * @param name 检查点名称，通常为策略名称
+     * @param config 回测配置，用于校验检查点与当前回测是否一致
+     */
+    public CheckpointManager(Path directory, String name, BacktestConfig config) {
+        this.checkpointPath = directory.resolve(name + EXTENSION);
+        this.fingerprint = fingerprint(config);
+    }
+
+    /**
+     * 写入检查点
+     * @param cursor 最后一个已处理完毕的交易日
+     * @param context 回测上下文
+     * @param strategyEngine 策略引擎
+     * @param components 其他可检查点组件，策略中可检查点的因子会自动加入
+     * @throws IOException 写入失败
+     */
+    public void save(LocalDateTime cursor, BacktestContext context, StrategyEngine strategyEngine, List<Checkpointable> components) throws IOException {
+        Files.createDirectories(checkpointPath.getParent());
+        Path tempPath = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+
+        try (OutputStream os = Files.newOutputStream(tempPath);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fingerprint);
+            out.writeLong(cursor.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(cursor.getNano());
+
+            context.writeState(out);
+            writeStrategyState(out, strategyEngine);
+
+            List<Checkpointable> allComponents = withFactors(strategyEngine, components);
+            out.writeInt(allComponents.size());
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            for (Checkpointable component : allComponents) {
+                buffer.reset();
+                component.writeState(new DataOutputStream(buffer));
+                out.writeUTF(component.getCheckpointKey());
+                out.writeInt(buffer.size());
+                buffer.writeTo(out);
+            }
+        }
+
+        Files.move(tempPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 从检查点恢复状态
+     * @param context 待恢复的回测上下文
+     * @param strategyEngine 待恢复的策略引擎
+     * @param components 待恢复的其他可检查点组件
+     * @return 最后一个已处理完毕的交易日，不存在可用检查点时返回 null
+     * @throws IOException 读取失败
+     */
+    public LocalDateTime restore(BacktestContext context, StrategyEngine strategyEngine, List<Checkpointable> components) throws IOException {
+        return restore(context, strategyEngine, components, null);
+    }
+
+    /**
+     * 从检查点恢复状态
+     * 检查点的游标晚于指定日期时（如缩短了回测区间）不恢复任何状态
+     * @param context 待恢复的回测上下文
+     * @param strategyEngine 待恢复的策略引擎
+     * @param components 待恢复的其他可检查点组件
+     * @param latestCursor 可接受的最晚游标，为空时不限制
+     * @return 最后一个已处理完毕的交易日，不存在可用检查点时返回 null
+     * @throws IOException 读取失败
+     */
+    public LocalDateTime restore(BacktestContext context, StrategyEngine strategyEngine, List<Checkpointable> components, LocalDateTime latestCursor) throws IOException {
+        if (!Files.exists(checkpointPath)) {
+            return null;
+        }
+
+        try (InputStream is = Files.newInputStream(checkpointPath);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(is, 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported checkpoint format: " + checkpointPath);
+            }
+            if (in.readLong() != fingerprint) {
+                // 配置已变化，检查点不再适用
+                return null;
+            }
+            LocalDateTime cursor = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            if (latestCursor != null && cursor.isAfter(latestCursor)) {
+                return null;
+            }
+
+            context.readState(in);
+            readStrategyState(in, strategyEngine);
+
+            Map<String, Checkpointable> componentsByKey = new HashMap<>();
+            for (Checkpointable component : withFactors(strategyEngine, components)) {
+                componentsByKey.put(component.getCheckpointKey(), component);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                byte[] state = new byte[in.readInt()];
+                in.readFully(state);
+                Checkpointable component = componentsByKey.get(key);
+                if (component == null) {
+                    throw new IOException("No component registered for checkpoint key: " + key);
+                }
+                component.readState(new DataInputStream(new ByteArrayInputStream(state)));
+            }
+            return cursor;
+        }
+    }
+
+    /**
+     * 删除检查点
+     * @throws IOException 删除失败
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(checkpointPath);
+    }
+
+    public Path getCheckpointPath() {
+        return checkpointPath;
+    }
+
+    private void writeStrategyState(DataOutputStream out, StrategyEngine strategyEngine) throws IOException {
+        Map<String, Position> positions = strategyEngine.getPositions();
+        out.writeInt(positions.size());
+        for (Map.Entry<String, Position> entry : positions.entrySet()) {
+            out.writeUTF(entry.getKey());
+            CheckpointCodec.writePosition(out, entry.getValue());
+        }
+
+        Map<String, Order> orders = strategyEngine.getOrders();
+        out.writeInt(orders.size());
+        for (Map.Entry<String, Order> entry : orders.entrySet()) {
+            out.writeUTF(entry.getKey());
+            CheckpointCodec.writeOrder(out, entry.getValue());
+        }
+
+        Set<String> stockPool = strategyEngine.getStockPool();
+        out.writeInt(stockPool.size());
+        for (String symbol : stockPool) {
+            out.writeUTF(symbol);
+        }
+
+        Map<String, Ticker> tickers = strategyEngine.getSymbolTickerMap();
+        out.writeInt(tickers.size());
+        for (Map.Entry<String, Ticker> entry : tickers.entrySet()) {
+            out.writeUTF(entry.getKey());
+            CheckpointCodec.writeTicker(out, entry.getValue());
+        }
+
+        Map<String, List<Bar>> bars = strategyEngine.getSymbolBarsMap();
+        out.writeInt(bars.size());
+        for (Map.Entry<String, List<Bar>> entry : bars.entrySet()) {
+            out.writeUTF(entry.getKey());
+            CheckpointCodec.writeBars(out, entry.getValue());
+        }
+
+        CheckpointCodec.writeBars(out, strategyEngine.getMarketBars());
+        CheckpointCodec.writeTicker(out, strategyEngine.getMarketTicker());
+    }
+
+    private void readStrategyState(DataInputStream in, StrategyEngine strategyEngine) throws IOException {
+        Map<String, Position> positions = strategyEngine.getPositions();
+        positions.clear();
+        int positionCount = in.readInt();
+        for (int i = 0; i < positionCount; i++) {
+            positions.put(in.readUTF(), CheckpointCodec.readPosition(in));
+        }
+
+        Map<String, Order> orders = strategyEngine.getOrders();
+        orders.clear();
+        int orderCount = in.readInt();
+        for (int i = 0; i < orderCount; i++) {
+            orders.put(in.readUTF(), CheckpointCodec.readOrder(in));
+        }
+
+        int poolSize = in.readInt();
+        Set<String> stockPool = new HashSet<>(poolSize * 2);
+        for (int i = 0; i < poolSize; i++) {
+            stockPool.add(in.readUTF());
+        }
+        strategyEngine.setStockPool(stockPool);
+
+        Map<String, Ticker> tickers = strategyEngine.getSymbolTickerMap();
+        tickers.clear();
+        int tickerCount = in.readInt();
+        for (int i = 0; i < tickerCount; i++) {
+            tickers.put(in.readUTF(), CheckpointCodec.readTicker(in));
+        }
+
+        Map<String, List<Bar>> bars = strategyEngine.getSymbolBarsMap();
+        bars.clear();
+        int barsCount = in.readInt();
+        for (int i = 0; i < barsCount; i++) {
+            bars.put(in.readUTF(), CheckpointCodec.readBars(in));
+        }
+
+        List<Bar> marketBars = CheckpointCodec.readBars(in);
+        strategyEngine.setMarketData(marketBars, CheckpointCodec.readTicker(in));
+    }
+
+    /**
+     * 在其他组件之后加入策略中实现了 {@link Checkpointable} 的因子，同一实例只加入一次
+     * @param strategyEngine 策略引擎
+     * @param components 其他可检查点组件
+     * @return 全部可检查点组件
+     */
+    private static List<Checkpointable> withFactors(StrategyEngine strategyEngine, List<Checkpointable> components) {
+        List<Object> factors = new ArrayList<>();
+        factors.addAll(strategyEngine.getBuyFactors());
+        factors.addAll(strategyEngine.getSellFactors());
+        factors.add(strategyEngine.getPickTimeFactor());
+        factors.add(strategyEngine.getPickStockFactor());
+
+        List<Checkpointable> all = new ArrayList<>(components);
+        Set<Object> added = Collections.newSetFromMap(new IdentityHashMap<>());
+        added.addAll(components);
+        for (Object factor : factors) {
+            if (factor instanceof Checkpointable && added.add(factor)) {
+                all.add((Checkpointable) factor);
+            }
+        }
+        return all;
+    }
+
+    /**
+     * 计算配置指纹，开始日期、股票列表、初始资金或检查点标识变化后旧检查点即失效
+     * 结束日期不参与指纹：延长回测区间后可以从检查点继续，游标之前的状态与结束日期无关
+     * @param config 回测配置
+     * @return 配置指纹
+     */
+    static long fingerprint(BacktestConfig config) {
+        List<Object> parts = new ArrayList<>();
+        parts.add(config.getStartDate());
+        parts.add(new TreeSet<>(config.getSymbols()));
+        parts.add(config.getInitialCapital());
+        parts.add(config.getCheckpointTag());
+        long hash = 1125899906842597L;
+        for (char c : parts.toString().toCharArray()) {
+            hash = 31 * hash + c;
+        }
+        return hash;
+    }
+}
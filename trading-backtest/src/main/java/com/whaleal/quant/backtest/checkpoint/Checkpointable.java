@@ -0,0 +1,35 @@
+package com.whaleal.quant.backtest.checkpoint;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 可检查点组件
+ * 需要随回测一起保存和恢复内部状态（如随机数种子、滑点模型状态）的组件实现此接口
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public interface Checkpointable {
+
+    /**
+     * 获取检查点键，在同一回测中必须唯一
+     * @return 检查点键
+     */
+    String getCheckpointKey();
+
+    /**
+     * 写出状态
+     * @param out 输出
+     * @throws IOException 写出失败
+     */
+    void writeState(DataOutput out) throws IOException;
+
+    /**
+     * 读取状态
+     * @param in 输入
+     * @throws IOException 读取失败
+     */
+    void readState(DataInput in) throws IOException;
+}
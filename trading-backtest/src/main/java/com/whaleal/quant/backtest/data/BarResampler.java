@@ -0,0 +1,266 @@
+package com.whaleal.quant.backtest.data;
+
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * K线重采样器
+ * 在一次流式遍历中由最细周期的K线同时生成多个更粗周期的K线（如 1m → 5m → 1h → 1d）
+ *
+ * <p>每个目标周期从能整除它的最粗的已有周期级联生成，例如 1h 由 5m 合成而不是由 1m 合成；
+ * 周期按自 UTC 纪元起的固定秒数对齐，未收盘的K线在 {@link #finish()} 时输出
+ *
+ * <p>同一交易对的K线必须按时间顺序输入，不同交易对可以交错；该类不是线程安全的
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class BarResampler {
+
+    private final Interval sourceInterval;
+
+    /**
+     * 目标周期，按从细到粗排列
+     */
+    private final Interval[] levels;
+
+    /**
+     * 每个目标周期的上级来源，-1 表示直接由原始K线生成
+     */
+    private final int[] parents;
+
+    private final Map<String, SymbolState> states;
+    private final Map<String, List<Bar>> sourceBars;
+    private final List<Map<String, List<Bar>>> levelBars;
+
+    /**
+     * 构造方法
+     * @param sourceInterval 输入K线周期
+     * @param targetIntervals 目标周期，必须是输入周期的整数倍
+     */
+    public BarResampler(Interval sourceInterval, Collection<Interval> targetIntervals) {
+        this.sourceInterval = sourceInterval;
+
+        TreeSet<Interval> sorted = new TreeSet<>((a, b) -> Integer.compare(a.getSeconds(), b.getSeconds()));
+        for (Interval target : targetIntervals) {
+            if (target == sourceInterval) {
+                continue;
+            }
+            if (target.getSeconds() < sourceInterval.getSeconds() || target.getSeconds() % sourceInterval.getSeconds() != 0) {
+                throw new IllegalArgumentException("Interval " + target.getCode() + " is not a multiple of " + sourceInterval.getCode());
+            }
+            sorted.add(target);
+        }
+        this.levels = sorted.toArray(new Interval[0]);
+
+        this.parents = new int[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            parents[i] = -1;
+            for (int j = i - 1; j >= 0; j--) {
+                if (levels[i].getSeconds() % levels[j].getSeconds() == 0) {
+                    parents[i] = j;
+                    break;
+                }
+            }
+        }
+
+        this.states = new HashMap<>();
+        this.sourceBars = new HashMap<>();
+        this.levelBars = new ArrayList<>(levels.length);
+        for (int i = 0; i < levels.length; i++) {
+            levelBars.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * 对一组K线做重采样
+     * @param bars 输入K线，同一交易对按时间排序
+     * @param sourceInterval 输入K线周期
+     * @param targetIntervals 目标周期
+     * @return 多周期K线
+     */
+    public static MultiResolutionBars resample(List<Bar> bars, Interval sourceInterval, Collection<Interval> targetIntervals) {
+        BarResampler resampler = new BarResampler(sourceInterval, targetIntervals);
+        for (Bar bar : bars) {
+            resampler.accept(bar);
+        }
+        return resampler.finish();
+    }
+
+    /**
+     * 输入一根K线
+     * @param bar K线
+     */
+    public void accept(Bar bar) {
+        if (bar.getInterval() != null && bar.getInterval() != sourceInterval) {
+            throw new IllegalArgumentException("Expected " + sourceInterval.getCode() + " bar but got " + bar.getInterval().getCode());
+        }
+        String symbol = bar.getSymbol();
+        SymbolState state = states.get(symbol);
+        if (state == null) {
+            state = new SymbolState(levels.length);
+            states.put(symbol, state);
+        }
+
+        long epochSecond = bar.getTimestamp().getEpochSecond();
+        if (epochSecond < state.lastEpochSecond) {
+            throw new IllegalArgumentException("Bars for " + symbol + " must be in time order: " + bar.getTimestamp());
+        }
+        state.lastEpochSecond = epochSecond;
+
+        sourceBars.computeIfAbsent(symbol, k -> new ArrayList<>()).add(bar);
+        propagate(symbol, state, -1, bar);
+    }
+
+    /**
+     * 输出所有未收盘的K线并返回结果，之后不能再输入
+     * @return 多周期K线
+     */
+    public MultiResolutionBars finish() {
+        for (Map.Entry<String, SymbolState> entry : states.entrySet()) {
+            // 由细到粗依次收尾，细周期收尾时产生的K线会先进入粗周期的桶
+            for (int level = 0; level < levels.length; level++) {
+                flush(entry.getKey(), entry.getValue(), level);
+            }
+        }
+        states.clear();
+
+        Map<Interval, Map<String, List<Bar>>> result = new EnumMap<>(Interval.class);
+        result.put(sourceInterval, sourceBars);
+        for (int level = 0; level < levels.length; level++) {
+            result.put(levels[level], levelBars.get(level));
+        }
+        return new MultiResolutionBars(sourceInterval, result);
+    }
+
+    /**
+     * 将一根已完成的K线送入以 {@code fromLevel} 为来源的所有目标周期
+     */
+    private void propagate(String symbol, SymbolState state, int fromLevel, Bar bar) {
+        for (int level = fromLevel + 1; level < levels.length; level++) {
+            if (parents[level] != fromLevel) {
+                continue;
+            }
+            long seconds = levels[level].getSeconds();
+            long bucketStart = Math.floorDiv(bar.getTimestamp().getEpochSecond(), seconds) * seconds;
+            Bucket bucket = state.buckets[level];
+            if (bucket.count > 0 && bucket.start != bucketStart) {
+                flush(symbol, state, level);
+            }
+            bucket.add(bucketStart, bar);
+        }
+    }
+
+    private void flush(String symbol, SymbolState state, int level) {
+        Bucket bucket = state.buckets[level];
+        if (bucket.count == 0) {
+            return;
+        }
+        Bar bar = bucket.toBar(symbol, levels[level]);
+        bucket.reset();
+        levelBars.get(level).computeIfAbsent(symbol, k -> new ArrayList<>()).add(bar);
+        propagate(symbol, state, level, bar);
+    }
+
+    /**
+     * 单个交易对的聚合状态
+     */
+    private static final class SymbolState {
+        private final Bucket[] buckets;
+        private long lastEpochSecond = Long.MIN_VALUE;
+
+        SymbolState(int levelCount) {
+            this.buckets = new Bucket[levelCount];
+            for (int i = 0; i < levelCount; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+    }
+
+    /**
+     * 聚合中的K线
+     */
+    private static final class Bucket {
+        private long start;
+        private int count;
+        private BigDecimal open;
+        private BigDecimal high;
+        private BigDecimal low;
+        private BigDecimal close;
+        private BigDecimal volume;
+        private BigDecimal amount;
+
+        void add(long bucketStart, Bar bar) {
+            if (count == 0) {
+                start = bucketStart;
+                open = bar.getOpen();
+                high = bar.getHigh();
+                low = bar.getLow();
+                volume = bar.getVolume();
+                amount = bar.getAmount();
+            } else {
+                high = max(high, bar.getHigh());
+                low = min(low, bar.getLow());
+                volume = sum(volume, bar.getVolume());
+                amount = sum(amount, bar.getAmount());
+            }
+            close = bar.getClose();
+            count++;
+        }
+
+        Bar toBar(String symbol, Interval interval) {
+            Bar bar = new Bar();
+            bar.setSymbol(symbol);
+            bar.setInterval(interval);
+            bar.setTimestamp(Instant.ofEpochSecond(start));
+            bar.setOpen(open);
+            bar.setHigh(high);
+            bar.setLow(low);
+            bar.setClose(close);
+            bar.setVolume(volume);
+            bar.setAmount(amount);
+            return bar;
+        }
+
+        void reset() {
+            count = 0;
+            open = null;
+            high = null;
+            low = null;
+            close = null;
+            volume = null;
+            amount = null;
+        }
+
+        private static BigDecimal max(BigDecimal a, BigDecimal b) {
+            if (a == null) {
+                return b;
+            }
+            return b != null && b.compareTo(a) > 0 ? b : a;
+        }
+
+        private static BigDecimal min(BigDecimal a, BigDecimal b) {
+            if (a == null) {
+                return b;
+            }
+            return b != null && b.compareTo(a) < 0 ? b : a;
+        }
+
+        private static BigDecimal sum(BigDecimal a, BigDecimal b) {
+            if (a == null) {
+                return b;
+            }
+            return b != null ? a.add(b) : a;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.whaleal.quant.backtest.data;
+
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * K线序列数据提供者
+ * 以内存中某一周期的K线驱动回测，每根K线生成一个市场数据事件，按 UTC 日期划分交易日
+ *
+ * <p>事件在构造时一次性生成并只读共享，可同时供多个回测使用；loadData 不会重新读取数据，
+ * 提供的交易对即构造时传入的全部交易对
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class BarSeriesDataProvider implements BacktestDataProvider {
+
+    private static final String SOURCE = "bar-series";
+
+    private final Interval interval;
+    private final TreeMap<LocalDate, Map<String, List<MarketDataEvent>>> eventsByDay;
+
+    /**
+     * 构造方法
+     * @param bars 多周期K线
+     * @param interval 使用的周期
+     */
+    public BarSeriesDataProvider(MultiResolutionBars bars, Interval interval) {
+        this(bars.getBars(interval), interval);
+    }
+
+    /**
+     * 构造方法
+     * @param barsBySymbol 按交易对分组、按时间排序的K线
+     * @param interval K线周期
+     */
+    public BarSeriesDataProvider(Map<String, List<Bar>> barsBySymbol, Interval interval) {
+        this.interval = interval;
+        this.eventsByDay = new TreeMap<>();
+        for (Map.Entry<String, List<Bar>> entry : barsBySymbol.entrySet()) {
+            String symbol = entry.getKey();
+            for (Bar bar : entry.getValue()) {
+                long timestamp = bar.getTimestamp().toEpochMilli();
+                LocalDate day = bar.getTimestamp().atOffset(ZoneOffset.UTC).toLocalDate();
+                MarketDataEvent event = MarketDataEvent.builder()
+                        .eventId(symbol + "-" + interval.getCode() + "-" + timestamp)
+                        .symbol(symbol)
+                        .bars(Collections.singletonList(bar))
+                        .timestamp(timestamp)
+                        .source(SOURCE)
+                        .build();
+                eventsByDay.computeIfAbsent(day, k -> new HashMap<>())
+                        .computeIfAbsent(symbol, k -> new ArrayList<>())
+                        .add(event);
+            }
+        }
+    }
+
+    public Interval getInterval() {
+        return interval;
+    }
+
+    @Override
+    public void loadData(Set<String> symbols, LocalDateTime startDate, LocalDateTime endDate) {
+        // 数据已在构造时就绪
+    }
+
+    @Override
+    public Map<String, List<MarketDataEvent>> getMarketDataEvents(LocalDateTime date) {
+        Map<String, List<MarketDataEvent>> dayEvents = eventsByDay.get(date.toLocalDate());
+        return dayEvents != null ? dayEvents : Collections.emptyMap();
+    }
+
+    @Override
+    public boolean isTradingDay(LocalDateTime date) {
+        return eventsByDay.containsKey(date.toLocalDate());
+    }
+
+    @Override
+    public LocalDateTime getNextTradingDay(LocalDateTime date) {
+        LocalDate next = eventsByDay.higherKey(date.toLocalDate());
+        return next != null ? next.atStartOfDay() : null;
+    }
+
+    @Override
+    public LocalDateTime getPreviousTradingDay(LocalDateTime date) {
+        LocalDate previous = eventsByDay.lowerKey(date.toLocalDate());
+        return previous != null ? previous.atStartOfDay() : null;
+    }
+
+    @Override
+    public List<LocalDateTime> getTradingDays(LocalDateTime startDate, LocalDateTime endDate) {
+        List<LocalDateTime> days = new ArrayList<>();
+        for (LocalDate day : eventsByDay.subMap(startDate.toLocalDate(), true, endDate.toLocalDate(), true).keySet()) {
+            days.add(day.atStartOfDay());
+        }
+        return days;
+    }
+
+    @Override
+    public void cleanup() {
+        // 数据由持有者共享，这里不释放
+    }
+}
@@ -0,0 +1,237 @@
+package com.whaleal.quant.backtest.data;
+
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 市场数据快照
+ * 从数据提供者一次性加载指定区间的数据并复制为不可变结构，之后源数据提供者即被清理。
+ * 快照构建完成后不再有任何写操作，可供任意数量的回测引擎并发读取，无需加锁也不会重复加载
+ *
+ * <p>交易日按日期匹配；cleanup 不释放数据，快照随持有者一起被回收
+ *
+ * <p>回测引擎通过 {@link #view()} 读取：视图与快照共享数据，loadData 校验覆盖范围并记录本引擎请求的交易对，
+ * 之后 getMarketDataEvents 只返回这些交易对。快照本身被多个引擎共享，loadData 只校验不记录
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class MarketDataSnapshot implements BacktestDataProvider {
+
+    private final Set<String> symbols;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final TreeMap<LocalDate, LocalDateTime> tradingDays;
+    private final Map<LocalDate, Map<String, List<MarketDataEvent>>> events;
+    private final boolean view;
+
+    /**
+     * 视图请求的交易对，为空时不过滤
+     */
+    private Set<String> requestedSymbols;
+
+    private MarketDataSnapshot(Set<String> symbols, LocalDateTime startDate, LocalDateTime endDate,
+                               TreeMap<LocalDate, LocalDateTime> tradingDays,
+                               Map<LocalDate, Map<String, List<MarketDataEvent>>> events, boolean view) {
+        this.symbols = symbols;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.tradingDays = tradingDays;
+        this.events = events;
+        this.view = view;
+    }
+
+    /**
+     * 从数据提供者加载并复制数据
+     * @param source 源数据提供者，复制完成后会被清理
+     * @param symbols 交易对符号集合
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 市场数据快照
+     */
+    public static MarketDataSnapshot capture(BacktestDataProvider source, Set<String> symbols,
+                                             LocalDateTime startDate, LocalDateTime endDate) {
+        if (source instanceof MarketDataSnapshot) {
+            MarketDataSnapshot snapshot = (MarketDataSnapshot) source;
+            snapshot.checkCovers(symbols, startDate, endDate);
+            return snapshot;
+        }
+
+        TreeMap<LocalDate, LocalDateTime> tradingDays = new TreeMap<>();
+        Map<LocalDate, Map<String, List<MarketDataEvent>>> events = new HashMap<>();
+        source.loadData(symbols, startDate, endDate);
+        try {
+            for (LocalDateTime day : source.getTradingDays(startDate, endDate)) {
+                LocalDate date = day.toLocalDate();
+                tradingDays.put(date, day);
+                Map<String, List<MarketDataEvent>> dayEvents = source.getMarketDataEvents(day);
+                if (dayEvents == null || dayEvents.isEmpty()) {
+                    continue;
+                }
+                Map<String, List<MarketDataEvent>> copy = new HashMap<>(dayEvents.size() * 2);
+                for (Map.Entry<String, List<MarketDataEvent>> entry : dayEvents.entrySet()) {
+                    copy.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+                }
+                events.put(date, Collections.unmodifiableMap(copy));
+            }
+        } finally {
+            source.cleanup();
+        }
+        return new MarketDataSnapshot(Collections.unmodifiableSet(new LinkedHashSet<>(symbols)),
+                startDate, endDate, tradingDays, events, false);
+    }
+
+    /**
+     * 创建供单个回测引擎使用的视图
+     * 视图共享快照数据，loadData 记录的交易对只对该视图生效
+     * @return 快照视图
+     */
+    public MarketDataSnapshot view() {
+        return new MarketDataSnapshot(symbols, startDate, endDate, tradingDays, events, true);
+    }
+
+    @Override
+    public void loadData(Set<String> symbols, LocalDateTime startDate, LocalDateTime endDate) {
+        checkCovers(symbols, startDate, endDate);
+        if (view) {
+            requestedSymbols = symbols.containsAll(this.symbols) ? null : Collections.unmodifiableSet(new HashSet<>(symbols));
+        }
+    }
+
+    @Override
+    public Map<String, List<MarketDataEvent>> getMarketDataEvents(LocalDateTime date) {
+        Map<String, List<MarketDataEvent>> dayEvents = events.get(date.toLocalDate());
+        if (dayEvents == null) {
+            return Collections.emptyMap();
+        }
+        Set<String> requested = requestedSymbols;
+        if (requested == null) {
+            return dayEvents;
+        }
+        Map<String, List<MarketDataEvent>> filtered = new HashMap<>(requested.size() * 2);
+        for (String symbol : requested) {
+            List<MarketDataEvent> symbolEvents = dayEvents.get(symbol);
+            if (symbolEvents != null) {
+                filtered.put(symbol, symbolEvents);
+            }
+        }
+        return Collections.unmodifiableMap(filtered);
+    }
+
+    @Override
+    public boolean isTradingDay(LocalDateTime date) {
+        return tradingDays.containsKey(date.toLocalDate());
+    }
+
+    @Override
+    public LocalDateTime getNextTradingDay(LocalDateTime date) {
+        Map.Entry<LocalDate, LocalDateTime> next = tradingDays.higherEntry(date.toLocalDate());
+        return next != null ? next.getValue() : null;
+    }
+
+    @Override
+    public LocalDateTime getPreviousTradingDay(LocalDateTime date) {
+        Map.Entry<LocalDate, LocalDateTime> previous = tradingDays.lowerEntry(date.toLocalDate());
+        return previous != null ? previous.getValue() : null;
+    }
+
+    @Override
+    public List<LocalDateTime> getTradingDays(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate.toLocalDate().isAfter(endDate.toLocalDate())) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(tradingDays.subMap(startDate.toLocalDate(), true, endDate.toLocalDate(), true).values());
+    }
+
+    @Override
+    public void cleanup() {
+        // 快照不可变，由持有者共享，这里不释放
+    }
+
+    public Set<String> getSymbols() {
+        return symbols;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * 获取交易日数量
+     * @return 交易日数量
+     */
+    public int getTradingDayCount() {
+        return tradingDays.size();
+    }
+
+    /**
+     * 按交易对汇总快照中行情事件携带的K线
+     * 同一时间戳只保留最后一根，没有K线的交易对对应空列表
+     * @return 按交易对分组、按时间升序排列的K线
+     */
+    public Map<String, List<Bar>> getBars() {
+        Map<String, TreeMap<Instant, Bar>> collected = new HashMap<>();
+        for (Map.Entry<LocalDate, LocalDateTime> day : tradingDays.entrySet()) {
+            Map<String, List<MarketDataEvent>> dayEvents = events.get(day.getKey());
+            if (dayEvents == null) {
+                continue;
+            }
+            for (Map.Entry<String, List<MarketDataEvent>> entry : dayEvents.entrySet()) {
+                TreeMap<Instant, Bar> bars = collected.computeIfAbsent(entry.getKey(), symbol -> new TreeMap<>());
+                for (MarketDataEvent event : entry.getValue()) {
+                    if (event.getBars() == null) {
+                        continue;
+                    }
+                    for (Bar bar : event.getBars()) {
+                        if (bar != null && bar.getTimestamp() != null) {
+                            bars.put(bar.getTimestamp(), bar);
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<String, List<Bar>> result = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            TreeMap<Instant, Bar> bars = collected.remove(symbol);
+            result.put(symbol, bars == null ? Collections.emptyList() : new ArrayList<>(bars.values()));
+        }
+        collected.forEach((symbol, bars) -> result.put(symbol, new ArrayList<>(bars.values())));
+        return result;
+    }
+
+    /**
+     * 校验请求的交易对和区间被快照覆盖
+     * @param symbols 交易对符号集合
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     */
+    private void checkCovers(Set<String> symbols, LocalDateTime startDate, LocalDateTime endDate) {
+        if (!this.symbols.containsAll(symbols)) {
+            throw new IllegalArgumentException("Snapshot does not contain all requested symbols: " + symbols);
+        }
+        if (startDate.toLocalDate().isBefore(this.startDate.toLocalDate())
+                || endDate.toLocalDate().isAfter(this.endDate.toLocalDate())) {
+            throw new IllegalArgumentException("Requested range " + startDate + " ~ " + endDate
+                    + " is outside snapshot range " + this.startDate + " ~ " + this.endDate);
+        }
+    }
+}
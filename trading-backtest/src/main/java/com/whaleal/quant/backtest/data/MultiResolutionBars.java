@@ -0,0 +1,87 @@
+package com.whaleal.quant.backtest.data;
+
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 多周期K线
+ * {@link BarResampler} 生成的各周期K线缓存，构建完成后只读，可被多个回测并发共享
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class MultiResolutionBars {
+
+    private final Interval sourceInterval;
+    private final Map<Interval, Map<String, List<Bar>>> bars;
+
+    /**
+     * 构造方法
+     * @param sourceInterval 原始K线周期
+     * @param bars 各周期按交易对分组的K线
+     */
+    public MultiResolutionBars(Interval sourceInterval, Map<Interval, Map<String, List<Bar>>> bars) {
+        this.sourceInterval = sourceInterval;
+        Map<Interval, Map<String, List<Bar>>> copy = new EnumMap<>(Interval.class);
+        for (Map.Entry<Interval, Map<String, List<Bar>>> entry : bars.entrySet()) {
+            Map<String, List<Bar>> bySymbol = new HashMap<>();
+            for (Map.Entry<String, List<Bar>> symbolEntry : entry.getValue().entrySet()) {
+                bySymbol.put(symbolEntry.getKey(), Collections.unmodifiableList(symbolEntry.getValue()));
+            }
+            copy.put(entry.getKey(), Collections.unmodifiableMap(bySymbol));
+        }
+        this.bars = Collections.unmodifiableMap(copy);
+    }
+
+    public Interval getSourceInterval() {
+        return sourceInterval;
+    }
+
+    /**
+     * 获取已生成的周期
+     * @return 周期集合
+     */
+    public Set<Interval> getIntervals() {
+        return bars.keySet();
+    }
+
+    /**
+     * 检查是否包含指定周期
+     * @param interval 周期
+     * @return 是否包含
+     */
+    public boolean hasInterval(Interval interval) {
+        return bars.containsKey(interval);
+    }
+
+    /**
+     * 获取指定周期按交易对分组的K线
+     * @param interval 周期
+     * @return K线映射
+     */
+    public Map<String, List<Bar>> getBars(Interval interval) {
+        Map<String, List<Bar>> result = bars.get(interval);
+        if (result == null) {
+            throw new IllegalArgumentException("Interval not resampled: " + interval.getCode());
+        }
+        return result;
+    }
+
+    /**
+     * 获取指定周期和交易对的K线
+     * @param interval 周期
+     * @param symbol 交易对符号
+     * @return K线列表
+     */
+    public List<Bar> getBars(Interval interval, String symbol) {
+        List<Bar> result = getBars(interval).get(symbol);
+        return result != null ? result : Collections.emptyList();
+    }
+}
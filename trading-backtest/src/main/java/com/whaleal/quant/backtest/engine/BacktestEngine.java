@@ -1,14 +1,20 @@
 package com.whaleal.quant.backtest.engine;
 
+import com.whaleal.quant.backtest.checkpoint.CheckpointManager;
+import com.whaleal.quant.backtest.checkpoint.Checkpointable;
 import com.whaleal.quant.backtest.data.BacktestDataProvider;
+import com.whaleal.quant.backtest.data.MarketDataSnapshot;
 import com.whaleal.quant.backtest.model.BacktestConfig;
 import com.whaleal.quant.backtest.model.BacktestContext;
+import com.whaleal.quant.backtest.profile.BacktestStage;
+import com.whaleal.quant.backtest.profile.DailyStageProfile;
+import com.whaleal.quant.backtest.profile.StageProfiler;
 import com.whaleal.quant.backtest.result.BacktestResult;
 import com.whaleal.quant.strategy.core.StrategyEngine;
-import com.whaleal.quant.model.trading.Order;
-import com.whaleal.quant.model.trading.Position;
 import com.whaleal.quant.strategy.event.MarketDataEvent;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
@@ -28,10 +34,16 @@ public class BacktestEngine {
     private final BacktestDataProvider dataProvider;
     private final StrategyEngine strategyEngine;
     private final List<BacktestListener> listeners;
+    private final List<Checkpointable> checkpointables;
 
     private BacktestContext context;
     private boolean isRunning;
 
+    private CheckpointManager checkpointManager;
+    private long nextCheckpointNanos;
+
+    private StageProfiler profiler;
+
     /**
      * 构造方法
      * @param config 回测配置
@@ -40,10 +52,15 @@ public class BacktestEngine {
      */
     public BacktestEngine(BacktestConfig config, BacktestDataProvider dataProvider, StrategyEngine strategyEngine) {
         this.config = config;
-        this.dataProvider = dataProvider;
+        // 共享快照通过视图读取，只返回本引擎配置的交易对
+        this.dataProvider = dataProvider instanceof MarketDataSnapshot ? ((MarketDataSnapshot) dataProvider).view() : dataProvider;
         this.strategyEngine = strategyEngine;
         this.listeners = new ArrayList<>();
+        this.checkpointables = new ArrayList<>();
         this.isRunning = false;
+        if (dataProvider instanceof Checkpointable) {
+            checkpointables.add((Checkpointable) dataProvider);
+        }
     }
 
     /**
@@ -62,8 +79,17 @@ public class BacktestEngine {
         listeners.remove(listener);
     }
 
+    /**
+     * 添加可检查点组件，其状态（如随机数种子）随检查点一起保存和恢复
+     * @param checkpointable 可检查点组件
+     */
+    public void addCheckpointable(Checkpointable checkpointable) {
+        checkpointables.add(checkpointable);
+    }
+
     /**
      * 执行回测
+     * 配置了检查点目录时，会定期写入检查点，并在重新运行时从最近一次检查点继续
      * @return 回测结果
      */
     public BacktestResult run() {
@@ -77,19 +103,36 @@ public class BacktestEngine {
 
             // 初始化回测上下文
             context = new BacktestContext(config);
+            profiler = config.isProfilingEnabled() ? new StageProfiler() : null;
 
             // 加载回测数据
             notifyDataLoading();
+            long loadStart = profiler != null ? profiler.begin() : 0L;
             dataProvider.loadData(config.getSymbols(), config.getStartDate(), config.getEndDate());
+            if (profiler != null) {
+                profiler.end(BacktestStage.DATA_LOADING, loadStart);
+            }
+
+            // 从检查点恢复
+            LocalDateTime startDate = restoreFromCheckpoint();
 
             // 执行回测
             notifyBacktestStarting();
-            executeBacktest();
+            LocalDateTime lastDate = executeBacktest(startDate);
 
             // 生成回测结果
             notifyResultGenerating();
             BacktestResult result = generateResult();
 
+            // 回测完成后检查点不再需要，除非配置保留以便延长区间后继续
+            if (checkpointManager != null) {
+                if (!config.isRetainFinalCheckpoint()) {
+                    checkpointManager.delete();
+                } else if (lastDate != null) {
+                    checkpointManager.save(lastDate, context, strategyEngine, checkpointables);
+                }
+            }
+
             notifyComplete(result);
             return result;
 
@@ -101,20 +144,53 @@ public class BacktestEngine {
         }
     }
 
+    /**
+     * 初始化检查点并尝试恢复
+     * @return 回测起始日期
+     * @throws IOException 读取检查点失败
+     */
+    private LocalDateTime restoreFromCheckpoint() throws IOException {
+        checkpointManager = null;
+        if (config.getCheckpointDirectory() == null) {
+            return config.getStartDate();
+        }
+
+        checkpointManager = new CheckpointManager(Paths.get(config.getCheckpointDirectory()), strategyEngine.getStrategyName(), config);
+        nextCheckpointNanos = System.nanoTime() + config.getCheckpointIntervalMillis() * 1_000_000L;
+
+        if (!config.isResumeFromCheckpoint()) {
+            return config.getStartDate();
+        }
+        LocalDateTime cursor = checkpointManager.restore(context, strategyEngine, checkpointables, config.getEndDate());
+        return cursor == null ? config.getStartDate() : getNextTradingDay(cursor);
+    }
+
     /**
      * 执行回测核心逻辑
+     * @param startDate 起始日期
+     * @return 最后一个处理完毕的交易日，没有处理任何交易日时返回 null
      */
-    private void executeBacktest() {
-        LocalDateTime currentDate = config.getStartDate();
+    private LocalDateTime executeBacktest(LocalDateTime startDate) {
+        LocalDateTime currentDate = startDate;
         LocalDateTime endDate = config.getEndDate();
+        LocalDateTime lastDate = null;
 
         while (!currentDate.isAfter(endDate)) {
             // 处理当日数据
             processDailyData(currentDate);
 
+            // 定期写入检查点
+            checkpointIfDue(currentDate);
+
+            if (profiler != null) {
+                notifyStageProfile(currentDate, profiler.endDay(currentDate));
+            }
+
             // 移动到下一个交易日
+            lastDate = currentDate;
             currentDate = getNextTradingDay(currentDate);
         }
+        return lastDate;
     }
 
     /**
@@ -123,10 +199,27 @@ public class BacktestEngine {
      */
     private void processDailyData(LocalDateTime date) {
         // 获取当日所有股票的市场数据
+        long stageStart = profiler != null ? profiler.begin() : 0L;
         Map<String, List<MarketDataEvent>> dailyEvents = dataProvider.getMarketDataEvents(date);
+        if (profiler != null) {
+            profiler.end(BacktestStage.DATA_DECODING, stageStart);
+            stageStart = profiler.begin();
+        }
+
+        // 以当日最后一笔行情盯市
+        context.markToMarket(dailyEvents);
+        if (profiler != null) {
+            profiler.end(BacktestStage.MARK_TO_MARKET, stageStart);
+        }
+
+        if (dailyEvents.isEmpty()) {
+            endOfDayProcessing(date);
+            return;
+        }
 
         // 并行处理每个股票的事件
         ExecutorService executor = Executors.newFixedThreadPool(Math.min(10, dailyEvents.size()));
+        long strategyStart = System.nanoTime();
 
         try {
             for (Map.Entry<String, List<MarketDataEvent>> entry : dailyEvents.entrySet()) {
@@ -134,9 +227,15 @@ public class BacktestEngine {
                 List<MarketDataEvent> events = entry.getValue();
 
                 executor.submit(() -> {
+                    if (profiler != null) {
+                        profiler.beginThreadTime();
+                    }
                     for (MarketDataEvent event : events) {
                         strategyEngine.onMarketData(event);
                     }
+                    if (profiler != null) {
+                        profiler.endThreadTime(BacktestStage.STRATEGY);
+                    }
                 });
             }
 
@@ -150,6 +249,9 @@ public class BacktestEngine {
                 executor.shutdownNow();
             }
         }
+        if (profiler != null) {
+            profiler.addWallTime(BacktestStage.STRATEGY, System.nanoTime() - strategyStart);
+        }
 
         // 每日结束时的处理
         endOfDayProcessing(date);
@@ -161,20 +263,53 @@ public class BacktestEngine {
      */
     private void endOfDayProcessing(LocalDateTime date) {
         // 更新回测上下文
+        long stageStart = profiler != null ? profiler.begin() : 0L;
         context.updateDailyStats(date);
+        if (profiler != null) {
+            profiler.end(BacktestStage.END_OF_DAY, stageStart);
+        }
 
         // 触发每日结束事件
         notifyEndOfDay(date);
     }
 
+    /**
+     * 到达检查点间隔时写入检查点
+     * 两次检查点的间隔至少为单次写入耗时的100倍，保证检查点开销低于1%
+     * @param date 已处理完毕的日期
+     */
+    private void checkpointIfDue(LocalDateTime date) {
+        if (checkpointManager == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (start < nextCheckpointNanos) {
+            return;
+        }
+
+        long stageStart = profiler != null ? profiler.begin() : 0L;
+        try {
+            checkpointManager.save(date, context, strategyEngine, checkpointables);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write checkpoint", e);
+        }
+        if (profiler != null) {
+            profiler.end(BacktestStage.CHECKPOINT, stageStart);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long interval = Math.max(config.getCheckpointIntervalMillis() * 1_000_000L, elapsed * 100);
+        nextCheckpointNanos = System.nanoTime() + interval;
+    }
+
     /**
      * 获取下一个交易日
      * @param currentDate 当前日期
-     * @return 下一个交易日
+     * @return 下一个交易日，超出回测区间时返回区间之后的日期
      */
     private LocalDateTime getNextTradingDay(LocalDateTime currentDate) {
         LocalDateTime nextDate = currentDate.plusDays(1);
-        while (!dataProvider.isTradingDay(nextDate)) {
+        while (!nextDate.isAfter(config.getEndDate()) && !dataProvider.isTradingDay(nextDate)) {
             nextDate = nextDate.plusDays(1);
         }
         return nextDate;
@@ -185,22 +320,7 @@ public class BacktestEngine {
      * @return 回测结果
      */
     private BacktestResult generateResult() {
-        // 收集回测数据
-        Map<String, List<Order>> orders = context.getOrders();
-        Map<String, List<Position>> positions = context.getPositions();
-        Map<String, Double> pnl = context.getPnL();
-        Map<String, Double> metrics = context.getMetrics();
-
-        // 创建回测结果
-        return BacktestResult.builder()
-                .config(config)
-                .orders(orders)
-                .positions(positions)
-                .pnl(pnl)
-                .metrics(metrics)
-                .startDate(config.getStartDate())
-                .endDate(config.getEndDate())
-                .build();
+        return BacktestResult.fromContext(context, profiler != null ? profiler.snapshot() : null);
     }
 
     /**
@@ -269,6 +389,17 @@ public class BacktestEngine {
         }
     }
 
+    /**
+     * 通知每日阶段耗时
+     * @param date 日期
+     * @param profile 当日阶段耗时
+     */
+    private void notifyStageProfile(LocalDateTime date, DailyStageProfile profile) {
+        for (BacktestListener listener : listeners) {
+            listener.onStageProfile(this, date, profile);
+        }
+    }
+
     /**
      * Builder 类
      */
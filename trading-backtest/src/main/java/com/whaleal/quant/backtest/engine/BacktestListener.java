@@ -1,5 +1,6 @@
 package com.whaleal.quant.backtest.engine;
 
+import com.whaleal.quant.backtest.profile.DailyStageProfile;
 import com.whaleal.quant.backtest.result.BacktestResult;
 
 import java.time.LocalDateTime;
@@ -42,6 +43,15 @@ public interface BacktestListener {
     default void onEndOfDay(BacktestEngine engine, LocalDateTime date) {
     }
 
+    /**
+     * 每日阶段耗时事件，仅在开启性能分析时触发
+     * @param engine 回测引擎
+     * @param date 日期
+     * @param profile 当日阶段耗时
+     */
+    default void onStageProfile(BacktestEngine engine, LocalDateTime date, DailyStageProfile profile) {
+    }
+
     /**
      * 结果生成事件
      * @param engine 回测引擎
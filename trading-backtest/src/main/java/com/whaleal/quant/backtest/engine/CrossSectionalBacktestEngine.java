@@ -0,0 +1,334 @@
+package com.whaleal.quant.backtest.engine;
+
+import com.whaleal.quant.backtest.data.BacktestDataProvider;
+import com.whaleal.quant.backtest.data.MarketDataSnapshot;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.model.BacktestContext;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 横截面回测引擎
+ * 面向需要在同一时间点看到全部交易对数据后才能决策的策略（如按因子对股票池排序选股）
+ *
+ * <p>交易对按名称排序后轮流分到固定数量的分区，每个分区由一个线程执行按交易对独立的数据更新；
+ * 每个时间点所有分区在屏障处汇合，由一个线程完成盯市和横截面决策后再进入下一个时间点。
+ * 分区只与交易对集合和线程数有关，横截面决策看到的交易对按名称排序，因此多次运行结果一致
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class CrossSectionalBacktestEngine {
+
+    private final BacktestConfig config;
+    private final BacktestDataProvider dataProvider;
+    private final CrossSectionalStrategy strategy;
+    private final int parallelThreads;
+
+    private BacktestContext context;
+    private boolean isRunning;
+
+    /**
+     * 构造方法
+     * @param config 回测配置
+     * @param dataProvider 数据提供者
+     * @param strategy 横截面策略
+     * @param parallelThreads 并行线程数
+     */
+    public CrossSectionalBacktestEngine(BacktestConfig config, BacktestDataProvider dataProvider, CrossSectionalStrategy strategy, int parallelThreads) {
+        this.config = config;
+        // 共享快照通过视图读取，只返回本引擎配置的交易对
+        this.dataProvider = dataProvider instanceof MarketDataSnapshot ? ((MarketDataSnapshot) dataProvider).view() : dataProvider;
+        this.strategy = strategy;
+        this.parallelThreads = parallelThreads;
+        this.isRunning = false;
+    }
+
+    /**
+     * 执行回测
+     * @return 回测结果
+     */
+    public BacktestResult run() {
+        if (isRunning) {
+            throw new IllegalStateException("Backtest is already running");
+        }
+
+        isRunning = true;
+        ExecutorService executor = parallelThreads > 1 ? Executors.newFixedThreadPool(parallelThreads) : null;
+        try {
+            context = new BacktestContext(config);
+            dataProvider.loadData(config.getSymbols(), config.getStartDate(), config.getEndDate());
+
+            LocalDateTime currentDate = config.getStartDate();
+            while (!currentDate.isAfter(config.getEndDate())) {
+                processDailyData(currentDate, executor);
+                currentDate = getNextTradingDay(currentDate);
+            }
+
+            return BacktestResult.fromContext(context);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            isRunning = false;
+        }
+    }
+
+    /**
+     * 处理每日数据
+     * @param date 日期
+     * @param executor 线程池，单线程时为空
+     */
+    private void processDailyData(LocalDateTime date, ExecutorService executor) {
+        Map<String, List<MarketDataEvent>> dailyEvents = dataProvider.getMarketDataEvents(date);
+        if (!dailyEvents.isEmpty()) {
+            DaySchedule schedule = new DaySchedule(dailyEvents, executor != null ? parallelThreads : 1);
+            schedule.run(executor);
+        }
+        context.updateDailyStats(date);
+    }
+
+    /**
+     * 获取下一个交易日
+     * @param currentDate 当前日期
+     * @return 下一个交易日，超出回测区间时返回区间之后的日期
+     */
+    private LocalDateTime getNextTradingDay(LocalDateTime currentDate) {
+        LocalDateTime nextDate = currentDate.plusDays(1);
+        while (!nextDate.isAfter(config.getEndDate()) && !dataProvider.isTradingDay(nextDate)) {
+            nextDate = nextDate.plusDays(1);
+        }
+        return nextDate;
+    }
+
+    public BacktestContext getContext() {
+        return context;
+    }
+
+    /**
+     * 单个交易日的执行计划
+     * 按时间点推进，每个时间点各分区先并行更新，再在屏障处执行一次横截面决策
+     */
+    private final class DaySchedule {
+        private final long[] timeline;
+        private final Partition[] partitions;
+        private final CyclicBarrier barrier;
+        private int step;
+
+        DaySchedule(Map<String, List<MarketDataEvent>> dailyEvents, int threads) {
+            String[] symbols = dailyEvents.keySet().toArray(new String[0]);
+            Arrays.sort(symbols);
+
+            int partitionCount = Math.min(threads, symbols.length);
+            this.partitions = new Partition[partitionCount];
+            for (int p = 0; p < partitionCount; p++) {
+                partitions[p] = new Partition((symbols.length - p + partitionCount - 1) / partitionCount);
+            }
+
+            int eventCount = 0;
+            for (int i = 0; i < symbols.length; i++) {
+                List<MarketDataEvent> events = new ArrayList<>(dailyEvents.get(symbols[i]));
+                events.sort(Comparator.comparingLong(MarketDataEvent::getTimestamp));
+                partitions[i % partitionCount].add(symbols[i], events);
+                eventCount += events.size();
+            }
+
+            // 合并所有事件的时间点
+            long[] timestamps = new long[eventCount];
+            int index = 0;
+            for (List<MarketDataEvent> events : dailyEvents.values()) {
+                for (MarketDataEvent event : events) {
+                    timestamps[index++] = event.getTimestamp();
+                }
+            }
+            Arrays.sort(timestamps);
+            int size = 0;
+            for (int i = 0; i < timestamps.length; i++) {
+                if (size == 0 || timestamps[i] != timestamps[size - 1]) {
+                    timestamps[size++] = timestamps[i];
+                }
+            }
+            this.timeline = Arrays.copyOf(timestamps, size);
+            this.barrier = new CyclicBarrier(partitionCount, this::crossSection);
+        }
+
+        void run(ExecutorService executor) {
+            if (partitions.length == 1) {
+                try {
+                    partitions[0].call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException("Cross-sectional backtest failed", e);
+                }
+                return;
+            }
+
+            List<Future<Void>> futures = new ArrayList<>(partitions.length);
+            for (Partition partition : partitions) {
+                futures.add(executor.submit(partition));
+            }
+
+            // 屏障被打破时其他分区只会报告 BrokenBarrierException，优先抛出真正的原因
+            Throwable failure = null;
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    barrier.reset();
+                    throw new RuntimeException("Backtest interrupted", e);
+                } catch (ExecutionException e) {
+                    if (failure == null || failure instanceof BrokenBarrierException) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+            if (failure != null) {
+                throw new RuntimeException("Cross-sectional backtest failed", failure);
+            }
+        }
+
+        /**
+         * 屏障动作：所有分区完成当前时间点的更新后，在单个线程上盯市并做横截面决策
+         */
+        private void crossSection() {
+            long timestamp = timeline[step++];
+            List<String> updatedSymbols = new ArrayList<>();
+            for (Partition partition : partitions) {
+                for (int i = 0; i < partition.updatedCount; i++) {
+                    MarketDataEvent event = partition.updated[i];
+                    context.markToMarket(event.getSymbol(), event);
+                    updatedSymbols.add(event.getSymbol());
+                }
+                partition.updatedCount = 0;
+            }
+            Collections.sort(updatedSymbols);
+            strategy.onCrossSection(timestamp, Collections.unmodifiableList(updatedSymbols), context);
+        }
+
+        /**
+         * 分区，持有若干交易对的当日事件和读取游标
+         */
+        private final class Partition implements Callable<Void> {
+            private final String[] symbols;
+            private final List<List<MarketDataEvent>> events;
+            private final int[] cursors;
+            private final MarketDataEvent[] updated;
+            private int symbolCount;
+            private int updatedCount;
+
+            Partition(int capacity) {
+                this.symbols = new String[capacity];
+                this.events = new ArrayList<>(capacity);
+                this.cursors = new int[capacity];
+                this.updated = new MarketDataEvent[capacity];
+            }
+
+            void add(String symbol, List<MarketDataEvent> symbolEvents) {
+                symbols[symbolCount++] = symbol;
+                events.add(symbolEvents);
+            }
+
+            @Override
+            public Void call() throws Exception {
+                try {
+                    for (long timestamp : timeline) {
+                        for (int i = 0; i < symbolCount; i++) {
+                            List<MarketDataEvent> symbolEvents = events.get(i);
+                            MarketDataEvent last = null;
+                            while (cursors[i] < symbolEvents.size() && symbolEvents.get(cursors[i]).getTimestamp() <= timestamp) {
+                                last = symbolEvents.get(cursors[i]++);
+                                strategy.onSymbolData(last, context);
+                            }
+                            if (last != null) {
+                                updated[updatedCount++] = last;
+                            }
+                        }
+                        barrier.await();
+                    }
+                    return null;
+                } catch (InterruptedException | BrokenBarrierException | RuntimeException e) {
+                    // 让其他分区尽快退出屏障等待
+                    barrier.reset();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private BacktestConfig config;
+        private BacktestDataProvider dataProvider;
+        private CrossSectionalStrategy strategy;
+        private int parallelThreads;
+
+        public Builder config(BacktestConfig config) {
+            this.config = config;
+            return this;
+        }
+
+        public Builder dataProvider(BacktestDataProvider dataProvider) {
+            this.dataProvider = dataProvider;
+            return this;
+        }
+
+        public Builder strategy(CrossSectionalStrategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        /**
+         * 设置并行线程数，未设置时按回测配置决定
+         * @param parallelThreads 并行线程数
+         * @return Builder
+         */
+        public Builder parallelThreads(int parallelThreads) {
+            this.parallelThreads = parallelThreads;
+            return this;
+        }
+
+        public CrossSectionalBacktestEngine build() {
+            if (config == null) {
+                config = new BacktestConfig();
+            }
+            if (dataProvider == null) {
+                throw new IllegalArgumentException("Data provider is required");
+            }
+            if (strategy == null) {
+                throw new IllegalArgumentException("Strategy is required");
+            }
+            int threads = parallelThreads;
+            if (threads <= 0) {
+                threads = config.isParallelEnabled() ? Math.max(1, config.getParallelThreads()) : 1;
+            }
+            return new CrossSectionalBacktestEngine(config, dataProvider, strategy, threads);
+        }
+    }
+
+    /**
+     * 创建 Builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+}
@@ -0,0 +1,41 @@
+package com.whaleal.quant.backtest.engine;
+
+import com.whaleal.quant.backtest.model.BacktestContext;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
+
+import java.util.List;
+
+/**
+ * 横截面策略接口
+ * 把策略拆成两个阶段：按交易对独立的数据、指标和因子更新，以及需要看到全部交易对后才能做的横截面决策
+ *
+ * <p>{@link #onSymbolData} 会在多个线程上并发调用，但同一交易对总在同一线程上按时间顺序调用，
+ * 实现只能修改该交易对自己的状态，可以读取回测上下文但不能修改它。
+ * {@link #onCrossSection} 在所有交易对完成同一时间点的更新后在单个线程上调用，可以读写全部状态和回测上下文
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public interface CrossSectionalStrategy {
+
+    /**
+     * 获取策略名称
+     * @return 策略名称
+     */
+    String getName();
+
+    /**
+     * 处理单个交易对的市场数据
+     * @param event 市场数据事件
+     * @param context 回测上下文，只读
+     */
+    void onSymbolData(MarketDataEvent event, BacktestContext context);
+
+    /**
+     * 横截面决策
+     * @param timestamp 时间点（毫秒）
+     * @param updatedSymbols 该时间点有数据更新的交易对，按名称排序
+     * @param context 回测上下文
+     */
+    void onCrossSection(long timestamp, List<String> updatedSymbols, BacktestContext context);
+}
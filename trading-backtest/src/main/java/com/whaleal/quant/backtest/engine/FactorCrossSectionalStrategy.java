@@ -0,0 +1,304 @@
+package com.whaleal.quant.backtest.engine;
+
+import com.whaleal.quant.alpha.factor.BuyFactor;
+import com.whaleal.quant.alpha.factor.PickStockFactor;
+import com.whaleal.quant.alpha.factor.SellFactor;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.model.BacktestContext;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.model.trading.Order;
+import com.whaleal.quant.model.trading.Position;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 因子横截面策略
+ * 以择股因子、买入因子和卖出因子组成的横截面策略：各交易对的选股得分和买入信号并行计算，
+ * 选股和下单在横截面阶段统一完成
+ *
+ * <p>设置了选股数量时按 {@link PickStockFactor#calculateStockScore} 得分从高到低选股，得分相同按名称排序；
+ * 否则调用 {@link PickStockFactor#pickStocks}。成交按最新价加滑点计算，仓位按单只股票最大权重分配
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class FactorCrossSectionalStrategy implements CrossSectionalStrategy {
+
+    private final String name;
+    private final PickStockFactor pickStockFactor;
+    private final List<BuyFactor> buyFactors;
+    private final List<SellFactor> sellFactors;
+    private final int topN;
+    private final double buyThreshold;
+
+    private final Map<String, SymbolState> states;
+
+    private FactorCrossSectionalStrategy(Builder builder) {
+        this.name = builder.name;
+        this.pickStockFactor = builder.pickStockFactor;
+        this.buyFactors = new ArrayList<>(builder.buyFactors);
+        this.sellFactors = new ArrayList<>(builder.sellFactors);
+        this.topN = builder.topN;
+        this.buyThreshold = builder.buyThreshold;
+        this.states = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void onSymbolData(MarketDataEvent event, BacktestContext context) {
+        SymbolState state = states.computeIfAbsent(event.getSymbol(), SymbolState::new);
+        if (event.getTicker() != null) {
+            state.ticker = event.getTicker();
+        }
+        if (event.getBars() != null) {
+            state.bars = event.getBars();
+        }
+
+        // 选股得分和买入信号只依赖本交易对的数据，在分区线程上计算
+        state.score = pickStockFactor != null ? pickStockFactor.calculateStockScore(state.symbol, state.bars, state.ticker) : 0.0;
+        if (buyFactors.isEmpty()) {
+            state.buySignal = 1.0;
+        } else {
+            double signal = 0.0;
+            for (BuyFactor buyFactor : buyFactors) {
+                signal += buyFactor.calculateBuySignal(state.symbol, state.bars, state.ticker);
+            }
+            state.buySignal = signal / buyFactors.size();
+        }
+    }
+
+    @Override
+    public void onCrossSection(long timestamp, List<String> updatedSymbols, BacktestContext context) {
+        // 先平仓，释放资金和仓位数量
+        for (String symbol : updatedSymbols) {
+            Position position = context.getCurrentPositions().get(symbol);
+            SymbolState state = states.get(symbol);
+            if (position == null || state == null) {
+                continue;
+            }
+            for (SellFactor sellFactor : sellFactors) {
+                if (sellFactor.shouldSell(symbol, position, null, state.bars, state.ticker)) {
+                    sell(context, symbol, position, timestamp);
+                    break;
+                }
+            }
+        }
+
+        Set<String> selected = selectStocks();
+        BacktestConfig config = context.getConfig();
+        for (String symbol : updatedSymbols) {
+            if (context.getCurrentPositions().size() >= config.getMaxPositions()) {
+                break;
+            }
+            SymbolState state = states.get(symbol);
+            if (state == null || !selected.contains(symbol) || context.getCurrentPositions().containsKey(symbol)) {
+                continue;
+            }
+            if (state.buySignal > buyThreshold) {
+                buy(context, symbol, timestamp);
+            }
+        }
+    }
+
+    /**
+     * 横截面选股
+     * @return 选中的交易对
+     */
+    private Set<String> selectStocks() {
+        if (topN > 0) {
+            List<SymbolState> ranked = new ArrayList<>();
+            for (SymbolState state : states.values()) {
+                if (!Double.isNaN(state.score)) {
+                    ranked.add(state);
+                }
+            }
+            ranked.sort((a, b) -> {
+                int byScore = Double.compare(b.score, a.score);
+                return byScore != 0 ? byScore : a.symbol.compareTo(b.symbol);
+            });
+            Set<String> selected = new HashSet<>();
+            for (int i = 0; i < Math.min(topN, ranked.size()); i++) {
+                selected.add(ranked.get(i).symbol);
+            }
+            return selected;
+        }
+
+        // 按名称排序的只读视图，保证择股因子看到的迭代顺序一致
+        Map<String, List<Bar>> barsMap = new TreeMap<>();
+        Map<String, Ticker> tickerMap = new TreeMap<>();
+        for (SymbolState state : states.values()) {
+            barsMap.put(state.symbol, state.bars);
+            tickerMap.put(state.symbol, state.ticker);
+        }
+        if (pickStockFactor == null) {
+            return barsMap.keySet();
+        }
+        Set<String> picked = pickStockFactor.pickStocks(Collections.unmodifiableSet(barsMap.keySet()),
+                Collections.unmodifiableMap(barsMap), Collections.unmodifiableMap(tickerMap));
+        return picked != null ? picked : Collections.emptySet();
+    }
+
+    private void buy(BacktestContext context, String symbol, long timestamp) {
+        BacktestConfig config = context.getConfig();
+        double lastPrice = context.getLastPrice(symbol);
+        if (Double.isNaN(lastPrice) || lastPrice <= 0) {
+            return;
+        }
+        double price = lastPrice * (1 + config.getSlippageRate());
+        long quantity = (long) Math.floor(context.getEquity() * config.getMaxPositionWeight() / price);
+        double notional = quantity * price;
+        double commission = config.getFixedCommission() + notional * config.getCommissionRate();
+        if (quantity <= 0 || notional + commission > context.getCurrentCapital()) {
+            return;
+        }
+
+        Instant time = Instant.ofEpochMilli(timestamp);
+        context.addOrder(symbol, order(symbol, "BUY", price, quantity, time));
+        context.updateCapital(-(notional + commission));
+        context.updatePosition(symbol, Position.builder()
+                .symbol(symbol)
+                .direction("LONG")
+                .quantity(BigDecimal.valueOf(quantity))
+                .averagePrice(BigDecimal.valueOf((notional + commission) / quantity))
+                .currentPrice(BigDecimal.valueOf(lastPrice))
+                .createTime(time)
+                .updateTime(time)
+                .build());
+    }
+
+    private void sell(BacktestContext context, String symbol, Position position, long timestamp) {
+        BacktestConfig config = context.getConfig();
+        double lastPrice = context.getLastPrice(symbol);
+        if (Double.isNaN(lastPrice) || position.getQuantity() == null) {
+            return;
+        }
+        double quantity = position.getQuantity().doubleValue();
+        double price = lastPrice * (1 - config.getSlippageRate());
+        double notional = quantity * price;
+        double proceeds = notional - config.getFixedCommission() - notional * config.getCommissionRate();
+        double cost = position.getAveragePrice() != null ? position.getAveragePrice().doubleValue() * quantity : 0.0;
+
+        context.addOrder(symbol, order(symbol, "SELL", price, quantity, Instant.ofEpochMilli(timestamp)));
+        context.updateCapital(proceeds);
+        context.updatePnl(symbol, proceeds - cost);
+        context.removePosition(symbol);
+    }
+
+    private static Order order(String symbol, String side, double price, double quantity, Instant time) {
+        return Order.builder()
+                .symbol(symbol)
+                .side(side)
+                .type("MARKET")
+                .status("FILLED")
+                .price(BigDecimal.valueOf(price))
+                .quantity(BigDecimal.valueOf(quantity))
+                .executedQty(BigDecimal.valueOf(quantity))
+                .avgPrice(BigDecimal.valueOf(price))
+                .timestamp(time)
+                .build();
+    }
+
+    /**
+     * 单个交易对的状态，只由负责该交易对的分区线程写入
+     */
+    private static final class SymbolState {
+        private final String symbol;
+        private List<Bar> bars;
+        private Ticker ticker;
+        private double score;
+        private double buySignal;
+
+        SymbolState(String symbol) {
+            this.symbol = symbol;
+            this.bars = Collections.emptyList();
+            this.score = Double.NaN;
+        }
+    }
+
+    /**
+     * 创建 Builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private String name;
+        private PickStockFactor pickStockFactor;
+        private final List<BuyFactor> buyFactors;
+        private final List<SellFactor> sellFactors;
+        private int topN;
+        private double buyThreshold;
+
+        public Builder() {
+            this.name = "cross-sectional";
+            this.buyFactors = new ArrayList<>();
+            this.sellFactors = new ArrayList<>();
+            this.buyThreshold = 0.5;
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder pickStockFactor(PickStockFactor pickStockFactor) {
+            this.pickStockFactor = pickStockFactor;
+            return this;
+        }
+
+        public Builder addBuyFactor(BuyFactor buyFactor) {
+            this.buyFactors.add(buyFactor);
+            return this;
+        }
+
+        public Builder addSellFactor(SellFactor sellFactor) {
+            this.sellFactors.add(sellFactor);
+            return this;
+        }
+
+        /**
+         * 设置按得分选股的数量，0 表示使用择股因子的 pickStocks
+         * @param topN 选股数量
+         * @return Builder
+         */
+        public Builder topN(int topN) {
+            this.topN = topN;
+            return this;
+        }
+
+        public Builder buyThreshold(double buyThreshold) {
+            this.buyThreshold = buyThreshold;
+            return this;
+        }
+
+        public FactorCrossSectionalStrategy build() {
+            if (topN < 0) {
+                throw new IllegalArgumentException("Top N must not be negative");
+            }
+            if (topN > 0 && pickStockFactor == null) {
+                throw new IllegalArgumentException("Pick stock factor is required when ranking by score");
+            }
+            return new FactorCrossSectionalStrategy(this);
+        }
+    }
+}
@@ -1,71 +1,147 @@
 package com.whaleal.quant.backtest.engine;
 
 import com.whaleal.quant.backtest.data.BacktestDataProvider;
+import com.whaleal.quant.backtest.data.BarResampler;
+import com.whaleal.quant.backtest.data.BarSeriesDataProvider;
+import com.whaleal.quant.backtest.data.MultiResolutionBars;
+import com.whaleal.quant.backtest.engine.BacktestLayer.Layer;
 import com.whaleal.quant.backtest.model.BacktestConfig;
 import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.enums.Interval;
 import com.whaleal.quant.strategy.core.StrategyEngine;
 import com.whaleal.quant.model.Bar;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
+/**
+ * 分层回测引擎
+ * 在高频、标准、低频三个周期上分别回测同一策略；传入K线时只做一次多周期重采样并缓存，
+ * 各层在各自周期的K线上运行，有策略工厂时三层并发执行
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
 public class LayeredBacktestEngine {
 
     private BacktestEngine highFrequencyEngine;
     private BacktestEngine standardEngine;
     private BacktestEngine lowFrequencyEngine;
 
+    private final Supplier<StrategyEngine> strategyFactory;
+    private final boolean concurrentLayers;
+
+    private List<Bar> cachedSource;
+    private MultiResolutionBars cachedBars;
+
     /**
      * 构造方法
+     * 三层共用同一个策略引擎，因此按K线回测时各层依次执行
      * @param dataProvider 数据提供者
      * @param strategyEngine 策略引擎
      */
     public LayeredBacktestEngine(BacktestDataProvider dataProvider, StrategyEngine strategyEngine) {
-        this.highFrequencyEngine = BacktestEngine.builder()
-                .config(new BacktestConfig())
-                .dataProvider(dataProvider)
-                .strategyEngine(strategyEngine)
-                .build();
-
-        this.standardEngine = BacktestEngine.builder()
-                .config(new BacktestConfig())
-                .dataProvider(dataProvider)
-                .strategyEngine(strategyEngine)
-                .build();
-
-        this.lowFrequencyEngine = BacktestEngine.builder()
-                .config(new BacktestConfig())
-                .dataProvider(dataProvider)
-                .strategyEngine(strategyEngine)
-                .build();
+        this(dataProvider, () -> strategyEngine, false);
+    }
+
+    /**
+     * 构造方法
+     * 每层使用独立的策略引擎，按K线回测时三层并发执行
+     * @param dataProvider 数据提供者，可为空，此时只能按K线回测
+     * @param strategyFactory 策略工厂，每次调用返回新的策略引擎
+     */
+    public LayeredBacktestEngine(BacktestDataProvider dataProvider, Supplier<StrategyEngine> strategyFactory) {
+        this(dataProvider, strategyFactory, true);
+    }
+
+    private LayeredBacktestEngine(BacktestDataProvider dataProvider, Supplier<StrategyEngine> strategyFactory, boolean concurrentLayers) {
+        this.strategyFactory = strategyFactory;
+        this.concurrentLayers = concurrentLayers;
+
+        // 未提供数据提供者时只能按K线回测
+        if (dataProvider != null) {
+            this.highFrequencyEngine = BacktestEngine.builder()
+                    .config(new BacktestConfig())
+                    .dataProvider(dataProvider)
+                    .strategyEngine(strategyFactory.get())
+                    .build();
+
+            this.standardEngine = BacktestEngine.builder()
+                    .config(new BacktestConfig())
+                    .dataProvider(dataProvider)
+                    .strategyEngine(strategyFactory.get())
+                    .build();
+
+            this.lowFrequencyEngine = BacktestEngine.builder()
+                    .config(new BacktestConfig())
+                    .dataProvider(dataProvider)
+                    .strategyEngine(strategyFactory.get())
+                    .build();
+        }
     }
 
     public BacktestResult runHighFrequencyBacktest() {
-        return highFrequencyEngine.run();
+        return requireEngine(highFrequencyEngine).run();
     }
 
     public BacktestResult runStandardBacktest() {
-        return standardEngine.run();
+        return requireEngine(standardEngine).run();
     }
 
     public BacktestResult runLowFrequencyBacktest() {
-        return lowFrequencyEngine.run();
+        return requireEngine(lowFrequencyEngine).run();
     }
 
     public BacktestResult runHighFrequencyBacktest(List<Bar> bars, BacktestConfig config) {
-        return highFrequencyEngine.run();
+        return runLayer(Layer.HIGH_FREQUENCY, resample(bars), config);
     }
 
     public BacktestResult runStandardBacktest(List<Bar> bars, BacktestConfig config) {
-        return standardEngine.run();
+        return runLayer(Layer.STANDARD, resample(bars), config);
     }
 
     public BacktestResult runLowFrequencyBacktest(List<Bar> bars, BacktestConfig config) {
-        return lowFrequencyEngine.run();
+        return runLayer(Layer.LOW_FREQUENCY, resample(bars), config);
     }
 
     public LayeredBacktestResult runLayeredBacktest(List<Bar> bars, BacktestConfig config) {
-        BacktestResult highFreqResult = runHighFrequencyBacktest(bars, config);
-        BacktestResult standardResult = runStandardBacktest(bars, config);
-        BacktestResult lowFreqResult = runLowFrequencyBacktest(bars, config);
+        MultiResolutionBars resampled = resample(bars);
+        Map<Layer, BacktestResult> results = new EnumMap<>(Layer.class);
+
+        if (concurrentLayers) {
+            ExecutorService executor = Executors.newFixedThreadPool(Layer.values().length);
+            try {
+                Map<Layer, Future<BacktestResult>> futures = new EnumMap<>(Layer.class);
+                for (Layer layer : Layer.values()) {
+                    futures.put(layer, executor.submit(() -> runLayer(layer, resampled, config)));
+                }
+                for (Map.Entry<Layer, Future<BacktestResult>> entry : futures.entrySet()) {
+                    results.put(entry.getKey(), entry.getValue().get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Layered backtest interrupted", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Layered backtest failed", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        } else {
+            for (Layer layer : Layer.values()) {
+                results.put(layer, runLayer(layer, resampled, config));
+            }
+        }
+
+        BacktestResult highFreqResult = results.get(Layer.HIGH_FREQUENCY);
+        BacktestResult standardResult = results.get(Layer.STANDARD);
+        BacktestResult lowFreqResult = results.get(Layer.LOW_FREQUENCY);
 
         return new LayeredBacktestResult(
             highFreqResult,
@@ -75,6 +151,63 @@ public class LayeredBacktestEngine {
         );
     }
 
+    private static BacktestEngine requireEngine(BacktestEngine engine) {
+        if (engine == null) {
+            throw new IllegalStateException("No data provider configured, run the layered backtest with bars instead");
+        }
+        return engine;
+    }
+
+    /**
+     * 在指定层的周期上回测
+     * @param layer 回测层
+     * @param resampled 多周期K线
+     * @param config 回测配置
+     * @return 回测结果
+     */
+    private BacktestResult runLayer(Layer layer, MultiResolutionBars resampled, BacktestConfig config) {
+        // 各层并发运行，不共享检查点文件
+        BacktestConfig layerConfig = new BacktestConfig(config).setCheckpointDirectory(null);
+        return BacktestEngine.builder()
+                .config(layerConfig)
+                .dataProvider(new BarSeriesDataProvider(resampled, Interval.fromCode(layer.getTimeInterval())))
+                .strategyEngine(strategyFactory.get())
+                .build()
+                .run();
+    }
+
+    /**
+     * 对K线做多周期重采样，同一批K线只重采样一次
+     * @param bars 最细周期的K线，同一交易对按时间排序
+     * @return 多周期K线
+     */
+    private synchronized MultiResolutionBars resample(List<Bar> bars) {
+        if (bars == cachedSource && cachedBars != null) {
+            return cachedBars;
+        }
+
+        // 未标注周期的K线视为枚举中最细的周期
+        Interval source = null;
+        for (Bar bar : bars) {
+            if (bar.getInterval() != null && (source == null || bar.getInterval().getSeconds() < source.getSeconds())) {
+                source = bar.getInterval();
+            }
+        }
+        if (source == null) {
+            source = Interval.MINUTE_1;
+        }
+
+        List<Interval> targets = new ArrayList<>();
+        for (Layer layer : Layer.values()) {
+            targets.add(Interval.fromCode(layer.getTimeInterval()));
+        }
+        targets.add(Interval.DAY_1);
+
+        cachedBars = BarResampler.resample(bars, source, targets);
+        cachedSource = bars;
+        return cachedBars;
+    }
+
     private double calculateOverallScore(BacktestResult... results) {
         double totalScore = 0;
         for (BacktestResult result : results) {
@@ -0,0 +1,226 @@
+package com.whaleal.quant.backtest.engine;
+
+import com.whaleal.quant.backtest.data.BacktestDataProvider;
+import com.whaleal.quant.backtest.data.MarketDataSnapshot;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.model.BacktestContext;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多策略回测引擎
+ * 每个交易日只加载和解码一次市场数据，再将同一批只读事件分发给多个相互隔离的策略/上下文，
+ * 可选地在多个核心上并行执行，最终为每个策略生成一个回测结果
+ *
+ * <p>市场数据事件在各策略间共享，策略不得修改事件及其中的行情和K线对象
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class MultiStrategyBacktestEngine {
+
+    private final BacktestConfig config;
+    private final BacktestDataProvider dataProvider;
+    private final List<StrategyLane> lanes;
+
+    private boolean isRunning;
+
+    /**
+     * 构造方法
+     * @param config 回测配置
+     * @param dataProvider 数据提供者
+     * @param strategyEngines 策略引擎列表，策略名称必须唯一
+     */
+    public MultiStrategyBacktestEngine(BacktestConfig config, BacktestDataProvider dataProvider, List<StrategyEngine> strategyEngines) {
+        this.config = config;
+        // 共享快照通过视图读取，只返回本引擎配置的交易对
+        this.dataProvider = dataProvider instanceof MarketDataSnapshot ? ((MarketDataSnapshot) dataProvider).view() : dataProvider;
+        this.lanes = new ArrayList<>(strategyEngines.size());
+        for (StrategyEngine strategyEngine : strategyEngines) {
+            for (StrategyLane lane : lanes) {
+                if (lane.name.equals(strategyEngine.getStrategyName())) {
+                    throw new IllegalArgumentException("Duplicate strategy name: " + strategyEngine.getStrategyName());
+                }
+            }
+            lanes.add(new StrategyLane(strategyEngine.getStrategyName(), strategyEngine));
+        }
+        this.isRunning = false;
+    }
+
+    /**
+     * 执行回测
+     * @return 按策略名称索引的回测结果，顺序与策略添加顺序一致
+     */
+    public Map<String, BacktestResult> run() {
+        if (isRunning) {
+            throw new IllegalStateException("Backtest is already running");
+        }
+        if (lanes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        isRunning = true;
+        ExecutorService executor = null;
+        try {
+            for (StrategyLane lane : lanes) {
+                lane.context = new BacktestContext(config);
+            }
+
+            // 所有策略共享一次数据加载
+            dataProvider.loadData(config.getSymbols(), config.getStartDate(), config.getEndDate());
+
+            if (config.isParallelEnabled() && lanes.size() > 1) {
+                executor = Executors.newFixedThreadPool(Math.max(1, Math.min(config.getParallelThreads(), lanes.size())));
+            }
+
+            List<LocalDateTime> tradingDays = dataProvider.getTradingDays(config.getStartDate(), config.getEndDate());
+            for (LocalDateTime date : tradingDays) {
+                processDailyData(date, executor);
+            }
+
+            Map<String, BacktestResult> results = new LinkedHashMap<>();
+            for (StrategyLane lane : lanes) {
+                results.put(lane.name, BacktestResult.fromContext(lane.context));
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Backtest interrupted", e);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            isRunning = false;
+        }
+    }
+
+    /**
+     * 处理每日数据
+     * @param date 日期
+     * @param executor 并行执行器，为空时串行执行
+     * @throws InterruptedException 线程被中断
+     */
+    private void processDailyData(LocalDateTime date, ExecutorService executor) throws InterruptedException {
+        // 当日数据只解码一次
+        Map<String, List<MarketDataEvent>> dailyEvents = dataProvider.getMarketDataEvents(date);
+
+        if (executor == null) {
+            for (StrategyLane lane : lanes) {
+                lane.processDay(date, dailyEvents);
+            }
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(lanes.size());
+        for (StrategyLane lane : lanes) {
+            tasks.add(() -> {
+                lane.processDay(date, dailyEvents);
+                return null;
+            });
+        }
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Backtest failed on " + date, e.getCause());
+            }
+        }
+    }
+
+    /**
+     * 获取策略数量
+     * @return 策略数量
+     */
+    public int getStrategyCount() {
+        return lanes.size();
+    }
+
+    /**
+     * 策略通道
+     * 一个策略及其独占的回测上下文，同一时刻只会被一个线程访问
+     */
+    private static class StrategyLane {
+        private final String name;
+        private final StrategyEngine strategyEngine;
+        private BacktestContext context;
+
+        StrategyLane(String name, StrategyEngine strategyEngine) {
+            this.name = name;
+            this.strategyEngine = strategyEngine;
+        }
+
+        void processDay(LocalDateTime date, Map<String, List<MarketDataEvent>> dailyEvents) {
+            context.markToMarket(dailyEvents);
+            for (List<MarketDataEvent> events : dailyEvents.values()) {
+                for (MarketDataEvent event : events) {
+                    strategyEngine.onMarketData(event);
+                }
+            }
+            context.updateDailyStats(date);
+        }
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private BacktestConfig config;
+        private BacktestDataProvider dataProvider;
+        private final List<StrategyEngine> strategyEngines = new ArrayList<>();
+
+        public Builder config(BacktestConfig config) {
+            this.config = config;
+            return this;
+        }
+
+        public Builder dataProvider(BacktestDataProvider dataProvider) {
+            this.dataProvider = dataProvider;
+            return this;
+        }
+
+        public Builder addStrategyEngine(StrategyEngine strategyEngine) {
+            this.strategyEngines.add(strategyEngine);
+            return this;
+        }
+
+        public Builder strategyEngines(List<StrategyEngine> strategyEngines) {
+            this.strategyEngines.addAll(strategyEngines);
+            return this;
+        }
+
+        public MultiStrategyBacktestEngine build() {
+            if (config == null) {
+                config = new BacktestConfig();
+            }
+            if (dataProvider == null) {
+                throw new IllegalArgumentException("Data provider is required");
+            }
+            if (strategyEngines.isEmpty()) {
+                throw new IllegalArgumentException("At least one strategy engine is required");
+            }
+            return new MultiStrategyBacktestEngine(config, dataProvider, strategyEngines);
+        }
+    }
+
+    /**
+     * 创建 Builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+}
@@ -68,6 +68,46 @@ public class BacktestConfig {
      */
     private int parallelThreads;
 
+    /**
+     * 年化无风险利率
+     */
+    private double riskFreeRate;
+
+    /**
+     * 年化周期数（日线为252）
+     */
+    private double periodsPerYear;
+
+    /**
+     * 检查点目录，为空时不写检查点
+     */
+    private String checkpointDirectory;
+
+    /**
+     * 两次检查点之间的最小间隔（毫秒）
+     */
+    private long checkpointIntervalMillis;
+
+    /**
+     * 是否从最近一次检查点恢复
+     */
+    private boolean resumeFromCheckpoint;
+
+    /**
+     * 回测完成后是否保留最后一个交易日的检查点，用于延长回测区间后继续回测
+     */
+    private boolean retainFinalCheckpoint;
+
+    /**
+     * 检查点标识，参与检查点指纹，通常为参数组合；标识不同的检查点不会被恢复
+     */
+    private String checkpointTag;
+
+    /**
+     * 是否记录各阶段的耗时和内存分配
+     */
+    private boolean profilingEnabled;
+
     /**
      * 构造方法
      */
@@ -83,6 +123,36 @@ public class BacktestConfig {
         this.maxPositionWeight = 0.2;
         this.parallelEnabled = true;
         this.parallelThreads = Runtime.getRuntime().availableProcessors();
+        this.riskFreeRate = 0.03;
+        this.periodsPerYear = 252;
+        this.checkpointIntervalMillis = 60000L;
+        this.resumeFromCheckpoint = true;
+    }
+
+    /**
+     * 拷贝构造方法
+     * @param other 其他回测配置
+     */
+    public BacktestConfig(BacktestConfig other) {
+        this.startDate = other.startDate;
+        this.endDate = other.endDate;
+        this.symbols = new HashSet<>(other.symbols);
+        this.initialCapital = other.initialCapital;
+        this.fixedCommission = other.fixedCommission;
+        this.commissionRate = other.commissionRate;
+        this.slippageRate = other.slippageRate;
+        this.maxPositions = other.maxPositions;
+        this.maxPositionWeight = other.maxPositionWeight;
+        this.parallelEnabled = other.parallelEnabled;
+        this.parallelThreads = other.parallelThreads;
+        this.riskFreeRate = other.riskFreeRate;
+        this.periodsPerYear = other.periodsPerYear;
+        this.checkpointDirectory = other.checkpointDirectory;
+        this.checkpointIntervalMillis = other.checkpointIntervalMillis;
+        this.resumeFromCheckpoint = other.resumeFromCheckpoint;
+        this.retainFinalCheckpoint = other.retainFinalCheckpoint;
+        this.checkpointTag = other.checkpointTag;
+        this.profilingEnabled = other.profilingEnabled;
     }
 
     // Getters and setters
@@ -190,4 +260,76 @@ public class BacktestConfig {
         this.parallelThreads = parallelThreads;
         return this;
     }
+
+    public double getRiskFreeRate() {
+        return riskFreeRate;
+    }
+
+    public BacktestConfig setRiskFreeRate(double riskFreeRate) {
+        this.riskFreeRate = riskFreeRate;
+        return this;
+    }
+
+    public double getPeriodsPerYear() {
+        return periodsPerYear;
+    }
+
+    public BacktestConfig setPeriodsPerYear(double periodsPerYear) {
+        this.periodsPerYear = periodsPerYear;
+        return this;
+    }
+
+    public String getCheckpointDirectory() {
+        return checkpointDirectory;
+    }
+
+    public BacktestConfig setCheckpointDirectory(String checkpointDirectory) {
+        this.checkpointDirectory = checkpointDirectory;
+        return this;
+    }
+
+    public long getCheckpointIntervalMillis() {
+        return checkpointIntervalMillis;
+    }
+
+    public BacktestConfig setCheckpointIntervalMillis(long checkpointIntervalMillis) {
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+        return this;
+    }
+
+    public boolean isResumeFromCheckpoint() {
+        return resumeFromCheckpoint;
+    }
+
+    public BacktestConfig setResumeFromCheckpoint(boolean resumeFromCheckpoint) {
+        this.resumeFromCheckpoint = resumeFromCheckpoint;
+        return this;
+    }
+
+    public boolean isRetainFinalCheckpoint() {
+        return retainFinalCheckpoint;
+    }
+
+    public BacktestConfig setRetainFinalCheckpoint(boolean retainFinalCheckpoint) {
+        this.retainFinalCheckpoint = retainFinalCheckpoint;
+        return this;
+    }
+
+    public String getCheckpointTag() {
+        return checkpointTag;
+    }
+
+    public BacktestConfig setCheckpointTag(String checkpointTag) {
+        this.checkpointTag = checkpointTag;
+        return this;
+    }
+
+    public boolean isProfilingEnabled() {
+        return profilingEnabled;
+    }
+
+    public BacktestConfig setProfilingEnabled(boolean profilingEnabled) {
+        this.profilingEnabled = profilingEnabled;
+        return this;
+    }
 }
\ No newline at end of file
@@ -1,9 +1,18 @@
 package com.whaleal.quant.backtest.model;
 
+import com.whaleal.quant.backtest.checkpoint.CheckpointCodec;
+import com.whaleal.quant.model.Bar;
 import com.whaleal.quant.model.trading.Order;
 import com.whaleal.quant.model.trading.Position;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -58,6 +67,26 @@ public class BacktestContext {
      */
     private final Map<String, Double> metrics;
 
+    /**
+     * 最新价格映射
+     */
+    private final Map<String, Double> lastPrices;
+
+    /**
+     * 绩效跟踪器
+     */
+    private final PerformanceTracker performance;
+
+    /**
+     * 逐笔平仓盈亏
+     */
+    private double[] tradePnls;
+
+    /**
+     * 已记录的平仓笔数
+     */
+    private int tradePnlCount;
+
     /**
      * 交易次数
      */
@@ -86,6 +115,10 @@ public class BacktestContext {
         this.pnl = new HashMap<>();
         this.dailyPnl = new HashMap<>();
         this.metrics = new HashMap<>();
+        this.lastPrices = new HashMap<>();
+        this.performance = new PerformanceTracker(config.getInitialCapital(), config.getPeriodsPerYear(), config.getRiskFreeRate());
+        this.tradePnls = new double[64];
+        this.tradePnlCount = 0;
         this.tradeCount = 0;
         this.winCount = 0;
         this.lossCount = 0;
@@ -96,12 +129,17 @@ public class BacktestContext {
      * @param date 日期
      */
     public void updateDailyStats(LocalDateTime date) {
+        double equity = getEquity();
+
         // 计算当日盈亏
-        double dailyProfit = calculateDailyPnl(date);
+        double dailyProfit = calculateDailyPnl(equity);
         dailyPnl.put(date, dailyProfit);
 
+        // 记录权益并增量更新绩效
+        performance.record(date.toInstant(ZoneOffset.UTC).toEpochMilli(), equity);
+
         // 更新总盈亏
-        updateTotalPnl();
+        updateTotalPnl(equity);
 
         // 计算性能指标
         calculateMetrics();
@@ -109,28 +147,93 @@ public class BacktestContext {
 
     /**
      * 计算当日盈亏
-     * @param date 日期
+     * @param equity 当日权益
      * @return 当日盈亏
      */
-    private double calculateDailyPnl(LocalDateTime date) {
-        // 实现当日盈亏计算逻辑
-        // 这里需要根据实际的持仓和价格变化来计算
-        return 0.0;
+    private double calculateDailyPnl(double equity) {
+        return equity - performance.getLastEquity();
     }
 
     /**
      * 更新总盈亏
+     * @param equity 当前权益
      */
-    private void updateTotalPnl() {
-        // 实现总盈亏计算逻辑
+    private void updateTotalPnl(double equity) {
+        metrics.put("totalPnl", equity - config.getInitialCapital());
     }
 
     /**
      * 计算性能指标
      */
     private void calculateMetrics() {
-        // 实现性能指标计算逻辑
-        // 包括收益率、夏普比率、最大回撤等
+        performance.writeMetrics(metrics);
+        metrics.put("winRate", getWinRate());
+    }
+
+    /**
+     * 更新最新价格，用于盯市
+     * @param symbol 交易对符号
+     * @param price 最新价格
+     */
+    public void markPrice(String symbol, double price) {
+        lastPrices.put(symbol, price);
+    }
+
+    /**
+     * 使用每个股票当日最后一笔行情更新最新价格
+     * @param dailyEvents 当日市场数据事件
+     */
+    public void markToMarket(Map<String, List<MarketDataEvent>> dailyEvents) {
+        for (Map.Entry<String, List<MarketDataEvent>> entry : dailyEvents.entrySet()) {
+            List<MarketDataEvent> events = entry.getValue();
+            if (events.isEmpty()) {
+                continue;
+            }
+            markToMarket(entry.getKey(), events.get(events.size() - 1));
+        }
+    }
+
+    /**
+     * 使用单个市场数据事件更新最新价格
+     * @param symbol 交易对符号
+     * @param event 市场数据事件
+     */
+    public void markToMarket(String symbol, MarketDataEvent event) {
+        if (event.getTicker() != null && event.getTicker().getPrice() != null) {
+            markPrice(symbol, event.getTicker().getPrice().doubleValue());
+        } else if (event.getBars() != null && !event.getBars().isEmpty()) {
+            // K线驱动的回测没有行情快照，以最后一根K线的收盘价盯市
+            Bar lastBar = event.getBars().get(event.getBars().size() - 1);
+            if (lastBar.getClose() != null) {
+                markPrice(symbol, lastBar.getClose().doubleValue());
+            }
+        }
+    }
+
+    /**
+     * 获取最新价格
+     * @param symbol 交易对符号
+     * @return 最新价格，没有价格时返回 NaN
+     */
+    public double getLastPrice(String symbol) {
+        Double price = lastPrices.get(symbol);
+        return price != null ? price : Double.NaN;
+    }
+
+    /**
+     * 按最新价格计算当前权益
+     * @return 当前权益
+     */
+    public double getEquity() {
+        double equity = currentCapital;
+        for (Map.Entry<String, Position> entry : currentPositions.entrySet()) {
+            BigDecimal quantity = entry.getValue().getQuantity();
+            Double price = lastPrices.get(entry.getKey());
+            if (quantity != null && price != null) {
+                equity += quantity.doubleValue() * price;
+            }
+        }
+        return equity;
     }
 
     /**
@@ -168,6 +271,7 @@ public class BacktestContext {
      */
     public void updatePnl(String symbol, double profit) {
         pnl.put(symbol, pnl.getOrDefault(symbol, 0.0) + profit);
+        recordTradePnl(profit);
         if (profit > 0) {
             winCount++;
         } else if (profit < 0) {
@@ -175,6 +279,17 @@ public class BacktestContext {
         }
     }
 
+    /**
+     * 记录一笔平仓盈亏
+     * @param profit 盈亏
+     */
+    private void recordTradePnl(double profit) {
+        if (tradePnlCount == tradePnls.length) {
+            tradePnls = Arrays.copyOf(tradePnls, tradePnlCount << 1);
+        }
+        tradePnls[tradePnlCount++] = profit;
+    }
+
     /**
      * 更新资金
      * @param amount 金额变化
@@ -183,6 +298,140 @@ public class BacktestContext {
         currentCapital += amount;
     }
 
+    /**
+     * 写出检查点状态
+     * @param out 输出
+     * @throws IOException 写出失败
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(currentCapital);
+        out.writeInt(tradeCount);
+        out.writeInt(winCount);
+        out.writeInt(lossCount);
+
+        out.writeInt(tradePnlCount);
+        for (int i = 0; i < tradePnlCount; i++) {
+            out.writeDouble(tradePnls[i]);
+        }
+
+        out.writeInt(orders.size());
+        for (Map.Entry<String, List<Order>> entry : orders.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Order order : entry.getValue()) {
+                CheckpointCodec.writeOrder(out, order);
+            }
+        }
+
+        out.writeInt(currentPositions.size());
+        for (Map.Entry<String, Position> entry : currentPositions.entrySet()) {
+            out.writeUTF(entry.getKey());
+            CheckpointCodec.writePosition(out, entry.getValue());
+        }
+
+        out.writeInt(positions.size());
+        for (Map.Entry<String, List<Position>> entry : positions.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Position position : entry.getValue()) {
+                CheckpointCodec.writePosition(out, position);
+            }
+        }
+
+        out.writeInt(pnl.size());
+        for (Map.Entry<String, Double> entry : pnl.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeDouble(entry.getValue());
+        }
+
+        out.writeInt(dailyPnl.size());
+        for (Map.Entry<LocalDateTime, Double> entry : dailyPnl.entrySet()) {
+            out.writeLong(entry.getKey().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(entry.getKey().getNano());
+            out.writeDouble(entry.getValue());
+        }
+
+        out.writeInt(lastPrices.size());
+        for (Map.Entry<String, Double> entry : lastPrices.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeDouble(entry.getValue());
+        }
+
+        performance.writeState(out);
+    }
+
+    /**
+     * 读取检查点状态，覆盖当前状态
+     * @param in 输入
+     * @throws IOException 读取失败
+     */
+    public void readState(DataInput in) throws IOException {
+        currentCapital = in.readDouble();
+        tradeCount = in.readInt();
+        winCount = in.readInt();
+        lossCount = in.readInt();
+
+        tradePnlCount = in.readInt();
+        tradePnls = new double[Math.max(64, tradePnlCount)];
+        for (int i = 0; i < tradePnlCount; i++) {
+            tradePnls[i] = in.readDouble();
+        }
+
+        orders.clear();
+        int orderSymbols = in.readInt();
+        for (int i = 0; i < orderSymbols; i++) {
+            String symbol = in.readUTF();
+            int count = in.readInt();
+            List<Order> symbolOrders = new LinkedList<>();
+            for (int j = 0; j < count; j++) {
+                symbolOrders.add(CheckpointCodec.readOrder(in));
+            }
+            orders.put(symbol, symbolOrders);
+        }
+
+        currentPositions.clear();
+        int openPositions = in.readInt();
+        for (int i = 0; i < openPositions; i++) {
+            currentPositions.put(in.readUTF(), CheckpointCodec.readPosition(in));
+        }
+
+        positions.clear();
+        int positionSymbols = in.readInt();
+        for (int i = 0; i < positionSymbols; i++) {
+            String symbol = in.readUTF();
+            int count = in.readInt();
+            List<Position> history = new LinkedList<>();
+            for (int j = 0; j < count; j++) {
+                history.add(CheckpointCodec.readPosition(in));
+            }
+            positions.put(symbol, history);
+        }
+
+        pnl.clear();
+        int pnlCount = in.readInt();
+        for (int i = 0; i < pnlCount; i++) {
+            pnl.put(in.readUTF(), in.readDouble());
+        }
+
+        dailyPnl.clear();
+        int dayCount = in.readInt();
+        for (int i = 0; i < dayCount; i++) {
+            LocalDateTime date = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            dailyPnl.put(date, in.readDouble());
+        }
+
+        lastPrices.clear();
+        int priceCount = in.readInt();
+        for (int i = 0; i < priceCount; i++) {
+            lastPrices.put(in.readUTF(), in.readDouble());
+        }
+
+        performance.readState(in);
+        metrics.clear();
+        updateTotalPnl(performance.getLastEquity());
+        calculateMetrics();
+    }
+
     // Getters
 
     public BacktestConfig getConfig() {
@@ -217,6 +466,18 @@ public class BacktestContext {
         return metrics;
     }
 
+    public PerformanceTracker getPerformance() {
+        return performance;
+    }
+
+    /**
+     * 获取逐笔平仓盈亏副本
+     * @return 逐笔平仓盈亏
+     */
+    public double[] getTradePnls() {
+        return Arrays.copyOf(tradePnls, tradePnlCount);
+    }
+
     public int getTradeCount() {
         return tradeCount;
     }
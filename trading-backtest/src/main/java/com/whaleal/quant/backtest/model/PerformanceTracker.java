@@ -0,0 +1,317 @@
+package com.whaleal.quant.backtest.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 绩效跟踪器
+ * 以原始数组维护权益曲线，并逐根K线增量更新收益、波动率、下行风险、回撤及夏普/索提诺/卡玛比率，
+ * 回测循环结束时指标即已就绪，无需再遍历历史数据
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class PerformanceTracker {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * 初始资金
+     */
+    private final double initialCapital;
+
+    /**
+     * 年化周期数
+     */
+    private final double periodsPerYear;
+
+    /**
+     * 单周期无风险收益率
+     */
+    private final double periodRiskFreeRate;
+
+    /**
+     * 时间戳（毫秒）
+     */
+    private long[] timestamps;
+
+    /**
+     * 权益曲线
+     */
+    private double[] equity;
+
+    /**
+     * 周期收益率
+     */
+    private double[] returns;
+
+    /**
+     * 已记录的周期数
+     */
+    private int size;
+
+    /**
+     * 收益率均值（Welford）
+     */
+    private double meanReturn;
+
+    /**
+     * 收益率离差平方和（Welford）
+     */
+    private double m2;
+
+    /**
+     * 低于无风险收益率部分的平方和
+     */
+    private double downsideSquareSum;
+
+    /**
+     * 权益峰值
+     */
+    private double peakEquity;
+
+    /**
+     * 当前回撤
+     */
+    private double currentDrawdown;
+
+    /**
+     * 最大回撤
+     */
+    private double maxDrawdown;
+
+    /**
+     * 构造方法
+     * @param initialCapital 初始资金
+     * @param periodsPerYear 年化周期数
+     * @param riskFreeRate 年化无风险利率
+     */
+    public PerformanceTracker(double initialCapital, double periodsPerYear, double riskFreeRate) {
+        if (initialCapital <= 0) {
+            throw new IllegalArgumentException("Initial capital must be positive");
+        }
+        if (periodsPerYear <= 0) {
+            throw new IllegalArgumentException("Periods per year must be positive");
+        }
+        this.initialCapital = initialCapital;
+        this.periodsPerYear = periodsPerYear;
+        this.periodRiskFreeRate = riskFreeRate / periodsPerYear;
+        this.timestamps = new long[INITIAL_CAPACITY];
+        this.equity = new double[INITIAL_CAPACITY];
+        this.returns = new double[INITIAL_CAPACITY];
+        this.peakEquity = initialCapital;
+    }
+
+    /**
+     * 记录一个周期的权益
+     * @param timestamp 时间戳（毫秒）
+     * @param equityValue 周期末权益
+     */
+    public void record(long timestamp, double equityValue) {
+        ensureCapacity(size + 1);
+
+        double previousEquity = size > 0 ? equity[size - 1] : initialCapital;
+        double periodReturn = previousEquity != 0 ? equityValue / previousEquity - 1.0 : 0.0;
+
+        timestamps[size] = timestamp;
+        equity[size] = equityValue;
+        returns[size] = periodReturn;
+        size++;
+
+        // Welford 在线均值与方差
+        double delta = periodReturn - meanReturn;
+        meanReturn += delta / size;
+        m2 += delta * (periodReturn - meanReturn);
+
+        // 下行偏差以无风险收益率为目标
+        double shortfall = periodReturn - periodRiskFreeRate;
+        if (shortfall < 0) {
+            downsideSquareSum += shortfall * shortfall;
+        }
+
+        // 滚动最大回撤
+        if (equityValue > peakEquity) {
+            peakEquity = equityValue;
+        }
+        currentDrawdown = peakEquity > 0 ? (peakEquity - equityValue) / peakEquity : 0.0;
+        if (currentDrawdown > maxDrawdown) {
+            maxDrawdown = currentDrawdown;
+        }
+    }
+
+    /**
+     * 将当前指标写入指标映射
+     * @param metrics 指标映射
+     */
+    public void writeMetrics(Map<String, Double> metrics) {
+        metrics.put("totalReturn", getTotalReturn());
+        metrics.put("annualizedReturn", getAnnualizedReturn());
+        metrics.put("volatility", getVolatility());
+        metrics.put("downsideRisk", getDownsideRisk());
+        metrics.put("maxDrawdown", maxDrawdown);
+        metrics.put("currentDrawdown", currentDrawdown);
+        metrics.put("sharpeRatio", getSharpeRatio());
+        metrics.put("sortinoRatio", getSortinoRatio());
+        metrics.put("calmarRatio", getCalmarRatio());
+    }
+
+    /**
+     * 写出检查点状态
+     * @param out 输出
+     * @throws IOException 写出失败
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(timestamps[i]);
+            out.writeDouble(equity[i]);
+            out.writeDouble(returns[i]);
+        }
+        out.writeDouble(meanReturn);
+        out.writeDouble(m2);
+        out.writeDouble(downsideSquareSum);
+        out.writeDouble(peakEquity);
+        out.writeDouble(currentDrawdown);
+        out.writeDouble(maxDrawdown);
+    }
+
+    /**
+     * 读取检查点状态
+     * @param in 输入
+     * @throws IOException 读取失败
+     */
+    public void readState(DataInput in) throws IOException {
+        int count = in.readInt();
+        size = 0;
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = in.readLong();
+            equity[i] = in.readDouble();
+            returns[i] = in.readDouble();
+        }
+        size = count;
+        meanReturn = in.readDouble();
+        m2 = in.readDouble();
+        downsideSquareSum = in.readDouble();
+        peakEquity = in.readDouble();
+        currentDrawdown = in.readDouble();
+        maxDrawdown = in.readDouble();
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= equity.length) {
+            return;
+        }
+        int newCapacity = Math.max(required, equity.length << 1);
+        timestamps = Arrays.copyOf(timestamps, newCapacity);
+        equity = Arrays.copyOf(equity, newCapacity);
+        returns = Arrays.copyOf(returns, newCapacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getInitialCapital() {
+        return initialCapital;
+    }
+
+    public double getLastEquity() {
+        return size > 0 ? equity[size - 1] : initialCapital;
+    }
+
+    public double getTotalReturn() {
+        return getLastEquity() / initialCapital - 1.0;
+    }
+
+    public double getAnnualizedReturn() {
+        if (size == 0) {
+            return 0.0;
+        }
+        double growth = getLastEquity() / initialCapital;
+        if (growth <= 0) {
+            return -1.0;
+        }
+        return Math.pow(growth, periodsPerYear / size) - 1.0;
+    }
+
+    /**
+     * 获取年化波动率（样本标准差）
+     * @return 年化波动率
+     */
+    public double getVolatility() {
+        if (size < 2) {
+            return 0.0;
+        }
+        return Math.sqrt(m2 / (size - 1)) * Math.sqrt(periodsPerYear);
+    }
+
+    /**
+     * 获取年化下行偏差
+     * @return 年化下行偏差
+     */
+    public double getDownsideRisk() {
+        if (size == 0) {
+            return 0.0;
+        }
+        return Math.sqrt(downsideSquareSum / size) * Math.sqrt(periodsPerYear);
+    }
+
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    public double getCurrentDrawdown() {
+        return currentDrawdown;
+    }
+
+    public double getSharpeRatio() {
+        if (size < 2 || m2 <= 0) {
+            return 0.0;
+        }
+        double periodStd = Math.sqrt(m2 / (size - 1));
+        return (meanReturn - periodRiskFreeRate) / periodStd * Math.sqrt(periodsPerYear);
+    }
+
+    public double getSortinoRatio() {
+        if (size == 0 || downsideSquareSum <= 0) {
+            return 0.0;
+        }
+        double periodDownside = Math.sqrt(downsideSquareSum / size);
+        return (meanReturn - periodRiskFreeRate) / periodDownside * Math.sqrt(periodsPerYear);
+    }
+
+    public double getCalmarRatio() {
+        if (maxDrawdown <= 0) {
+            return 0.0;
+        }
+        return getAnnualizedReturn() / maxDrawdown;
+    }
+
+    /**
+     * 获取权益曲线副本
+     * @return 权益曲线
+     */
+    public double[] getEquityCurve() {
+        return Arrays.copyOf(equity, size);
+    }
+
+    /**
+     * 获取周期收益率副本
+     * @return 周期收益率
+     */
+    public double[] getReturns() {
+        return Arrays.copyOf(returns, size);
+    }
+
+    /**
+     * 获取时间戳副本
+     * @return 时间戳（毫秒）
+     */
+    public long[] getTimestamps() {
+        return Arrays.copyOf(timestamps, size);
+    }
+}
@@ -0,0 +1,104 @@
+package com.whaleal.quant.backtest.profile;
+
+/**
+ * 回测阶段耗时汇总
+ * 各阶段在整个回测中的总墙钟时间、CPU 时间和分配字节，以及按日统计的直方图
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class BacktestProfile {
+
+    private final int days;
+    private final long[] wallNanos;
+    private final long[] cpuNanos;
+    private final long[] allocatedBytes;
+    private final StageHistogram[] dailyWall;
+    private final StageHistogram[] dailyCpu;
+    private final StageHistogram[] dailyAllocated;
+    private final boolean cpuTimeSupported;
+    private final boolean allocationSupported;
+
+    BacktestProfile(int days, long[] wallNanos, long[] cpuNanos, long[] allocatedBytes,
+                    StageHistogram[] dailyWall, StageHistogram[] dailyCpu, StageHistogram[] dailyAllocated,
+                    boolean cpuTimeSupported, boolean allocationSupported) {
+        this.days = days;
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.dailyWall = dailyWall;
+        this.dailyCpu = dailyCpu;
+        this.dailyAllocated = dailyAllocated;
+        this.cpuTimeSupported = cpuTimeSupported;
+        this.allocationSupported = allocationSupported;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public long getWallNanos(BacktestStage stage) {
+        return wallNanos[stage.ordinal()];
+    }
+
+    public long getCpuNanos(BacktestStage stage) {
+        return cpuNanos[stage.ordinal()];
+    }
+
+    public long getAllocatedBytes(BacktestStage stage) {
+        return allocatedBytes[stage.ordinal()];
+    }
+
+    /**
+     * 获取按日统计的墙钟时间直方图
+     * @param stage 阶段
+     * @return 直方图（纳秒）
+     */
+    public StageHistogram getDailyWallHistogram(BacktestStage stage) {
+        return dailyWall[stage.ordinal()];
+    }
+
+    public StageHistogram getDailyCpuHistogram(BacktestStage stage) {
+        return dailyCpu[stage.ordinal()];
+    }
+
+    public StageHistogram getDailyAllocationHistogram(BacktestStage stage) {
+        return dailyAllocated[stage.ordinal()];
+    }
+
+    public boolean isCpuTimeSupported() {
+        return cpuTimeSupported;
+    }
+
+    public boolean isAllocationSupported() {
+        return allocationSupported;
+    }
+
+    /**
+     * 生成阶段耗时表
+     * @return 阶段耗时表
+     */
+    public String generateTable() {
+        long totalWall = 0;
+        for (long nanos : wallNanos) {
+            totalWall += nanos;
+        }
+
+        StringBuilder table = new StringBuilder();
+        table.append("--- 阶段耗时 (" + days + " 个交易日) ---\n");
+        table.append(String.format("%-10s %12s %7s %12s %12s %12s %12s%n",
+                "阶段", "墙钟(ms)", "占比%", "CPU(ms)", "分配(MB)", "日P50(ms)", "日P99(ms)"));
+        for (BacktestStage stage : BacktestStage.values()) {
+            int i = stage.ordinal();
+            table.append(String.format("%-10s %12.1f %7.1f %12s %12s %12.3f %12.3f%n",
+                    stage.getName(),
+                    wallNanos[i] / 1e6,
+                    totalWall > 0 ? wallNanos[i] * 100.0 / totalWall : 0.0,
+                    cpuTimeSupported ? String.format("%.1f", cpuNanos[i] / 1e6) : "-",
+                    allocationSupported ? String.format("%.1f", allocatedBytes[i] / 1048576.0) : "-",
+                    dailyWall[i].getPercentile(50) / 1e6,
+                    dailyWall[i].getPercentile(99) / 1e6));
+        }
+        return table.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.whaleal.quant.backtest.profile;
+
+/**
+ * 回测阶段
+ * 回测引擎中单独计时的执行阶段
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public enum BacktestStage {
+
+    /**
+     * 数据加载，每次回测一次
+     */
+    DATA_LOADING("数据加载"),
+
+    /**
+     * 读取和解码当日市场数据
+     */
+    DATA_DECODING("数据解码"),
+
+    /**
+     * 盯市
+     */
+    MARK_TO_MARKET("盯市"),
+
+    /**
+     * 策略回调，包括策略内的风控检查和下单撮合
+     */
+    STRATEGY("策略回调"),
+
+    /**
+     * 日终统计
+     */
+    END_OF_DAY("日终统计"),
+
+    /**
+     * 写入检查点
+     */
+    CHECKPOINT("检查点");
+
+    private final String name;
+
+    BacktestStage(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
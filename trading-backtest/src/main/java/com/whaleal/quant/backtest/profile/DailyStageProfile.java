@@ -0,0 +1,64 @@
+package com.whaleal.quant.backtest.profile;
+
+import java.time.LocalDateTime;
+
+/**
+ * 单日阶段耗时
+ * 一个交易日内各阶段的墙钟时间、CPU 时间和分配字节数
+ *
+ * <p>策略回调在多个线程上执行，其 CPU 时间和分配字节为各线程之和，墙钟时间为分发到全部完成的耗时
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class DailyStageProfile {
+
+    private final LocalDateTime date;
+    private final long[] wallNanos;
+    private final long[] cpuNanos;
+    private final long[] allocatedBytes;
+
+    DailyStageProfile(LocalDateTime date, long[] wallNanos, long[] cpuNanos, long[] allocatedBytes) {
+        this.date = date;
+        this.wallNanos = wallNanos;
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public long getWallNanos(BacktestStage stage) {
+        return wallNanos[stage.ordinal()];
+    }
+
+    public long getCpuNanos(BacktestStage stage) {
+        return cpuNanos[stage.ordinal()];
+    }
+
+    public long getAllocatedBytes(BacktestStage stage) {
+        return allocatedBytes[stage.ordinal()];
+    }
+
+    /**
+     * 获取当日各阶段墙钟时间之和
+     * @return 墙钟时间（纳秒）
+     */
+    public long getTotalWallNanos() {
+        long total = 0;
+        for (long nanos : wallNanos) {
+            total += nanos;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("DailyStageProfile{date=").append(date);
+        for (BacktestStage stage : BacktestStage.values()) {
+            builder.append(", ").append(stage.name()).append("=").append(wallNanos[stage.ordinal()] / 1000).append("us");
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.whaleal.quant.backtest.profile;
+
+/**
+ * 阶段直方图
+ * 按2的幂分桶记录非负数值（如每日耗时纳秒、分配字节），分位数取所在桶的上界，误差不超过一倍
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class StageHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+
+    public StageHistogram() {
+        this.counts = new long[BUCKETS];
+        this.min = Long.MAX_VALUE;
+    }
+
+    /**
+     * 拷贝构造方法
+     * @param other 其他直方图
+     */
+    public StageHistogram(StageHistogram other) {
+        this.counts = other.counts.clone();
+        this.count = other.count;
+        this.sum = other.sum;
+        this.min = other.min;
+        this.max = other.max;
+    }
+
+    /**
+     * 记录一个数值
+     * @param value 数值，负数按 0 记录
+     */
+    public void record(long value) {
+        long v = Math.max(0L, value);
+        counts[bucketOf(v)]++;
+        count++;
+        sum += v;
+        if (v < min) {
+            min = v;
+        }
+        if (v > max) {
+            max = v;
+        }
+    }
+
+    /**
+     * 获取分位数
+     * @param percentile 分位，范围[0, 100]
+     * @return 分位数的近似值，没有记录时返回 0
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        if (rank < 1) {
+            rank = 1;
+        }
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, upperBound(i));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0L : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    private static int bucketOf(long value) {
+        return value == 0 ? 0 : 64 - Long.numberOfLeadingZeros(value) - 1;
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket >= 62 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+    }
+}
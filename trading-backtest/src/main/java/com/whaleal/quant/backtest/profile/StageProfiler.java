@@ -0,0 +1,198 @@
+package com.whaleal.quant.backtest.profile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 阶段耗时分析器
+ * 按阶段记录墙钟时间、当前线程 CPU 时间和分配字节数（通过 ThreadMXBean），按交易日汇总为直方图
+ *
+ * <p>每次计时只做两次 nanoTime 和两次 ThreadMXBean 调用，不分配对象；
+ * 在线程池中执行的阶段用 {@link #beginThreadTime()} / {@link #endThreadTime(BacktestStage)} 记录各线程的 CPU 和分配，
+ * 墙钟时间由分发线程通过 {@link #addWallTime(BacktestStage, long)} 统一记录。
+ * {@link #endDay(LocalDateTime)} 只能由驱动回测的线程调用
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class StageProfiler {
+
+    private static final int METRICS = 3;
+    private static final int WALL = 0;
+    private static final int CPU = 1;
+    private static final int ALLOCATED = 2;
+
+    private static final BacktestStage[] STAGES = BacktestStage.values();
+
+    private final ThreadMXBean threadMXBean;
+    private final com.sun.management.ThreadMXBean allocationMXBean;
+    private final boolean cpuTimeSupported;
+    private final boolean allocationSupported;
+
+    private final AtomicLongArray dayTotals = new AtomicLongArray(STAGES.length * METRICS);
+    private final long[] runTotals = new long[STAGES.length * METRICS];
+    private final StageHistogram[] dailyWall = newHistograms();
+    private final StageHistogram[] dailyCpu = newHistograms();
+    private final StageHistogram[] dailyAllocated = newHistograms();
+    private final ThreadLocal<long[]> threadStart = ThreadLocal.withInitial(() -> new long[2]);
+    private int days;
+
+    public StageProfiler() {
+        this.threadMXBean = ManagementFactory.getThreadMXBean();
+        boolean cpu = false;
+        try {
+            if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+                if (!threadMXBean.isThreadCpuTimeEnabled()) {
+                    threadMXBean.setThreadCpuTimeEnabled(true);
+                }
+                cpu = true;
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            cpu = false;
+        }
+        this.cpuTimeSupported = cpu;
+
+        com.sun.management.ThreadMXBean allocation = null;
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean candidate = (com.sun.management.ThreadMXBean) threadMXBean;
+            try {
+                if (candidate.isThreadAllocatedMemorySupported()) {
+                    if (!candidate.isThreadAllocatedMemoryEnabled()) {
+                        candidate.setThreadAllocatedMemoryEnabled(true);
+                    }
+                    allocation = candidate;
+                }
+            } catch (UnsupportedOperationException | SecurityException e) {
+                allocation = null;
+            }
+        }
+        this.allocationMXBean = allocation;
+        this.allocationSupported = allocation != null;
+    }
+
+    /**
+     * 开始计时
+     * @return 墙钟起点，传给 {@link #end(BacktestStage, long)}
+     */
+    public long begin() {
+        beginThreadTime();
+        return System.nanoTime();
+    }
+
+    /**
+     * 结束计时并记录到指定阶段
+     * @param stage 阶段
+     * @param wallStart {@link #begin()} 的返回值
+     */
+    public void end(BacktestStage stage, long wallStart) {
+        addWallTime(stage, System.nanoTime() - wallStart);
+        endThreadTime(stage);
+    }
+
+    /**
+     * 记录当前线程的 CPU 时间和分配字节起点
+     */
+    public void beginThreadTime() {
+        long[] start = threadStart.get();
+        start[0] = cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : 0L;
+        start[1] = allocationSupported ? currentThreadAllocatedBytes() : 0L;
+    }
+
+    /**
+     * 把当前线程自 {@link #beginThreadTime()} 起的 CPU 时间和分配字节记录到指定阶段
+     * @param stage 阶段
+     */
+    public void endThreadTime(BacktestStage stage) {
+        long[] start = threadStart.get();
+        int base = stage.ordinal() * METRICS;
+        if (cpuTimeSupported) {
+            dayTotals.addAndGet(base + CPU, threadMXBean.getCurrentThreadCpuTime() - start[0]);
+        }
+        if (allocationSupported) {
+            dayTotals.addAndGet(base + ALLOCATED, currentThreadAllocatedBytes() - start[1]);
+        }
+    }
+
+    /**
+     * 记录墙钟时间
+     * @param stage 阶段
+     * @param nanos 纳秒
+     */
+    public void addWallTime(BacktestStage stage, long nanos) {
+        dayTotals.addAndGet(stage.ordinal() * METRICS + WALL, nanos);
+    }
+
+    /**
+     * 结束一个交易日，汇总当日数据到直方图并清零
+     * 回测开始前的数据加载计入第一个交易日
+     * @param date 交易日
+     * @return 当日阶段耗时
+     */
+    public DailyStageProfile endDay(LocalDateTime date) {
+        long[] wall = new long[STAGES.length];
+        long[] cpu = new long[STAGES.length];
+        long[] allocated = new long[STAGES.length];
+        for (int i = 0; i < STAGES.length; i++) {
+            int base = i * METRICS;
+            wall[i] = dayTotals.getAndSet(base + WALL, 0L);
+            cpu[i] = dayTotals.getAndSet(base + CPU, 0L);
+            allocated[i] = dayTotals.getAndSet(base + ALLOCATED, 0L);
+
+            runTotals[base + WALL] += wall[i];
+            runTotals[base + CPU] += cpu[i];
+            runTotals[base + ALLOCATED] += allocated[i];
+            dailyWall[i].record(wall[i]);
+            dailyCpu[i].record(cpu[i]);
+            dailyAllocated[i].record(allocated[i]);
+        }
+        days++;
+        return new DailyStageProfile(date, wall, cpu, allocated);
+    }
+
+    /**
+     * 生成汇总，未结束交易日的数据一并计入总量
+     * @return 阶段耗时汇总
+     */
+    public BacktestProfile snapshot() {
+        long[] wall = new long[STAGES.length];
+        long[] cpu = new long[STAGES.length];
+        long[] allocated = new long[STAGES.length];
+        StageHistogram[] wallHistograms = new StageHistogram[STAGES.length];
+        StageHistogram[] cpuHistograms = new StageHistogram[STAGES.length];
+        StageHistogram[] allocatedHistograms = new StageHistogram[STAGES.length];
+        for (int i = 0; i < STAGES.length; i++) {
+            int base = i * METRICS;
+            wall[i] = runTotals[base + WALL] + dayTotals.get(base + WALL);
+            cpu[i] = runTotals[base + CPU] + dayTotals.get(base + CPU);
+            allocated[i] = runTotals[base + ALLOCATED] + dayTotals.get(base + ALLOCATED);
+            wallHistograms[i] = new StageHistogram(dailyWall[i]);
+            cpuHistograms[i] = new StageHistogram(dailyCpu[i]);
+            allocatedHistograms[i] = new StageHistogram(dailyAllocated[i]);
+        }
+        return new BacktestProfile(days, wall, cpu, allocated,
+                wallHistograms, cpuHistograms, allocatedHistograms,
+                cpuTimeSupported, allocationSupported);
+    }
+
+    public boolean isCpuTimeSupported() {
+        return cpuTimeSupported;
+    }
+
+    public boolean isAllocationSupported() {
+        return allocationSupported;
+    }
+
+    private long currentThreadAllocatedBytes() {
+        return allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static StageHistogram[] newHistograms() {
+        StageHistogram[] histograms = new StageHistogram[STAGES.length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new StageHistogram();
+        }
+        return histograms;
+    }
+}
@@ -0,0 +1,30 @@
+package com.whaleal.quant.backtest.replay;
+
+/**
+ * 回放模式
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public enum ReplayMode {
+
+    /**
+     * 尽可能快地回放，不等待
+     */
+    AS_FAST_AS_POSSIBLE("极速回放"),
+
+    /**
+     * 按录制时的时间间隔回放，可按倍速缩放
+     */
+    SCALED_REAL_TIME("按比例实时回放");
+
+    private final String name;
+
+    ReplayMode(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
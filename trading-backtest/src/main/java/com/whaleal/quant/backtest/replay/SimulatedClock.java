@@ -0,0 +1,72 @@
+package com.whaleal.quant.backtest.replay;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 模拟时钟
+ * 由回放过程推进的时钟，时间只会前进；策略可以通过它获取回放中的"当前时间"
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class SimulatedClock extends Clock {
+
+    private final AtomicLong epochMillis;
+    private final ZoneId zone;
+
+    /**
+     * 构造方法
+     * @param start 起始时间
+     */
+    public SimulatedClock(Instant start) {
+        this(new AtomicLong(start.toEpochMilli()), ZoneOffset.UTC);
+    }
+
+    private SimulatedClock(AtomicLong epochMillis, ZoneId zone) {
+        this.epochMillis = epochMillis;
+        this.zone = zone;
+    }
+
+    /**
+     * 推进时钟，早于当前时间的时间点被忽略
+     * @param timestampMillis 时间戳（毫秒）
+     */
+    public void advanceTo(long timestampMillis) {
+        epochMillis.accumulateAndGet(timestampMillis, Math::max);
+    }
+
+    /**
+     * 重置时钟，仅在重新开始回放时使用
+     * @param start 起始时间
+     */
+    public void reset(Instant start) {
+        epochMillis.set(start.toEpochMilli());
+    }
+
+    @Override
+    public long millis() {
+        return epochMillis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(epochMillis.get());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 返回共享同一时间的指定时区视图
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new SimulatedClock(epochMillis, zone);
+    }
+}
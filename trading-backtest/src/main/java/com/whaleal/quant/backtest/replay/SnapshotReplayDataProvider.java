@@ -0,0 +1,463 @@
+package com.whaleal.quant.backtest.replay;
+
+import com.whaleal.quant.backtest.data.BacktestDataProvider;
+import com.whaleal.quant.data.service.SnapshotReader;
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 快照回放数据提供者
+ * 将 {@code SnapshotService} 录制的行情快照按时间戳多路归并后逐条回放给回测循环，并推进模拟时钟
+ *
+ * <p>快照文件按快照时间排序，同时最多打开 {@code maxOpenFiles} 个文件做归并，每个文件只预读一条行情，
+ * 因此内存占用只与打开的文件数和单个交易日的行情量有关，与快照总量无关。
+ * 同一快照中的行情时间不晚于快照时间，相隔超过 {@code maxOpenFiles} 个文件的快照之间行情时间不应交叉
+ *
+ * <p>{@link ReplayMode#SCALED_REAL_TIME} 模式下按录制时的时间间隔除以倍速等待后再交付每条行情；
+ * 该类只供一个回测顺序使用，不支持多个回测并发共享
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class SnapshotReplayDataProvider implements BacktestDataProvider {
+
+    private static final String SOURCE = "snapshot-replay";
+    private static final String SNAPSHOT_EXTENSION = ".snapshot.gz";
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot_(\\d+)\\.snapshot\\.gz");
+
+    private final List<Path> snapshotFiles;
+    private final List<Path> snapshotDirectories;
+    private final ReplayMode mode;
+    private final double speed;
+    private final int maxOpenFiles;
+    private final SimulatedClock clock;
+
+    private final List<SnapshotFile> files;
+    private final TreeSet<LocalDate> tradingDays;
+    private final PriorityQueue<Cursor> openCursors;
+    private Set<String> symbols;
+    private long startMillis;
+    private long endMillis;
+    private int nextFileIndex;
+    private long consumedUntilMillis;
+    private long pacingWallStartNanos;
+    private long pacingSimStartMillis;
+
+    private SnapshotReplayDataProvider(Builder builder) {
+        this.snapshotFiles = new ArrayList<>(builder.snapshotFiles);
+        this.snapshotDirectories = new ArrayList<>(builder.snapshotDirectories);
+        this.mode = builder.mode;
+        this.speed = builder.speed;
+        this.maxOpenFiles = builder.maxOpenFiles;
+        this.clock = builder.clock != null ? builder.clock : new SimulatedClock(Instant.EPOCH);
+        this.files = new ArrayList<>();
+        this.tradingDays = new TreeSet<>();
+        this.openCursors = new PriorityQueue<>(Comparator.comparingLong((Cursor c) -> c.headMillis).thenComparingInt(c -> c.fileIndex));
+        this.symbols = Collections.emptySet();
+    }
+
+    @Override
+    public synchronized void loadData(Set<String> symbols, LocalDateTime startDate, LocalDateTime endDate) {
+        cleanup();
+        this.symbols = symbols != null ? new HashSet<>(symbols) : Collections.emptySet();
+        this.startMillis = startDate.toInstant(ZoneOffset.UTC).toEpochMilli();
+        this.endMillis = endDate.toLocalDate().plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        List<Path> paths = new ArrayList<>(snapshotFiles);
+        for (Path directory : snapshotDirectories) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SNAPSHOT_EXTENSION)) {
+                for (Path path : stream) {
+                    paths.add(path);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to list snapshot directory " + directory, e);
+            }
+        }
+
+        for (Path path : paths) {
+            long timestamp = snapshotTimestamp(path);
+            // 快照中的行情不晚于快照时间，早于回测区间的快照可以整体跳过
+            if (timestamp < startMillis) {
+                continue;
+            }
+            files.add(new SnapshotFile(path, timestamp));
+            if (timestamp < endMillis) {
+                tradingDays.add(Instant.ofEpochMilli(timestamp).atOffset(ZoneOffset.UTC).toLocalDate());
+            }
+        }
+        files.sort(Comparator.comparingLong((SnapshotFile f) -> f.timestampMillis).thenComparing(f -> f.path.toString()));
+        restart();
+    }
+
+    @Override
+    public synchronized Map<String, List<MarketDataEvent>> getMarketDataEvents(LocalDateTime date) {
+        long dayStart = date.toLocalDate().atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        long dayEnd = Math.min(endMillis, dayStart + 86_400_000L);
+        if (dayStart < consumedUntilMillis) {
+            // 回到已回放过的日期时从头重新归并
+            restart();
+        }
+
+        Map<String, List<MarketDataEvent>> events = new HashMap<>();
+        while (peekMillis() < dayEnd) {
+            Ticker ticker = poll();
+            long timestamp = tickerMillis(ticker);
+            if (timestamp < dayStart || timestamp < startMillis || !accepts(ticker)) {
+                continue;
+            }
+            pace(timestamp);
+            clock.advanceTo(timestamp);
+            events.computeIfAbsent(ticker.getSymbol(), k -> new ArrayList<>()).add(toEvent(ticker, timestamp));
+        }
+        consumedUntilMillis = dayEnd;
+        return events;
+    }
+
+    /**
+     * 不经过按日分组，直接把回测区间内的行情逐条推送给消费者
+     * 内存占用不随交易日的行情量增长，适合驱动实时监控或直接喂给策略引擎
+     * @param consumer 市场数据事件消费者
+     */
+    public synchronized void replay(Consumer<MarketDataEvent> consumer) {
+        restart();
+        while (peekMillis() < endMillis) {
+            Ticker ticker = poll();
+            long timestamp = tickerMillis(ticker);
+            if (timestamp < startMillis || !accepts(ticker)) {
+                continue;
+            }
+            pace(timestamp);
+            clock.advanceTo(timestamp);
+            consumer.accept(toEvent(ticker, timestamp));
+        }
+        consumedUntilMillis = endMillis;
+    }
+
+    @Override
+    public synchronized boolean isTradingDay(LocalDateTime date) {
+        return tradingDays.contains(date.toLocalDate());
+    }
+
+    @Override
+    public synchronized LocalDateTime getNextTradingDay(LocalDateTime date) {
+        LocalDate next = tradingDays.higher(date.toLocalDate());
+        return next != null ? next.atStartOfDay() : null;
+    }
+
+    @Override
+    public synchronized LocalDateTime getPreviousTradingDay(LocalDateTime date) {
+        LocalDate previous = tradingDays.lower(date.toLocalDate());
+        return previous != null ? previous.atStartOfDay() : null;
+    }
+
+    @Override
+    public synchronized List<LocalDateTime> getTradingDays(LocalDateTime startDate, LocalDateTime endDate) {
+        List<LocalDateTime> days = new ArrayList<>();
+        for (LocalDate day : tradingDays.subSet(startDate.toLocalDate(), true, endDate.toLocalDate(), true)) {
+            days.add(day.atStartOfDay());
+        }
+        return days;
+    }
+
+    @Override
+    public synchronized void cleanup() {
+        closeCursors();
+        files.clear();
+        tradingDays.clear();
+        nextFileIndex = 0;
+        consumedUntilMillis = Long.MIN_VALUE;
+    }
+
+    /**
+     * 获取模拟时钟
+     * @return 模拟时钟
+     */
+    public SimulatedClock getClock() {
+        return clock;
+    }
+
+    public ReplayMode getMode() {
+        return mode;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * 从第一个快照重新开始归并
+     */
+    private void restart() {
+        closeCursors();
+        nextFileIndex = 0;
+        consumedUntilMillis = Long.MIN_VALUE;
+        pacingWallStartNanos = -1L;
+        clock.reset(Instant.ofEpochMilli(startMillis));
+    }
+
+    /**
+     * 查看下一条行情的时间，不消费
+     */
+    private long peekMillis() {
+        refill();
+        Cursor head = openCursors.peek();
+        return head != null ? head.headMillis : Long.MAX_VALUE;
+    }
+
+    private Ticker poll() {
+        Cursor cursor = openCursors.poll();
+        Ticker ticker = cursor.head;
+        if (advance(cursor)) {
+            openCursors.add(cursor);
+        }
+        return ticker;
+    }
+
+    private void refill() {
+        while (openCursors.size() < maxOpenFiles && nextFileIndex < files.size()) {
+            int fileIndex = nextFileIndex++;
+            SnapshotFile file = files.get(fileIndex);
+            try {
+                Cursor cursor = new Cursor(new SnapshotReader(file.path), fileIndex, file.timestampMillis);
+                if (advance(cursor)) {
+                    openCursors.add(cursor);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to open snapshot " + file.path, e);
+            }
+        }
+    }
+
+    /**
+     * 预读游标的下一条行情，文件读完时关闭并返回 false
+     */
+    private boolean advance(Cursor cursor) {
+        try {
+            if (cursor.reader.hasNext()) {
+                cursor.head = cursor.reader.next();
+                cursor.headMillis = cursor.head.getTimestamp() != null
+                        ? cursor.head.getTimestamp().toEpochMilli()
+                        : cursor.snapshotMillis;
+                return true;
+            }
+            cursor.reader.close();
+            return false;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read snapshot " + cursor.reader.getPath(), e);
+        }
+    }
+
+    private void closeCursors() {
+        for (Cursor cursor : openCursors) {
+            try {
+                cursor.reader.close();
+            } catch (IOException e) {
+                // 忽略关闭异常
+            }
+        }
+        openCursors.clear();
+    }
+
+    private long tickerMillis(Ticker ticker) {
+        return ticker.getTimestamp() != null ? ticker.getTimestamp().toEpochMilli() : clock.millis();
+    }
+
+    private boolean accepts(Ticker ticker) {
+        return symbols.isEmpty() || symbols.contains(ticker.getSymbol());
+    }
+
+    /**
+     * 按比例实时模式下等待到行情应当交付的时刻
+     */
+    private void pace(long timestampMillis) {
+        if (mode != ReplayMode.SCALED_REAL_TIME) {
+            return;
+        }
+        if (pacingWallStartNanos < 0) {
+            pacingWallStartNanos = System.nanoTime();
+            pacingSimStartMillis = timestampMillis;
+            return;
+        }
+        long targetNanos = pacingWallStartNanos + (long) ((timestampMillis - pacingSimStartMillis) * 1_000_000L / speed);
+        long waitNanos = targetNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            try {
+                Thread.sleep(waitNanos / 1_000_000L, (int) (waitNanos % 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Replay interrupted", e);
+            }
+        }
+    }
+
+    private static MarketDataEvent toEvent(Ticker ticker, long timestamp) {
+        return MarketDataEvent.builder()
+                .eventId(ticker.getSymbol() + "-" + timestamp)
+                .symbol(ticker.getSymbol())
+                .ticker(ticker)
+                .timestamp(timestamp)
+                .source(SOURCE)
+                .build();
+    }
+
+    /**
+     * 获取快照时间，优先从文件名解析，避免为排序打开文件
+     */
+    private static long snapshotTimestamp(Path path) {
+        Matcher matcher = SNAPSHOT_NAME.matcher(path.getFileName().toString());
+        if (matcher.matches()) {
+            return Long.parseLong(matcher.group(1));
+        }
+        try (SnapshotReader reader = new SnapshotReader(path)) {
+            return reader.getTimestamp().toEpochMilli();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read snapshot header " + path, e);
+        }
+    }
+
+    /**
+     * 创建 Builder 实例
+     * @return Builder 实例
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 快照文件
+     */
+    private static final class SnapshotFile {
+        private final Path path;
+        private final long timestampMillis;
+
+        SnapshotFile(Path path, long timestampMillis) {
+            this.path = path;
+            this.timestampMillis = timestampMillis;
+        }
+    }
+
+    /**
+     * 归并游标，持有一个打开的快照和预读的一条行情
+     */
+    private static final class Cursor {
+        private final SnapshotReader reader;
+        private final int fileIndex;
+        private final long snapshotMillis;
+        private Ticker head;
+        private long headMillis;
+
+        Cursor(SnapshotReader reader, int fileIndex, long snapshotMillis) {
+            this.reader = reader;
+            this.fileIndex = fileIndex;
+            this.snapshotMillis = snapshotMillis;
+        }
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private final List<Path> snapshotFiles;
+        private final List<Path> snapshotDirectories;
+        private ReplayMode mode;
+        private double speed;
+        private int maxOpenFiles;
+        private SimulatedClock clock;
+
+        public Builder() {
+            this.snapshotFiles = new ArrayList<>();
+            this.snapshotDirectories = new ArrayList<>();
+            this.mode = ReplayMode.AS_FAST_AS_POSSIBLE;
+            this.speed = 1.0;
+            this.maxOpenFiles = 64;
+        }
+
+        /**
+         * 添加快照文件
+         * @param files 快照文件
+         * @return Builder 实例
+         */
+        public Builder snapshotFiles(List<Path> files) {
+            this.snapshotFiles.addAll(files);
+            return this;
+        }
+
+        /**
+         * 添加快照目录，加载时读取目录下所有快照文件
+         * @param directory 快照目录
+         * @return Builder 实例
+         */
+        public Builder snapshotDirectory(Path directory) {
+            this.snapshotDirectories.add(directory);
+            return this;
+        }
+
+        public Builder mode(ReplayMode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * 设置按比例实时回放的倍速，2.0 表示两倍速
+         * @param speed 倍速
+         * @return Builder 实例
+         */
+        public Builder speed(double speed) {
+            this.speed = speed;
+            return this;
+        }
+
+        /**
+         * 设置同时打开的快照文件数上限
+         * @param maxOpenFiles 文件数上限
+         * @return Builder 实例
+         */
+        public Builder maxOpenFiles(int maxOpenFiles) {
+            this.maxOpenFiles = maxOpenFiles;
+            return this;
+        }
+
+        public Builder clock(SimulatedClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public SnapshotReplayDataProvider build() {
+            if (snapshotFiles.isEmpty() && snapshotDirectories.isEmpty()) {
+                throw new IllegalArgumentException("At least one snapshot file or directory is required");
+            }
+            if (mode == null) {
+                throw new IllegalArgumentException("Replay mode is required");
+            }
+            if (speed <= 0) {
+                throw new IllegalArgumentException("Speed must be positive");
+            }
+            if (maxOpenFiles <= 0) {
+                throw new IllegalArgumentException("Max open files must be positive");
+            }
+            return new SnapshotReplayDataProvider(this);
+        }
+    }
+}
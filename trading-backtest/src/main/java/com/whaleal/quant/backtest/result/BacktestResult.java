@@ -1,6 +1,9 @@
 package com.whaleal.quant.backtest.result;
 
 import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.model.BacktestContext;
+import com.whaleal.quant.backtest.model.PerformanceTracker;
+import com.whaleal.quant.backtest.profile.BacktestProfile;
 import com.whaleal.quant.model.trading.Order;
 import com.whaleal.quant.model.trading.Position;
 
@@ -68,6 +71,31 @@ public class BacktestResult {
      */
     private final int lossCount;
 
+    /**
+     * 权益曲线时间戳（毫秒）
+     */
+    private final long[] equityTimestamps;
+
+    /**
+     * 权益曲线
+     */
+    private final double[] equityCurve;
+
+    /**
+     * 周期收益率
+     */
+    private final double[] dailyReturns;
+
+    /**
+     * 逐笔平仓盈亏
+     */
+    private final double[] tradePnls;
+
+    /**
+     * 阶段耗时汇总，未开启性能分析时为空
+     */
+    private final BacktestProfile profile;
+
     /**
      * 构造方法
      * @param builder Builder
@@ -83,6 +111,11 @@ public class BacktestResult {
         this.tradeCount = builder.tradeCount;
         this.winCount = builder.winCount;
         this.lossCount = builder.lossCount;
+        this.equityTimestamps = builder.equityTimestamps;
+        this.equityCurve = builder.equityCurve;
+        this.dailyReturns = builder.dailyReturns;
+        this.tradePnls = builder.tradePnls;
+        this.profile = builder.profile;
     }
 
     /**
@@ -117,6 +150,30 @@ public class BacktestResult {
         return metrics.getOrDefault("maxDrawdown", 0.0);
     }
 
+    /**
+     * 获取年化波动率
+     * @return 年化波动率
+     */
+    public double getVolatility() {
+        return metrics.getOrDefault("volatility", 0.0);
+    }
+
+    /**
+     * 获取索提诺比率
+     * @return 索提诺比率
+     */
+    public double getSortinoRatio() {
+        return metrics.getOrDefault("sortinoRatio", 0.0);
+    }
+
+    /**
+     * 获取卡玛比率
+     * @return 卡玛比率
+     */
+    public double getCalmarRatio() {
+        return metrics.getOrDefault("calmarRatio", 0.0);
+    }
+
     /**
      * 获取胜率
      * @return 胜率
@@ -145,13 +202,19 @@ public class BacktestResult {
         report.append("最终资金: " + (config.getInitialCapital() * (1 + getTotalReturn())) + "\n");
         report.append("总收益率: " + (getTotalReturn() * 100) + "%\n");
         report.append("年化收益率: " + (getAnnualizedReturn() * 100) + "%\n");
+        report.append("年化波动率: " + (getVolatility() * 100) + "%\n");
         report.append("夏普比率: " + getSharpeRatio() + "\n");
+        report.append("索提诺比率: " + getSortinoRatio() + "\n");
+        report.append("卡玛比率: " + getCalmarRatio() + "\n");
         report.append("最大回撤: " + (getMaxDrawdown() * 100) + "%\n");
         report.append("交易次数: " + tradeCount + "\n");
         report.append("获胜次数: " + winCount + "\n");
         report.append("失败次数: " + lossCount + "\n");
         report.append("胜率: " + (getWinRate() * 100) + "%\n");
         report.append("平均盈亏比: " + getProfitLossRatio() + "\n");
+        if (profile != null) {
+            report.append(profile.generateTable());
+        }
         report.append("================\n");
         return report.toString();
     }
@@ -198,6 +261,26 @@ public class BacktestResult {
         return lossCount;
     }
 
+    public long[] getEquityTimestamps() {
+        return equityTimestamps;
+    }
+
+    public double[] getEquityCurve() {
+        return equityCurve;
+    }
+
+    public double[] getDailyReturns() {
+        return dailyReturns;
+    }
+
+    public double[] getTradePnls() {
+        return tradePnls;
+    }
+
+    public BacktestProfile getProfile() {
+        return profile;
+    }
+
     /**
      * Builder 类
      */
@@ -212,6 +295,11 @@ public class BacktestResult {
         private int tradeCount;
         private int winCount;
         private int lossCount;
+        private long[] equityTimestamps;
+        private double[] equityCurve;
+        private double[] dailyReturns;
+        private double[] tradePnls;
+        private BacktestProfile profile;
 
         public Builder() {
             this.orders = new HashMap<>();
@@ -221,6 +309,10 @@ public class BacktestResult {
             this.tradeCount = 0;
             this.winCount = 0;
             this.lossCount = 0;
+            this.equityTimestamps = new long[0];
+            this.equityCurve = new double[0];
+            this.dailyReturns = new double[0];
+            this.tradePnls = new double[0];
         }
 
         public Builder config(BacktestConfig config) {
@@ -273,6 +365,30 @@ public class BacktestResult {
             return this;
         }
 
+        public Builder equityCurve(long[] equityTimestamps, double[] equityCurve) {
+            if (equityTimestamps.length != equityCurve.length) {
+                throw new IllegalArgumentException("Equity timestamps and values must have the same length");
+            }
+            this.equityTimestamps = equityTimestamps;
+            this.equityCurve = equityCurve;
+            return this;
+        }
+
+        public Builder dailyReturns(double[] dailyReturns) {
+            this.dailyReturns = dailyReturns;
+            return this;
+        }
+
+        public Builder tradePnls(double[] tradePnls) {
+            this.tradePnls = tradePnls;
+            return this;
+        }
+
+        public Builder profile(BacktestProfile profile) {
+            this.profile = profile;
+            return this;
+        }
+
         public BacktestResult build() {
             if (config == null) {
                 throw new IllegalArgumentException("Config is required");
@@ -287,6 +403,43 @@ public class BacktestResult {
         }
     }
 
+    /**
+     * 根据回测上下文生成回测结果
+     * @param context 回测上下文
+     * @return 回测结果
+     */
+    public static BacktestResult fromContext(BacktestContext context) {
+        return fromContext(context, null);
+    }
+
+    /**
+     * 根据回测上下文和阶段耗时汇总生成回测结果
+     * @param context 回测上下文
+     * @param profile 阶段耗时汇总，可为空
+     * @return 回测结果
+     */
+    public static BacktestResult fromContext(BacktestContext context, BacktestProfile profile) {
+        BacktestConfig config = context.getConfig();
+        PerformanceTracker performance = context.getPerformance();
+
+        return builder()
+                .config(config)
+                .orders(context.getOrders())
+                .positions(context.getPositions())
+                .pnl(context.getPnL())
+                .metrics(context.getMetrics())
+                .equityCurve(performance.getTimestamps(), performance.getEquityCurve())
+                .dailyReturns(performance.getReturns())
+                .tradePnls(context.getTradePnls())
+                .startDate(config.getStartDate())
+                .endDate(config.getEndDate())
+                .tradeCount(context.getTradeCount())
+                .winCount(context.getWinCount())
+                .lossCount(context.getLossCount())
+                .profile(profile)
+                .build();
+    }
+
     /**
      * 创建 Builder
      * @return Builder
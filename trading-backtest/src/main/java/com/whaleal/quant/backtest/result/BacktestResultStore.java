@@ -0,0 +1,132 @@
+package com.whaleal.quant.backtest.result;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 回测结果存储
+ * 按运行编号把紧凑回测结果保存到本地目录，每次运行一个文件，便于事后批量载入对比
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class BacktestResultStore {
+
+    private static final String EXTENSION = ".wqr";
+    private static final Pattern RUN_ID = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final Path directory;
+
+    /**
+     * 构造方法
+     * @param directory 存储目录
+     */
+    public BacktestResultStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * 保存回测结果
+     * @param runId 运行编号，只能包含字母、数字、点、下划线和短横线
+     * @param result 回测结果
+     * @return 紧凑结果
+     * @throws IOException 写入失败
+     */
+    public CompactBacktestResult save(String runId, BacktestResult result) throws IOException {
+        CompactBacktestResult compact = CompactBacktestResult.from(result);
+        save(runId, compact);
+        return compact;
+    }
+
+    /**
+     * 保存紧凑回测结果
+     * @param runId 运行编号
+     * @param result 紧凑结果
+     * @throws IOException 写入失败
+     */
+    public void save(String runId, CompactBacktestResult result) throws IOException {
+        result.save(pathOf(runId));
+    }
+
+    /**
+     * 载入回测结果
+     * @param runId 运行编号
+     * @return 紧凑结果
+     * @throws IOException 读取失败
+     */
+    public CompactBacktestResult load(String runId) throws IOException {
+        return CompactBacktestResult.load(pathOf(runId));
+    }
+
+    /**
+     * 批量载入回测结果
+     * @param runIds 运行编号
+     * @return 按传入顺序排列的运行编号到结果的映射
+     * @throws IOException 读取失败
+     */
+    public Map<String, CompactBacktestResult> loadAll(Collection<String> runIds) throws IOException {
+        Map<String, CompactBacktestResult> results = new LinkedHashMap<>();
+        for (String runId : runIds) {
+            results.put(runId, load(runId));
+        }
+        return results;
+    }
+
+    /**
+     * 列出已保存的运行编号
+     * @return 按名称排序的运行编号
+     * @throws IOException 读取目录失败
+     */
+    public List<String> listRunIds() throws IOException {
+        List<String> runIds = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return runIds;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                runIds.add(name.substring(0, name.length() - EXTENSION.length()));
+            }
+        }
+        Collections.sort(runIds);
+        return runIds;
+    }
+
+    /**
+     * 是否已保存
+     * @param runId 运行编号
+     * @return 是否存在
+     */
+    public boolean contains(String runId) {
+        return Files.exists(pathOf(runId));
+    }
+
+    /**
+     * 删除回测结果
+     * @param runId 运行编号
+     * @throws IOException 删除失败
+     */
+    public void delete(String runId) throws IOException {
+        Files.deleteIfExists(pathOf(runId));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private Path pathOf(String runId) {
+        if (runId == null || !RUN_ID.matcher(runId).matches()) {
+            throw new IllegalArgumentException("Invalid run id: " + runId);
+        }
+        return directory.resolve(runId + EXTENSION);
+    }
+}
@@ -0,0 +1,744 @@
+package com.whaleal.quant.backtest.result;
+
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.model.trading.Order;
+import com.whaleal.quant.model.trading.Position;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 紧凑回测结果
+ * 以列式数组保存订单、持仓和权益曲线，交易对、方向、状态等字符串按字典编码，
+ * 价格和数量以 double 保存，不再为每笔订单和持仓保留 BigDecimal 对象，适合在优化中大量保留
+ *
+ * <p>订单和持仓只保留回测分析用到的字段（交易对、方向、类型、状态、价格、数量、时间），
+ * 订单号等标识不保留；{@link #toBacktestResult()} 按这些字段还原出精简的订单和持仓对象
+ *
+ * <p>可以写入本地二进制文件，读取时整块载入后按列批量解码。返回的数组不做拷贝，调用方不应修改
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class CompactBacktestResult {
+
+    private static final int MAGIC = 0x57514352;
+    private static final int VERSION = 1;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private final BacktestConfig config;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final int tradeCount;
+    private final int winCount;
+    private final int lossCount;
+
+    /**
+     * 字符串表
+     */
+    private final String[] strings;
+
+    private final int[] metricNames;
+    private final double[] metricValues;
+    private final int[] pnlSymbols;
+    private final double[] pnlValues;
+
+    // 订单列
+    private final int[] orderSymbols;
+    private final int[] orderSides;
+    private final int[] orderTypes;
+    private final int[] orderStatuses;
+    private final double[] orderPrices;
+    private final double[] orderQuantities;
+    private final double[] orderExecutedQuantities;
+    private final double[] orderAveragePrices;
+    private final long[] orderTimestamps;
+
+    // 持仓列
+    private final int[] positionSymbols;
+    private final int[] positionDirections;
+    private final double[] positionQuantities;
+    private final double[] positionAveragePrices;
+    private final double[] positionCurrentPrices;
+    private final double[] positionUnrealizedPnls;
+    private final double[] positionRealizedPnls;
+    private final long[] positionTimestamps;
+
+    // 权益曲线
+    private final long[] equityTimestamps;
+    private final double[] equityCurve;
+    private final double[] dailyReturns;
+    private final double[] tradePnls;
+
+    private CompactBacktestResult(Columns columns) {
+        this.config = columns.config;
+        this.startDate = columns.startDate;
+        this.endDate = columns.endDate;
+        this.tradeCount = columns.tradeCount;
+        this.winCount = columns.winCount;
+        this.lossCount = columns.lossCount;
+        this.strings = columns.strings;
+        this.metricNames = columns.metricNames;
+        this.metricValues = columns.metricValues;
+        this.pnlSymbols = columns.pnlSymbols;
+        this.pnlValues = columns.pnlValues;
+        this.orderSymbols = columns.orderSymbols;
+        this.orderSides = columns.orderSides;
+        this.orderTypes = columns.orderTypes;
+        this.orderStatuses = columns.orderStatuses;
+        this.orderPrices = columns.orderPrices;
+        this.orderQuantities = columns.orderQuantities;
+        this.orderExecutedQuantities = columns.orderExecutedQuantities;
+        this.orderAveragePrices = columns.orderAveragePrices;
+        this.orderTimestamps = columns.orderTimestamps;
+        this.positionSymbols = columns.positionSymbols;
+        this.positionDirections = columns.positionDirections;
+        this.positionQuantities = columns.positionQuantities;
+        this.positionAveragePrices = columns.positionAveragePrices;
+        this.positionCurrentPrices = columns.positionCurrentPrices;
+        this.positionUnrealizedPnls = columns.positionUnrealizedPnls;
+        this.positionRealizedPnls = columns.positionRealizedPnls;
+        this.positionTimestamps = columns.positionTimestamps;
+        this.equityTimestamps = columns.equityTimestamps;
+        this.equityCurve = columns.equityCurve;
+        this.dailyReturns = columns.dailyReturns;
+        this.tradePnls = columns.tradePnls;
+    }
+
+    /**
+     * 把回测结果转换为紧凑结果
+     * @param result 回测结果
+     * @return 紧凑结果
+     */
+    public static CompactBacktestResult from(BacktestResult result) {
+        StringDictionary dictionary = new StringDictionary();
+        Columns columns = new Columns();
+        columns.config = result.getConfig();
+        columns.startDate = result.getStartDate();
+        columns.endDate = result.getEndDate();
+        columns.tradeCount = result.getTradeCount();
+        columns.winCount = result.getWinCount();
+        columns.lossCount = result.getLossCount();
+
+        Map<String, Double> metrics = result.getMetrics();
+        columns.metricNames = new int[metrics.size()];
+        columns.metricValues = new double[metrics.size()];
+        int index = 0;
+        for (Map.Entry<String, Double> entry : metrics.entrySet()) {
+            columns.metricNames[index] = dictionary.encode(entry.getKey());
+            columns.metricValues[index++] = entry.getValue() != null ? entry.getValue() : Double.NaN;
+        }
+
+        Map<String, Double> pnl = result.getPnl();
+        columns.pnlSymbols = new int[pnl.size()];
+        columns.pnlValues = new double[pnl.size()];
+        index = 0;
+        for (Map.Entry<String, Double> entry : pnl.entrySet()) {
+            columns.pnlSymbols[index] = dictionary.encode(entry.getKey());
+            columns.pnlValues[index++] = entry.getValue() != null ? entry.getValue() : Double.NaN;
+        }
+
+        int orderCount = 0;
+        for (List<Order> orders : result.getOrders().values()) {
+            orderCount += orders.size();
+        }
+        columns.allocateOrders(orderCount);
+        index = 0;
+        for (Map.Entry<String, List<Order>> entry : result.getOrders().entrySet()) {
+            int symbol = dictionary.encode(entry.getKey());
+            for (Order order : entry.getValue()) {
+                columns.orderSymbols[index] = symbol;
+                columns.orderSides[index] = dictionary.encode(order.getSide());
+                columns.orderTypes[index] = dictionary.encode(order.getType());
+                columns.orderStatuses[index] = dictionary.encode(order.getStatus());
+                columns.orderPrices[index] = toDouble(order.getPrice());
+                columns.orderQuantities[index] = toDouble(order.getQuantity());
+                columns.orderExecutedQuantities[index] = toDouble(order.getExecutedQty());
+                columns.orderAveragePrices[index] = toDouble(order.getAvgPrice());
+                columns.orderTimestamps[index] = toMillis(order.getTimestamp());
+                index++;
+            }
+        }
+
+        int positionCount = 0;
+        for (List<Position> positions : result.getPositions().values()) {
+            positionCount += positions.size();
+        }
+        columns.allocatePositions(positionCount);
+        index = 0;
+        for (Map.Entry<String, List<Position>> entry : result.getPositions().entrySet()) {
+            int symbol = dictionary.encode(entry.getKey());
+            for (Position position : entry.getValue()) {
+                columns.positionSymbols[index] = symbol;
+                columns.positionDirections[index] = dictionary.encode(position.getDirection());
+                columns.positionQuantities[index] = toDouble(position.getQuantity());
+                columns.positionAveragePrices[index] = toDouble(position.getAveragePrice());
+                columns.positionCurrentPrices[index] = toDouble(position.getCurrentPrice());
+                columns.positionUnrealizedPnls[index] = toDouble(position.getUnrealizedPnL());
+                columns.positionRealizedPnls[index] = toDouble(position.getRealizedPnL());
+                columns.positionTimestamps[index] = toMillis(position.getUpdateTime() != null ? position.getUpdateTime() : position.getCreateTime());
+                index++;
+            }
+        }
+
+        columns.equityTimestamps = result.getEquityTimestamps();
+        columns.equityCurve = result.getEquityCurve();
+        columns.dailyReturns = result.getDailyReturns();
+        columns.tradePnls = result.getTradePnls();
+        columns.strings = dictionary.toArray();
+        return new CompactBacktestResult(columns);
+    }
+
+    /**
+     * 还原为回测结果，订单和持仓为只含保留字段的精简对象
+     * @return 回测结果
+     */
+    public BacktestResult toBacktestResult() {
+        Map<String, Double> metrics = new HashMap<>();
+        for (int i = 0; i < metricNames.length; i++) {
+            metrics.put(strings[metricNames[i]], metricValues[i]);
+        }
+        Map<String, Double> pnl = new HashMap<>();
+        for (int i = 0; i < pnlSymbols.length; i++) {
+            pnl.put(strings[pnlSymbols[i]], pnlValues[i]);
+        }
+
+        Map<String, List<Order>> orders = new LinkedHashMap<>();
+        for (int i = 0; i < orderSymbols.length; i++) {
+            String symbol = strings[orderSymbols[i]];
+            orders.computeIfAbsent(symbol, k -> new ArrayList<>()).add(Order.builder()
+                    .symbol(symbol)
+                    .side(StringDictionary.decode(strings, orderSides[i]))
+                    .type(StringDictionary.decode(strings, orderTypes[i]))
+                    .status(StringDictionary.decode(strings, orderStatuses[i]))
+                    .price(toDecimal(orderPrices[i]))
+                    .quantity(toDecimal(orderQuantities[i]))
+                    .executedQty(toDecimal(orderExecutedQuantities[i]))
+                    .avgPrice(toDecimal(orderAveragePrices[i]))
+                    .timestamp(toInstant(orderTimestamps[i]))
+                    .build());
+        }
+
+        Map<String, List<Position>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < positionSymbols.length; i++) {
+            String symbol = strings[positionSymbols[i]];
+            positions.computeIfAbsent(symbol, k -> new ArrayList<>()).add(Position.builder()
+                    .symbol(symbol)
+                    .direction(StringDictionary.decode(strings, positionDirections[i]))
+                    .quantity(toDecimal(positionQuantities[i]))
+                    .averagePrice(toDecimal(positionAveragePrices[i]))
+                    .currentPrice(toDecimal(positionCurrentPrices[i]))
+                    .unrealizedPnL(toDecimal(positionUnrealizedPnls[i]))
+                    .realizedPnL(toDecimal(positionRealizedPnls[i]))
+                    .updateTime(toInstant(positionTimestamps[i]))
+                    .build());
+        }
+
+        return BacktestResult.builder()
+                .config(config)
+                .startDate(startDate)
+                .endDate(endDate)
+                .metrics(metrics)
+                .pnl(pnl)
+                .orders(orders)
+                .positions(positions)
+                .equityCurve(equityTimestamps, equityCurve)
+                .dailyReturns(dailyReturns)
+                .tradePnls(tradePnls)
+                .tradeCount(tradeCount)
+                .winCount(winCount)
+                .lossCount(lossCount)
+                .build();
+    }
+
+    /**
+     * 获取性能指标
+     * @param name 指标名
+     * @return 指标值，不存在时返回 NaN
+     */
+    public double getMetric(String name) {
+        for (int i = 0; i < metricNames.length; i++) {
+            if (strings[metricNames[i]].equals(name)) {
+                return metricValues[i];
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * 获取全部性能指标名
+     * @return 指标名
+     */
+    public Set<String> getMetricNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (int code : metricNames) {
+            names.add(strings[code]);
+        }
+        return names;
+    }
+
+    public double getTotalReturn() {
+        double value = getMetric("totalReturn");
+        return Double.isNaN(value) ? 0.0 : value;
+    }
+
+    public double getSharpeRatio() {
+        double value = getMetric("sharpeRatio");
+        return Double.isNaN(value) ? 0.0 : value;
+    }
+
+    public double getMaxDrawdown() {
+        double value = getMetric("maxDrawdown");
+        return Double.isNaN(value) ? 0.0 : value;
+    }
+
+    /**
+     * 解码字符串
+     * @param code 编码
+     * @return 字符串
+     */
+    public String getString(int code) {
+        return StringDictionary.decode(strings, code);
+    }
+
+    // 写入与读取
+
+    /**
+     * 写入本地文件，先写临时文件再原子替换
+     * @param path 文件路径
+     * @throws IOException 写入失败
+     */
+    public void save(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tempPath, toBytes());
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 从本地文件读取
+     * @param path 文件路径
+     * @return 紧凑结果，配置只包含写入时保存的字段
+     * @throws IOException 读取失败或文件格式错误
+     */
+    public static CompactBacktestResult load(Path path) throws IOException {
+        try {
+            return fromBytes(Files.readAllBytes(path));
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid result file: " + path, e);
+        }
+    }
+
+    /**
+     * 编码为字节数组
+     * 数组列整块写入，读取时可直接批量解码
+     * @return 字节数组
+     * @throws IOException 编码失败
+     */
+    public byte[] toBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(estimateSize());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        writeString(out, startDate != null ? startDate.toString() : null);
+        writeString(out, endDate != null ? endDate.toString() : null);
+        Set<String> symbols = config != null && config.getSymbols() != null ? config.getSymbols() : new LinkedHashSet<>();
+        out.writeInt(symbols.size());
+        for (String symbol : symbols) {
+            writeString(out, symbol);
+        }
+        out.writeDouble(config != null ? config.getInitialCapital() : Double.NaN);
+        out.writeDouble(config != null ? config.getFixedCommission() : 0.0);
+        out.writeDouble(config != null ? config.getCommissionRate() : 0.0);
+        out.writeDouble(config != null ? config.getSlippageRate() : 0.0);
+        out.writeDouble(config != null ? config.getRiskFreeRate() : 0.0);
+        out.writeDouble(config != null ? config.getPeriodsPerYear() : Double.NaN);
+        out.writeInt(tradeCount);
+        out.writeInt(winCount);
+        out.writeInt(lossCount);
+
+        out.writeInt(strings.length);
+        for (String value : strings) {
+            writeString(out, value);
+        }
+
+        writeInts(out, metricNames);
+        writeDoubles(out, metricValues);
+        writeInts(out, pnlSymbols);
+        writeDoubles(out, pnlValues);
+
+        writeInts(out, orderSymbols);
+        writeInts(out, orderSides);
+        writeInts(out, orderTypes);
+        writeInts(out, orderStatuses);
+        writeDoubles(out, orderPrices);
+        writeDoubles(out, orderQuantities);
+        writeDoubles(out, orderExecutedQuantities);
+        writeDoubles(out, orderAveragePrices);
+        writeLongs(out, orderTimestamps);
+
+        writeInts(out, positionSymbols);
+        writeInts(out, positionDirections);
+        writeDoubles(out, positionQuantities);
+        writeDoubles(out, positionAveragePrices);
+        writeDoubles(out, positionCurrentPrices);
+        writeDoubles(out, positionUnrealizedPnls);
+        writeDoubles(out, positionRealizedPnls);
+        writeLongs(out, positionTimestamps);
+
+        writeLongs(out, equityTimestamps);
+        writeDoubles(out, equityCurve);
+        writeDoubles(out, dailyReturns);
+        writeDoubles(out, tradePnls);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 从字节数组解码
+     * @param data 字节数组
+     * @return 紧凑结果
+     */
+    public static CompactBacktestResult fromBytes(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a backtest result file");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported result version: " + version);
+        }
+
+        Columns columns = new Columns();
+        String start = readString(in);
+        String end = readString(in);
+        columns.startDate = start != null ? LocalDateTime.parse(start) : null;
+        columns.endDate = end != null ? LocalDateTime.parse(end) : null;
+        Set<String> symbols = new LinkedHashSet<>();
+        int symbolCount = in.getInt();
+        for (int i = 0; i < symbolCount; i++) {
+            symbols.add(readString(in));
+        }
+        BacktestConfig config = new BacktestConfig()
+                .setSymbols(symbols)
+                .setInitialCapital(in.getDouble())
+                .setFixedCommission(in.getDouble())
+                .setCommissionRate(in.getDouble())
+                .setSlippageRate(in.getDouble())
+                .setRiskFreeRate(in.getDouble())
+                .setPeriodsPerYear(in.getDouble());
+        if (columns.startDate != null) {
+            config.setStartDate(columns.startDate);
+        }
+        if (columns.endDate != null) {
+            config.setEndDate(columns.endDate);
+        }
+        columns.config = config;
+        columns.tradeCount = in.getInt();
+        columns.winCount = in.getInt();
+        columns.lossCount = in.getInt();
+
+        String[] strings = new String[in.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(in);
+        }
+        columns.strings = strings;
+
+        columns.metricNames = readInts(in);
+        columns.metricValues = readDoubles(in);
+        columns.pnlSymbols = readInts(in);
+        columns.pnlValues = readDoubles(in);
+
+        columns.orderSymbols = readInts(in);
+        columns.orderSides = readInts(in);
+        columns.orderTypes = readInts(in);
+        columns.orderStatuses = readInts(in);
+        columns.orderPrices = readDoubles(in);
+        columns.orderQuantities = readDoubles(in);
+        columns.orderExecutedQuantities = readDoubles(in);
+        columns.orderAveragePrices = readDoubles(in);
+        columns.orderTimestamps = readLongs(in);
+
+        columns.positionSymbols = readInts(in);
+        columns.positionDirections = readInts(in);
+        columns.positionQuantities = readDoubles(in);
+        columns.positionAveragePrices = readDoubles(in);
+        columns.positionCurrentPrices = readDoubles(in);
+        columns.positionUnrealizedPnls = readDoubles(in);
+        columns.positionRealizedPnls = readDoubles(in);
+        columns.positionTimestamps = readLongs(in);
+
+        columns.equityTimestamps = readLongs(in);
+        columns.equityCurve = readDoubles(in);
+        columns.dailyReturns = readDoubles(in);
+        columns.tradePnls = readDoubles(in);
+        return new CompactBacktestResult(columns);
+    }
+
+    private int estimateSize() {
+        return 256 + strings.length * 16
+                + orderSymbols.length * (4 * 4 + 8 * 5)
+                + positionSymbols.length * (4 * 2 + 8 * 6)
+                + equityCurve.length * 16 + dailyReturns.length * 8 + tradePnls.length * 8;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES);
+        buffer.asIntBuffer().put(values);
+        out.writeInt(values.length);
+        out.write(buffer.array());
+    }
+
+    private static int[] readInts(ByteBuffer in) {
+        int[] values = new int[in.getInt()];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Long.BYTES);
+        buffer.asLongBuffer().put(values);
+        out.writeInt(values.length);
+        out.write(buffer.array());
+    }
+
+    private static long[] readLongs(ByteBuffer in) {
+        long[] values = new long[in.getInt()];
+        in.asLongBuffer().get(values);
+        in.position(in.position() + values.length * Long.BYTES);
+        return values;
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Double.BYTES);
+        buffer.asDoubleBuffer().put(values);
+        out.writeInt(values.length);
+        out.write(buffer.array());
+    }
+
+    private static double[] readDoubles(ByteBuffer in) {
+        double[] values = new double[in.getInt()];
+        in.asDoubleBuffer().get(values);
+        in.position(in.position() + values.length * Double.BYTES);
+        return values;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private static BigDecimal toDecimal(double value) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value);
+    }
+
+    private static long toMillis(Instant value) {
+        return value != null ? value.toEpochMilli() : NULL_TIME;
+    }
+
+    private static Instant toInstant(long millis) {
+        return millis == NULL_TIME ? null : Instant.ofEpochMilli(millis);
+    }
+
+    // Getters
+
+    public BacktestConfig getConfig() {
+        return config;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    public int getWinCount() {
+        return winCount;
+    }
+
+    public int getLossCount() {
+        return lossCount;
+    }
+
+    public int getOrderCount() {
+        return orderSymbols.length;
+    }
+
+    public int getPositionCount() {
+        return positionSymbols.length;
+    }
+
+    public int[] getOrderSymbols() {
+        return orderSymbols;
+    }
+
+    public int[] getOrderSides() {
+        return orderSides;
+    }
+
+    public int[] getOrderStatuses() {
+        return orderStatuses;
+    }
+
+    public double[] getOrderPrices() {
+        return orderPrices;
+    }
+
+    public double[] getOrderQuantities() {
+        return orderQuantities;
+    }
+
+    public double[] getOrderExecutedQuantities() {
+        return orderExecutedQuantities;
+    }
+
+    public double[] getOrderAveragePrices() {
+        return orderAveragePrices;
+    }
+
+    public long[] getOrderTimestamps() {
+        return orderTimestamps;
+    }
+
+    public int[] getPositionSymbols() {
+        return positionSymbols;
+    }
+
+    public double[] getPositionQuantities() {
+        return positionQuantities;
+    }
+
+    public double[] getPositionRealizedPnls() {
+        return positionRealizedPnls;
+    }
+
+    public double[] getPositionUnrealizedPnls() {
+        return positionUnrealizedPnls;
+    }
+
+    public long[] getPositionTimestamps() {
+        return positionTimestamps;
+    }
+
+    public long[] getEquityTimestamps() {
+        return equityTimestamps;
+    }
+
+    public double[] getEquityCurve() {
+        return equityCurve;
+    }
+
+    public double[] getDailyReturns() {
+        return dailyReturns;
+    }
+
+    public double[] getTradePnls() {
+        return tradePnls;
+    }
+
+    /**
+     * 列数据，构造和解码时的临时容器
+     */
+    private static final class Columns {
+        private BacktestConfig config;
+        private LocalDateTime startDate;
+        private LocalDateTime endDate;
+        private int tradeCount;
+        private int winCount;
+        private int lossCount;
+        private String[] strings;
+        private int[] metricNames;
+        private double[] metricValues;
+        private int[] pnlSymbols;
+        private double[] pnlValues;
+        private int[] orderSymbols;
+        private int[] orderSides;
+        private int[] orderTypes;
+        private int[] orderStatuses;
+        private double[] orderPrices;
+        private double[] orderQuantities;
+        private double[] orderExecutedQuantities;
+        private double[] orderAveragePrices;
+        private long[] orderTimestamps;
+        private int[] positionSymbols;
+        private int[] positionDirections;
+        private double[] positionQuantities;
+        private double[] positionAveragePrices;
+        private double[] positionCurrentPrices;
+        private double[] positionUnrealizedPnls;
+        private double[] positionRealizedPnls;
+        private long[] positionTimestamps;
+        private long[] equityTimestamps;
+        private double[] equityCurve;
+        private double[] dailyReturns;
+        private double[] tradePnls;
+
+        private void allocateOrders(int count) {
+            orderSymbols = new int[count];
+            orderSides = new int[count];
+            orderTypes = new int[count];
+            orderStatuses = new int[count];
+            orderPrices = new double[count];
+            orderQuantities = new double[count];
+            orderExecutedQuantities = new double[count];
+            orderAveragePrices = new double[count];
+            orderTimestamps = new long[count];
+        }
+
+        private void allocatePositions(int count) {
+            positionSymbols = new int[count];
+            positionDirections = new int[count];
+            positionQuantities = new double[count];
+            positionAveragePrices = new double[count];
+            positionCurrentPrices = new double[count];
+            positionUnrealizedPnls = new double[count];
+            positionRealizedPnls = new double[count];
+            positionTimestamps = new long[count];
+        }
+    }
+}
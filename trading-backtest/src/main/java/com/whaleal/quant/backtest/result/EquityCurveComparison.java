@@ -0,0 +1,268 @@
+package com.whaleal.quant.backtest.result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 权益曲线对比
+ * 把多次运行的权益曲线对齐到同一时间轴，计算曲线差异、收益相关性和指标差异
+ *
+ * <p>时间轴取所有运行时间戳的并集，某次运行在某个时间点没有记录时沿用前值，首个记录之前为 NaN
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class EquityCurveComparison {
+
+    private final List<String> runIds;
+    private final Map<String, Integer> indexes;
+    private final List<CompactBacktestResult> results;
+    private final long[] timestamps;
+    private final double[][] curves;
+
+    /**
+     * 构造方法
+     * @param results 运行编号到紧凑结果的映射，按映射的迭代顺序排列
+     */
+    public EquityCurveComparison(Map<String, CompactBacktestResult> results) {
+        this.runIds = new ArrayList<>(results.keySet());
+        this.results = new ArrayList<>(results.values());
+        this.indexes = new LinkedHashMap<>();
+        for (int i = 0; i < runIds.size(); i++) {
+            indexes.put(runIds.get(i), i);
+        }
+        this.timestamps = unionTimestamps(this.results);
+        this.curves = new double[runIds.size()][];
+        for (int i = 0; i < curves.length; i++) {
+            curves[i] = align(this.results.get(i), timestamps);
+        }
+    }
+
+    /**
+     * 获取对齐后的权益曲线
+     * @param runId 运行编号
+     * @return 权益曲线，与 {@link #getTimestamps()} 一一对应
+     */
+    public double[] getCurve(String runId) {
+        return curves[indexOf(runId)];
+    }
+
+    /**
+     * 计算两次运行的权益差
+     * @param runId 运行编号
+     * @param baselineRunId 基准运行编号
+     * @return 逐点权益差（运行减基准）
+     */
+    public double[] difference(String runId, String baselineRunId) {
+        double[] curve = getCurve(runId);
+        double[] baseline = getCurve(baselineRunId);
+        double[] difference = new double[timestamps.length];
+        for (int i = 0; i < difference.length; i++) {
+            difference[i] = curve[i] - baseline[i];
+        }
+        return difference;
+    }
+
+    /**
+     * 计算两次运行的最大绝对权益差，忽略任一方缺失的时间点
+     * @param runId 运行编号
+     * @param baselineRunId 基准运行编号
+     * @return 最大绝对权益差
+     */
+    public double maxAbsoluteDifference(String runId, String baselineRunId) {
+        double[] curve = getCurve(runId);
+        double[] baseline = getCurve(baselineRunId);
+        double max = 0.0;
+        for (int i = 0; i < timestamps.length; i++) {
+            double difference = Math.abs(curve[i] - baseline[i]);
+            if (difference > max) {
+                max = difference;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 计算两次运行在对齐时间轴上的收益率相关系数
+     * @param runId 运行编号
+     * @param otherRunId 另一运行编号
+     * @return 相关系数，有效样本不足时返回 NaN
+     */
+    public double returnCorrelation(String runId, String otherRunId) {
+        return correlation(returns(curves[indexOf(runId)]), returns(curves[indexOf(otherRunId)]));
+    }
+
+    /**
+     * 计算所有运行两两之间的收益率相关系数
+     * @return 相关系数矩阵，行列顺序与 {@link #getRunIds()} 一致
+     */
+    public double[][] correlationMatrix() {
+        double[][] returns = new double[curves.length][];
+        for (int i = 0; i < curves.length; i++) {
+            returns[i] = returns(curves[i]);
+        }
+        double[][] matrix = new double[curves.length][curves.length];
+        for (int i = 0; i < curves.length; i++) {
+            matrix[i][i] = 1.0;
+            for (int j = i + 1; j < curves.length; j++) {
+                matrix[i][j] = correlation(returns[i], returns[j]);
+                matrix[j][i] = matrix[i][j];
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * 计算两次运行的性能指标差异
+     * @param runId 运行编号
+     * @param baselineRunId 基准运行编号
+     * @return 指标名到差值（运行减基准）的映射
+     */
+    public Map<String, Double> metricDifferences(String runId, String baselineRunId) {
+        CompactBacktestResult result = results.get(indexOf(runId));
+        CompactBacktestResult baseline = results.get(indexOf(baselineRunId));
+        Set<String> names = new LinkedHashSet<>(baseline.getMetricNames());
+        names.addAll(result.getMetricNames());
+        Map<String, Double> differences = new LinkedHashMap<>();
+        for (String name : names) {
+            differences.put(name, result.getMetric(name) - baseline.getMetric(name));
+        }
+        return differences;
+    }
+
+    /**
+     * 生成对比报告
+     * @param baselineRunId 基准运行编号
+     * @return 对比报告
+     */
+    public String generateReport(String baselineRunId) {
+        double[] baselineReturns = returns(getCurve(baselineRunId));
+        StringBuilder report = new StringBuilder();
+        report.append("=== 权益曲线对比 ===\n");
+        report.append("基准运行: " + baselineRunId + "\n");
+        report.append("对齐时间点数: " + timestamps.length + "\n");
+        report.append(String.format("%-24s %12s %10s %10s %14s %10s%n",
+                "运行", "总收益率%", "夏普比率", "最大回撤%", "最大权益差", "收益相关"));
+        for (int i = 0; i < runIds.size(); i++) {
+            CompactBacktestResult result = results.get(i);
+            report.append(String.format("%-24s %12.2f %10.3f %10.2f %14.2f %10.3f%n",
+                    runIds.get(i),
+                    result.getTotalReturn() * 100,
+                    result.getSharpeRatio(),
+                    result.getMaxDrawdown() * 100,
+                    maxAbsoluteDifference(runIds.get(i), baselineRunId),
+                    correlation(returns(curves[i]), baselineReturns)));
+        }
+        report.append("================\n");
+        return report.toString();
+    }
+
+    public List<String> getRunIds() {
+        return new ArrayList<>(runIds);
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    private int indexOf(String runId) {
+        Integer index = indexes.get(runId);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown run id: " + runId);
+        }
+        return index;
+    }
+
+    /**
+     * 合并所有运行的时间戳
+     */
+    private static long[] unionTimestamps(List<CompactBacktestResult> results) {
+        int total = 0;
+        for (CompactBacktestResult result : results) {
+            total += result.getEquityTimestamps().length;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (CompactBacktestResult result : results) {
+            long[] timestamps = result.getEquityTimestamps();
+            System.arraycopy(timestamps, 0, all, offset, timestamps.length);
+            offset += timestamps.length;
+        }
+        Arrays.sort(all);
+        int size = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (size == 0 || all[i] != all[size - 1]) {
+                all[size++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, size);
+    }
+
+    /**
+     * 把权益曲线按前值填充对齐到时间轴
+     */
+    private static double[] align(CompactBacktestResult result, long[] timeline) {
+        long[] timestamps = result.getEquityTimestamps();
+        double[] equity = result.getEquityCurve();
+        double[] aligned = new double[timeline.length];
+        double last = Double.NaN;
+        int cursor = 0;
+        for (int i = 0; i < timeline.length; i++) {
+            while (cursor < timestamps.length && timestamps[cursor] <= timeline[i]) {
+                last = equity[cursor++];
+            }
+            aligned[i] = last;
+        }
+        return aligned;
+    }
+
+    private static double[] returns(double[] curve) {
+        double[] returns = new double[Math.max(0, curve.length - 1)];
+        for (int i = 1; i < curve.length; i++) {
+            returns[i - 1] = curve[i - 1] != 0 ? curve[i] / curve[i - 1] - 1 : Double.NaN;
+        }
+        return returns;
+    }
+
+    /**
+     * 计算相关系数，跳过任一方为 NaN 的样本
+     */
+    private static double correlation(double[] x, double[] y) {
+        int n = 0;
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (!Double.isNaN(x[i]) && !Double.isNaN(y[i])) {
+                sumX += x[i];
+                sumY += y[i];
+                n++;
+            }
+        }
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double meanX = sumX / n;
+        double meanY = sumY / n;
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (!Double.isNaN(x[i]) && !Double.isNaN(y[i])) {
+                double dx = x[i] - meanX;
+                double dy = y[i] - meanY;
+                covariance += dx * dy;
+                varianceX += dx * dx;
+                varianceY += dy * dy;
+            }
+        }
+        if (varianceX == 0 || varianceY == 0) {
+            return Double.NaN;
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+}
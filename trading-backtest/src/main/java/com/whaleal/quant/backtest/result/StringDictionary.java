@@ -0,0 +1,69 @@
+package com.whaleal.quant.backtest.result;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 字符串字典
+ * 把交易对、方向、状态等重复出现的字符串编码为整数，结果中只保存一份字符串表
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class StringDictionary {
+
+    /**
+     * 空字符串的编码
+     */
+    public static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes;
+    private final List<String> values;
+
+    public StringDictionary() {
+        this.codes = new HashMap<>();
+        this.values = new ArrayList<>();
+    }
+
+    /**
+     * 编码字符串，首次出现时加入字典
+     * @param value 字符串，可为空
+     * @return 编码
+     */
+    public int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * 获取字符串表
+     * @return 按编码排列的字符串
+     */
+    public String[] toArray() {
+        return values.toArray(new String[0]);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * 按字符串表解码
+     * @param values 字符串表
+     * @param code 编码
+     * @return 字符串，编码为 {@link #NULL_CODE} 时返回空
+     */
+    public static String decode(String[] values, int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+}
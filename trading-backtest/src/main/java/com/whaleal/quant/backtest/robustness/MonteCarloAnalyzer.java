@@ -0,0 +1,451 @@
+package com.whaleal.quant.backtest.robustness;
+
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.result.BacktestResult;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 蒙特卡洛稳健性分析器
+ * 对单次回测的逐笔交易盈亏和日收益率做大量重采样（交易顺序打乱、块自助抽样、随机起始日期），
+ * 得到最终收益率、最大回撤和夏普比率的分布，用于评估结果对路径的依赖程度
+ *
+ * <p>模拟任务被切分为固定数量的分块，每个分块使用由根随机数生成器依次 split 出的独立生成器，
+ * 并写入预分配原始数组中互不重叠的区间，因此同一种子下的结果与线程数无关
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class MonteCarloAnalyzer {
+
+    /**
+     * 每种方法的分块数，固定分块保证结果与线程数无关
+     */
+    private static final int CHUNK_COUNT = 256;
+
+    private final int iterations;
+    private final int blockLength;
+    private final double minimumWindowFraction;
+    private final long seed;
+    private final int parallelThreads;
+    private final Set<ResamplingMethod> methods;
+
+    private MonteCarloAnalyzer(Builder builder) {
+        this.iterations = builder.iterations;
+        this.blockLength = builder.blockLength;
+        this.minimumWindowFraction = builder.minimumWindowFraction;
+        this.seed = builder.seed;
+        this.parallelThreads = builder.parallelThreads;
+        this.methods = EnumSet.copyOf(builder.methods);
+    }
+
+    /**
+     * 分析回测结果
+     * @param result 回测结果，需包含逐笔交易盈亏与日收益率
+     * @return 稳健性分析结果
+     */
+    public RobustnessResult analyze(BacktestResult result) {
+        BacktestConfig config = result.getConfig();
+        return analyze(result.getTradePnls(), result.getDailyReturns(), config.getInitialCapital(),
+                config.getPeriodsPerYear(), config.getRiskFreeRate());
+    }
+
+    /**
+     * 分析逐笔交易盈亏与周期收益率
+     * @param tradePnls 逐笔交易盈亏（按成交顺序）
+     * @param periodReturns 周期收益率（按时间顺序）
+     * @param initialCapital 初始资金
+     * @param periodsPerYear 年化周期数
+     * @param riskFreeRate 年化无风险利率
+     * @return 稳健性分析结果
+     */
+    public RobustnessResult analyze(double[] tradePnls, double[] periodReturns, double initialCapital,
+                                    double periodsPerYear, double riskFreeRate) {
+        if (initialCapital <= 0) {
+            throw new IllegalArgumentException("Initial capital must be positive");
+        }
+        if (periodsPerYear <= 0) {
+            throw new IllegalArgumentException("Periods per year must be positive");
+        }
+        double[] trades = tradePnls != null ? tradePnls : new double[0];
+        double[] returns = periodReturns != null ? periodReturns : new double[0];
+
+        long startTime = System.currentTimeMillis();
+
+        PathAccumulator observed = new PathAccumulator(periodsPerYear, riskFreeRate);
+        double equity = 1.0;
+        for (double periodReturn : returns) {
+            equity *= 1.0 + periodReturn;
+            observed.add(periodReturn, equity);
+        }
+
+        // 交易频率按回测区间折算为年化周期数，无日收益率时退化为按周期年化
+        double years = returns.length > 0 ? returns.length / periodsPerYear : 1.0;
+        double tradesPerYear = trades.length > 0 ? Math.max(1.0, trades.length / years) : periodsPerYear;
+
+        SplittableRandom root = new SplittableRandom(seed);
+        List<SimulationTask> tasks = new ArrayList<>();
+        Map<ResamplingMethod, double[][]> outputs = new EnumMap<>(ResamplingMethod.class);
+        for (ResamplingMethod method : methods) {
+            int sourceLength = method == ResamplingMethod.TRADE_SHUFFLE ? trades.length : returns.length;
+            if (sourceLength == 0) {
+                continue;
+            }
+            double[][] output = new double[3][iterations];
+            outputs.put(method, output);
+
+            int chunks = Math.min(iterations, CHUNK_COUNT);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int from = (int) ((long) iterations * chunk / chunks);
+                int to = (int) ((long) iterations * (chunk + 1) / chunks);
+                if (method == ResamplingMethod.TRADE_SHUFFLE) {
+                    tasks.add(new SimulationTask(method, trades, initialCapital, tradesPerYear, riskFreeRate,
+                            root.split(), from, to, output));
+                } else {
+                    tasks.add(new SimulationTask(method, returns, initialCapital, periodsPerYear, riskFreeRate,
+                            root.split(), from, to, output));
+                }
+            }
+        }
+
+        runTasks(tasks);
+
+        Map<ResamplingMethod, RobustnessResult.MethodResult> methodResults = new EnumMap<>(ResamplingMethod.class);
+        for (Map.Entry<ResamplingMethod, double[][]> entry : outputs.entrySet()) {
+            double[][] output = entry.getValue();
+            methodResults.put(entry.getKey(), new RobustnessResult.MethodResult(entry.getKey(),
+                    new SimulationDistribution(output[0]),
+                    new SimulationDistribution(output[1]),
+                    new SimulationDistribution(output[2])));
+        }
+
+        return new RobustnessResult(iterations, observed.getTotalReturn(), observed.getMaxDrawdown(),
+                observed.getSharpeRatio(), methodResults, System.currentTimeMillis() - startTime);
+    }
+
+    private void runTasks(List<SimulationTask> tasks) {
+        int threads = Math.max(1, Math.min(parallelThreads, tasks.size()));
+        if (threads == 1) {
+            for (SimulationTask task : tasks) {
+                task.call();
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Robustness analysis interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Robustness analysis failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getBlockLength() {
+        return blockLength;
+    }
+
+    public double getMinimumWindowFraction() {
+        return minimumWindowFraction;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getParallelThreads() {
+        return parallelThreads;
+    }
+
+    /**
+     * 创建 Builder 实例
+     * @return Builder 实例
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 单个分块的模拟任务
+     * 分块内复用同一份暂存数组和路径累加器，迭代过程中不分配对象
+     */
+    private final class SimulationTask implements Callable<Void> {
+        private final ResamplingMethod method;
+        private final double[] source;
+        private final double initialCapital;
+        private final double periodsPerYear;
+        private final double riskFreeRate;
+        private final SplittableRandom random;
+        private final int from;
+        private final int to;
+        private final double[][] output;
+
+        SimulationTask(ResamplingMethod method, double[] source, double initialCapital, double periodsPerYear,
+                       double riskFreeRate, SplittableRandom random, int from, int to, double[][] output) {
+            this.method = method;
+            this.source = source;
+            this.initialCapital = initialCapital;
+            this.periodsPerYear = periodsPerYear;
+            this.riskFreeRate = riskFreeRate;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+            this.output = output;
+        }
+
+        @Override
+        public Void call() {
+            PathAccumulator path = new PathAccumulator(periodsPerYear, riskFreeRate);
+            double[] scratch = method == ResamplingMethod.TRADE_SHUFFLE ? source.clone() : null;
+            int n = source.length;
+            int minimumLength = Math.max(1, (int) Math.ceil(n * minimumWindowFraction));
+            int block = Math.min(blockLength, n);
+
+            for (int i = from; i < to; i++) {
+                path.reset();
+                switch (method) {
+                    case TRADE_SHUFFLE:
+                        shuffle(scratch);
+                        double capital = initialCapital;
+                        for (int k = 0; k < n; k++) {
+                            double previous = capital;
+                            capital += scratch[k];
+                            double tradeReturn = previous > 0 ? scratch[k] / previous : 0.0;
+                            path.add(tradeReturn, Math.max(0.0, capital) / initialCapital);
+                        }
+                        break;
+                    case BLOCK_BOOTSTRAP:
+                        // 循环块自助抽样
+                        double bootEquity = 1.0;
+                        int generated = 0;
+                        while (generated < n) {
+                            int start = random.nextInt(n);
+                            for (int k = 0; k < block && generated < n; k++, generated++) {
+                                double periodReturn = source[(start + k) % n];
+                                bootEquity *= 1.0 + periodReturn;
+                                path.add(periodReturn, bootEquity);
+                            }
+                        }
+                        break;
+                    case RANDOM_START:
+                        double windowEquity = 1.0;
+                        int startIndex = random.nextInt(n - minimumLength + 1);
+                        for (int k = startIndex; k < n; k++) {
+                            windowEquity *= 1.0 + source[k];
+                            path.add(source[k], windowEquity);
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unsupported resampling method: " + method);
+                }
+                output[0][i] = path.getTotalReturn();
+                output[1][i] = path.getMaxDrawdown();
+                output[2][i] = path.getSharpeRatio();
+            }
+            return null;
+        }
+
+        /**
+         * 原地 Fisher-Yates 洗牌
+         */
+        private void shuffle(double[] values) {
+            for (int k = values.length - 1; k > 0; k--) {
+                int j = random.nextInt(k + 1);
+                double tmp = values[k];
+                values[k] = values[j];
+                values[j] = tmp;
+            }
+        }
+    }
+
+    /**
+     * 单条路径的在线指标累加器
+     */
+    private static final class PathAccumulator {
+        private final double periodsPerYear;
+        private final double periodRiskFreeRate;
+
+        private int count;
+        private double mean;
+        private double m2;
+        private double equity;
+        private double peak;
+        private double maxDrawdown;
+
+        PathAccumulator(double periodsPerYear, double riskFreeRate) {
+            this.periodsPerYear = periodsPerYear;
+            this.periodRiskFreeRate = riskFreeRate / periodsPerYear;
+            reset();
+        }
+
+        void reset() {
+            count = 0;
+            mean = 0.0;
+            m2 = 0.0;
+            equity = 1.0;
+            peak = 1.0;
+            maxDrawdown = 0.0;
+        }
+
+        /**
+         * 累加一个周期
+         * @param periodReturn 周期收益率
+         * @param relativeEquity 周期末权益与初始权益之比
+         */
+        void add(double periodReturn, double relativeEquity) {
+            count++;
+            double delta = periodReturn - mean;
+            mean += delta / count;
+            m2 += delta * (periodReturn - mean);
+
+            equity = relativeEquity;
+            if (equity > peak) {
+                peak = equity;
+            }
+            double drawdown = (peak - equity) / peak;
+            if (drawdown > maxDrawdown) {
+                maxDrawdown = drawdown;
+            }
+        }
+
+        double getTotalReturn() {
+            return equity - 1.0;
+        }
+
+        double getMaxDrawdown() {
+            return maxDrawdown;
+        }
+
+        double getSharpeRatio() {
+            if (count < 2 || m2 <= 0) {
+                return 0.0;
+            }
+            return (mean - periodRiskFreeRate) / Math.sqrt(m2 / (count - 1)) * Math.sqrt(periodsPerYear);
+        }
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private int iterations;
+        private int blockLength;
+        private double minimumWindowFraction;
+        private long seed;
+        private int parallelThreads;
+        private Set<ResamplingMethod> methods;
+
+        public Builder() {
+            this.iterations = 10000;
+            this.blockLength = 5;
+            this.minimumWindowFraction = 0.5;
+            this.seed = 42L;
+            this.parallelThreads = Runtime.getRuntime().availableProcessors();
+            this.methods = EnumSet.allOf(ResamplingMethod.class);
+        }
+
+        /**
+         * 设置每种方法的模拟次数
+         * @param iterations 模拟次数
+         * @return Builder 实例
+         */
+        public Builder iterations(int iterations) {
+            this.iterations = iterations;
+            return this;
+        }
+
+        /**
+         * 设置块自助抽样的块长度
+         * @param blockLength 块长度（周期数）
+         * @return Builder 实例
+         */
+        public Builder blockLength(int blockLength) {
+            this.blockLength = blockLength;
+            return this;
+        }
+
+        /**
+         * 设置随机起始日期时窗口至少覆盖的样本比例
+         * @param minimumWindowFraction 最小窗口比例，范围(0, 1]
+         * @return Builder 实例
+         */
+        public Builder minimumWindowFraction(double minimumWindowFraction) {
+            this.minimumWindowFraction = minimumWindowFraction;
+            return this;
+        }
+
+        /**
+         * 设置随机种子
+         * @param seed 随机种子
+         * @return Builder 实例
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * 设置并行线程数
+         * @param parallelThreads 并行线程数
+         * @return Builder 实例
+         */
+        public Builder parallelThreads(int parallelThreads) {
+            this.parallelThreads = parallelThreads;
+            return this;
+        }
+
+        /**
+         * 设置需要执行的重采样方法
+         * @param methods 重采样方法
+         * @return Builder 实例
+         */
+        public Builder methods(ResamplingMethod... methods) {
+            this.methods = EnumSet.noneOf(ResamplingMethod.class);
+            for (ResamplingMethod method : methods) {
+                this.methods.add(method);
+            }
+            return this;
+        }
+
+        /**
+         * 构建蒙特卡洛稳健性分析器
+         * @return 蒙特卡洛稳健性分析器
+         */
+        public MonteCarloAnalyzer build() {
+            if (iterations <= 0) {
+                throw new IllegalArgumentException("Iterations must be positive");
+            }
+            if (blockLength <= 0) {
+                throw new IllegalArgumentException("Block length must be positive");
+            }
+            if (minimumWindowFraction <= 0 || minimumWindowFraction > 1) {
+                throw new IllegalArgumentException("Minimum window fraction must be in (0, 1]");
+            }
+            if (methods.isEmpty()) {
+                throw new IllegalArgumentException("At least one resampling method is required");
+            }
+            return new MonteCarloAnalyzer(this);
+        }
+    }
+}
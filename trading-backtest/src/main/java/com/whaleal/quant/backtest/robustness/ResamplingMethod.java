@@ -0,0 +1,35 @@
+package com.whaleal.quant.backtest.robustness;
+
+/**
+ * 重采样方法
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public enum ResamplingMethod {
+
+    /**
+     * 打乱逐笔交易顺序，考察路径依赖对回撤的影响（总收益不变）
+     */
+    TRADE_SHUFFLE("交易顺序打乱"),
+
+    /**
+     * 对日收益率做循环块自助抽样，保留短期自相关
+     */
+    BLOCK_BOOTSTRAP("块自助抽样"),
+
+    /**
+     * 随机选择起始日期，考察入场时点的影响
+     */
+    RANDOM_START("随机起始日期");
+
+    private final String name;
+
+    ResamplingMethod(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
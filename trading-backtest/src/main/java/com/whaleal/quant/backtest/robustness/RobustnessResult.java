@@ -0,0 +1,152 @@
+package com.whaleal.quant.backtest.robustness;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 稳健性分析结果
+ * 按重采样方法保存最终收益率、最大回撤和夏普比率的模拟分布
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class RobustnessResult {
+
+    private final int iterations;
+    private final double observedReturn;
+    private final double observedMaxDrawdown;
+    private final double observedSharpeRatio;
+    private final Map<ResamplingMethod, MethodResult> methodResults;
+    private final long elapsedMillis;
+
+    /**
+     * 构造方法
+     * @param iterations 每种方法的模拟次数
+     * @param observedReturn 原始回测的最终收益率
+     * @param observedMaxDrawdown 原始回测的最大回撤
+     * @param observedSharpeRatio 原始回测的夏普比率
+     * @param methodResults 各重采样方法的结果
+     * @param elapsedMillis 耗时（毫秒）
+     */
+    public RobustnessResult(int iterations, double observedReturn, double observedMaxDrawdown, double observedSharpeRatio,
+                            Map<ResamplingMethod, MethodResult> methodResults, long elapsedMillis) {
+        this.iterations = iterations;
+        this.observedReturn = observedReturn;
+        this.observedMaxDrawdown = observedMaxDrawdown;
+        this.observedSharpeRatio = observedSharpeRatio;
+        this.methodResults = Collections.unmodifiableMap(new EnumMap<>(methodResults));
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public double getObservedReturn() {
+        return observedReturn;
+    }
+
+    public double getObservedMaxDrawdown() {
+        return observedMaxDrawdown;
+    }
+
+    public double getObservedSharpeRatio() {
+        return observedSharpeRatio;
+    }
+
+    public Map<ResamplingMethod, MethodResult> getMethodResults() {
+        return methodResults;
+    }
+
+    /**
+     * 获取指定重采样方法的结果
+     * @param method 重采样方法
+     * @return 结果，未执行该方法时返回 null
+     */
+    public MethodResult getMethodResult(ResamplingMethod method) {
+        return methodResults.get(method);
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * 生成稳健性分析报告
+     * @return 报告
+     */
+    public String generateReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("=== 稳健性分析报告 ===\n");
+        report.append("模拟次数: " + iterations + "\n");
+        report.append("耗时: " + elapsedMillis + "ms\n");
+        report.append("原始收益率: " + (observedReturn * 100) + "%\n");
+        report.append("原始最大回撤: " + (observedMaxDrawdown * 100) + "%\n");
+        report.append("原始夏普比率: " + observedSharpeRatio + "\n");
+
+        for (Map.Entry<ResamplingMethod, MethodResult> entry : methodResults.entrySet()) {
+            MethodResult result = entry.getValue();
+            report.append("\n" + entry.getKey().getName() + ":\n");
+            report.append(String.format("  收益率      p5=%.2f%%  p50=%.2f%%  p95=%.2f%%  亏损概率=%.2f%%%n",
+                    result.getFinalReturn().getPercentile(0.05) * 100,
+                    result.getFinalReturn().getMedian() * 100,
+                    result.getFinalReturn().getPercentile(0.95) * 100,
+                    result.getFinalReturn().getProbabilityBelow(0.0) * 100));
+            report.append(String.format("  最大回撤    p5=%.2f%%  p50=%.2f%%  p95=%.2f%%%n",
+                    result.getMaxDrawdown().getPercentile(0.05) * 100,
+                    result.getMaxDrawdown().getMedian() * 100,
+                    result.getMaxDrawdown().getPercentile(0.95) * 100));
+            report.append(String.format("  夏普比率    p5=%.4f  p50=%.4f  p95=%.4f%n",
+                    result.getSharpeRatio().getPercentile(0.05),
+                    result.getSharpeRatio().getMedian(),
+                    result.getSharpeRatio().getPercentile(0.95)));
+        }
+        report.append("================\n");
+        return report.toString();
+    }
+
+    /**
+     * 单个重采样方法的结果
+     */
+    public static class MethodResult {
+        private final ResamplingMethod method;
+        private final SimulationDistribution finalReturn;
+        private final SimulationDistribution maxDrawdown;
+        private final SimulationDistribution sharpeRatio;
+
+        public MethodResult(ResamplingMethod method, SimulationDistribution finalReturn,
+                            SimulationDistribution maxDrawdown, SimulationDistribution sharpeRatio) {
+            this.method = method;
+            this.finalReturn = finalReturn;
+            this.maxDrawdown = maxDrawdown;
+            this.sharpeRatio = sharpeRatio;
+        }
+
+        public ResamplingMethod getMethod() {
+            return method;
+        }
+
+        public SimulationDistribution getFinalReturn() {
+            return finalReturn;
+        }
+
+        public SimulationDistribution getMaxDrawdown() {
+            return maxDrawdown;
+        }
+
+        public SimulationDistribution getSharpeRatio() {
+            return sharpeRatio;
+        }
+
+        @Override
+        public String toString() {
+            return "MethodResult{" +
+                    "method=" + method +
+                    ", finalReturn=" + finalReturn +
+                    ", maxDrawdown=" + maxDrawdown +
+                    ", sharpeRatio=" + sharpeRatio +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.whaleal.quant.backtest.robustness;
+
+import java.util.Arrays;
+
+/**
+ * 模拟分布
+ * 以排序后的原始数组保存一个指标在所有重采样路径上的取值
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class SimulationDistribution {
+
+    private final double[] sortedValues;
+    private final double mean;
+    private final double standardDeviation;
+
+    /**
+     * 构造方法
+     * @param values 各路径取值，将被排序
+     */
+    public SimulationDistribution(double[] values) {
+        this.sortedValues = values;
+        Arrays.sort(sortedValues);
+
+        double sum = 0.0;
+        for (double value : sortedValues) {
+            sum += value;
+        }
+        this.mean = sortedValues.length > 0 ? sum / sortedValues.length : 0.0;
+
+        double squares = 0.0;
+        for (double value : sortedValues) {
+            squares += (value - mean) * (value - mean);
+        }
+        this.standardDeviation = sortedValues.length > 1 ? Math.sqrt(squares / (sortedValues.length - 1)) : 0.0;
+    }
+
+    /**
+     * 获取分位数（线性插值）
+     * @param p 分位，范围[0, 1]
+     * @return 分位数
+     */
+    public double getPercentile(double p) {
+        if (sortedValues.length == 0) {
+            return 0.0;
+        }
+        double position = Math.max(0.0, Math.min(1.0, p)) * (sortedValues.length - 1);
+        int lower = (int) Math.floor(position);
+        int upper = Math.min(lower + 1, sortedValues.length - 1);
+        double weight = position - lower;
+        return sortedValues[lower] * (1 - weight) + sortedValues[upper] * weight;
+    }
+
+    /**
+     * 获取取值低于阈值的概率
+     * @param threshold 阈值
+     * @return 概率
+     */
+    public double getProbabilityBelow(double threshold) {
+        if (sortedValues.length == 0) {
+            return 0.0;
+        }
+        int index = Arrays.binarySearch(sortedValues, threshold);
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            while (index > 0 && sortedValues[index - 1] == threshold) {
+                index--;
+            }
+        }
+        return (double) index / sortedValues.length;
+    }
+
+    public int getSampleCount() {
+        return sortedValues.length;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public double getMin() {
+        return sortedValues.length > 0 ? sortedValues[0] : 0.0;
+    }
+
+    public double getMax() {
+        return sortedValues.length > 0 ? sortedValues[sortedValues.length - 1] : 0.0;
+    }
+
+    public double getMedian() {
+        return getPercentile(0.5);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("mean=%.4f, std=%.4f, p5=%.4f, p50=%.4f, p95=%.4f",
+                mean, standardDeviation, getPercentile(0.05), getMedian(), getPercentile(0.95));
+    }
+}
@@ -0,0 +1,500 @@
+package com.whaleal.quant.backtest.checkpoint;
+
+import com.whaleal.quant.alpha.factor.BuyFactor;
+import com.whaleal.quant.backtest.data.BarSeriesDataProvider;
+import com.whaleal.quant.backtest.engine.BacktestEngine;
+import com.whaleal.quant.backtest.engine.BacktestListener;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.model.BacktestContext;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.model.trading.Order;
+import com.whaleal.quant.model.trading.Position;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 检查点管理器测试
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class CheckpointManagerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 31, 0, 0);
+    private static final Set<String> SYMBOLS = new HashSet<>(Arrays.asList("AAA", "BBB"));
+
+    @Test
+    public void testCodecRoundTrip() throws IOException {
+        BigDecimal wide = new BigDecimal(BigInteger.ONE.shiftLeft(2000).negate(), 7);
+        Ticker ticker = Ticker.builder()
+                .symbol("AAA")
+                .price(new BigDecimal("101.25"))
+                .bidPrice(new BigDecimal("101.20"))
+                .askQty(BigDecimal.TEN)
+                .timestamp(Instant.ofEpochSecond(1704067200L, 123))
+                .source("TEST")
+                .build();
+        Bar bar = bar("AAA", START, new BigDecimal("101.25"));
+        bar.setInterval(Interval.DAY_1);
+        Order order = Order.builder().symbol("AAA").side("BUY").quantity(BigDecimal.valueOf(100)).price(new BigDecimal("99.5")).build();
+        Position position = Position.builder().symbol("AAA").quantity(BigDecimal.valueOf(100)).averagePrice(new BigDecimal("99.5")).build();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        CheckpointCodec.writeDecimal(out, null);
+        CheckpointCodec.writeDecimal(out, new BigDecimal("-0.0001"));
+        CheckpointCodec.writeDecimal(out, wide);
+        CheckpointCodec.writeTicker(out, null);
+        CheckpointCodec.writeTicker(out, ticker);
+        CheckpointCodec.writeBars(out, null);
+        CheckpointCodec.writeBars(out, Collections.singletonList(bar));
+        CheckpointCodec.writeOrder(out, order);
+        CheckpointCodec.writePosition(out, position);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertNull(CheckpointCodec.readDecimal(in));
+        assertEquals(new BigDecimal("-0.0001"), CheckpointCodec.readDecimal(in));
+        assertEquals(wide, CheckpointCodec.readDecimal(in));
+        assertNull(CheckpointCodec.readTicker(in));
+        Ticker restoredTicker = CheckpointCodec.readTicker(in);
+        assertEquals("AAA", restoredTicker.getSymbol());
+        assertEquals(ticker.getPrice(), restoredTicker.getPrice());
+        assertEquals(ticker.getBidPrice(), restoredTicker.getBidPrice());
+        assertEquals(ticker.getAskQty(), restoredTicker.getAskQty());
+        assertNull(restoredTicker.getLastPrice());
+        assertEquals(ticker.getTimestamp(), restoredTicker.getTimestamp());
+        assertEquals("TEST", restoredTicker.getSource());
+        assertNull(CheckpointCodec.readBars(in));
+        List<Bar> restoredBars = CheckpointCodec.readBars(in);
+        assertEquals(1, restoredBars.size());
+        assertBarEquals(bar, restoredBars.get(0));
+        Order restoredOrder = CheckpointCodec.readOrder(in);
+        assertEquals("BUY", restoredOrder.getSide());
+        assertEquals(order.getPrice(), restoredOrder.getPrice());
+        Position restoredPosition = CheckpointCodec.readPosition(in);
+        assertEquals(position.getQuantity(), restoredPosition.getQuantity());
+        assertEquals(position.getAveragePrice(), restoredPosition.getAveragePrice());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testReadDecimalRejectsCorruptLength() throws IOException {
+        for (int length : new int[]{Integer.MAX_VALUE, -5, 3}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(Byte.MAX_VALUE);
+            out.writeInt(length);
+            try {
+                CheckpointCodec.readDecimal(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+                fail("Corrupt decimal length should be rejected: " + length);
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage().contains("decimal length"));
+            }
+        }
+        try {
+            CheckpointCodec.readDecimal(new DataInputStream(new ByteArrayInputStream(new byte[]{0})));
+            fail("Empty decimal should be rejected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("decimal length"));
+        }
+    }
+
+    @Test
+    public void testSaveAndRestoreRoundTrip() throws IOException {
+        Path directory = Files.createTempDirectory("checkpoint-test");
+        try {
+            BacktestConfig config = config(END);
+            BacktestContext context = new BacktestContext(config);
+            context.updateCapital(-10000.0);
+            context.updatePosition("AAA", Position.builder().symbol("AAA").quantity(BigDecimal.valueOf(100)).build());
+            context.markPrice("AAA", 105.0);
+            context.updateDailyStats(START);
+            context.updatePnl("AAA", 250.0);
+
+            CountingFactor factor = new CountingFactor();
+            StrategyEngine strategy = strategy(factor);
+            strategy.onMarketData(event("AAA", START, new BigDecimal("101")));
+            strategy.onMarketData(event("BBB", START, new BigDecimal("202")));
+            strategy.getPositions().put("AAA", Position.builder().symbol("AAA").quantity(BigDecimal.ONE).build());
+            strategy.getOrders().put("AAA", Order.builder().symbol("AAA").side("BUY").build());
+            strategy.setMarketData(Collections.singletonList(bar("INDEX", START, BigDecimal.ONE)), ticker("INDEX", BigDecimal.ONE));
+            CountingComponent component = new CountingComponent();
+            component.value = 42;
+
+            CheckpointManager manager = new CheckpointManager(directory, "round-trip", config);
+            manager.save(START, context, strategy, Collections.singletonList(component));
+
+            BacktestContext restoredContext = new BacktestContext(config);
+            CountingFactor restoredFactor = new CountingFactor();
+            StrategyEngine restoredStrategy = strategy(restoredFactor);
+            CountingComponent restoredComponent = new CountingComponent();
+            assertEquals(START, manager.restore(restoredContext, restoredStrategy, Collections.singletonList(restoredComponent)));
+
+            assertEquals(context.getCurrentCapital(), restoredContext.getCurrentCapital(), 0.0);
+            assertEquals(context.getCurrentPositions().keySet(), restoredContext.getCurrentPositions().keySet());
+            assertEquals(context.getDailyPnl(), restoredContext.getDailyPnl());
+            assertEquals(context.getPnL(), restoredContext.getPnL());
+            assertArrayEquals(context.getPerformance().getEquityCurve(), restoredContext.getPerformance().getEquityCurve(), 0.0);
+            assertArrayEquals(context.getTradePnls(), restoredContext.getTradePnls(), 0.0);
+
+            assertEquals(strategy.getPositions().keySet(), restoredStrategy.getPositions().keySet());
+            assertEquals(strategy.getOrders().keySet(), restoredStrategy.getOrders().keySet());
+            assertEquals(strategy.getStockPool(), restoredStrategy.getStockPool());
+            assertEquals(SYMBOLS, restoredStrategy.getSymbolTickerMap().keySet());
+            assertEquals(new BigDecimal("202"), restoredStrategy.getSymbolTickerMap().get("BBB").getPrice());
+            assertEquals(SYMBOLS, restoredStrategy.getSymbolBarsMap().keySet());
+            assertBarEquals(strategy.getSymbolBarsMap().get("AAA").get(0), restoredStrategy.getSymbolBarsMap().get("AAA").get(0));
+            assertEquals(1, restoredStrategy.getMarketBars().size());
+            assertEquals("INDEX", restoredStrategy.getMarketTicker().getSymbol());
+
+            // 策略中可检查点的因子无需单独登记
+            assertEquals(factor.counts, restoredFactor.counts);
+            assertEquals(factor.closeSums, restoredFactor.closeSums);
+            assertEquals(42, restoredComponent.value);
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void testResumeAfterCrashMatchesUninterruptedRun() throws IOException {
+        Path directory = Files.createTempDirectory("checkpoint-test");
+        try {
+            CountingFactor fullFactor = new CountingFactor();
+            BacktestResult full = engine(config(END), strategy(fullFactor)).run();
+
+            BacktestConfig config = config(END)
+                    .setCheckpointDirectory(directory.toString())
+                    .setCheckpointIntervalMillis(0L);
+            BacktestEngine crashing = engine(config, strategy(new CountingFactor()));
+            LocalDateTime crashDay = LocalDateTime.of(2024, 1, 17, 0, 0);
+            crashing.addListener(new BacktestListener() {
+                @Override
+                public void onEndOfDay(BacktestEngine engine, LocalDateTime date) {
+                    if (date.equals(crashDay)) {
+                        throw new IllegalStateException("simulated crash");
+                    }
+                }
+            });
+            try {
+                crashing.run();
+                fail("Expected the simulated crash");
+            } catch (RuntimeException e) {
+                // 崩溃前一个交易日的检查点已写入
+            }
+
+            // 重新启动：新的策略和因子实例，从检查点继续
+            CountingFactor resumedFactor = new CountingFactor();
+            BacktestEngine resuming = engine(config, strategy(resumedFactor));
+            AtomicInteger processedDays = new AtomicInteger();
+            resuming.addListener(dayCounter(processedDays));
+            BacktestResult resumed = resuming.run();
+
+            // 首个交易日之后必有检查点，崩溃日 1 月 17 日起还剩 11 个工作日
+            assertTrue(processedDays.get() >= 11 && processedDays.get() < 23);
+            assertArrayEquals(full.getEquityTimestamps(), resumed.getEquityTimestamps());
+            assertArrayEquals(full.getEquityCurve(), resumed.getEquityCurve(), 0.0);
+            assertEquals(full.getMetrics(), resumed.getMetrics());
+            assertEquals(fullFactor.counts, resumedFactor.counts);
+            assertEquals(fullFactor.closeSums, resumedFactor.closeSums);
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void testFingerprintMismatchIsIgnored() throws IOException {
+        Path directory = Files.createTempDirectory("checkpoint-test");
+        try {
+            BacktestConfig config = config(END)
+                    .setCheckpointDirectory(directory.toString())
+                    .setRetainFinalCheckpoint(true);
+            engine(config, strategy(new CountingFactor())).run();
+
+            BacktestConfig changed = new BacktestConfig(config).setInitialCapital(50000.0);
+            assertNull(new CheckpointManager(directory, "checkpoint", changed)
+                    .restore(new BacktestContext(changed), strategy(new CountingFactor()), Collections.emptyList()));
+
+            CountingFactor factor = new CountingFactor();
+            BacktestEngine engine = engine(changed, strategy(factor));
+            AtomicInteger processedDays = new AtomicInteger();
+            engine.addListener(dayCounter(processedDays));
+            BacktestResult result = engine.run();
+
+            // 2024 年 1 月共 23 个工作日，全部重新回测
+            assertEquals(23, processedDays.get());
+            assertEquals(23, result.getEquityCurve().length);
+            assertEquals(50000.0, result.getEquityCurve()[0], 0.0);
+            assertEquals(Integer.valueOf(23), factor.counts.get("AAA"));
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void testCheckpointTagIsPartOfFingerprint() throws IOException {
+        Path directory = Files.createTempDirectory("checkpoint-test");
+        try {
+            BacktestConfig config = config(END).setCheckpointTag("{n=1}");
+            CheckpointManager manager = new CheckpointManager(directory, "tagged", config);
+            manager.save(START, new BacktestContext(config), strategy(new CountingFactor()), Collections.emptyList());
+
+            BacktestConfig sameTag = new BacktestConfig(config);
+            assertEquals(START, new CheckpointManager(directory, "tagged", sameTag)
+                    .restore(new BacktestContext(sameTag), strategy(new CountingFactor()), Collections.emptyList()));
+            BacktestConfig otherTag = new BacktestConfig(config).setCheckpointTag("{n=2}");
+            assertNull(new CheckpointManager(directory, "tagged", otherTag)
+                    .restore(new BacktestContext(otherTag), strategy(new CountingFactor()), Collections.emptyList()));
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void testCheckpointIsDeletedOnSuccess() throws IOException {
+        Path directory = Files.createTempDirectory("checkpoint-test");
+        try {
+            BacktestConfig config = config(END)
+                    .setCheckpointDirectory(directory.toString())
+                    .setCheckpointIntervalMillis(0L);
+            Path checkpoint = new CheckpointManager(directory, "checkpoint", config).getCheckpointPath();
+
+            engine(config, strategy(new CountingFactor())).run();
+            assertFalse(Files.exists(checkpoint));
+
+            engine(new BacktestConfig(config).setRetainFinalCheckpoint(true), strategy(new CountingFactor())).run();
+            assertTrue(Files.exists(checkpoint));
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    public void testResumeStopsAtEndDate() throws IOException {
+        Path directory = Files.createTempDirectory("checkpoint-test");
+        try {
+            // 结束日期为周日，最后一个交易日为 1 月 26 日（周五）
+            LocalDateTime sunday = LocalDateTime.of(2024, 1, 28, 0, 0);
+            BacktestConfig config = config(sunday)
+                    .setCheckpointDirectory(directory.toString())
+                    .setRetainFinalCheckpoint(true);
+            AtomicInteger firstDays = new AtomicInteger();
+            BacktestEngine first = engine(config, strategy(new CountingFactor()));
+            first.addListener(dayCounter(firstDays));
+            BacktestResult firstResult = first.run();
+            assertEquals(20, firstDays.get());
+
+            // 检查点游标已是区间内最后一个交易日，继续运行不再处理任何交易日
+            AtomicInteger secondDays = new AtomicInteger();
+            BacktestEngine second = engine(config, strategy(new CountingFactor()));
+            second.addListener(dayCounter(secondDays));
+            BacktestResult secondResult = second.run();
+            assertEquals(0, secondDays.get());
+            assertArrayEquals(firstResult.getEquityTimestamps(), secondResult.getEquityTimestamps());
+
+            // 缩短区间后游标晚于结束日期，检查点不适用
+            AtomicInteger shorterDays = new AtomicInteger();
+            BacktestEngine shorter = engine(new BacktestConfig(config).setEndDate(LocalDateTime.of(2024, 1, 19, 0, 0)), strategy(new CountingFactor()));
+            shorter.addListener(dayCounter(shorterDays));
+            assertEquals(15, shorter.run().getEquityCurve().length);
+            assertEquals(15, shorterDays.get());
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static BacktestConfig config(LocalDateTime endDate) {
+        return new BacktestConfig()
+                .setStartDate(START)
+                .setEndDate(endDate)
+                .setSymbols(new HashSet<>(SYMBOLS));
+    }
+
+    private static BacktestEngine engine(BacktestConfig config, StrategyEngine strategyEngine) {
+        return BacktestEngine.builder()
+                .config(config)
+                .dataProvider(weekdayBars())
+                .strategyEngine(strategyEngine)
+                .build();
+    }
+
+    private static StrategyEngine strategy(CountingFactor factor) {
+        StrategyEngine strategyEngine = StrategyEngine.builder()
+                .strategyName("checkpoint")
+                .buyFactors(Collections.singletonList(factor))
+                .build();
+        strategyEngine.setStockPool(new HashSet<>(SYMBOLS));
+        return strategyEngine;
+    }
+
+    private static BacktestListener dayCounter(AtomicInteger days) {
+        return new BacktestListener() {
+            @Override
+            public void onEndOfDay(BacktestEngine engine, LocalDateTime date) {
+                days.incrementAndGet();
+            }
+        };
+    }
+
+    private static MarketDataEvent event(String symbol, LocalDateTime day, BigDecimal close) {
+        return MarketDataEvent.builder()
+                .eventId(symbol + "-" + day)
+                .symbol(symbol)
+                .ticker(ticker(symbol, close))
+                .bars(Collections.singletonList(bar(symbol, day, close)))
+                .build();
+    }
+
+    private static Ticker ticker(String symbol, BigDecimal price) {
+        return Ticker.builder().symbol(symbol).price(price).build();
+    }
+
+    private static Bar bar(String symbol, LocalDateTime day, BigDecimal close) {
+        Bar bar = new Bar();
+        bar.setSymbol(symbol);
+        bar.setTimestamp(day.toInstant(ZoneOffset.UTC));
+        bar.setClose(close);
+        return bar;
+    }
+
+    private static void assertBarEquals(Bar expected, Bar actual) {
+        assertEquals(expected.getSymbol(), actual.getSymbol());
+        assertEquals(expected.getInterval(), actual.getInterval());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getClose(), actual.getClose());
+        assertNull(actual.getOpen());
+    }
+
+    private static BarSeriesDataProvider weekdayBars() {
+        Map<String, List<Bar>> barsBySymbol = new HashMap<>();
+        for (String symbol : SYMBOLS) {
+            List<Bar> bars = new ArrayList<>();
+            for (LocalDateTime day = START; !day.isAfter(END); day = day.plusDays(1)) {
+                if (day.getDayOfWeek().getValue() < 6) {
+                    bars.add(bar(symbol, day, BigDecimal.valueOf(100 + day.getDayOfMonth())));
+                }
+            }
+            barsBySymbol.put(symbol, bars);
+        }
+        return new BarSeriesDataProvider(barsBySymbol, Interval.DAY_1);
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    /**
+     * 带内部状态的买入因子，记录每个交易对收到的K线数和收盘价之和
+     * 回测引擎按交易对并行调用，状态使用并发映射
+     */
+    private static final class CountingFactor implements BuyFactor, Checkpointable {
+        private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+        private final Map<String, BigDecimal> closeSums = new ConcurrentHashMap<>();
+
+        @Override
+        public String getName() {
+            return "counting";
+        }
+
+        @Override
+        public double calculateBuySignal(String symbol, List<Bar> bars, Ticker ticker) {
+            counts.merge(symbol, 1, Integer::sum);
+            closeSums.merge(symbol, bars.get(bars.size() - 1).getClose(), BigDecimal::add);
+            return 0.0;
+        }
+
+        @Override
+        public String getCheckpointKey() {
+            return "factor:counting";
+        }
+
+        @Override
+        public void writeState(DataOutput out) throws IOException {
+            Map<String, Integer> sorted = new TreeMap<>(counts);
+            out.writeInt(sorted.size());
+            for (Map.Entry<String, Integer> entry : sorted.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue());
+                CheckpointCodec.writeDecimal(out, closeSums.get(entry.getKey()));
+            }
+        }
+
+        @Override
+        public void readState(DataInput in) throws IOException {
+            counts.clear();
+            closeSums.clear();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                String symbol = in.readUTF();
+                counts.put(symbol, in.readInt());
+                closeSums.put(symbol, CheckpointCodec.readDecimal(in));
+            }
+        }
+    }
+
+    /**
+     * 单独登记的可检查点组件
+     */
+    private static final class CountingComponent implements Checkpointable {
+        private int value;
+
+        @Override
+        public String getCheckpointKey() {
+            return "component";
+        }
+
+        @Override
+        public void writeState(DataOutput out) throws IOException {
+            out.writeInt(value);
+        }
+
+        @Override
+        public void readState(DataInput in) throws IOException {
+            value = in.readInt();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.whaleal.quant.backtest.data;
+
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * K线重采样器测试
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class BarResamplerTest {
+
+    @Test
+    public void testCascadedResampling() {
+        Instant start = Instant.parse("2024-01-02T09:00:00Z");
+        List<Bar> bars = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            bars.add(bar("AAA", start.plusSeconds(60L * i), 100 + i));
+        }
+
+        MultiResolutionBars resampled = BarResampler.resample(bars, Interval.MINUTE_1,
+                Arrays.asList(Interval.MINUTE_5, Interval.HOUR_1, Interval.DAY_1));
+
+        List<Bar> fiveMinute = resampled.getBars(Interval.MINUTE_5, "AAA");
+        assertEquals(24, fiveMinute.size());
+        assertEquals(0, new BigDecimal("100").compareTo(fiveMinute.get(0).getOpen()));
+        assertEquals(0, new BigDecimal("104").compareTo(fiveMinute.get(0).getClose()));
+        assertEquals(0, new BigDecimal("5").compareTo(fiveMinute.get(0).getVolume()));
+
+        List<Bar> hourly = resampled.getBars(Interval.HOUR_1, "AAA");
+        assertEquals(2, hourly.size());
+        assertEquals(Instant.parse("2024-01-02T10:00:00Z"), hourly.get(1).getTimestamp());
+        assertEquals(0, new BigDecimal("160").compareTo(hourly.get(1).getOpen()));
+        assertEquals(0, new BigDecimal("220").compareTo(hourly.get(1).getHigh()));
+        assertEquals(0, new BigDecimal("159").compareTo(hourly.get(1).getLow()));
+
+        List<Bar> daily = resampled.getBars(Interval.DAY_1, "AAA");
+        assertEquals(1, daily.size());
+        assertEquals(Interval.DAY_1, daily.get(0).getInterval());
+        assertEquals(0, new BigDecimal("219").compareTo(daily.get(0).getClose()));
+        assertEquals(0, new BigDecimal("120").compareTo(daily.get(0).getVolume()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsOutOfOrderBars() {
+        Instant start = Instant.parse("2024-01-02T09:00:00Z");
+        BarResampler resampler = new BarResampler(Interval.MINUTE_1, Arrays.asList(Interval.MINUTE_5));
+        resampler.accept(bar("AAA", start.plusSeconds(60), 100));
+        resampler.accept(bar("AAA", start, 101));
+    }
+
+    private static Bar bar(String symbol, Instant timestamp, double open) {
+        Bar bar = new Bar();
+        bar.setSymbol(symbol);
+        bar.setInterval(Interval.MINUTE_1);
+        bar.setTimestamp(timestamp);
+        bar.setOpen(BigDecimal.valueOf(open));
+        bar.setHigh(BigDecimal.valueOf(open + 1));
+        bar.setLow(BigDecimal.valueOf(open - 1));
+        bar.setClose(BigDecimal.valueOf(open));
+        bar.setVolume(BigDecimal.ONE);
+        bar.setAmount(BigDecimal.valueOf(open));
+        return bar;
+    }
+}
@@ -0,0 +1,168 @@
+package com.whaleal.quant.backtest.data;
+
+import com.whaleal.quant.alpha.factor.BuyFactor;
+import com.whaleal.quant.backtest.engine.BacktestEngine;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 市场数据快照测试
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class MarketDataSnapshotTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 31, 0, 0);
+
+    @Test
+    public void testCaptureCopiesSourceData() {
+        Set<String> symbols = new HashSet<>(Arrays.asList("AAA", "BBB"));
+        MarketDataSnapshot snapshot = MarketDataSnapshot.capture(weekdayBars(symbols), symbols, START, END);
+
+        // 2024 年 1 月共 23 个工作日
+        assertEquals(23, snapshot.getTradingDayCount());
+        assertEquals(23, snapshot.getTradingDays(START, END).size());
+        assertTrue(snapshot.isTradingDay(LocalDateTime.of(2024, 1, 2, 0, 0)));
+        assertFalse(snapshot.isTradingDay(LocalDateTime.of(2024, 1, 6, 0, 0)));
+        assertEquals(LocalDateTime.of(2024, 1, 8, 0, 0), snapshot.getNextTradingDay(LocalDateTime.of(2024, 1, 5, 0, 0)));
+
+        Map<String, List<MarketDataEvent>> events = snapshot.getMarketDataEvents(LocalDateTime.of(2024, 1, 2, 0, 0));
+        assertEquals(symbols, events.keySet());
+        assertEquals(1, events.get("AAA").size());
+        assertSame(events, snapshot.getMarketDataEvents(LocalDateTime.of(2024, 1, 2, 0, 0)));
+    }
+
+    @Test
+    public void testLoadDataChecksCoverage() {
+        Set<String> symbols = Collections.singleton("AAA");
+        MarketDataSnapshot snapshot = MarketDataSnapshot.capture(weekdayBars(symbols), symbols, START, END);
+
+        snapshot.loadData(symbols, START.plusDays(5), END.minusDays(5));
+        assertSame(snapshot, MarketDataSnapshot.capture(snapshot, symbols, START, END));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLoadDataRejectsUncoveredRange() {
+        Set<String> symbols = Collections.singleton("AAA");
+        MarketDataSnapshot snapshot = MarketDataSnapshot.capture(weekdayBars(symbols), symbols, START, END);
+        snapshot.loadData(symbols, START, END.plusDays(1));
+    }
+
+    @Test
+    public void testViewsReturnOnlyRequestedSymbols() {
+        Set<String> symbols = new HashSet<>(Arrays.asList("AAA", "BBB", "CCC"));
+        MarketDataSnapshot snapshot = MarketDataSnapshot.capture(weekdayBars(symbols), symbols, START, END);
+        LocalDateTime day = LocalDateTime.of(2024, 1, 2, 0, 0);
+
+        MarketDataSnapshot first = snapshot.view();
+        MarketDataSnapshot second = snapshot.view();
+        first.loadData(Collections.singleton("AAA"), START, END);
+        second.loadData(new HashSet<>(Arrays.asList("BBB", "CCC")), START, END);
+
+        assertEquals(Collections.singleton("AAA"), first.getMarketDataEvents(day).keySet());
+        assertEquals(new HashSet<>(Arrays.asList("BBB", "CCC")), second.getMarketDataEvents(day).keySet());
+        assertSame(snapshot.getMarketDataEvents(day).get("AAA"), first.getMarketDataEvents(day).get("AAA"));
+        // 快照本身被共享，loadData 不会收窄它
+        snapshot.loadData(Collections.singleton("AAA"), START, END);
+        assertEquals(symbols, snapshot.getMarketDataEvents(day).keySet());
+
+        MarketDataSnapshot full = snapshot.view();
+        full.loadData(symbols, START, END);
+        assertSame(snapshot.getMarketDataEvents(day), full.getMarketDataEvents(day));
+    }
+
+    @Test
+    public void testEnginesSharingSnapshotSeeOnlyConfiguredSymbols() {
+        Set<String> symbols = new HashSet<>(Arrays.asList("AAA", "BBB"));
+        MarketDataSnapshot snapshot = MarketDataSnapshot.capture(weekdayBars(symbols), symbols, START, END);
+
+        for (String symbol : symbols) {
+            Set<String> seen = ConcurrentHashMap.newKeySet();
+            BacktestConfig config = new BacktestConfig()
+                    .setStartDate(START)
+                    .setEndDate(END)
+                    .setSymbols(new HashSet<>(Collections.singleton(symbol)));
+            BacktestEngine.builder()
+                    .config(config)
+                    .dataProvider(snapshot)
+                    .strategyEngine(recordingStrategy(symbols, seen))
+                    .build()
+                    .run();
+            assertEquals(Collections.singleton(symbol), seen);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEventsAreReadOnly() {
+        Set<String> symbols = Collections.singleton("AAA");
+        MarketDataSnapshot snapshot = MarketDataSnapshot.capture(weekdayBars(symbols), symbols, START, END);
+        snapshot.getMarketDataEvents(LocalDateTime.of(2024, 1, 2, 0, 0)).get("AAA").clear();
+    }
+
+    /**
+     * 股票池包含全部交易对，买入因子记录收到行情的交易对
+     */
+    private static StrategyEngine recordingStrategy(Set<String> stockPool, Set<String> seen) {
+        BuyFactor recorder = new BuyFactor() {
+            @Override
+            public String getName() {
+                return "recorder";
+            }
+
+            @Override
+            public double calculateBuySignal(String symbol, List<Bar> bars, Ticker ticker) {
+                seen.add(symbol);
+                return 0.0;
+            }
+        };
+        StrategyEngine strategyEngine = StrategyEngine.builder()
+                .strategyName("recorder")
+                .buyFactors(Collections.singletonList(recorder))
+                .build();
+        strategyEngine.setStockPool(new HashSet<>(stockPool));
+        return strategyEngine;
+    }
+
+    private static BarSeriesDataProvider weekdayBars(Set<String> symbols) {
+        Map<String, List<Bar>> barsBySymbol = new HashMap<>();
+        for (String symbol : symbols) {
+            List<Bar> bars = new ArrayList<>();
+            for (LocalDateTime day = START; !day.isAfter(END); day = day.plusDays(1)) {
+                if (day.getDayOfWeek().getValue() < 6) {
+                    Bar bar = new Bar();
+                    bar.setSymbol(symbol);
+                    bar.setTimestamp(day.toInstant(ZoneOffset.UTC));
+                    bar.setClose(BigDecimal.valueOf(100 + day.getDayOfMonth()));
+                    bars.add(bar);
+                }
+            }
+            barsBySymbol.put(symbol, bars);
+        }
+        return new BarSeriesDataProvider(barsBySymbol, Interval.DAY_1);
+    }
+}
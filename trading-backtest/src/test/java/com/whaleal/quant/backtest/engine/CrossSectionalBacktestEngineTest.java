@@ -0,0 +1,130 @@
+package com.whaleal.quant.backtest.engine;
+
+import com.whaleal.quant.alpha.factor.PickStockFactor;
+import com.whaleal.quant.alpha.factor.SellFactor;
+import com.whaleal.quant.backtest.data.BarSeriesDataProvider;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.model.trading.Order;
+import com.whaleal.quant.model.trading.Position;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 横截面回测引擎测试
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class CrossSectionalBacktestEngineTest {
+
+    @Test
+    public void testParallelRunMatchesSerialRun() {
+        Map<String, List<Bar>> bars = randomWalk(40, 90);
+
+        BacktestResult serial = run(bars, 1);
+        BacktestResult parallel = run(bars, 8);
+
+        assertTrue(serial.getTradeCount() > 0);
+        assertEquals(serial.getTradeCount(), parallel.getTradeCount());
+        assertEquals(serial.getWinCount(), parallel.getWinCount());
+        assertArrayEquals(serial.getEquityCurve(), parallel.getEquityCurve(), 0.0);
+        assertArrayEquals(serial.getTradePnls(), parallel.getTradePnls(), 0.0);
+    }
+
+    private static BacktestResult run(Map<String, List<Bar>> bars, int threads) {
+        BacktestConfig config = new BacktestConfig()
+                .setStartDate(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .setEndDate(LocalDateTime.of(2024, 3, 30, 0, 0))
+                .setMaxPositions(5);
+        FactorCrossSectionalStrategy strategy = FactorCrossSectionalStrategy.builder()
+                .pickStockFactor(new MomentumFactor())
+                .addSellFactor(new FallingBarFactor())
+                .topN(5)
+                .build();
+        return CrossSectionalBacktestEngine.builder()
+                .config(config)
+                .dataProvider(new BarSeriesDataProvider(bars, Interval.DAY_1))
+                .strategy(strategy)
+                .parallelThreads(threads)
+                .build()
+                .run();
+    }
+
+    private static Map<String, List<Bar>> randomWalk(int symbolCount, int days) {
+        Random random = new Random(7);
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        Map<String, List<Bar>> bars = new HashMap<>();
+        for (int s = 0; s < symbolCount; s++) {
+            String symbol = String.format("S%03d", s);
+            List<Bar> series = new ArrayList<>();
+            double price = 50 + random.nextInt(50);
+            for (int d = 0; d < days; d++) {
+                double open = price;
+                price = Math.max(1, price * (1 + random.nextGaussian() * 0.02));
+                Bar bar = new Bar();
+                bar.setSymbol(symbol);
+                bar.setInterval(Interval.DAY_1);
+                bar.setTimestamp(start.plusSeconds(86400L * d));
+                bar.setOpen(BigDecimal.valueOf(open));
+                bar.setHigh(BigDecimal.valueOf(Math.max(open, price)));
+                bar.setLow(BigDecimal.valueOf(Math.min(open, price)));
+                bar.setClose(BigDecimal.valueOf(price));
+                bar.setVolume(BigDecimal.ONE);
+                series.add(bar);
+            }
+            bars.put(symbol, series);
+        }
+        return bars;
+    }
+
+    private static double change(List<Bar> bars) {
+        Bar bar = bars.get(bars.size() - 1);
+        return bar.getClose().doubleValue() / bar.getOpen().doubleValue() - 1;
+    }
+
+    private static class MomentumFactor implements PickStockFactor {
+        @Override
+        public String getName() {
+            return "momentum";
+        }
+
+        @Override
+        public Set<String> pickStocks(Set<String> stockPool, Map<String, List<Bar>> symbolBarsMap, Map<String, Ticker> symbolTickerMap) {
+            return stockPool;
+        }
+
+        @Override
+        public double calculateStockScore(String symbol, List<Bar> bars, Ticker ticker) {
+            return change(bars);
+        }
+    }
+
+    private static class FallingBarFactor implements SellFactor {
+        @Override
+        public String getName() {
+            return "falling";
+        }
+
+        @Override
+        public double calculateSellSignal(String symbol, Position position, Order order, List<Bar> bars, Ticker ticker) {
+            return change(bars) < 0 ? 1.0 : 0.0;
+        }
+    }
+}
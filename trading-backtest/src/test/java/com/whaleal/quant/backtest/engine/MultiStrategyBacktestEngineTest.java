@@ -0,0 +1,246 @@
+package com.whaleal.quant.backtest.engine;
+
+import com.whaleal.quant.alpha.factor.BuyFactor;
+import com.whaleal.quant.backtest.data.BacktestDataProvider;
+import com.whaleal.quant.backtest.data.BarSeriesDataProvider;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 多策略回测引擎测试
+ * 校验每日数据只加载一次、各策略结果与单独回测一致，以及并行与串行结果一致
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class MultiStrategyBacktestEngineTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 2, 29, 0, 0);
+    private static final Set<String> SYMBOLS = new HashSet<>(Arrays.asList("AAA", "BBB", "CCC"));
+
+    @Test
+    public void testDataIsLoadedOncePerDayRegardlessOfStrategyCount() {
+        for (int strategies : new int[]{1, 4}) {
+            CountingDataProvider dataProvider = new CountingDataProvider(weekdayBars());
+            List<StrategyEngine> strategyEngines = new ArrayList<>();
+            for (int i = 0; i < strategies; i++) {
+                strategyEngines.add(strategy("s" + i, i + 1, new ConcurrentHashMap<>()));
+            }
+            MultiStrategyBacktestEngine.builder()
+                    .config(config(false))
+                    .dataProvider(dataProvider)
+                    .strategyEngines(strategyEngines)
+                    .build()
+                    .run();
+
+            assertEquals(1, dataProvider.loadCalls.get());
+            int tradingDays = dataProvider.getTradingDays(START, END).size();
+            assertEquals(tradingDays, dataProvider.eventCalls.size());
+            for (AtomicInteger calls : dataProvider.eventCalls.values()) {
+                assertEquals(1, calls.get());
+            }
+        }
+    }
+
+    @Test
+    public void testEachLaneMatchesStandaloneRun() {
+        Map<String, Map<String, List<String>>> laneObservations = new HashMap<>();
+        List<StrategyEngine> strategyEngines = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, List<String>> observations = new ConcurrentHashMap<>();
+            laneObservations.put("s" + i, observations);
+            strategyEngines.add(strategy("s" + i, i + 1, observations));
+        }
+        Map<String, BacktestResult> results = MultiStrategyBacktestEngine.builder()
+                .config(config(true))
+                .dataProvider(weekdayBars())
+                .strategyEngines(strategyEngines)
+                .build()
+                .run();
+
+        assertEquals(Arrays.asList("s0", "s1", "s2"), new ArrayList<>(results.keySet()));
+        for (int i = 0; i < 3; i++) {
+            String name = "s" + i;
+            Map<String, List<String>> observations = new ConcurrentHashMap<>();
+            BacktestResult standalone = BacktestEngine.builder()
+                    .config(config(false))
+                    .dataProvider(weekdayBars())
+                    .strategyEngine(strategy(name, i + 1, observations))
+                    .build()
+                    .run();
+
+            assertSameResult(standalone, results.get(name));
+            // 策略看到的每根K线都与单独回测相同
+            assertEquals(SYMBOLS, observations.keySet());
+            assertEquals(observations, laneObservations.get(name));
+        }
+    }
+
+    @Test
+    public void testParallelRunMatchesSerialRun() {
+        Map<String, BacktestResult> serial = runAll(false);
+        Map<String, BacktestResult> parallel = runAll(true);
+
+        assertEquals(serial.keySet(), parallel.keySet());
+        for (String name : serial.keySet()) {
+            assertSameResult(serial.get(name), parallel.get(name));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateStrategyNamesAreRejected() {
+        MultiStrategyBacktestEngine.builder()
+                .config(config(false))
+                .dataProvider(weekdayBars())
+                .addStrategyEngine(strategy("same", 1, new ConcurrentHashMap<>()))
+                .addStrategyEngine(strategy("same", 2, new ConcurrentHashMap<>()))
+                .build();
+    }
+
+    private static Map<String, BacktestResult> runAll(boolean parallel) {
+        MultiStrategyBacktestEngine.Builder builder = MultiStrategyBacktestEngine.builder()
+                .config(config(parallel))
+                .dataProvider(weekdayBars());
+        for (int i = 0; i < 6; i++) {
+            builder.addStrategyEngine(strategy("s" + i, i + 1, new ConcurrentHashMap<>()));
+        }
+        return builder.build().run();
+    }
+
+    private static void assertSameResult(BacktestResult expected, BacktestResult actual) {
+        assertArrayEquals(expected.getEquityTimestamps(), actual.getEquityTimestamps());
+        assertArrayEquals(expected.getEquityCurve(), actual.getEquityCurve(), 0.0);
+        assertArrayEquals(expected.getDailyReturns(), actual.getDailyReturns(), 0.0);
+        assertEquals(expected.getTradeCount(), actual.getTradeCount());
+        assertEquals(expected.getMetrics(), actual.getMetrics());
+    }
+
+    private static BacktestConfig config(boolean parallel) {
+        return new BacktestConfig()
+                .setStartDate(START)
+                .setEndDate(END)
+                .setSymbols(new HashSet<>(SYMBOLS))
+                .setParallelEnabled(parallel)
+                .setParallelThreads(4);
+    }
+
+    /**
+     * 创建记录所见K线的策略，不同倍数的策略记录的内容不同
+     */
+    private static StrategyEngine strategy(String name, int multiplier, Map<String, List<String>> observations) {
+        BuyFactor recorder = new BuyFactor() {
+            @Override
+            public String getName() {
+                return "recorder";
+            }
+
+            @Override
+            public double calculateBuySignal(String symbol, List<Bar> bars, Ticker ticker) {
+                Bar bar = bars.get(bars.size() - 1);
+                observations.computeIfAbsent(symbol, s -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(bar.getTimestamp() + "=" + bar.getClose().multiply(BigDecimal.valueOf(multiplier)));
+                return 0.0;
+            }
+        };
+        StrategyEngine strategyEngine = StrategyEngine.builder()
+                .strategyName(name)
+                .buyFactors(Collections.singletonList(recorder))
+                .build();
+        strategyEngine.setStockPool(new HashSet<>(SYMBOLS));
+        return strategyEngine;
+    }
+
+    private static BarSeriesDataProvider weekdayBars() {
+        Map<String, List<Bar>> barsBySymbol = new HashMap<>();
+        int offset = 0;
+        for (String symbol : SYMBOLS) {
+            List<Bar> bars = new ArrayList<>();
+            for (LocalDateTime day = START; !day.isAfter(END); day = day.plusDays(1)) {
+                if (day.getDayOfWeek().getValue() < 6) {
+                    Bar bar = new Bar();
+                    bar.setSymbol(symbol);
+                    bar.setTimestamp(day.toInstant(ZoneOffset.UTC));
+                    bar.setClose(BigDecimal.valueOf(100 + offset + day.getDayOfYear()));
+                    bars.add(bar);
+                }
+            }
+            barsBySymbol.put(symbol, bars);
+            offset += 10;
+        }
+        return new BarSeriesDataProvider(barsBySymbol, Interval.DAY_1);
+    }
+
+    /**
+     * 统计数据加载和每日事件解码次数的数据提供者
+     */
+    private static final class CountingDataProvider implements BacktestDataProvider {
+        private final BacktestDataProvider delegate;
+        private final AtomicInteger loadCalls = new AtomicInteger();
+        private final Map<LocalDateTime, AtomicInteger> eventCalls = new ConcurrentHashMap<>();
+
+        private CountingDataProvider(BacktestDataProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void loadData(Set<String> symbols, LocalDateTime startDate, LocalDateTime endDate) {
+            loadCalls.incrementAndGet();
+            delegate.loadData(symbols, startDate, endDate);
+        }
+
+        @Override
+        public Map<String, List<MarketDataEvent>> getMarketDataEvents(LocalDateTime date) {
+            eventCalls.computeIfAbsent(date, d -> new AtomicInteger()).incrementAndGet();
+            return delegate.getMarketDataEvents(date);
+        }
+
+        @Override
+        public boolean isTradingDay(LocalDateTime date) {
+            return delegate.isTradingDay(date);
+        }
+
+        @Override
+        public LocalDateTime getNextTradingDay(LocalDateTime date) {
+            return delegate.getNextTradingDay(date);
+        }
+
+        @Override
+        public LocalDateTime getPreviousTradingDay(LocalDateTime date) {
+            return delegate.getPreviousTradingDay(date);
+        }
+
+        @Override
+        public List<LocalDateTime> getTradingDays(LocalDateTime startDate, LocalDateTime endDate) {
+            return delegate.getTradingDays(startDate, endDate);
+        }
+
+        @Override
+        public void cleanup() {
+            delegate.cleanup();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.whaleal.quant.backtest.model;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 绩效跟踪器测试
+ * 将增量计算的指标与对权益曲线的全量计算结果进行比对
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class PerformanceTrackerTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testIncrementalMetricsMatchBatchComputation() {
+        double initialCapital = 100000.0;
+        double[] equity = {101000.0, 99500.0, 102000.0, 98000.0, 103500.0, 104000.0, 100500.0};
+        double periodsPerYear = 252;
+        double riskFreeRate = 0.03;
+
+        PerformanceTracker tracker = new PerformanceTracker(initialCapital, periodsPerYear, riskFreeRate);
+        for (int i = 0; i < equity.length; i++) {
+            tracker.record(i * 86400000L, equity[i]);
+        }
+
+        // 全量计算
+        int n = equity.length;
+        double[] returns = new double[n];
+        double previous = initialCapital;
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            returns[i] = equity[i] / previous - 1.0;
+            previous = equity[i];
+            sum += returns[i];
+        }
+        double mean = sum / n;
+        double squares = 0.0;
+        double downside = 0.0;
+        double periodRf = riskFreeRate / periodsPerYear;
+        for (double r : returns) {
+            squares += (r - mean) * (r - mean);
+            double shortfall = Math.min(r - periodRf, 0.0);
+            downside += shortfall * shortfall;
+        }
+        double std = Math.sqrt(squares / (n - 1));
+        double downsideDev = Math.sqrt(downside / n);
+
+        double peak = initialCapital;
+        double maxDrawdown = 0.0;
+        for (double value : equity) {
+            peak = Math.max(peak, value);
+            maxDrawdown = Math.max(maxDrawdown, (peak - value) / peak);
+        }
+        double annualizedReturn = Math.pow(equity[n - 1] / initialCapital, periodsPerYear / n) - 1.0;
+
+        assertEquals(n, tracker.size());
+        assertEquals(equity[n - 1] / initialCapital - 1.0, tracker.getTotalReturn(), DELTA);
+        assertEquals(std * Math.sqrt(periodsPerYear), tracker.getVolatility(), DELTA);
+        assertEquals(downsideDev * Math.sqrt(periodsPerYear), tracker.getDownsideRisk(), DELTA);
+        assertEquals(maxDrawdown, tracker.getMaxDrawdown(), DELTA);
+        assertEquals((mean - periodRf) / std * Math.sqrt(periodsPerYear), tracker.getSharpeRatio(), DELTA);
+        assertEquals((mean - periodRf) / downsideDev * Math.sqrt(periodsPerYear), tracker.getSortinoRatio(), DELTA);
+        assertEquals(annualizedReturn / maxDrawdown, tracker.getCalmarRatio(), DELTA);
+
+        Map<String, Double> metrics = new HashMap<>();
+        tracker.writeMetrics(metrics);
+        assertEquals(tracker.getSharpeRatio(), metrics.get("sharpeRatio"), DELTA);
+        assertEquals(tracker.getMaxDrawdown(), metrics.get("maxDrawdown"), DELTA);
+    }
+
+    @Test
+    public void testCurveGrowsBeyondInitialCapacity() {
+        PerformanceTracker tracker = new PerformanceTracker(1000.0, 252, 0.0);
+        for (int i = 0; i < 1000; i++) {
+            tracker.record(i, 1000.0 + i);
+        }
+
+        assertEquals(1000, tracker.getEquityCurve().length);
+        assertEquals(1999.0, tracker.getLastEquity(), DELTA);
+        assertEquals(999L, tracker.getTimestamps()[999]);
+        assertEquals(0.0, tracker.getMaxDrawdown(), DELTA);
+    }
+}
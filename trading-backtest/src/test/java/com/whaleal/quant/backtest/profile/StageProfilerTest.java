@@ -0,0 +1,61 @@
+package com.whaleal.quant.backtest.profile;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 阶段耗时分析器测试
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class StageProfilerTest {
+
+    @Test
+    public void testHistogramPercentiles() {
+        StageHistogram histogram = new StageHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1000L, histogram.getMin());
+        assertEquals(100000L, histogram.getMax());
+        // 分位数取桶上界，误差不超过一倍
+        long p50 = histogram.getPercentile(50);
+        assertTrue(p50 >= 50000L && p50 < 100000L);
+        assertEquals(100000L, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testDailyTotalsRollIntoRun() {
+        StageProfiler profiler = new StageProfiler();
+        LocalDateTime day = LocalDateTime.of(2024, 1, 2, 0, 0);
+
+        profiler.addWallTime(BacktestStage.STRATEGY, 3_000_000L);
+        long start = profiler.begin();
+        long[] sink = new long[1 << 16];
+        profiler.end(BacktestStage.END_OF_DAY, start);
+        DailyStageProfile first = profiler.endDay(day);
+
+        profiler.addWallTime(BacktestStage.STRATEGY, 5_000_000L);
+        DailyStageProfile second = profiler.endDay(day.plusDays(1));
+
+        assertEquals(3_000_000L, first.getWallNanos(BacktestStage.STRATEGY));
+        assertEquals(5_000_000L, second.getWallNanos(BacktestStage.STRATEGY));
+        assertEquals(0L, second.getWallNanos(BacktestStage.END_OF_DAY));
+        if (profiler.isAllocationSupported()) {
+            assertTrue(first.getAllocatedBytes(BacktestStage.END_OF_DAY) >= sink.length * 8L);
+        }
+
+        BacktestProfile profile = profiler.snapshot();
+        assertEquals(2, profile.getDays());
+        assertEquals(8_000_000L, profile.getWallNanos(BacktestStage.STRATEGY));
+        assertEquals(2, profile.getDailyWallHistogram(BacktestStage.STRATEGY).getCount());
+        assertTrue(profile.generateTable().contains(BacktestStage.STRATEGY.getName()));
+    }
+}
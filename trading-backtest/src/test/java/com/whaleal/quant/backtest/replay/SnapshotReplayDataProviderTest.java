@@ -0,0 +1,99 @@
+package com.whaleal.quant.backtest.replay;
+
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.strategy.event.MarketDataEvent;
+import com.whaleal.quant.trace.TraceContext;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 快照回放数据提供者测试
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class SnapshotReplayDataProviderTest {
+
+    @Test
+    public void testMergesSnapshotsInTimestampOrder() throws IOException {
+        Path directory = Files.createTempDirectory("snapshot-replay");
+        Instant day1 = Instant.parse("2024-01-02T09:00:00Z");
+        Instant day2 = Instant.parse("2024-01-03T09:00:00Z");
+
+        // 两个快照的行情时间交错，第二个快照跨到下一天
+        writeSnapshot(directory, day1.plusSeconds(10), Arrays.asList(
+                ticker("AAA", day1, 10), ticker("BBB", day1.plusSeconds(2), 20), ticker("AAA", day1.plusSeconds(4), 11)));
+        writeSnapshot(directory, day2, Arrays.asList(
+                ticker("BBB", day1.plusSeconds(3), 21), ticker("AAA", day1.plusSeconds(5), 12), ticker("AAA", day2, 13)));
+
+        SnapshotReplayDataProvider provider = SnapshotReplayDataProvider.builder()
+                .snapshotDirectory(directory)
+                .maxOpenFiles(2)
+                .build();
+        provider.loadData(Collections.emptySet(), LocalDateTime.of(2024, 1, 2, 0, 0), LocalDateTime.of(2024, 1, 3, 0, 0));
+
+        assertEquals(2, provider.getTradingDays(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 5, 0, 0)).size());
+
+        Map<String, List<MarketDataEvent>> first = provider.getMarketDataEvents(LocalDateTime.of(2024, 1, 2, 0, 0));
+        assertEquals(Arrays.asList(10, 11, 12), prices(first.get("AAA")));
+        assertEquals(Arrays.asList(20, 21), prices(first.get("BBB")));
+        assertEquals(day1.plusSeconds(5), provider.getClock().instant());
+
+        Map<String, List<MarketDataEvent>> second = provider.getMarketDataEvents(LocalDateTime.of(2024, 1, 3, 0, 0));
+        assertEquals(Collections.singletonList(13), prices(second.get("AAA")));
+        assertTrue(!second.containsKey("BBB"));
+
+        // 流式回放从头重新归并，不按日缓存
+        List<Long> timestamps = new ArrayList<>();
+        provider.replay(event -> timestamps.add(event.getTimestamp()));
+        assertEquals(6, timestamps.size());
+        for (int i = 1; i < timestamps.size(); i++) {
+            assertTrue(timestamps.get(i - 1) <= timestamps.get(i));
+        }
+        provider.cleanup();
+    }
+
+    private static List<Integer> prices(List<MarketDataEvent> events) {
+        List<Integer> prices = new ArrayList<>();
+        for (MarketDataEvent event : events) {
+            prices.add(event.getTicker().getPrice().intValue());
+        }
+        return prices;
+    }
+
+    private static Ticker ticker(String symbol, Instant timestamp, int price) {
+        return Ticker.builder()
+                .symbol(symbol)
+                .price(BigDecimal.valueOf(price))
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private static void writeSnapshot(Path directory, Instant timestamp, List<Ticker> tickers) throws IOException {
+        Path path = directory.resolve("snapshot_" + timestamp.toEpochMilli() + ".snapshot.gz");
+        try (ObjectOutputStream oos = new ObjectOutputStream(new GZIPOutputStream(Files.newOutputStream(path)))) {
+            oos.writeObject(TraceContext.create());
+            oos.writeObject(timestamp);
+            oos.writeInt(tickers.size());
+            for (Ticker ticker : tickers) {
+                oos.writeObject(ticker);
+            }
+        }
+    }
+}
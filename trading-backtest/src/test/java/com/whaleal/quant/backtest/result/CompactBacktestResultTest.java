@@ -0,0 +1,103 @@
+package com.whaleal.quant.backtest.result;
+
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.model.trading.Order;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 紧凑回测结果测试
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class CompactBacktestResultTest {
+
+    @Test
+    public void testRoundTripThroughStore() throws IOException {
+        BacktestResult result = result(new double[]{100, 101, 103}, 0.03);
+        Path directory = Files.createTempDirectory("result-store");
+        BacktestResultStore store = new BacktestResultStore(directory);
+        store.save("run-1", result);
+
+        CompactBacktestResult loaded = store.load("run-1");
+        assertEquals(Collections.singletonList("run-1"), store.listRunIds());
+        assertEquals(2, loaded.getOrderCount());
+        assertEquals("AAA", loaded.getString(loaded.getOrderSymbols()[0]));
+        assertEquals(0.03, loaded.getTotalReturn(), 1e-12);
+        assertArrayEquals(result.getEquityCurve(), loaded.getEquityCurve(), 0.0);
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), loaded.getConfig().getStartDate());
+
+        BacktestResult restored = loaded.toBacktestResult();
+        List<Order> orders = restored.getOrders().get("AAA");
+        assertEquals("SELL", orders.get(1).getSide());
+        assertEquals(0, new BigDecimal("10.5").compareTo(orders.get(1).getPrice()));
+        assertNull(orders.get(1).getStopPrice());
+        assertEquals(0.03, restored.getTotalReturn(), 1e-12);
+    }
+
+    @Test
+    public void testEquityCurveComparison() {
+        Map<String, CompactBacktestResult> runs = new LinkedHashMap<>();
+        runs.put("base", CompactBacktestResult.from(result(new double[]{100, 110, 121}, 0.21)));
+        runs.put("other", CompactBacktestResult.from(result(new double[]{100, 105, 100}, 0.0)));
+
+        EquityCurveComparison comparison = new EquityCurveComparison(runs);
+        assertArrayEquals(new double[]{0, -5, -21}, comparison.difference("other", "base"), 1e-9);
+        assertEquals(21, comparison.maxAbsoluteDifference("other", "base"), 1e-9);
+        assertEquals(-0.21, comparison.metricDifferences("other", "base").get("totalReturn"), 1e-12);
+        assertEquals(1.0, comparison.correlationMatrix()[0][0], 0.0);
+    }
+
+    private static BacktestResult result(double[] equity, double totalReturn) {
+        BacktestConfig config = new BacktestConfig()
+                .setStartDate(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .setEndDate(LocalDateTime.of(2024, 1, 3, 0, 0))
+                .setInitialCapital(100);
+        long[] timestamps = new long[equity.length];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = Instant.parse("2024-01-01T00:00:00Z").plusSeconds(86400L * i).toEpochMilli();
+        }
+        Map<String, List<Order>> orders = new HashMap<>();
+        orders.put("AAA", Arrays.asList(
+                order("BUY", "10", "2024-01-01T10:00:00Z"),
+                order("SELL", "10.5", "2024-01-02T10:00:00Z")));
+        Map<String, Double> metrics = new HashMap<>();
+        metrics.put("totalReturn", totalReturn);
+        return BacktestResult.builder()
+                .config(config)
+                .orders(orders)
+                .metrics(metrics)
+                .equityCurve(timestamps, equity)
+                .tradeCount(1)
+                .winCount(1)
+                .build();
+    }
+
+    private static Order order(String side, String price, String time) {
+        return Order.builder()
+                .symbol("AAA")
+                .side(side)
+                .status("FILLED")
+                .price(new BigDecimal(price))
+                .quantity(BigDecimal.ONE)
+                .timestamp(Instant.parse(time))
+                .build();
+    }
+}
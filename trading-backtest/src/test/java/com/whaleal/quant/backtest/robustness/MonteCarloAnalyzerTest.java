@@ -0,0 +1,65 @@
+package com.whaleal.quant.backtest.robustness;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 蒙特卡洛稳健性分析器测试
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class MonteCarloAnalyzerTest {
+
+    private static final double DELTA = 1e-12;
+
+    @Test
+    public void testResultsIndependentOfThreadCount() {
+        double[] trades = randomSeries(200, 1000.0, 1);
+        double[] returns = randomSeries(500, 0.01, 2);
+
+        RobustnessResult serial = MonteCarloAnalyzer.builder().iterations(2000).seed(7L).parallelThreads(1).build()
+                .analyze(trades, returns, 100000.0, 252, 0.03);
+        RobustnessResult parallel = MonteCarloAnalyzer.builder().iterations(2000).seed(7L).parallelThreads(4).build()
+                .analyze(trades, returns, 100000.0, 252, 0.03);
+
+        for (ResamplingMethod method : ResamplingMethod.values()) {
+            RobustnessResult.MethodResult a = serial.getMethodResult(method);
+            RobustnessResult.MethodResult b = parallel.getMethodResult(method);
+            assertEquals(a.getFinalReturn().getMean(), b.getFinalReturn().getMean(), DELTA);
+            assertEquals(a.getMaxDrawdown().getPercentile(0.95), b.getMaxDrawdown().getPercentile(0.95), DELTA);
+            assertEquals(a.getSharpeRatio().getMedian(), b.getSharpeRatio().getMedian(), DELTA);
+        }
+    }
+
+    @Test
+    public void testTradeShuffleKeepsFinalReturn() {
+        double[] trades = randomSeries(100, 500.0, 3);
+        double total = 0.0;
+        for (double trade : trades) {
+            total += trade;
+        }
+
+        RobustnessResult result = MonteCarloAnalyzer.builder().iterations(500).methods(ResamplingMethod.TRADE_SHUFFLE).build()
+                .analyze(trades, new double[0], 100000.0, 252, 0.03);
+        SimulationDistribution finalReturn = result.getMethodResult(ResamplingMethod.TRADE_SHUFFLE).getFinalReturn();
+
+        assertEquals(500, finalReturn.getSampleCount());
+        assertEquals(total / 100000.0, finalReturn.getMin(), 1e-9);
+        assertEquals(total / 100000.0, finalReturn.getMax(), 1e-9);
+        assertTrue(result.getMethodResult(ResamplingMethod.TRADE_SHUFFLE).getMaxDrawdown().getStandardDeviation() > 0);
+    }
+
+    private static double[] randomSeries(int length, double scale, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (random.nextDouble() - 0.48) * scale;
+        }
+        return values;
+    }
+}
@@ -15,7 +15,7 @@ import java.time.Instant;
  */
 @Data
 @Builder
-public class Ticker {
+public class Ticker implements java.io.Serializable {
 
     /**
      * 交易对符号
@@ -0,0 +1,102 @@
+package com.whaleal.quant.data.service;
+
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.trace.TraceContext;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 快照流式读取器
+ * 逐条读取 {@link SnapshotService} 写入的行情快照文件，不会一次性把全部行情载入内存
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class SnapshotReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final ObjectInputStream input;
+    private final TraceContext traceContext;
+    private final Instant timestamp;
+    private final int tickerCount;
+    private int readCount;
+
+    /**
+     * 打开快照文件并读取元数据
+     * @param path 快照文件路径
+     * @throws IOException 读取失败
+     */
+    public SnapshotReader(Path path) throws IOException {
+        this.path = path;
+        InputStream fileInput = Files.newInputStream(path);
+        try {
+            this.input = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(fileInput, BUFFER_SIZE), BUFFER_SIZE));
+            this.traceContext = (TraceContext) input.readObject();
+            this.timestamp = (Instant) input.readObject();
+            this.tickerCount = input.readInt();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            fileInput.close();
+            throw new IOException("Invalid snapshot file: " + path, e);
+        } catch (IOException e) {
+            fileInput.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 是否还有未读取的行情
+     * @return 是否还有行情
+     */
+    public boolean hasNext() {
+        return readCount < tickerCount;
+    }
+
+    /**
+     * 读取下一条行情
+     * @return 行情数据
+     * @throws IOException 读取失败
+     */
+    public Ticker next() throws IOException {
+        if (!hasNext()) {
+            throw new IllegalStateException("No more tickers in snapshot: " + path);
+        }
+        try {
+            Ticker ticker = (Ticker) input.readObject();
+            readCount++;
+            return ticker;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Invalid snapshot file: " + path, e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public TraceContext getTraceContext() {
+        return traceContext;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public int getTickerCount() {
+        return tickerCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
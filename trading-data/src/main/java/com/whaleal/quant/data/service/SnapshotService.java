@@ -14,7 +14,6 @@ import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 /**
@@ -33,6 +32,11 @@ public class SnapshotService {
     private static final String COLD_STORAGE_PATH = "/data/quant/cold";
     private static final String SNAPSHOT_EXTENSION = ".snapshot.gz";
 
+    /**
+     * 写入多少条行情后重置对象流，使读取端无需保留已读对象的引用
+     */
+    private static final int RESET_INTERVAL = 1024;
+
     @Autowired
     private MongoTemplate mongoTemplate;
 
@@ -65,8 +69,12 @@ public class SnapshotService {
                 oos.writeInt(tickers.size());
 
                 // 写入行情数据
+                int written = 0;
                 for (Ticker ticker : tickers) {
                     oos.writeObject(ticker);
+                    if (++written % RESET_INTERVAL == 0) {
+                        oos.reset();
+                    }
                 }
 
                 log.info("[{}] 保存行情快照成功: {}，包含 {} 条数据",
@@ -88,32 +96,34 @@ public class SnapshotService {
     public Snapshot loadSnapshot(String snapshotId) {
         Path snapshotPath = getSnapshotPath(snapshotId);
 
-        try {
-            // 解压缩并反序列化快照数据
-            try (FileInputStream fis = new FileInputStream(snapshotPath.toFile());
-                 GZIPInputStream gzis = new GZIPInputStream(fis);
-                 ObjectInputStream ois = new ObjectInputStream(gzis)) {
-
-                // 读取元数据
-                TraceContext traceContext = (TraceContext) ois.readObject();
-                Instant timestamp = (Instant) ois.readObject();
-                int size = ois.readInt();
-
-                // 读取行情数据
-                List<Ticker> tickers = new ArrayList<>(size);
-                for (int i = 0; i < size; i++) {
-                    tickers.add((Ticker) ois.readObject());
-                }
-
-                log.info("加载行情快照成功: {}，包含 {} 条数据", snapshotId, tickers.size());
-                return new Snapshot(snapshotId, traceContext, timestamp, tickers);
+        try (SnapshotReader reader = new SnapshotReader(snapshotPath)) {
+            List<Ticker> tickers = new ArrayList<>(reader.getTickerCount());
+            while (reader.hasNext()) {
+                tickers.add(reader.next());
             }
+
+            log.info("加载行情快照成功: {}，包含 {} 条数据", snapshotId, tickers.size());
+            return new Snapshot(snapshotId, reader.getTraceContext(), reader.getTimestamp(), tickers);
         } catch (Exception e) {
             log.error("加载行情快照失败: {}", e.getMessage(), e);
             throw new RuntimeException("加载行情快照失败", e);
         }
     }
 
+    /**
+     * 以流式方式打开行情快照，调用方负责关闭
+     * @param snapshotId 快照ID
+     * @return 快照读取器
+     */
+    public SnapshotReader openSnapshot(String snapshotId) {
+        try {
+            return new SnapshotReader(getSnapshotPath(snapshotId));
+        } catch (IOException e) {
+            log.error("打开行情快照失败: {}", e.getMessage(), e);
+            throw new RuntimeException("打开行情快照失败", e);
+        }
+    }
+
     /**
      * 回放行情快照
      * @param snapshotId 快照ID
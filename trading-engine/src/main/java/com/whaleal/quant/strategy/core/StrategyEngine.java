@@ -16,6 +16,8 @@ import java.util.*;
 /**
  * 策略引擎
  * 整合买入因子、卖出因子、择时因子和择股因子，实现完整的策略逻辑
+ * 内部映射均为非线程安全的 HashMap，接入事件总线时应通过
+ * {@link com.whaleal.quant.strategy.event.PartitionedEventBackend#registerPerPartition} 为每个分区创建独立实例
  *
  * @author whaleal
  * @version 1.0.0
@@ -258,6 +260,14 @@ public class StrategyEngine {
         this.stockPool = stockPool;
     }
 
+    /**
+     * 获取股票池
+     * @return 股票池
+     */
+    public Set<String> getStockPool() {
+        return stockPool;
+    }
+
     /**
      * 设置市场指数数据
      * @param marketBars 市场指数K线数据
@@ -292,6 +302,70 @@ public class StrategyEngine {
         return orders;
     }
 
+    /**
+     * 获取K线数据映射
+     * @return K线数据映射
+     */
+    public Map<String, List<Bar>> getSymbolBarsMap() {
+        return symbolBarsMap;
+    }
+
+    /**
+     * 获取实时行情数据映射
+     * @return 实时行情数据映射
+     */
+    public Map<String, Ticker> getSymbolTickerMap() {
+        return symbolTickerMap;
+    }
+
+    /**
+     * 获取市场指数K线数据
+     * @return 市场指数K线数据
+     */
+    public List<Bar> getMarketBars() {
+        return marketBars;
+    }
+
+    /**
+     * 获取市场指数实时行情数据
+     * @return 市场指数实时行情数据
+     */
+    public Ticker getMarketTicker() {
+        return marketTicker;
+    }
+
+    /**
+     * 获取买入因子列表
+     * @return 买入因子列表
+     */
+    public List<BuyFactor> getBuyFactors() {
+        return buyFactors;
+    }
+
+    /**
+     * 获取卖出因子列表
+     * @return 卖出因子列表
+     */
+    public List<SellFactor> getSellFactors() {
+        return sellFactors;
+    }
+
+    /**
+     * 获取择时因子
+     * @return 择时因子
+     */
+    public PickTimeFactor getPickTimeFactor() {
+        return pickTimeFactor;
+    }
+
+    /**
+     * 获取择股因子
+     * @return 择股因子
+     */
+    public PickStockFactor getPickStockFactor() {
+        return pickStockFactor;
+    }
+
     /**
      * Builder类
      */
@@ -26,7 +26,11 @@ public class StrategyEngine {
     private EventBusManager eventBusManager;
 
     public StrategyEngine() {
-        this.eventBusManager = EventBusManager.getInstance();
+        this(EventBusManager.getInstance());
+    }
+
+    public StrategyEngine(EventBusManager eventBusManager) {
+        this.eventBusManager = eventBusManager;
         registerEventHandlers();
     }
 
@@ -0,0 +1,47 @@
+package com.whaleal.quant.strategy.event;
+
+import java.util.function.Consumer;
+
+/**
+ * 事件总线后端
+ *
+ * <p>{@link EventBusManager} 的实际投递实现，订阅者既可以用带 {@code @Subscribe} 注解的方法注册，
+ * 也可以按事件类型注册类型化处理器
+ *
+ * @author stocks-strategy-sdk
+ * @version 1.0.0
+ */
+public interface EventBackend {
+
+    /**
+     * 注册订阅者，扫描其 {@code @Subscribe} 方法
+     * @param subscriber 订阅者
+     */
+    void register(Object subscriber);
+
+    /**
+     * 注销订阅者
+     * @param subscriber 订阅者，或 {@link #subscribe} 返回的句柄
+     */
+    void unregister(Object subscriber);
+
+    /**
+     * 发布事件
+     * @param event 事件
+     */
+    void post(Object event);
+
+    /**
+     * 注册类型化处理器，接收该类型及其子类型的事件
+     * @param eventType 事件类型
+     * @param handler 处理器
+     * @param <T> 事件类型
+     * @return 订阅句柄，传给 {@link #unregister} 可取消订阅
+     */
+    <T> Object subscribe(Class<T> eventType, Consumer<? super T> handler);
+
+    /**
+     * 关闭后端，释放投递线程
+     */
+    void shutdown();
+}
@@ -1,16 +1,15 @@
 package com.whaleal.quant.strategy.event;
 
-import com.google.common.eventbus.AsyncEventBus;
-import com.google.common.eventbus.EventBus;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 /**
  * 事件总线管理器
  *
- * <p>负责事件的发布和订阅管理
+ * <p>负责事件的发布和订阅管理，实际投递由 {@link EventBackend} 完成，
+ * 默认使用 {@link GuavaEventBackend}，可在首次使用前通过 {@link #initialize} 切换为
+ * {@link RingBufferEventBackend}
  *
  * @author stocks-strategy-sdk
  * @version 1.0.0
@@ -19,12 +18,17 @@ import java.util.concurrent.Executors;
 public class EventBusManager {
 
     private static EventBusManager instance;
-    private EventBus eventBus;
-    private ExecutorService executorService;
+    private final EventBackend backend;
 
     private EventBusManager() {
-        this.executorService = Executors.newFixedThreadPool(10);
-        this.eventBus = new AsyncEventBus("strategy-event-bus", executorService);
+        this(new GuavaEventBackend());
+    }
+
+    public EventBusManager(EventBackend backend) {
+        if (backend == null) {
+            throw new IllegalArgumentException("Event backend must not be null");
+        }
+        this.backend = backend;
     }
 
     public static synchronized EventBusManager getInstance() {
@@ -34,19 +38,48 @@ public class EventBusManager {
         return instance;
     }
 
+    /**
+     * 使用指定后端初始化全局实例，必须在首次调用 {@link #getInstance()} 之前执行
+     * @param backend 事件后端
+     * @return 全局实例
+     */
+    public static synchronized EventBusManager initialize(EventBackend backend) {
+        if (instance != null) {
+            throw new IllegalStateException("EventBusManager has already been initialized");
+        }
+        instance = new EventBusManager(backend);
+        log.info("Event bus initialized with {}", backend.getClass().getSimpleName());
+        return instance;
+    }
+
     public void register(Object subscriber) {
-        eventBus.register(subscriber);
+        backend.register(subscriber);
     }
 
     public void unregister(Object subscriber) {
-        eventBus.unregister(subscriber);
+        backend.unregister(subscriber);
     }
 
     public void post(Object event) {
-        eventBus.post(event);
+        backend.post(event);
+    }
+
+    /**
+     * 注册类型化处理器
+     * @param eventType 事件类型
+     * @param handler 处理器
+     * @param <T> 事件类型
+     * @return 订阅句柄，传给 {@link #unregister} 可取消订阅
+     */
+    public <T> Object subscribe(Class<T> eventType, Consumer<? super T> handler) {
+        return backend.subscribe(eventType, handler);
+    }
+
+    public EventBackend getBackend() {
+        return backend;
     }
 
     public void shutdown() {
-        executorService.shutdown();
+        backend.shutdown();
     }
 }
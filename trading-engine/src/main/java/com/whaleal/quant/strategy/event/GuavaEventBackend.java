@@ -0,0 +1,79 @@
+package com.whaleal.quant.strategy.event;
+
+import com.google.common.eventbus.AsyncEventBus;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * 基于 Guava AsyncEventBus 的事件后端
+ *
+ * <p>事件在固定线程池上异步投递，不保证事件之间的顺序
+ *
+ * @author stocks-strategy-sdk
+ * @version 1.0.0
+ */
+public class GuavaEventBackend implements EventBackend {
+
+    private final EventBus eventBus;
+    private final ExecutorService executorService;
+
+    public GuavaEventBackend() {
+        this(10);
+    }
+
+    public GuavaEventBackend(int threads) {
+        this.executorService = Executors.newFixedThreadPool(threads);
+        this.eventBus = new AsyncEventBus("strategy-event-bus", executorService);
+    }
+
+    @Override
+    public void register(Object subscriber) {
+        eventBus.register(subscriber);
+    }
+
+    @Override
+    public void unregister(Object subscriber) {
+        eventBus.unregister(subscriber);
+    }
+
+    @Override
+    public void post(Object event) {
+        eventBus.post(event);
+    }
+
+    @Override
+    public <T> Object subscribe(Class<T> eventType, Consumer<? super T> handler) {
+        TypedSubscriber<T> subscriber = new TypedSubscriber<>(eventType, handler);
+        eventBus.register(subscriber);
+        return subscriber;
+    }
+
+    @Override
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    /**
+     * 把类型化处理器适配为 Guava 订阅者
+     */
+    private static final class TypedSubscriber<T> {
+        private final Class<T> eventType;
+        private final Consumer<? super T> handler;
+
+        TypedSubscriber(Class<T> eventType, Consumer<? super T> handler) {
+            this.eventType = eventType;
+            this.handler = handler;
+        }
+
+        @Subscribe
+        public void onEvent(Object event) {
+            if (eventType.isInstance(event)) {
+                handler.accept(eventType.cast(event));
+            }
+        }
+    }
+}
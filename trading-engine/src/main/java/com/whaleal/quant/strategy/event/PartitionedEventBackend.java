@@ -0,0 +1,250 @@
+package com.whaleal.quant.strategy.event;
+
+import com.whaleal.quant.model.trading.Order;
+import com.whaleal.quant.model.trading.Position;
+import com.whaleal.quant.strategy.event.ring.ProducerType;
+import com.whaleal.quant.strategy.event.ring.WaitStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 按交易对分区的事件后端
+ *
+ * <p>每个分区是一个单消费线程的 {@link RingBufferEventBackend}，事件按交易对哈希到固定分区，
+ * 同一交易对的行情、订单、持仓事件始终在同一线程上按发布顺序处理，不同交易对分散到多个核上并行。
+ * 没有交易对的事件统一进入 0 号分区
+ *
+ * <p>通过 {@link #register} 注册的订阅者会被所有分区线程调用，同一交易对内有序但交易对之间并发；
+ * 通过 {@link #registerPerPartition} 注册时每个分区持有独立的订阅者实例，
+ * 实例只会看到本分区的交易对且只被一个线程访问，内部状态可以使用普通 HashMap 而无需加锁
+ *
+ * <p>订阅者可以在分区线程上发布其他交易对的事件。事件进入目标分区的溢出队列而不会等待缓冲区空出槽位，
+ * 分区线程之间互相发布不会死锁，同一发布方发往同一分区的事件仍按发布顺序处理
+ *
+ * @author stocks-strategy-sdk
+ * @version 1.0.0
+ */
+@Slf4j
+public class PartitionedEventBackend implements EventBackend {
+
+    private final RingBufferEventBackend[] partitions;
+    private final Function<Object, String> symbolExtractor;
+    private final Map<Object, List<Object>> subscriptions = new ConcurrentHashMap<>();
+
+    private PartitionedEventBackend(Builder builder) {
+        this.symbolExtractor = builder.symbolExtractor;
+        this.partitions = new RingBufferEventBackend[builder.partitions];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = RingBufferEventBackend.builder()
+                    .bufferSize(builder.bufferSize)
+                    .producerType(builder.producerType)
+                    .waitStrategy(builder.waitStrategy.get())
+                    .threadName("strategy-event-partition-" + i)
+                    .conflateTickers(builder.conflateTickers)
+                    .build();
+        }
+        log.info("Partitioned event backend started with {} partitions", partitions.length);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 注册订阅者，所有分区共享同一实例
+     * @param subscriber 订阅者
+     */
+    @Override
+    public void register(Object subscriber) {
+        for (RingBufferEventBackend partition : partitions) {
+            partition.register(subscriber);
+        }
+    }
+
+    /**
+     * 为每个分区创建独立的订阅者实例并注册
+     * @param factory 订阅者工厂，每个分区调用一次
+     * @param <S> 订阅者类型
+     * @return 按分区编号排列的订阅者实例
+     */
+    public <S> List<S> registerPerPartition(Supplier<? extends S> factory) {
+        List<S> subscribers = new ArrayList<>(partitions.length);
+        for (RingBufferEventBackend partition : partitions) {
+            S subscriber = factory.get();
+            partition.register(subscriber);
+            subscribers.add(subscriber);
+        }
+        return Collections.unmodifiableList(subscribers);
+    }
+
+    @Override
+    public void unregister(Object subscriber) {
+        List<Object> handles = subscriptions.remove(subscriber);
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i].unregister(handles != null ? handles.get(i) : subscriber);
+        }
+    }
+
+    @Override
+    public <T> Object subscribe(Class<T> eventType, Consumer<? super T> handler) {
+        List<Object> handles = new ArrayList<>(partitions.length);
+        for (RingBufferEventBackend partition : partitions) {
+            handles.add(partition.subscribe(eventType, handler));
+        }
+        Object handle = new Object();
+        subscriptions.put(handle, handles);
+        return handle;
+    }
+
+    @Override
+    public void post(Object event) {
+        partitions[partitionOf(symbolExtractor.apply(event))].post(event);
+    }
+
+    /**
+     * 获取交易对所在的分区
+     * @param symbol 交易对符号，为空时返回 0
+     * @return 分区编号
+     */
+    public int partitionOf(String symbol) {
+        if (symbol == null) {
+            return 0;
+        }
+        int h = symbol.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), partitions.length);
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * 获取所有分区被合并丢弃的行情总数
+     * @return 合并次数
+     */
+    public long getConflatedCount() {
+        long total = 0;
+        for (RingBufferEventBackend partition : partitions) {
+            total += partition.getConflatedCount();
+        }
+        return total;
+    }
+
+    /**
+     * 获取各交易对被合并丢弃的行情数
+     * @return 交易对到合并次数的快照
+     */
+    public Map<String, Long> getConflatedCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (RingBufferEventBackend partition : partitions) {
+            counts.putAll(partition.getConflatedCounts());
+        }
+        return counts;
+    }
+
+    @Override
+    public void shutdown() {
+        for (RingBufferEventBackend partition : partitions) {
+            partition.shutdown();
+        }
+    }
+
+    /**
+     * 提取策略事件的交易对
+     * @param event 事件
+     * @return 交易对符号，无法识别时返回 null
+     */
+    public static String symbolOf(Object event) {
+        if (event instanceof MarketDataEvent) {
+            return ((MarketDataEvent) event).getSymbol();
+        }
+        if (event instanceof OrderEvent) {
+            Order order = ((OrderEvent) event).getOrder();
+            return order != null ? order.getSymbol() : null;
+        }
+        if (event instanceof PositionEvent) {
+            Position position = ((PositionEvent) event).getPosition();
+            return position != null ? position.getSymbol() : null;
+        }
+        return null;
+    }
+
+    /**
+     * 构建器
+     */
+    public static class Builder {
+        private int partitions = Runtime.getRuntime().availableProcessors();
+        private int bufferSize = 16384;
+        private ProducerType producerType = ProducerType.MULTI;
+        private Supplier<WaitStrategy> waitStrategy = WaitStrategy::sleeping;
+        private Function<Object, String> symbolExtractor = PartitionedEventBackend::symbolOf;
+        private boolean conflateTickers;
+
+        /**
+         * 分区数，即消费线程数，默认为 CPU 核数
+         */
+        public Builder partitions(int partitions) {
+            this.partitions = partitions;
+            return this;
+        }
+
+        /**
+         * 每个分区的槽位数，必须为 2 的幂
+         */
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * 生产者类型，默认 MULTI。只有一个外部线程发布且订阅者不跨分区发布时才可设为 SINGLE
+         */
+        public Builder producerType(ProducerType producerType) {
+            this.producerType = producerType;
+            return this;
+        }
+
+        /**
+         * 等待策略工厂，每个分区创建一个
+         */
+        public Builder waitStrategy(Supplier<WaitStrategy> waitStrategy) {
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        /**
+         * 自定义分区键提取，默认识别行情、订单和持仓事件的交易对
+         */
+        public Builder symbolExtractor(Function<Object, String> symbolExtractor) {
+            this.symbolExtractor = symbolExtractor;
+            return this;
+        }
+
+        /**
+         * 是否按交易对合并未消费的实时行情，默认关闭
+         */
+        public Builder conflateTickers(boolean conflateTickers) {
+            this.conflateTickers = conflateTickers;
+            return this;
+        }
+
+        public PartitionedEventBackend build() {
+            if (partitions <= 0) {
+                throw new IllegalArgumentException("Partition count must be positive");
+            }
+            if (waitStrategy == null || symbolExtractor == null) {
+                throw new IllegalArgumentException("Wait strategy and symbol extractor must not be null");
+            }
+            return new PartitionedEventBackend(this);
+        }
+    }
+}
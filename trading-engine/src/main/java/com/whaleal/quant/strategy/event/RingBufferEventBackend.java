@@ -0,0 +1,377 @@
+package com.whaleal.quant.strategy.event;
+
+import com.whaleal.quant.strategy.event.ring.BatchEventProcessor;
+import com.whaleal.quant.strategy.event.ring.ProducerType;
+import com.whaleal.quant.strategy.event.ring.RingBuffer;
+import com.whaleal.quant.strategy.event.ring.WaitStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 基于环形缓冲区的事件后端
+ *
+ * <p>事件写入预分配的槽位，由单个消费线程按发布顺序批量投递，
+ * 行情、订单、持仓事件之间保持全局顺序，订阅者不会被并发调用。
+ * 缓冲区满时发布方等待消费线程，天然形成背压
+ *
+ * <p>订阅者在消费线程上再发布的事件不占用槽位，而是进入消费线程本地队列，在当前事件处理完后按发布顺序立即处理。
+ * 这样消费线程不会等待自己腾出槽位，单生产者模式下也不会与生产者线程并发申请序号
+ *
+ * <p>多生产者模式下，其他事件后端的消费线程发布事件时不会在缓冲区满时等待：
+ * 这些事件进入溢出队列，缓冲区中只放一个空槽位唤醒消费线程，由消费线程在处理完下一个事件后按发布顺序处理。
+ * 两个消费线程互相发布事件时因此不会因双方缓冲区都满而死锁
+ *
+ * <p>开启行情合并后，只含实时行情的 {@link MarketDataEvent} 按交易对进入合并队列：
+ * 同一交易对上一条行情尚未被消费时，新行情直接替换旧行情，消费线程总是拿到最新价格。
+ * 被合并的行情在首条未消费行情的位置投递；该位置之后又发布了同一交易对的其他事件时，
+ * 之后的行情另占一个位置，不会越过这些事件先投递。
+ * 带K线的行情事件以及订单、持仓事件从不合并
+ *
+ * @author stocks-strategy-sdk
+ * @version 1.0.0
+ */
+@Slf4j
+public class RingBufferEventBackend implements EventBackend {
+
+    /**
+     * 当前线程作为消费线程所属的事件后端
+     */
+    private static final ThreadLocal<RingBufferEventBackend> CONSUMER = new ThreadLocal<>();
+
+    private final SubscriberRegistry registry = new SubscriberRegistry();
+    private final RingBuffer<EventHolder> ringBuffer;
+    private final BatchEventProcessor<EventHolder> processor;
+    private final Thread consumerThread;
+    private final boolean conflateTickers;
+    private final Map<String, PendingTicker> pendingTickers = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> conflatedCounts = new ConcurrentHashMap<>();
+    private final LongAdder conflatedTotal = new LongAdder();
+    /**
+     * 消费线程上发布的事件，只由消费线程访问
+     */
+    private final ArrayDeque<EventHolder> localEvents = new ArrayDeque<>();
+    /**
+     * 其他消费线程发布的事件
+     */
+    private final Queue<EventHolder> overflowEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean overflowSignalled = new AtomicBoolean();
+    private volatile boolean shutdown;
+
+    private RingBufferEventBackend(Builder builder) {
+        this.conflateTickers = builder.conflateTickers;
+        this.ringBuffer = new RingBuffer<>(EventHolder::new, builder.bufferSize, builder.producerType, builder.waitStrategy);
+        this.processor = new BatchEventProcessor<>(ringBuffer, this::onEvent);
+        this.consumerThread = new Thread(() -> {
+            CONSUMER.set(this);
+            processor.run();
+        }, builder.threadName);
+        this.consumerThread.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void register(Object subscriber) {
+        registry.register(subscriber);
+    }
+
+    @Override
+    public void unregister(Object subscriber) {
+        registry.unregister(subscriber);
+    }
+
+    @Override
+    public <T> Object subscribe(Class<T> eventType, Consumer<? super T> handler) {
+        return registry.subscribe(eventType, handler);
+    }
+
+    @Override
+    public void post(Object event) {
+        // 停止后消费线程上的订阅者仍可再发布，这些事件随当前事件一起处理完
+        if (shutdown && Thread.currentThread() != consumerThread) {
+            throw new IllegalStateException("Event backend has been shut down");
+        }
+        if (conflateTickers && isConflatable(event)) {
+            postTicker((MarketDataEvent) event);
+            return;
+        }
+        if (conflateTickers && !pendingTickers.isEmpty()) {
+            sealPendingTicker(event);
+        }
+        publish(event, null);
+    }
+
+    /**
+     * 发布事件或合并行情的待投递行情
+     * 消费线程上发布的进入本地队列；多生产者模式下其他消费线程发布的不等待槽位；其余等待槽位
+     */
+    private void publish(Object event, PendingTicker ticker) {
+        if (Thread.currentThread() == consumerThread) {
+            localEvents.add(new EventHolder(event, ticker));
+            return;
+        }
+        if (ringBuffer.getProducerType() == ProducerType.MULTI && CONSUMER.get() != null) {
+            publishWithoutWaiting(event, ticker);
+            return;
+        }
+        long sequence = ringBuffer.next();
+        EventHolder holder = ringBuffer.get(sequence);
+        holder.event = event;
+        holder.ticker = ticker;
+        ringBuffer.publish(sequence);
+    }
+
+    /**
+     * 事件统一进入溢出队列，保证同一发布方的事件按发布顺序处理。
+     * 尚未通知消费线程时再尝试发布一个空槽位唤醒它；申请不到说明缓冲区仍有未处理的事件，消费线程处理完后会取走溢出事件
+     */
+    private void publishWithoutWaiting(Object event, PendingTicker ticker) {
+        overflowEvents.add(new EventHolder(event, ticker));
+        if (overflowSignalled.compareAndSet(false, true)) {
+            long sequence = ringBuffer.tryNext();
+            if (sequence >= 0) {
+                ringBuffer.publish(sequence);
+            }
+        }
+    }
+
+    /**
+     * 发布可合并的行情：交易对已有未消费的行情时只替换，否则占用一个槽位记录该交易对的待投递行情
+     */
+    private void postTicker(MarketDataEvent event) {
+        String symbol = event.getSymbol();
+        while (true) {
+            PendingTicker pending = pendingTickers.get(symbol);
+            if (pending == null) {
+                PendingTicker created = new PendingTicker(symbol, event);
+                if (pendingTickers.putIfAbsent(symbol, created) == null) {
+                    publish(null, created);
+                    return;
+                }
+                continue;
+            }
+            Object latest = pending.latest.get();
+            if (latest == PendingTicker.CONSUMED) {
+                // 消费线程已取走，移除后重新占用槽位
+                pendingTickers.remove(symbol, pending);
+            } else if (pending.latest.compareAndSet(latest, event)) {
+                conflatedTotal.increment();
+                conflatedCounts.computeIfAbsent(symbol, s -> new LongAdder()).increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 同一交易对的其他事件发布前，未消费的行情不再接受替换，之后的行情另占槽位投递在该事件之后
+     */
+    private void sealPendingTicker(Object event) {
+        String symbol = PartitionedEventBackend.symbolOf(event);
+        if (symbol != null) {
+            pendingTickers.remove(symbol);
+        }
+    }
+
+    private void dispatchTicker(PendingTicker pending) {
+        Object latest = pending.latest.getAndSet(PendingTicker.CONSUMED);
+        pendingTickers.remove(pending.symbol, pending);
+        registry.dispatch(latest);
+    }
+
+    private void onEvent(EventHolder holder, long sequence, boolean endOfBatch) {
+        dispatch(holder);
+        // 先清除通知再取溢出事件，之后入队的事件会重新通知
+        if (overflowSignalled.get()) {
+            overflowSignalled.set(false);
+        }
+        while (true) {
+            EventHolder next = localEvents.poll();
+            if (next == null) {
+                next = overflowEvents.poll();
+                if (next == null) {
+                    return;
+                }
+            }
+            dispatch(next);
+        }
+    }
+
+    private void dispatch(EventHolder holder) {
+        Object event = holder.event;
+        PendingTicker ticker = holder.ticker;
+        // 及时释放引用，避免槽位长期持有已处理的事件
+        holder.event = null;
+        holder.ticker = null;
+        if (ticker != null) {
+            dispatchTicker(ticker);
+        } else if (event != null) {
+            registry.dispatch(event);
+        }
+    }
+
+    /**
+     * 判断事件是否可合并，只有带交易对和实时行情且不含K线的行情事件可以合并
+     */
+    private static boolean isConflatable(Object event) {
+        if (!(event instanceof MarketDataEvent)) {
+            return false;
+        }
+        MarketDataEvent marketData = (MarketDataEvent) event;
+        List<?> bars = marketData.getBars();
+        return marketData.getSymbol() != null && marketData.getTicker() != null && (bars == null || bars.isEmpty());
+    }
+
+    /**
+     * 停止接收新事件，等待已发布的事件处理完后退出消费线程
+     */
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        processor.halt();
+        if (Thread.currentThread() == consumerThread) {
+            return;
+        }
+        try {
+            consumerThread.join(TimeUnit.SECONDS.toMillis(5));
+            if (consumerThread.isAlive()) {
+                log.warn("Event consumer thread did not stop within 5 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 获取剩余容量
+     * @return 空闲槽位数
+     */
+    public long remainingCapacity() {
+        return ringBuffer.remainingCapacity();
+    }
+
+    public int getBufferSize() {
+        return ringBuffer.getBufferSize();
+    }
+
+    public boolean isConflateTickers() {
+        return conflateTickers;
+    }
+
+    /**
+     * 获取被合并丢弃的行情总数
+     * @return 合并次数
+     */
+    public long getConflatedCount() {
+        return conflatedTotal.sum();
+    }
+
+    /**
+     * 获取各交易对被合并丢弃的行情数，用于定位哪些交易对处理不过来
+     * @return 交易对到合并次数的快照
+     */
+    public Map<String, Long> getConflatedCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        conflatedCounts.forEach((symbol, count) -> counts.put(symbol, count.sum()));
+        return counts;
+    }
+
+    /**
+     * 槽位，合并行情时只引用该交易对的待投递行情，投递时再取最新值
+     */
+    private static final class EventHolder {
+        private Object event;
+        private PendingTicker ticker;
+
+        private EventHolder() {
+        }
+
+        private EventHolder(Object event, PendingTicker ticker) {
+            this.event = event;
+            this.ticker = ticker;
+        }
+    }
+
+    /**
+     * 交易对未消费的最新行情，消费线程取走后置为 {@link #CONSUMED}，之后的行情不能再替换进来
+     */
+    private static final class PendingTicker {
+        private static final Object CONSUMED = new Object();
+
+        private final String symbol;
+        private final AtomicReference<Object> latest;
+
+        private PendingTicker(String symbol, MarketDataEvent event) {
+            this.symbol = symbol;
+            this.latest = new AtomicReference<>(event);
+        }
+    }
+
+    /**
+     * 构建器
+     */
+    public static class Builder {
+        private int bufferSize = 65536;
+        private ProducerType producerType = ProducerType.MULTI;
+        private WaitStrategy waitStrategy = WaitStrategy.sleeping();
+        private String threadName = "strategy-event-ring";
+        private boolean conflateTickers;
+
+        /**
+         * 槽位数，必须为 2 的幂
+         */
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * 只有一个线程发布事件时可设为 {@link ProducerType#SINGLE}，订阅者在消费线程上发布的事件不计入
+         */
+        public Builder producerType(ProducerType producerType) {
+            this.producerType = producerType;
+            return this;
+        }
+
+        /**
+         * 消费线程等待策略，对延迟敏感时可使用 {@link WaitStrategy#busySpin()}
+         */
+        public Builder waitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        public Builder threadName(String threadName) {
+            this.threadName = threadName;
+            return this;
+        }
+
+        /**
+         * 是否按交易对合并未消费的实时行情，默认关闭
+         */
+        public Builder conflateTickers(boolean conflateTickers) {
+            this.conflateTickers = conflateTickers;
+            return this;
+        }
+
+        public RingBufferEventBackend build() {
+            if (producerType == null || waitStrategy == null) {
+                throw new IllegalArgumentException("Producer type and wait strategy must not be null");
+            }
+            return new RingBufferEventBackend(this);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.whaleal.quant.strategy.event;
+
+import com.google.common.eventbus.Subscribe;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 订阅者注册表
+ *
+ * <p>注册时一次性把 {@code @Subscribe} 方法解析为绑定到订阅者的 MethodHandle，
+ * 投递时按事件的运行时类型查缓存的处理器数组，不再做反射查找。
+ * 注册变化时整体替换缓存，投递线程下一次查找会重新解析
+ *
+ * @author stocks-strategy-sdk
+ * @version 1.0.0
+ */
+@Slf4j
+class SubscriberRegistry {
+
+    @SuppressWarnings("unchecked")
+    private static final Consumer<Object>[] NO_HANDLERS = new Consumer[0];
+
+    private final List<Handler> handlers = new CopyOnWriteArrayList<>();
+    private volatile Map<Class<?>, Consumer<Object>[]> dispatchCache = new ConcurrentHashMap<>();
+
+    synchronized void register(Object subscriber) {
+        handlers.addAll(scan(subscriber));
+        dispatchCache = new ConcurrentHashMap<>();
+    }
+
+    synchronized <T> Object subscribe(Class<T> eventType, Consumer<? super T> handler) {
+        Object owner = new Object();
+        handlers.add(new Handler(owner, eventType, event -> handler.accept(eventType.cast(event))));
+        dispatchCache = new ConcurrentHashMap<>();
+        return owner;
+    }
+
+    synchronized void unregister(Object subscriber) {
+        handlers.removeIf(handler -> handler.owner == subscriber);
+        dispatchCache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 在当前线程把事件投递给所有匹配的处理器，单个处理器失败不影响其他处理器
+     * @param event 事件
+     */
+    void dispatch(Object event) {
+        Consumer<Object>[] targets = dispatchCache.computeIfAbsent(event.getClass(), this::resolve);
+        for (Consumer<Object> target : targets) {
+            try {
+                target.accept(event);
+            } catch (Exception e) {
+                log.error("Event handler failed for {}: {}", event.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<Object>[] resolve(Class<?> eventClass) {
+        List<Consumer<Object>> matched = new ArrayList<>();
+        for (Handler handler : handlers) {
+            if (handler.eventType.isAssignableFrom(eventClass)) {
+                matched.add(handler.target);
+            }
+        }
+        return matched.isEmpty() ? NO_HANDLERS : matched.toArray(new Consumer[0]);
+    }
+
+    private static List<Handler> scan(Object subscriber) {
+        List<Handler> found = new ArrayList<>();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Class<?> type = subscriber.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(Subscribe.class) || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                if (method.getParameterCount() != 1) {
+                    throw new IllegalArgumentException("@Subscribe method must have exactly one parameter: " + method);
+                }
+                try {
+                    method.setAccessible(true);
+                    MethodHandle handle = lookup.unreflect(method)
+                            .bindTo(subscriber)
+                            .asType(MethodType.methodType(void.class, Object.class));
+                    found.add(new Handler(subscriber, method.getParameterTypes()[0], event -> invoke(handle, event)));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException("Cannot access @Subscribe method: " + method, e);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static void invoke(MethodHandle handle, Object event) {
+        try {
+            handle.invokeExact(event);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Event handler failed", e);
+        }
+    }
+
+    private static final class Handler {
+        private final Object owner;
+        private final Class<?> eventType;
+        private final Consumer<Object> target;
+
+        Handler(Object owner, Class<?> eventType, Consumer<Object> target) {
+            this.owner = owner;
+            this.eventType = eventType;
+            this.target = target;
+        }
+    }
+}
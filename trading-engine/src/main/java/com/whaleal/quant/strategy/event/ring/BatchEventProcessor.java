@@ -0,0 +1,80 @@
+package com.whaleal.quant.strategy.event.ring;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 批量事件处理器
+ *
+ * <p>在单个线程上按序号顺序消费环形缓冲区。每次等待返回后一次处理所有已发布的事件，
+ * 整批处理完才推进一次自身序号，减少与生产者之间的缓存行往返。
+ * 处理器抛出的任何异常（包括 Error）都只记录日志，之后继续处理下一个事件
+ *
+ * @param <T> 槽位类型
+ * @author stocks-strategy-sdk
+ * @version 1.0.0
+ */
+@Slf4j
+public class BatchEventProcessor<T> implements Runnable {
+
+    private final RingBuffer<T> ringBuffer;
+    private final EventHandler<? super T> handler;
+    private final Sequence sequence = new Sequence(-1);
+    private volatile boolean running;
+
+    public BatchEventProcessor(RingBuffer<T> ringBuffer, EventHandler<? super T> handler) {
+        this.ringBuffer = ringBuffer;
+        this.handler = handler;
+        ringBuffer.addGatingSequence(sequence);
+        this.running = true;
+    }
+
+    @Override
+    public void run() {
+        WaitStrategy waitStrategy = ringBuffer.getWaitStrategy();
+        Sequence cursor = ringBuffer.getCursor();
+        long nextSequence = sequence.get() + 1;
+        while (true) {
+            long available = waitStrategy.waitFor(nextSequence, cursor, () -> !running);
+            available = ringBuffer.getHighestPublishedSequence(nextSequence, available);
+            if (available < nextSequence) {
+                if (!running) {
+                    break;
+                }
+                Thread.onSpinWait();
+                continue;
+            }
+            while (nextSequence <= available) {
+                T event = ringBuffer.get(nextSequence);
+                try {
+                    handler.onEvent(event, nextSequence, nextSequence == available);
+                } catch (Throwable e) {
+                    // Error 也只记录并跳过：消费线程一旦退出，门控序号不再前进，生产者会在 next() 上永久阻塞
+                    log.error("Error handling event at sequence {}", nextSequence, e);
+                }
+                nextSequence++;
+            }
+            sequence.set(available);
+        }
+        ringBuffer.removeGatingSequence(sequence);
+    }
+
+    /**
+     * 停止处理，已发布但尚未处理的事件会先处理完
+     */
+    public void halt() {
+        running = false;
+        ringBuffer.getWaitStrategy().signalAllWhenBlocking();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 获取已处理到的序号
+     * @return 序号
+     */
+    public Sequence getSequence() {
+        return sequence;
+    }
+}
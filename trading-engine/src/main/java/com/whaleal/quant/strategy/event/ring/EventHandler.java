@@ -0,0 +1,21 @@
+package com.whaleal.quant.strategy.event.ring;
+
+/**
+ * 环形缓冲区事件处理器
+ *
+ * @param <T> 槽位类型
+ * @author stocks-strategy-sdk
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface EventHandler<T> {
+
+    /**
+     * 处理一个事件
+     * @param event 槽位，处理完成后会被生产者复用，不能在处理器之外持有
+     * @param sequence 序号
+     * @param endOfBatch 是否为本批最后一个事件，可用于批量刷新
+     * @throws Exception 处理失败
+     */
+    void onEvent(T event, long sequence, boolean endOfBatch) throws Exception;
+}
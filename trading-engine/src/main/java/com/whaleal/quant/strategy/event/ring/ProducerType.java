@@ -0,0 +1,20 @@
+package com.whaleal.quant.strategy.event.ring;
+
+/**
+ * 生产者类型
+ *
+ * @author stocks-strategy-sdk
+ * @version 1.0.0
+ */
+public enum ProducerType {
+
+    /**
+     * 单生产者，只允许一个线程发布事件，申请序号不需要 CAS
+     */
+    SINGLE,
+
+    /**
+     * 多生产者，任意线程都可以发布事件
+     */
+    MULTI
+}
@@ -0,0 +1,228 @@
+package com.whaleal.quant.strategy.event.ring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 环形缓冲区
+ *
+ * <p>槽位在创建时全部预分配并循环复用，发布事件只需申请序号、写入槽位、发布序号，不产生额外对象。
+ * 生产者申请序号时不会越过最慢消费者一整圈，缓冲区满时自旋等待。
+ * 单生产者模式下游标即已发布的序号；多生产者模式下游标是已申请的序号，发布状态记录在可用标记数组中
+ *
+ * <p>使用方式：{@code long sequence = ring.next(); ring.get(sequence) 写入; ring.publish(sequence);}
+ *
+ * @param <T> 槽位类型
+ * @author stocks-strategy-sdk
+ * @version 1.0.0
+ */
+public class RingBuffer<T> {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Object[] entries;
+    private final int bufferSize;
+    private final int indexMask;
+    private final int indexShift;
+    private final ProducerType producerType;
+    private final WaitStrategy waitStrategy;
+    private final Sequence cursor;
+    private final Sequence gatingSequenceCache;
+    private final int[] availableBuffer;
+    private volatile Sequence[] gatingSequences;
+
+    /**
+     * 单生产者下一个待申请序号的前一个值，只由生产者线程读写
+     */
+    private long nextValue;
+
+    /**
+     * 单生产者缓存的最慢消费者序号
+     */
+    private long cachedGatingValue;
+
+    /**
+     * 构造方法
+     * @param factory 槽位工厂，用于预分配
+     * @param bufferSize 槽位数，必须为 2 的幂
+     * @param producerType 生产者类型
+     * @param waitStrategy 等待策略
+     */
+    public RingBuffer(Supplier<T> factory, int bufferSize, ProducerType producerType, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of 2");
+        }
+        this.entries = new Object[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            entries[i] = factory.get();
+        }
+        this.bufferSize = bufferSize;
+        this.indexMask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.producerType = producerType;
+        this.waitStrategy = waitStrategy;
+        this.cursor = new Sequence(-1);
+        this.gatingSequenceCache = new Sequence(-1);
+        this.gatingSequences = new Sequence[0];
+        this.nextValue = -1;
+        this.cachedGatingValue = -1;
+        if (producerType == ProducerType.MULTI) {
+            this.availableBuffer = new int[bufferSize];
+            Arrays.fill(availableBuffer, -1);
+        } else {
+            this.availableBuffer = null;
+        }
+    }
+
+    /**
+     * 获取槽位
+     * @param sequence 序号
+     * @return 槽位
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long sequence) {
+        return (T) entries[(int) sequence & indexMask];
+    }
+
+    /**
+     * 申请下一个序号，缓冲区满时等待消费者
+     * @return 序号
+     */
+    public long next() {
+        long sequence;
+        while ((sequence = tryNext()) < 0) {
+            LockSupport.parkNanos(1);
+        }
+        return sequence;
+    }
+
+    /**
+     * 尝试申请下一个序号
+     * @return 序号，缓冲区已满时返回 -1
+     */
+    public long tryNext() {
+        if (producerType == ProducerType.SINGLE) {
+            long next = nextValue + 1;
+            long wrapPoint = next - bufferSize;
+            if (wrapPoint > cachedGatingValue || cachedGatingValue > nextValue) {
+                long minSequence = Sequence.minimum(gatingSequences, nextValue);
+                cachedGatingValue = minSequence;
+                if (wrapPoint > minSequence) {
+                    return -1;
+                }
+            }
+            nextValue = next;
+            return next;
+        }
+
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - bufferSize;
+            long cachedGating = gatingSequenceCache.get();
+            if (wrapPoint > cachedGating || cachedGating > current) {
+                long gating = Sequence.minimum(gatingSequences, current);
+                if (wrapPoint > gating) {
+                    return -1;
+                }
+                gatingSequenceCache.set(gating);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 发布序号，对应槽位对消费者可见
+     * @param sequence 序号
+     */
+    public void publish(long sequence) {
+        if (producerType == ProducerType.SINGLE) {
+            cursor.set(sequence);
+        } else {
+            AVAILABLE.setRelease(availableBuffer, (int) sequence & indexMask, (int) (sequence >>> indexShift));
+        }
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * 判断序号是否已发布
+     * @param sequence 序号
+     * @return 是否已发布
+     */
+    public boolean isAvailable(long sequence) {
+        if (producerType == ProducerType.SINGLE) {
+            return sequence <= cursor.get();
+        }
+        return (int) AVAILABLE.getAcquire(availableBuffer, (int) sequence & indexMask) == (int) (sequence >>> indexShift);
+    }
+
+    /**
+     * 获取从下界开始连续发布的最大序号
+     * 多生产者时序号可能乱序发布，消费者只能处理到第一个未发布的序号之前
+     * @param lowerBound 下界
+     * @param availableSequence 游标值
+     * @return 连续发布的最大序号，下界未发布时返回下界减一
+     */
+    public long getHighestPublishedSequence(long lowerBound, long availableSequence) {
+        if (producerType == ProducerType.SINGLE) {
+            return availableSequence;
+        }
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+            if (!isAvailable(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return availableSequence;
+    }
+
+    /**
+     * 添加门控序号，生产者不会越过其中最慢的一个
+     * @param sequence 消费者序号
+     */
+    public synchronized void addGatingSequence(Sequence sequence) {
+        // 从当前游标开始，避免新消费者处理历史槽位
+        sequence.set(cursor.get());
+        Sequence[] current = gatingSequences;
+        Sequence[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = sequence;
+        gatingSequences = updated;
+    }
+
+    /**
+     * 移除门控序号
+     * @param sequence 消费者序号
+     */
+    public synchronized void removeGatingSequence(Sequence sequence) {
+        Sequence[] current = gatingSequences;
+        gatingSequences = Arrays.stream(current).filter(s -> s != sequence).toArray(Sequence[]::new);
+    }
+
+    /**
+     * 获取剩余容量
+     * @return 未被消费者追上的槽位数
+     */
+    public long remainingCapacity() {
+        long produced = cursor.get();
+        return bufferSize - (produced - Sequence.minimum(gatingSequences, produced));
+    }
+
+    public Sequence getCursor() {
+        return cursor;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public ProducerType getProducerType() {
+        return producerType;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,76 @@
+package com.whaleal.quant.strategy.event.ring;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 序号
+ *
+ * <p>生产者游标和消费者进度使用的可并发读写的 long，前后填充避免与相邻字段伪共享
+ *
+ * @author stocks-strategy-sdk
+ * @version 1.0.0
+ */
+public class Sequence extends SequenceRhsPadding {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Sequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /**
+     * 有序写入，保证写入前的操作对读取到该值的线程可见
+     * @param value 新值
+     */
+    public void set(long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    public boolean compareAndSet(long expected, long value) {
+        return VALUE.compareAndSet(this, expected, value);
+    }
+
+    /**
+     * 获取一组序号中的最小值
+     * @param sequences 序号数组
+     * @param minimum 序号数组为空时的返回值，也是返回值的上限
+     * @return 最小值
+     */
+    public static long minimum(Sequence[] sequences, long minimum) {
+        long result = minimum;
+        for (Sequence sequence : sequences) {
+            result = Math.min(result, sequence.get());
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
+
+abstract class SequenceLhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends SequenceLhsPadding {
+    protected volatile long value;
+}
+
+abstract class SequenceRhsPadding extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
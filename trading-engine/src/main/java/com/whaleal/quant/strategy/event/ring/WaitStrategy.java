@@ -0,0 +1,183 @@
+package com.whaleal.quant.strategy.event.ring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 等待策略
+ *
+ * <p>消费者在没有新事件时如何等待：忙等延迟最低但独占一个核，阻塞最省 CPU 但唤醒有延迟，
+ * 让出和休眠介于两者之间
+ *
+ * @author stocks-strategy-sdk
+ * @version 1.0.0
+ */
+public interface WaitStrategy {
+
+    /**
+     * 等待游标到达指定序号
+     * @param sequence 需要的序号
+     * @param cursor 生产者游标
+     * @param alerted 是否停止等待
+     * @return 当前可用的最大序号，停止等待时可能小于需要的序号
+     */
+    long waitFor(long sequence, Sequence cursor, BooleanSupplier alerted);
+
+    /**
+     * 发布新事件后唤醒阻塞的消费者
+     */
+    void signalAllWhenBlocking();
+
+    /**
+     * 忙等
+     * @return 等待策略
+     */
+    static WaitStrategy busySpin() {
+        return new BusySpin();
+    }
+
+    /**
+     * 自旋后让出 CPU
+     * @return 等待策略
+     */
+    static WaitStrategy yielding() {
+        return new Yielding();
+    }
+
+    /**
+     * 自旋、让出后短暂休眠
+     * @return 等待策略
+     */
+    static WaitStrategy sleeping() {
+        return new Sleeping(TimeUnit.MICROSECONDS.toNanos(100));
+    }
+
+    /**
+     * 基于锁和条件变量阻塞
+     * @return 等待策略
+     */
+    static WaitStrategy blocking() {
+        return new Blocking();
+    }
+
+    /**
+     * 忙等
+     */
+    final class BusySpin implements WaitStrategy {
+        @Override
+        public long waitFor(long sequence, Sequence cursor, BooleanSupplier alerted) {
+            long available;
+            while ((available = cursor.get()) < sequence && !alerted.getAsBoolean()) {
+                Thread.onSpinWait();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+    }
+
+    /**
+     * 自旋后让出 CPU
+     */
+    final class Yielding implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, BooleanSupplier alerted) {
+            int counter = SPIN_TRIES;
+            long available;
+            while ((available = cursor.get()) < sequence && !alerted.getAsBoolean()) {
+                if (counter > 0) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+    }
+
+    /**
+     * 自旋、让出后短暂休眠
+     */
+    final class Sleeping implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 100;
+
+        private final long sleepNanos;
+
+        public Sleeping(long sleepNanos) {
+            this.sleepNanos = sleepNanos;
+        }
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, BooleanSupplier alerted) {
+            int counter = SPIN_TRIES + YIELD_TRIES;
+            long available;
+            while ((available = cursor.get()) < sequence && !alerted.getAsBoolean()) {
+                if (counter > YIELD_TRIES) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else if (counter > 0) {
+                    counter--;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(sleepNanos);
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+        }
+    }
+
+    /**
+     * 基于锁和条件变量阻塞
+     */
+    final class Blocking implements WaitStrategy {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, BooleanSupplier alerted) {
+            long available = cursor.get();
+            if (available >= sequence) {
+                return available;
+            }
+            lock.lock();
+            try {
+                while ((available = cursor.get()) < sequence && !alerted.getAsBoolean()) {
+                    // 带超时等待，防止错过停止信号
+                    published.awaitNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.whaleal.quant.trading.ledger;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 定点数工具
+ * 以 long 保存按十进制位数缩放后的数值，只在接口边界与 BigDecimal 互相转换，舍入统一采用银行家舍入
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class FixedPoint {
+
+    /**
+     * 支持的最大小数位数
+     */
+    public static final int MAX_SCALE = 18;
+
+    private static final long[] POW10 = new long[MAX_SCALE + 1];
+
+    static {
+        POW10[0] = 1L;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POW10[i] = POW10[i - 1] * 10L;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    /**
+     * 获取10的幂
+     * @param scale 小数位数
+     * @return 10的scale次幂
+     */
+    public static long pow10(int scale) {
+        checkScale(scale);
+        return POW10[scale];
+    }
+
+    /**
+     * BigDecimal 转为定点数
+     * @param value 数值
+     * @param scale 小数位数
+     * @return 定点数
+     * @throws ArithmeticException 超出 long 范围
+     */
+    public static long toScaled(BigDecimal value, int scale) {
+        checkScale(scale);
+        return value.setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * double 转为定点数
+     * @param value 数值
+     * @param scale 小数位数
+     * @return 定点数
+     */
+    public static long toScaled(double value, int scale) {
+        checkScale(scale);
+        return Math.round(value * POW10[scale]);
+    }
+
+    /**
+     * 定点数转为 BigDecimal
+     * @param value 定点数
+     * @param scale 小数位数
+     * @return 数值
+     */
+    public static BigDecimal toDecimal(long value, int scale) {
+        return BigDecimal.valueOf(value, scale);
+    }
+
+    /**
+     * 定点数转为 double
+     * @param value 定点数
+     * @param scale 小数位数
+     * @return 数值
+     */
+    public static double toDouble(long value, int scale) {
+        return (double) value / POW10[scale];
+    }
+
+    /**
+     * 改变定点数的小数位数
+     * @param value 定点数
+     * @param fromScale 原小数位数
+     * @param toScale 目标小数位数
+     * @return 目标小数位数下的定点数
+     * @throws ArithmeticException 超出 long 范围
+     */
+    public static long rescale(long value, int fromScale, int toScale) {
+        if (toScale >= fromScale) {
+            return Math.multiplyExact(value, POW10[toScale - fromScale]);
+        }
+        return divideHalfEven(value, POW10[fromScale - toScale]);
+    }
+
+    /**
+     * 银行家舍入的整数除法
+     * @param dividend 被除数
+     * @param divisor 除数，必须为正
+     * @return 商
+     */
+    public static long divideHalfEven(long dividend, long divisor) {
+        long quotient = Math.floorDiv(dividend, divisor);
+        long remainder = Math.floorMod(dividend, divisor);
+        long twice = remainder << 1;
+        if (twice > divisor || (twice == divisor && (quotient & 1L) != 0)) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE + ": " + scale);
+        }
+    }
+}
@@ -0,0 +1,503 @@
+package com.whaleal.quant.trading.ledger;
+
+import com.whaleal.quant.model.trading.Position;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 定点账本
+ * 以定点 long 记录现金、保证金、已实现和未实现盈亏以及按先进先出排列的持仓批次，供回测和实盘共用
+ *
+ * <p>每个合约注册后得到一个整数编号，成交和盯市按编号更新，状态保存在预分配的数组中，
+ * 稳定运行时单次更新不分配对象；只有持仓批次超过已分配容量时才扩容。
+ * 价格和数量的精度由 {@link InstrumentSpec} 决定，现金统一使用账本的现金精度，
+ * 每笔成交换算为现金时单独舍入。BigDecimal 只在以 BigDecimal 为参数或返回值的接口上转换
+ *
+ * <p>该类不是线程安全的，应由单个线程写入
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class FixedPointLedger {
+
+    private static final int INITIAL_INSTRUMENTS = 16;
+    private static final int INITIAL_LOTS = 8;
+
+    private final int cashScale;
+    private final Map<String, Integer> instrumentIds;
+
+    private InstrumentSpec[] specs;
+    private LotQueue[] lots;
+    private long[] quantities;
+    private long[] openCosts;
+    private long[] lastPrices;
+    private long[] realizedPnls;
+    private long[] fees;
+    private int instrumentCount;
+
+    private long cash;
+    private long totalFees;
+
+    /**
+     * 构造方法
+     * @param cashScale 现金小数位数
+     * @param initialCash 初始现金（定点）
+     */
+    public FixedPointLedger(int cashScale, long initialCash) {
+        FixedPoint.pow10(cashScale);
+        this.cashScale = cashScale;
+        this.cash = initialCash;
+        this.instrumentIds = new HashMap<>();
+        this.specs = new InstrumentSpec[INITIAL_INSTRUMENTS];
+        this.lots = new LotQueue[INITIAL_INSTRUMENTS];
+        this.quantities = new long[INITIAL_INSTRUMENTS];
+        this.openCosts = new long[INITIAL_INSTRUMENTS];
+        this.lastPrices = new long[INITIAL_INSTRUMENTS];
+        this.realizedPnls = new long[INITIAL_INSTRUMENTS];
+        this.fees = new long[INITIAL_INSTRUMENTS];
+    }
+
+    /**
+     * 构造方法
+     * @param cashScale 现金小数位数
+     * @param initialCash 初始现金
+     */
+    public FixedPointLedger(int cashScale, BigDecimal initialCash) {
+        this(cashScale, FixedPoint.toScaled(initialCash, cashScale));
+    }
+
+    /**
+     * 注册合约
+     * @param spec 合约规格
+     * @return 合约编号，已注册时返回原编号
+     */
+    public int register(InstrumentSpec spec) {
+        Integer existing = instrumentIds.get(spec.getSymbol());
+        if (existing != null) {
+            return existing;
+        }
+        if (instrumentCount == specs.length) {
+            int capacity = specs.length << 1;
+            specs = Arrays.copyOf(specs, capacity);
+            lots = Arrays.copyOf(lots, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            openCosts = Arrays.copyOf(openCosts, capacity);
+            lastPrices = Arrays.copyOf(lastPrices, capacity);
+            realizedPnls = Arrays.copyOf(realizedPnls, capacity);
+            fees = Arrays.copyOf(fees, capacity);
+        }
+        int id = instrumentCount++;
+        specs[id] = spec;
+        lots[id] = new LotQueue(INITIAL_LOTS);
+        instrumentIds.put(spec.getSymbol(), id);
+        return id;
+    }
+
+    /**
+     * 获取合约编号
+     * @param symbol 交易对符号
+     * @return 合约编号
+     */
+    public int instrumentId(String symbol) {
+        Integer id = instrumentIds.get(symbol);
+        if (id == null) {
+            throw new IllegalArgumentException("Instrument not registered: " + symbol);
+        }
+        return id;
+    }
+
+    /**
+     * 记录成交
+     * 反向成交按先进先出依次冲销已有批次并确认已实现盈亏，剩余数量开立新批次
+     * @param instrument 合约编号
+     * @param quantity 成交数量（定点），买入为正，卖出为负
+     * @param price 成交价格（定点）
+     * @param fee 手续费（现金定点）
+     */
+    public void fill(int instrument, long quantity, long price, long fee) {
+        if (quantity == 0) {
+            return;
+        }
+        InstrumentSpec spec = specs[instrument];
+        LotQueue queue = lots[instrument];
+        long remaining = quantity;
+        long realizedRaw = 0;
+
+        while (remaining != 0 && queue.size > 0 && Long.signum(queue.headQuantity()) != Long.signum(remaining)) {
+            long headQuantity = queue.headQuantity();
+            long headPrice = queue.headPrice();
+            // 本次冲销的数量，符号与成交方向相同
+            long closing = Math.abs(remaining) < Math.abs(headQuantity) ? remaining : -headQuantity;
+            realizedRaw = Math.addExact(realizedRaw, Math.multiplyExact(price - headPrice, -closing));
+            openCosts[instrument] = Math.addExact(openCosts[instrument], Math.multiplyExact(headPrice, closing));
+            queue.reduceHead(closing);
+            remaining -= closing;
+        }
+        if (remaining != 0) {
+            queue.add(remaining, price);
+            openCosts[instrument] = Math.addExact(openCosts[instrument], Math.multiplyExact(price, remaining));
+        }
+        quantities[instrument] += quantity;
+        lastPrices[instrument] = price;
+
+        long realized = toCash(spec, realizedRaw);
+        realizedPnls[instrument] += realized;
+        fees[instrument] += fee;
+        totalFees += fee;
+
+        if (spec.isMargined()) {
+            cash += realized - fee;
+        } else {
+            cash -= toCash(spec, Math.multiplyExact(price, quantity)) + fee;
+        }
+    }
+
+    /**
+     * 盯市
+     * @param instrument 合约编号
+     * @param price 最新价格（定点）
+     */
+    public void mark(int instrument, long price) {
+        lastPrices[instrument] = price;
+    }
+
+    /**
+     * 调整现金，如出入金、分红
+     * @param amount 金额（现金定点）
+     */
+    public void adjustCash(long amount) {
+        cash += amount;
+    }
+
+    /**
+     * 获取未实现盈亏
+     * @param instrument 合约编号
+     * @return 未实现盈亏（现金定点）
+     */
+    public long getUnrealizedPnl(int instrument) {
+        long raw = Math.subtractExact(Math.multiplyExact(lastPrices[instrument], quantities[instrument]), openCosts[instrument]);
+        return toCash(specs[instrument], raw);
+    }
+
+    /**
+     * 获取持仓市值，空头为负
+     * @param instrument 合约编号
+     * @return 持仓市值（现金定点）
+     */
+    public long getMarketValue(int instrument) {
+        return toCash(specs[instrument], Math.multiplyExact(lastPrices[instrument], quantities[instrument]));
+    }
+
+    /**
+     * 获取占用保证金，全额结算的合约为 0
+     * @param instrument 合约编号
+     * @return 保证金（现金定点）
+     */
+    public long getMargin(int instrument) {
+        return applyMarginRate(Math.abs(getMarketValue(instrument)), specs[instrument].getMarginRatePpm());
+    }
+
+    /**
+     * 获取账户权益：现金加上现货市值和保证金合约的未实现盈亏
+     * @return 权益（现金定点）
+     */
+    public long getEquity() {
+        long equity = cash;
+        for (int i = 0; i < instrumentCount; i++) {
+            if (quantities[i] != 0) {
+                equity += specs[i].isMargined() ? getUnrealizedPnl(i) : getMarketValue(i);
+            }
+        }
+        return equity;
+    }
+
+    /**
+     * 获取全部占用保证金
+     * @return 保证金（现金定点）
+     */
+    public long getMarginUsed() {
+        long margin = 0;
+        for (int i = 0; i < instrumentCount; i++) {
+            if (quantities[i] != 0 && specs[i].isMargined()) {
+                margin += getMargin(i);
+            }
+        }
+        return margin;
+    }
+
+    /**
+     * 获取可用资金：现金加未实现盈亏再扣除占用保证金，现货市值不计入
+     * @return 可用资金（现金定点）
+     */
+    public long getAvailable() {
+        long available = cash;
+        for (int i = 0; i < instrumentCount; i++) {
+            if (quantities[i] != 0 && specs[i].isMargined()) {
+                available += getUnrealizedPnl(i) - getMargin(i);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * 检查可用资金是否足够完成一笔成交，不修改账本
+     * 现货按成交金额，保证金合约按新增保证金计算；减仓总是允许
+     * @param instrument 合约编号
+     * @param quantity 成交数量（定点），买入为正，卖出为负
+     * @param price 成交价格（定点）
+     * @param fee 手续费（现金定点）
+     * @return 是否足够
+     */
+    public boolean canFill(int instrument, long quantity, long price, long fee) {
+        InstrumentSpec spec = specs[instrument];
+        long position = quantities[instrument];
+        long after = position + quantity;
+        if (Math.abs(after) <= Math.abs(position) && Long.signum(after) * Long.signum(position) >= 0) {
+            return true;
+        }
+        long required;
+        if (spec.isMargined()) {
+            long afterValue = Math.abs(toCash(spec, Math.multiplyExact(price, after)));
+            required = applyMarginRate(afterValue, spec.getMarginRatePpm()) - getMargin(instrument);
+        } else {
+            required = quantity > 0 ? toCash(spec, Math.multiplyExact(price, quantity)) : 0;
+        }
+        return required + fee <= getAvailable();
+    }
+
+    // 接口边界上的 BigDecimal 转换
+
+    /**
+     * 按 BigDecimal 记录成交
+     * @param symbol 交易对符号
+     * @param quantity 成交数量，买入为正，卖出为负
+     * @param price 成交价格
+     * @param fee 手续费
+     */
+    public void fill(String symbol, BigDecimal quantity, BigDecimal price, BigDecimal fee) {
+        int id = instrumentId(symbol);
+        InstrumentSpec spec = specs[id];
+        fill(id,
+                FixedPoint.toScaled(quantity, spec.getQuantityScale()),
+                FixedPoint.toScaled(price, spec.getPriceScale()),
+                fee != null ? FixedPoint.toScaled(fee, cashScale) : 0L);
+    }
+
+    /**
+     * 按 BigDecimal 盯市
+     * @param symbol 交易对符号
+     * @param price 最新价格
+     */
+    public void mark(String symbol, BigDecimal price) {
+        int id = instrumentId(symbol);
+        mark(id, FixedPoint.toScaled(price, specs[id].getPriceScale()));
+    }
+
+    /**
+     * 转换为持仓对象
+     * @param instrument 合约编号
+     * @param time 更新时间
+     * @return 持仓，无持仓时返回空
+     */
+    public Position toPosition(int instrument, Instant time) {
+        long quantity = quantities[instrument];
+        if (quantity == 0) {
+            return null;
+        }
+        InstrumentSpec spec = specs[instrument];
+        // 平均开仓价 = 开仓成本 / 数量，保留价格精度
+        long averagePrice = FixedPoint.divideHalfEven(Math.abs(openCosts[instrument]), Math.abs(quantity));
+        return Position.builder()
+                .symbol(spec.getSymbol())
+                .direction(quantity > 0 ? "LONG" : "SHORT")
+                .quantity(FixedPoint.toDecimal(quantity, spec.getQuantityScale()))
+                .averagePrice(FixedPoint.toDecimal(averagePrice, spec.getPriceScale()))
+                .currentPrice(FixedPoint.toDecimal(lastPrices[instrument], spec.getPriceScale()))
+                .marketValue(FixedPoint.toDecimal(getMarketValue(instrument), cashScale))
+                .unrealizedPnL(FixedPoint.toDecimal(getUnrealizedPnl(instrument), cashScale))
+                .realizedPnL(FixedPoint.toDecimal(realizedPnls[instrument], cashScale))
+                .updateTime(time)
+                .build();
+    }
+
+    public BigDecimal getCashDecimal() {
+        return FixedPoint.toDecimal(cash, cashScale);
+    }
+
+    public BigDecimal getEquityDecimal() {
+        return FixedPoint.toDecimal(getEquity(), cashScale);
+    }
+
+    // Getters
+
+    public int getCashScale() {
+        return cashScale;
+    }
+
+    public long getCash() {
+        return cash;
+    }
+
+    public long getTotalFees() {
+        return totalFees;
+    }
+
+    public int getInstrumentCount() {
+        return instrumentCount;
+    }
+
+    public InstrumentSpec getSpec(int instrument) {
+        return specs[instrument];
+    }
+
+    public long getQuantity(int instrument) {
+        return quantities[instrument];
+    }
+
+    public long getLastPrice(int instrument) {
+        return lastPrices[instrument];
+    }
+
+    public long getRealizedPnl(int instrument) {
+        return realizedPnls[instrument];
+    }
+
+    public long getFees(int instrument) {
+        return fees[instrument];
+    }
+
+    /**
+     * 获取总已实现盈亏
+     * @return 已实现盈亏（现金定点）
+     */
+    public long getRealizedPnl() {
+        long realized = 0;
+        for (int i = 0; i < instrumentCount; i++) {
+            realized += realizedPnls[i];
+        }
+        return realized;
+    }
+
+    /**
+     * 获取持仓批次数量
+     * @param instrument 合约编号
+     * @return 批次数量
+     */
+    public int getLotCount(int instrument) {
+        return lots[instrument].size;
+    }
+
+    /**
+     * 获取持仓批次数量（定点），按开仓先后排列
+     * @param instrument 合约编号
+     * @param index 批次序号
+     * @return 批次数量，空头为负
+     */
+    public long getLotQuantity(int instrument, int index) {
+        return lots[instrument].quantityAt(index);
+    }
+
+    /**
+     * 获取持仓批次开仓价（定点）
+     * @param instrument 合约编号
+     * @param index 批次序号
+     * @return 开仓价
+     */
+    public long getLotPrice(int instrument, int index) {
+        return lots[instrument].priceAt(index);
+    }
+
+    /**
+     * 价格乘数量的原始定点值换算为现金定点
+     */
+    private long toCash(InstrumentSpec spec, long priceTimesQuantity) {
+        long raw = spec.getMultiplier() == 1L ? priceTimesQuantity : Math.multiplyExact(priceTimesQuantity, spec.getMultiplier());
+        return FixedPoint.rescale(raw, spec.getPriceScale() + spec.getQuantityScale(), cashScale);
+    }
+
+    /**
+     * 按百万分比计算保证金，先除后乘避免溢出
+     */
+    private static long applyMarginRate(long value, long ratePpm) {
+        if (ratePpm == 0) {
+            return 0L;
+        }
+        return (value / InstrumentSpec.PPM) * ratePpm + FixedPoint.divideHalfEven((value % InstrumentSpec.PPM) * ratePpm, InstrumentSpec.PPM);
+    }
+
+    /**
+     * 持仓批次环形队列
+     */
+    private static final class LotQueue {
+        private long[] quantities;
+        private long[] prices;
+        private int head;
+        private int size;
+
+        LotQueue(int capacity) {
+            this.quantities = new long[capacity];
+            this.prices = new long[capacity];
+        }
+
+        long headQuantity() {
+            return quantities[head];
+        }
+
+        long headPrice() {
+            return prices[head];
+        }
+
+        /**
+         * 冲销队首批次，数量为零时出队
+         */
+        void reduceHead(long closing) {
+            quantities[head] += closing;
+            if (quantities[head] == 0) {
+                head = (head + 1) % quantities.length;
+                size--;
+            }
+        }
+
+        void add(long quantity, long price) {
+            if (size == quantities.length) {
+                grow();
+            }
+            int tail = (head + size) % quantities.length;
+            quantities[tail] = quantity;
+            prices[tail] = price;
+            size++;
+        }
+
+        long quantityAt(int index) {
+            checkIndex(index);
+            return quantities[(head + index) % quantities.length];
+        }
+
+        long priceAt(int index) {
+            checkIndex(index);
+            return prices[(head + index) % prices.length];
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Lot index " + index + " out of " + size);
+            }
+        }
+
+        private void grow() {
+            long[] newQuantities = new long[quantities.length << 1];
+            long[] newPrices = new long[prices.length << 1];
+            for (int i = 0; i < size; i++) {
+                newQuantities[i] = quantities[(head + i) % quantities.length];
+                newPrices[i] = prices[(head + i) % prices.length];
+            }
+            quantities = newQuantities;
+            prices = newPrices;
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.whaleal.quant.trading.ledger;
+
+/**
+ * 合约规格
+ * 描述价格和数量的定点精度、合约乘数和保证金率
+ *
+ * <p>保证金率为 0 表示全额结算的现货，买入扣减全部成交金额；大于 0 表示保证金交易，
+ * 开仓只占用保证金，现金只随平仓盈亏和手续费变化
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class InstrumentSpec {
+
+    /**
+     * 保证金率的单位：百万分之一
+     */
+    public static final long PPM = 1_000_000L;
+
+    private final String symbol;
+    private final int priceScale;
+    private final int quantityScale;
+    private final long multiplier;
+    private final long marginRatePpm;
+
+    private InstrumentSpec(Builder builder) {
+        this.symbol = builder.symbol;
+        this.priceScale = builder.priceScale;
+        this.quantityScale = builder.quantityScale;
+        this.multiplier = builder.multiplier;
+        this.marginRatePpm = builder.marginRatePpm;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int getPriceScale() {
+        return priceScale;
+    }
+
+    public int getQuantityScale() {
+        return quantityScale;
+    }
+
+    public long getMultiplier() {
+        return multiplier;
+    }
+
+    public long getMarginRatePpm() {
+        return marginRatePpm;
+    }
+
+    /**
+     * 是否为保证金交易
+     * @return 是否为保证金交易
+     */
+    public boolean isMargined() {
+        return marginRatePpm > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentSpec{" +
+                "symbol='" + symbol + '\'' +
+                ", priceScale=" + priceScale +
+                ", quantityScale=" + quantityScale +
+                ", multiplier=" + multiplier +
+                ", marginRatePpm=" + marginRatePpm +
+                '}';
+    }
+
+    /**
+     * 创建 Builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private String symbol;
+        private int priceScale;
+        private int quantityScale;
+        private long multiplier;
+        private long marginRatePpm;
+
+        public Builder() {
+            this.priceScale = 4;
+            this.quantityScale = 0;
+            this.multiplier = 1L;
+        }
+
+        public Builder symbol(String symbol) {
+            this.symbol = symbol;
+            return this;
+        }
+
+        /**
+         * 设置价格小数位数，如最小变动价位 0.01 对应 2
+         * @param priceScale 价格小数位数
+         * @return Builder
+         */
+        public Builder priceScale(int priceScale) {
+            this.priceScale = priceScale;
+            return this;
+        }
+
+        /**
+         * 设置数量小数位数，如最小交易单位 0.001 对应 3
+         * @param quantityScale 数量小数位数
+         * @return Builder
+         */
+        public Builder quantityScale(int quantityScale) {
+            this.quantityScale = quantityScale;
+            return this;
+        }
+
+        public Builder multiplier(long multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * 设置保证金率
+         * @param marginRatePpm 保证金率（百万分之一），如 10% 对应 100000
+         * @return Builder
+         */
+        public Builder marginRatePpm(long marginRatePpm) {
+            this.marginRatePpm = marginRatePpm;
+            return this;
+        }
+
+        public InstrumentSpec build() {
+            if (symbol == null) {
+                throw new IllegalArgumentException("Symbol is required");
+            }
+            if (priceScale < 0 || quantityScale < 0 || priceScale + quantityScale > FixedPoint.MAX_SCALE) {
+                throw new IllegalArgumentException("Invalid price or quantity scale for " + symbol);
+            }
+            if (multiplier <= 0) {
+                throw new IllegalArgumentException("Multiplier must be positive");
+            }
+            if (marginRatePpm < 0 || marginRatePpm > PPM) {
+                throw new IllegalArgumentException("Margin rate must be between 0 and " + PPM + " ppm");
+            }
+            return new InstrumentSpec(this);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.whaleal.quant.strategy.event;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 分区事件后端测试
+ *
+ * @author stocks-strategy-sdk
+ */
+public class PartitionedEventBackendTest {
+
+    @Test
+    public void testSameSymbolHandledOnOneThreadInOrder() throws Exception {
+        PartitionedEventBackend backend = PartitionedEventBackend.builder()
+                .partitions(4)
+                .bufferSize(64)
+                .symbolExtractor(event -> ((SymbolEvent) event).symbol)
+                .build();
+        int producers = 4;
+        int symbols = 32;
+        int eventsPerSymbol = 2000;
+        Map<String, Set<String>> threads = new ConcurrentHashMap<>();
+        Map<String, int[]> nextSeq = new ConcurrentHashMap<>();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(producers * symbols * eventsPerSymbol);
+        backend.subscribe(SymbolEvent.class, event -> {
+            threads.computeIfAbsent(event.symbol, s -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+            // 每个生产者发往同一交易对的事件按发布顺序到达
+            int[] next = nextSeq.computeIfAbsent(event.symbol + "/" + event.producer, k -> new int[1]);
+            if (event.seq != next[0]) {
+                errors.incrementAndGet();
+            }
+            next[0] = event.seq + 1;
+            done.countDown();
+        });
+
+        List<Thread> threadList = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < eventsPerSymbol; i++) {
+                    for (int s = 0; s < symbols; s++) {
+                        backend.post(new SymbolEvent("S" + s, producer, i));
+                    }
+                }
+            });
+            thread.start();
+            threadList.add(thread);
+        }
+        for (Thread thread : threadList) {
+            thread.join();
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        backend.shutdown();
+
+        assertEquals(0, errors.get());
+        assertEquals(symbols, threads.size());
+        for (Map.Entry<String, Set<String>> entry : threads.entrySet()) {
+            assertEquals(1, entry.getValue().size());
+            assertEquals("strategy-event-partition-" + backend.partitionOf(entry.getKey()), entry.getValue().iterator().next());
+        }
+    }
+
+    @Test
+    public void testCrossPartitionPostsDoNotDeadlockWhenBuffersAreFull() throws Exception {
+        PartitionedEventBackend backend = PartitionedEventBackend.builder()
+                .partitions(2)
+                .bufferSize(4)
+                .symbolExtractor(event -> ((SymbolEvent) event).symbol)
+                .build();
+        String[] symbols = symbolsInDistinctPartitions(backend);
+        int seeds = 64;
+        int fanOut = 4;
+        int depth = 4;
+        // 每个事件向另一个分区发布 fanOut 个子事件，直到深度用完
+        int perSeed = 0;
+        for (int d = 0, width = 1; d <= depth; d++, width *= fanOut) {
+            perSeed += width;
+        }
+        CountDownLatch done = new CountDownLatch(seeds * 2 * perSeed);
+        // 每个分区线程发往另一分区的事件序号，只由该分区线程访问
+        int[] counters = new int[2];
+        Map<String, int[]> nextSeq = new ConcurrentHashMap<>();
+        AtomicInteger errors = new AtomicInteger();
+        backend.subscribe(SymbolEvent.class, event -> {
+            int partition = backend.partitionOf(event.symbol);
+            if (!Thread.currentThread().getName().equals("strategy-event-partition-" + partition)) {
+                errors.incrementAndGet();
+            }
+            if (event.producer >= 0) {
+                // 同一分区线程发往另一分区的事件保持发布顺序
+                int[] next = nextSeq.computeIfAbsent(event.symbol, k -> new int[1]);
+                if (event.seq != next[0]) {
+                    errors.incrementAndGet();
+                }
+                next[0] = event.seq + 1;
+            }
+            if (event.depth < depth) {
+                String other = symbols[1 - partition];
+                for (int i = 0; i < fanOut; i++) {
+                    backend.post(new SymbolEvent(other, partition, counters[partition]++, event.depth + 1));
+                }
+            }
+            done.countDown();
+        });
+
+        for (int i = 0; i < seeds; i++) {
+            backend.post(new SymbolEvent(symbols[0], -1, i, 0));
+            backend.post(new SymbolEvent(symbols[1], -1, i, 0));
+        }
+        assertTrue("cross-partition posts deadlocked", done.await(30, TimeUnit.SECONDS));
+        backend.shutdown();
+        assertEquals(0, errors.get());
+    }
+
+    private static String[] symbolsInDistinctPartitions(PartitionedEventBackend backend) {
+        String[] symbols = new String[2];
+        for (int i = 0; symbols[0] == null || symbols[1] == null; i++) {
+            String symbol = "S" + i;
+            int partition = backend.partitionOf(symbol);
+            if (symbols[partition] == null) {
+                symbols[partition] = symbol;
+            }
+        }
+        return symbols;
+    }
+
+    private static final class SymbolEvent {
+        private final String symbol;
+        private final int producer;
+        private final int seq;
+        private final int depth;
+
+        private SymbolEvent(String symbol, int producer, int seq) {
+            this(symbol, producer, seq, 0);
+        }
+
+        private SymbolEvent(String symbol, int producer, int seq, int depth) {
+            this.symbol = symbol;
+            this.producer = producer;
+            this.seq = seq;
+            this.depth = depth;
+        }
+    }
+}
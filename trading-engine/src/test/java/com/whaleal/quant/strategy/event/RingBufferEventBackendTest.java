@@ -0,0 +1,281 @@
+package com.whaleal.quant.strategy.event;
+
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.model.trading.Order;
+import com.whaleal.quant.strategy.event.ring.ProducerType;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 环形缓冲区事件后端测试
+ *
+ * @author stocks-strategy-sdk
+ */
+public class RingBufferEventBackendTest {
+
+    @Test
+    public void testSingleProducerWithConsumerThreadPostsLosesNothing() {
+        RingBufferEventBackend backend = RingBufferEventBackend.builder()
+                .bufferSize(4)
+                .producerType(ProducerType.SINGLE)
+                .build();
+        List<Object> received = new ArrayList<>();
+        backend.subscribe(Integer.class, value -> {
+            received.add(value);
+            // 订阅者在消费线程上再发布，与生产者线程同时向单生产者缓冲区发布
+            backend.post("reply-" + value);
+            backend.post("reply-" + value + "-2");
+        });
+        backend.subscribe(String.class, received::add);
+
+        int events = 50_000;
+        for (int i = 0; i < events; i++) {
+            backend.post(i);
+        }
+        backend.shutdown();
+
+        assertEquals(events * 3, received.size());
+        for (int i = 0; i < events; i++) {
+            // 再发布的事件在当前事件处理完后、下一个事件之前按发布顺序处理
+            assertEquals(i, received.get(i * 3));
+            assertEquals("reply-" + i, received.get(i * 3 + 1));
+            assertEquals("reply-" + i + "-2", received.get(i * 3 + 2));
+        }
+    }
+
+    @Test
+    public void testNestedConsumerThreadPostsKeepOrder() {
+        RingBufferEventBackend backend = RingBufferEventBackend.builder().bufferSize(2).build();
+        List<Integer> received = new ArrayList<>();
+        backend.subscribe(Integer.class, value -> {
+            received.add(value);
+            // 超过缓冲区大小的再发布链不会阻塞消费线程
+            if (value < 100) {
+                backend.post(value + 1);
+            }
+        });
+
+        backend.post(0);
+        backend.shutdown();
+
+        assertEquals(101, received.size());
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(i, received.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testShutdownDrainsPublishedEvents() {
+        RingBufferEventBackend backend = RingBufferEventBackend.builder().bufferSize(16).build();
+        List<Integer> received = new ArrayList<>();
+        backend.subscribe(Integer.class, value -> {
+            received.add(value);
+            if (value == 0) {
+                sleep(50);
+            }
+        });
+
+        int events = 1000;
+        for (int i = 0; i < events; i++) {
+            backend.post(i);
+        }
+        backend.shutdown();
+
+        assertEquals(events, received.size());
+        for (int i = 0; i < events; i++) {
+            assertEquals(i, received.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testPostAfterShutdownIsRejected() {
+        RingBufferEventBackend backend = RingBufferEventBackend.builder().build();
+        backend.shutdown();
+        try {
+            backend.post(1);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("shut down"));
+        }
+    }
+
+    @Test
+    public void testConflationKeepsLatestTickerAndCountsPerSymbol() throws InterruptedException {
+        RingBufferEventBackend backend = RingBufferEventBackend.builder().conflateTickers(true).build();
+        List<String> received = new ArrayList<>();
+        backend.subscribe(MarketDataEvent.class, event -> received.add(event.getEventId()));
+        CountDownLatch release = blockConsumer(backend);
+
+        for (int i = 0; i < 5; i++) {
+            backend.post(ticker("AAA", "AAA-" + i));
+        }
+        for (int i = 0; i < 3; i++) {
+            backend.post(ticker("BBB", "BBB-" + i));
+        }
+        release.countDown();
+        backend.shutdown();
+
+        assertEquals(6, backend.getConflatedCount());
+        Map<String, Long> counts = backend.getConflatedCounts();
+        assertEquals(2, counts.size());
+        assertEquals(4L, counts.get("AAA").longValue());
+        assertEquals(2L, counts.get("BBB").longValue());
+        // 每个交易对在首条行情的位置投递最新值
+        assertEquals(Arrays.asList("AAA-4", "BBB-2"), received);
+    }
+
+    @Test
+    public void testBarsAndOrderEventsAreNeverConflated() throws InterruptedException {
+        RingBufferEventBackend backend = RingBufferEventBackend.builder().conflateTickers(true).build();
+        List<String> received = new ArrayList<>();
+        backend.subscribe(MarketDataEvent.class, event -> received.add(event.getEventId()));
+        backend.subscribe(OrderEvent.class, event -> received.add(event.getEventId()));
+        CountDownLatch release = blockConsumer(backend);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            backend.post(MarketDataEvent.builder()
+                    .eventId("bar-" + i)
+                    .symbol("AAA")
+                    .ticker(Ticker.builder().symbol("AAA").lastPrice(BigDecimal.ONE).build())
+                    .bars(Collections.singletonList(new Bar()))
+                    .build());
+            backend.post(order("AAA", "order-" + i));
+            expected.add("bar-" + i);
+            expected.add("order-" + i);
+        }
+        release.countDown();
+        backend.shutdown();
+
+        assertEquals(0, backend.getConflatedCount());
+        assertEquals(expected, received);
+    }
+
+    @Test
+    public void testTickerAfterOtherEventForSameSymbolIsNotDeliveredAheadOfIt() throws InterruptedException {
+        RingBufferEventBackend backend = RingBufferEventBackend.builder().conflateTickers(true).build();
+        List<String> received = new ArrayList<>();
+        backend.subscribe(MarketDataEvent.class, event -> received.add(event.getEventId()));
+        backend.subscribe(OrderEvent.class, event -> received.add(event.getEventId()));
+        CountDownLatch release = blockConsumer(backend);
+
+        backend.post(ticker("AAA", "tick-1"));
+        backend.post(ticker("AAA", "tick-2"));
+        backend.post(order("AAA", "order"));
+        // 订单之后的行情不能替换到订单之前的位置
+        backend.post(ticker("AAA", "tick-3"));
+        backend.post(ticker("AAA", "tick-4"));
+        // 其他交易对的订单不影响合并
+        backend.post(order("BBB", "order-other"));
+        backend.post(ticker("AAA", "tick-5"));
+        release.countDown();
+        backend.shutdown();
+
+        assertEquals(Arrays.asList("tick-2", "order", "tick-5", "order-other"), received);
+        assertEquals(3, backend.getConflatedCount());
+    }
+
+    @Test
+    public void testConcurrentConflationAccountsForEveryTicker() throws InterruptedException {
+        RingBufferEventBackend backend = RingBufferEventBackend.builder().bufferSize(8).conflateTickers(true).build();
+        int producers = 4;
+        int symbols = 8;
+        int ticksPerSymbol = 5000;
+        Map<String, Integer> lastSeq = new HashMap<>();
+        int[] delivered = new int[1];
+        int[] errors = new int[1];
+        backend.subscribe(MarketDataEvent.class, event -> {
+            delivered[0]++;
+            // 同一生产者同一交易对的行情只会被更新的行情替换，投递序号单调递增
+            String[] parts = event.getEventId().split("/");
+            String key = event.getSymbol() + "/" + parts[0];
+            int seq = Integer.parseInt(parts[1]);
+            Integer last = lastSeq.put(key, seq);
+            if (last != null && last >= seq) {
+                errors[0]++;
+            }
+        });
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < ticksPerSymbol; i++) {
+                    for (int s = 0; s < symbols; s++) {
+                        backend.post(ticker("S" + s, producer + "/" + i));
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        backend.shutdown();
+
+        assertEquals(0, errors[0]);
+        assertEquals((long) producers * symbols * ticksPerSymbol, delivered[0] + backend.getConflatedCount());
+        long perSymbol = 0;
+        for (long count : backend.getConflatedCounts().values()) {
+            perSymbol += count;
+        }
+        assertEquals(backend.getConflatedCount(), perSymbol);
+    }
+
+    /**
+     * 让消费线程阻塞在一个事件上，之后发布的事件都在缓冲区中等待
+     */
+    private static CountDownLatch blockConsumer(RingBufferEventBackend backend) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        backend.subscribe(Long.class, value -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        backend.post(0L);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private static MarketDataEvent ticker(String symbol, String eventId) {
+        return MarketDataEvent.builder()
+                .eventId(eventId)
+                .symbol(symbol)
+                .ticker(Ticker.builder().symbol(symbol).lastPrice(BigDecimal.ONE).build())
+                .build();
+    }
+
+    private static OrderEvent order(String symbol, String eventId) {
+        return OrderEvent.builder()
+                .eventId(eventId)
+                .order(Order.builder().symbol(symbol).build())
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.whaleal.quant.strategy.event.ring;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 环形缓冲区并发测试
+ *
+ * @author stocks-strategy-sdk
+ */
+public class RingBufferTest {
+
+    @Test
+    public void testMultiProducersDeliverEachEventOnceInProducerOrder() throws Exception {
+        int producers = 4;
+        int eventsPerProducer = 100_000;
+        for (WaitStrategy waitStrategy : new WaitStrategy[]{WaitStrategy.blocking(), WaitStrategy.sleeping(), WaitStrategy.yielding()}) {
+            RingBuffer<long[]> ringBuffer = new RingBuffer<>(() -> new long[2], 64, ProducerType.MULTI, waitStrategy);
+            long[] expected = new long[producers];
+            AtomicInteger errors = new AtomicInteger();
+            BatchEventProcessor<long[]> processor = new BatchEventProcessor<>(ringBuffer, (slot, sequence, endOfBatch) -> {
+                int producer = (int) slot[0];
+                // 同一生产者的事件必须按发布顺序各到达一次
+                if (slot[1] != expected[producer]) {
+                    errors.incrementAndGet();
+                }
+                expected[producer] = slot[1] + 1;
+            });
+            Thread consumer = start(processor);
+
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                threads.add(start(() -> {
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        long sequence = ringBuffer.next();
+                        long[] slot = ringBuffer.get(sequence);
+                        slot[0] = producer;
+                        slot[1] = i;
+                        ringBuffer.publish(sequence);
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            processor.halt();
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+
+            assertFalse(consumer.isAlive());
+            assertEquals(0, errors.get());
+            for (long count : expected) {
+                assertEquals(eventsPerProducer, count);
+            }
+            assertEquals((long) producers * eventsPerProducer - 1, processor.getSequence().get());
+        }
+    }
+
+    @Test
+    public void testSmallBufferWrapsAroundWithoutLossOrReordering() throws Exception {
+        for (ProducerType producerType : ProducerType.values()) {
+            RingBuffer<long[]> ringBuffer = new RingBuffer<>(() -> new long[1], 4, producerType, WaitStrategy.yielding());
+            int events = 200_000;
+            long[] next = new long[1];
+            AtomicInteger errors = new AtomicInteger();
+            BatchEventProcessor<long[]> processor = new BatchEventProcessor<>(ringBuffer, (slot, sequence, endOfBatch) -> {
+                if (slot[0] != next[0] || sequence != next[0]) {
+                    errors.incrementAndGet();
+                }
+                next[0]++;
+            });
+            Thread consumer = start(processor);
+
+            for (int i = 0; i < events; i++) {
+                long sequence = ringBuffer.next();
+                ringBuffer.get(sequence)[0] = i;
+                ringBuffer.publish(sequence);
+            }
+            processor.halt();
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+
+            assertFalse(consumer.isAlive());
+            assertEquals(0, errors.get());
+            assertEquals(events, next[0]);
+        }
+    }
+
+    @Test
+    public void testHaltDrainsPublishedEvents() throws Exception {
+        RingBuffer<long[]> ringBuffer = new RingBuffer<>(() -> new long[1], 8, ProducerType.SINGLE, WaitStrategy.blocking());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> handled = new ArrayList<>();
+        BatchEventProcessor<long[]> processor = new BatchEventProcessor<>(ringBuffer, (slot, sequence, endOfBatch) -> {
+            started.countDown();
+            release.await();
+            handled.add(slot[0]);
+        });
+        Thread consumer = start(processor);
+
+        publish(ringBuffer, 0);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // 消费线程阻塞在第一个事件上时继续发布，再停止
+        for (long i = 1; i < 8; i++) {
+            publish(ringBuffer, i);
+        }
+        processor.halt();
+        release.countDown();
+        consumer.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertFalse(consumer.isAlive());
+        assertEquals(8, handled.size());
+        for (int i = 0; i < handled.size(); i++) {
+            assertEquals(i, handled.get(i).longValue());
+        }
+    }
+
+    @Test
+    public void testHandlerErrorIsSkippedAndProducersKeepGoing() throws Exception {
+        for (ProducerType producerType : ProducerType.values()) {
+            RingBuffer<long[]> ringBuffer = new RingBuffer<>(() -> new long[1], 4, producerType, WaitStrategy.blocking());
+            List<Long> handled = new ArrayList<>();
+            BatchEventProcessor<long[]> processor = new BatchEventProcessor<>(ringBuffer, (slot, sequence, endOfBatch) -> {
+                if (slot[0] % 5 == 2) {
+                    throw new StackOverflowError("injected");
+                }
+                handled.add(slot[0]);
+            });
+            Thread consumer = start(processor);
+
+            // 事件数远大于缓冲区容量，消费线程若因 Error 退出，生产者会阻塞在 next() 上
+            int events = 64;
+            Thread producer = start(() -> {
+                for (long i = 0; i < events; i++) {
+                    publish(ringBuffer, i);
+                }
+            });
+            producer.join(TimeUnit.SECONDS.toMillis(5));
+            assertFalse(producer.isAlive());
+            assertTrue(consumer.isAlive());
+
+            processor.halt();
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+            assertFalse(consumer.isAlive());
+            assertEquals(events - 1, processor.getSequence().get());
+            List<Long> expected = new ArrayList<>();
+            for (long i = 0; i < events; i++) {
+                if (i % 5 != 2) {
+                    expected.add(i);
+                }
+            }
+            assertEquals(expected, handled);
+        }
+    }
+
+    @Test
+    public void testTryNextFailsWhenFull() {
+        for (ProducerType producerType : ProducerType.values()) {
+            RingBuffer<long[]> ringBuffer = new RingBuffer<>(() -> new long[1], 4, producerType, WaitStrategy.blocking());
+            // 未启动的处理器作为门控序号，槽位不会被释放
+            new BatchEventProcessor<>(ringBuffer, (slot, sequence, endOfBatch) -> { });
+            for (long i = 0; i < 4; i++) {
+                assertEquals(i, ringBuffer.tryNext());
+                ringBuffer.publish(i);
+            }
+            assertEquals(-1, ringBuffer.tryNext());
+            assertEquals(0, ringBuffer.remainingCapacity());
+        }
+    }
+
+    private static void publish(RingBuffer<long[]> ringBuffer, long value) {
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence)[0] = value;
+        ringBuffer.publish(sequence);
+    }
+
+    private static Thread start(Runnable runnable) {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,226 @@
+package com.whaleal.quant.trading.ledger;
+
+import com.whaleal.quant.model.trading.Position;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 定点账本测试
+ * 现金精度均为 2 位，断言值为定点整数
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class FixedPointLedgerTest {
+
+    private static final InstrumentSpec STOCK = InstrumentSpec.builder()
+            .symbol("AAA")
+            .priceScale(2)
+            .build();
+
+    /**
+     * 价格 1 位小数，合约乘数 10，保证金率 10%
+     */
+    private static final InstrumentSpec FUTURE = InstrumentSpec.builder()
+            .symbol("FUT")
+            .priceScale(1)
+            .multiplier(10)
+            .marginRatePpm(100_000)
+            .build();
+
+    @Test
+    public void testFifoPartialAndFullClose() {
+        FixedPointLedger ledger = new FixedPointLedger(2, 10_000_000L);
+        int id = ledger.register(STOCK);
+
+        ledger.fill(id, 100, 1000, 0);
+        ledger.fill(id, 50, 1200, 0);
+        // 卖出 120：先冲销 100 @ 10.00，再冲销 20 @ 12.00
+        ledger.fill(id, -120, 1500, 0);
+
+        assertEquals(30, ledger.getQuantity(id));
+        assertEquals(1, ledger.getLotCount(id));
+        assertEquals(30, ledger.getLotQuantity(id, 0));
+        assertEquals(1200, ledger.getLotPrice(id, 0));
+        // 100 * 5.00 + 20 * 3.00 = 560.00
+        assertEquals(56_000, ledger.getRealizedPnl(id));
+
+        ledger.fill(id, -30, 1100, 0);
+        assertEquals(0, ledger.getQuantity(id));
+        assertEquals(0, ledger.getLotCount(id));
+        // 再亏 30 * 1.00
+        assertEquals(53_000, ledger.getRealizedPnl(id));
+        assertEquals(0, ledger.getUnrealizedPnl(id));
+        assertEquals(10_053_000, ledger.getCash());
+        assertEquals(10_053_000, ledger.getEquity());
+    }
+
+    @Test
+    public void testLongToShortFlipInOneFill() {
+        FixedPointLedger ledger = new FixedPointLedger(2, 100_000_000L);
+        int id = ledger.register(FUTURE);
+
+        ledger.fill(id, 5, 1000, 0);
+        ledger.fill(id, -8, 1100, 0);
+
+        // 平掉 5 手多头：10 点 * 5 手 * 乘数 10 = 500.00，剩余 3 手空头按 110.0 开仓
+        assertEquals(50_000, ledger.getRealizedPnl(id));
+        assertEquals(-3, ledger.getQuantity(id));
+        assertEquals(1, ledger.getLotCount(id));
+        assertEquals(-3, ledger.getLotQuantity(id, 0));
+        assertEquals(1100, ledger.getLotPrice(id, 0));
+        assertEquals(100_050_000, ledger.getCash());
+
+        ledger.mark(id, 1050);
+        // 空头盈利 5 点 * 3 手 * 10 = 150.00
+        assertEquals(15_000, ledger.getUnrealizedPnl(id));
+        assertEquals(-315_000, ledger.getMarketValue(id));
+        assertEquals(31_500, ledger.getMargin(id));
+        assertEquals(100_065_000, ledger.getEquity());
+        assertEquals(100_050_000 + 15_000 - 31_500, ledger.getAvailable());
+
+        Position position = ledger.toPosition(id, Instant.EPOCH);
+        assertEquals("SHORT", position.getDirection());
+        assertEquals(new BigDecimal("-3"), position.getQuantity());
+        assertEquals(new BigDecimal("110.0"), position.getAveragePrice());
+    }
+
+    @Test
+    public void testSpotCashAndEquity() {
+        FixedPointLedger ledger = new FixedPointLedger(2, 10_000_000L);
+        int id = ledger.register(STOCK);
+
+        ledger.fill(id, 10, 5000, 100);
+        // 现货全额扣款：500.00 + 手续费 1.00
+        assertEquals(9_949_900, ledger.getCash());
+        assertEquals(100, ledger.getTotalFees());
+
+        ledger.mark(id, 5500);
+        assertEquals(55_000, ledger.getMarketValue(id));
+        assertEquals(5_000, ledger.getUnrealizedPnl(id));
+        assertEquals(9_949_900 + 55_000, ledger.getEquity());
+        // 现货市值不计入可用资金，也不占用保证金
+        assertEquals(9_949_900, ledger.getAvailable());
+        assertEquals(0, ledger.getMarginUsed());
+    }
+
+    @Test
+    public void testMarginedCashAndEquity() {
+        FixedPointLedger ledger = new FixedPointLedger(2, 100_000_000L);
+        int id = ledger.register(FUTURE);
+
+        ledger.fill(id, 2, 1000, 500);
+        // 保证金合约开仓只扣手续费
+        assertEquals(100_000_000 - 500, ledger.getCash());
+
+        ledger.mark(id, 1010);
+        // 1 点 * 2 手 * 10 = 20.00
+        assertEquals(2_000, ledger.getUnrealizedPnl(id));
+        assertEquals(100_000_000 - 500 + 2_000, ledger.getEquity());
+        // 市值 2020.00 的 10%
+        assertEquals(20_200, ledger.getMarginUsed());
+        assertEquals(100_000_000 - 500 + 2_000 - 20_200, ledger.getAvailable());
+    }
+
+    @Test
+    public void testCanFillSpot() {
+        FixedPointLedger ledger = new FixedPointLedger(2, 100_000L);
+        int id = ledger.register(STOCK);
+        ledger.fill(id, 10, 5000, 0);
+        assertEquals(50_000, ledger.getCash());
+
+        assertFalse(ledger.canFill(id, 20, 5000, 0));
+        assertTrue(ledger.canFill(id, 9, 5000, 0));
+        assertFalse(ledger.canFill(id, 9, 5000, 6_000));
+        // 减仓总是允许
+        assertTrue(ledger.canFill(id, -10, 5000, 0));
+    }
+
+    @Test
+    public void testCanFillMargined() {
+        FixedPointLedger ledger = new FixedPointLedger(2, 100_000L);
+        int id = ledger.register(FUTURE);
+        ledger.fill(id, 5, 1000, 0);
+        // 名义价值 5000.00，占用保证金 500.00，可用 500.00
+        assertEquals(50_000, ledger.getMargin(id));
+        assertEquals(50_000, ledger.getAvailable());
+
+        assertTrue(ledger.canFill(id, 5, 1000, 0));
+        assertFalse(ledger.canFill(id, 6, 1000, 0));
+        assertTrue(ledger.canFill(id, -5, 1000, 0));
+        // 反手为 7 手空头需 700.00，新增 200.00
+        assertTrue(ledger.canFill(id, -12, 1000, 0));
+        // 反手为 11 手空头需 1100.00，新增 600.00
+        assertFalse(ledger.canFill(id, -16, 1000, 0));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testOverflowOnLargePriceTimesQuantity() {
+        InstrumentSpec fine = InstrumentSpec.builder()
+                .symbol("FINE")
+                .priceScale(8)
+                .quantityScale(8)
+                .build();
+        FixedPointLedger ledger = new FixedPointLedger(2, 0L);
+        int id = ledger.register(fine);
+        // 1,000,000 * 1,000,000，定点后为 1e14 * 1e14，超出 long 范围
+        ledger.fill(id, 100_000_000_000_000L, 100_000_000_000_000L, 0);
+    }
+
+    @Test
+    public void testHalfEvenRescaleToCash() {
+        InstrumentSpec precise = InstrumentSpec.builder()
+                .symbol("PRC")
+                .priceScale(4)
+                .build();
+        FixedPointLedger ledger = new FixedPointLedger(2, 0L);
+        int id = ledger.register(precise);
+
+        // 1.0050 换算为 1.00，1.0150 换算为 1.02
+        ledger.fill(id, 1, 10_050, 0);
+        assertEquals(-100, ledger.getCash());
+        ledger.fill(id, 1, 10_150, 0);
+        assertEquals(-202, ledger.getCash());
+    }
+
+    @Test
+    public void testToPositionAveragePrice() {
+        FixedPointLedger ledger = new FixedPointLedger(2, 10_000_000L);
+        int id = ledger.register(STOCK);
+        assertNull(ledger.toPosition(id, Instant.EPOCH));
+
+        ledger.fill(id, 1, 1000, 0);
+        ledger.fill(id, 2, 1001, 0);
+        ledger.mark(id, 1010);
+        Position position = ledger.toPosition(id, Instant.EPOCH);
+        // (10.00 + 2 * 10.01) / 3 = 10.0067，保留价格精度为 10.01
+        assertEquals("LONG", position.getDirection());
+        assertEquals(new BigDecimal("3"), position.getQuantity());
+        assertEquals(new BigDecimal("10.01"), position.getAveragePrice());
+        assertEquals(new BigDecimal("10.10"), position.getCurrentPrice());
+        assertEquals(new BigDecimal("30.30"), position.getMarketValue());
+        assertEquals(new BigDecimal("0.28"), position.getUnrealizedPnL());
+
+        // 先进先出平掉 10.00 的批次后，均价为剩余批次的 10.01
+        ledger.fill(id, -1, 1010, 0);
+        assertEquals(new BigDecimal("10.01"), ledger.toPosition(id, Instant.EPOCH).getAveragePrice());
+        assertEquals(new BigDecimal("0.10"), ledger.toPosition(id, Instant.EPOCH).getRealizedPnL());
+    }
+
+    @Test
+    public void testAveragePriceTieRoundsHalfEven() {
+        FixedPointLedger ledger = new FixedPointLedger(2, 10_000_000L);
+        int id = ledger.register(STOCK);
+        ledger.fill(id, 1, 1000, 0);
+        ledger.fill(id, 1, 1001, 0);
+        // 10.005 舍入到偶数 10.00
+        assertEquals(new BigDecimal("10.00"), ledger.toPosition(id, Instant.EPOCH).getAveragePrice());
+    }
+}
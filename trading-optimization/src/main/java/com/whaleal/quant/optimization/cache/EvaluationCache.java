@@ -0,0 +1,309 @@
+package com.whaleal.quant.optimization.cache;
+
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.result.CompactBacktestResult;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.scorer.StrategyScorer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * 回测评估缓存
+ * 按 (参数组合, 回测配置, 评分器, 数据版本, 策略版本) 的稳定哈希缓存评分和紧凑回测结果，持久化到本地只追加文件。
+ * 重复运行或中断后重新运行优化时，已完成的评估直接从缓存读取
+ *
+ * <p>每条记录带长度和 CRC32 校验，写入途中进程退出只会留下不完整的尾部记录，打开时截掉即可继续追加；
+ * 同一个键的后写记录覆盖先写记录。内存中只保留评分和结果在文件中的位置，结果在命中时才读取
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class EvaluationCache implements Closeable {
+
+    private static final int MAGIC = 0x57514543;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int KEY_SIZE = 16;
+
+    private final Path file;
+    private final String dataVersion;
+    private final String strategyVersion;
+    private final boolean storeResults;
+    private final FileChannel channel;
+    private final Map<String, Entry> entries;
+    private long end;
+
+    private EvaluationCache(Path file, String dataVersion, String strategyVersion, boolean storeResults, FileChannel channel) {
+        this.file = file;
+        this.dataVersion = dataVersion;
+        this.strategyVersion = strategyVersion;
+        this.storeResults = storeResults;
+        this.channel = channel;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 打开缓存文件，不存在时创建，并保存紧凑回测结果
+     * @param file 缓存文件
+     * @param dataVersion 数据版本，数据更新后应变更
+     * @param strategyVersion 策略版本，策略逻辑修改后应变更
+     * @return 评估缓存
+     * @throws IOException 读取失败
+     */
+    public static EvaluationCache open(Path file, String dataVersion, String strategyVersion) throws IOException {
+        return open(file, dataVersion, strategyVersion, true);
+    }
+
+    /**
+     * 打开缓存文件，不存在时创建
+     * @param file 缓存文件
+     * @param dataVersion 数据版本，数据更新后应变更
+     * @param strategyVersion 策略版本，策略逻辑修改后应变更
+     * @param storeResults 是否保存紧凑回测结果，否则只保存评分
+     * @return 评估缓存
+     * @throws IOException 读取失败
+     */
+    public static EvaluationCache open(Path file, String dataVersion, String strategyVersion, boolean storeResults) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        EvaluationCache cache = new EvaluationCache(file, dataVersion, strategyVersion, storeResults, channel);
+        try {
+            cache.load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return cache;
+    }
+
+    /**
+     * 计算缓存键
+     * 只包含影响回测结果的配置项，并行、检查点和性能分析等设置不参与；
+     * 评分器标识参与计算，更换评分器或修改其参数后不会命中旧的评分
+     * @param paramSet 参数组合
+     * @param config 回测配置
+     * @param scorer 评分器
+     * @return 缓存键
+     */
+    public String key(ParamSet paramSet, BacktestConfig config, StrategyScorer scorer) {
+        StringBuilder canonical = new StringBuilder(256);
+        canonical.append("params{");
+        for (Map.Entry<String, Object> param : new TreeMap<>(paramSet.getAllParams()).entrySet()) {
+            Object value = param.getValue();
+            canonical.append(param.getKey()).append('=')
+                    .append(value == null ? "null" : value.getClass().getName()).append(':')
+                    .append(value instanceof Enum ? ((Enum<?>) value).name() : String.valueOf(value)).append(';');
+        }
+        canonical.append("}config{")
+                .append(config.getStartDate()).append(';')
+                .append(config.getEndDate()).append(';')
+                .append(new TreeSet<>(config.getSymbols())).append(';')
+                .append(config.getInitialCapital()).append(';')
+                .append(config.getFixedCommission()).append(';')
+                .append(config.getCommissionRate()).append(';')
+                .append(config.getSlippageRate()).append(';')
+                .append(config.getMaxPositions()).append(';')
+                .append(config.getMaxPositionWeight()).append(';')
+                .append(config.getRiskFreeRate()).append(';')
+                .append(config.getPeriodsPerYear())
+                .append("}scorer{").append(scorer.getCacheKey())
+                .append("}data{").append(dataVersion)
+                .append("}strategy{").append(strategyVersion).append('}');
+
+        byte[] digest = sha256(canonical.toString().getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder(KEY_SIZE * 2);
+        for (int i = 0; i < KEY_SIZE; i++) {
+            hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * 查询缓存
+     * @param key 缓存键
+     * @return 缓存项，未命中时返回空
+     */
+    public Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * 读取缓存项的紧凑回测结果
+     * @param entry 缓存项
+     * @return 紧凑回测结果，未保存结果时返回空
+     * @throws IOException 读取失败
+     */
+    public CompactBacktestResult loadResult(Entry entry) throws IOException {
+        if (entry.resultLength == 0) {
+            return null;
+        }
+        return CompactBacktestResult.fromBytes(read(entry.resultOffset, entry.resultLength).array());
+    }
+
+    /**
+     * 追加一条评估记录
+     * @param key 缓存键
+     * @param score 评分
+     * @param result 紧凑回测结果，可为空
+     * @throws IOException 写入失败
+     */
+    public void put(String key, double score, CompactBacktestResult result) throws IOException {
+        byte[] resultBytes = storeResults && result != null ? result.toBytes() : new byte[0];
+        ByteBuffer payload = ByteBuffer.allocate(KEY_SIZE + 8 + 4 + resultBytes.length);
+        for (int i = 0; i < KEY_SIZE; i++) {
+            payload.put((byte) Integer.parseInt(key.substring(i * 2, i * 2 + 2), 16));
+        }
+        payload.putDouble(score);
+        payload.putInt(resultBytes.length);
+        payload.put(resultBytes);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.capacity());
+        record.putInt(payload.capacity());
+        record.putInt((int) crc.getValue());
+        record.put(payload.array());
+        record.flip();
+
+        synchronized (this) {
+            long position = end;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            entries.put(key, new Entry(score, end + RECORD_HEADER_SIZE + KEY_SIZE + 12, resultBytes.length));
+            end = position;
+        }
+    }
+
+    /**
+     * 获取缓存项数量
+     * @return 缓存项数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 读取已有记录，截掉不完整的尾部记录
+     * @throws IOException 读取失败
+     */
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            end = HEADER_SIZE;
+            return;
+        }
+
+        ByteBuffer header = read(0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Unsupported evaluation cache format: " + file);
+        }
+
+        long position = HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= size) {
+            ByteBuffer recordHeader = read(position, RECORD_HEADER_SIZE);
+            int length = recordHeader.getInt();
+            int checksum = recordHeader.getInt();
+            if (length < KEY_SIZE + 12 || position + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+            ByteBuffer payload = read(position + RECORD_HEADER_SIZE, length);
+            CRC32 crc = new CRC32();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            StringBuilder key = new StringBuilder(KEY_SIZE * 2);
+            for (int i = 0; i < KEY_SIZE; i++) {
+                byte b = payload.get();
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            double score = payload.getDouble();
+            int resultLength = payload.getInt();
+            entries.put(key.toString(), new Entry(score, position + RECORD_HEADER_SIZE + KEY_SIZE + 12, resultLength));
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        if (position < size) {
+            // 上次写入中断留下的不完整记录
+            channel.truncate(position);
+        }
+        end = position;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new IOException("Unexpected end of evaluation cache: " + file);
+            }
+            offset += read;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * 缓存项
+     */
+    public static final class Entry {
+        private final double score;
+        private final long resultOffset;
+        private final int resultLength;
+
+        private Entry(double score, long resultOffset, int resultLength) {
+            this.score = score;
+            this.resultOffset = resultOffset;
+            this.resultLength = resultLength;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public boolean hasResult() {
+            return resultLength > 0;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.whaleal.quant.optimization.distributed;
+
+import com.whaleal.quant.backtest.checkpoint.CheckpointCodec;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.model.trading.Order;
+import com.whaleal.quant.model.trading.Position;
+import com.whaleal.quant.optimization.param.ParamSet;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 分布式优化协议
+ * 协调者与工作进程之间基于 TCP 的二进制消息格式：每条消息以一个字节的类型开头，后跟类型相关的负载
+ *
+ * <pre>
+ * 协调者 → 工作进程: CHALLENGE(nonce) | JOB(jobId, paramSet, config) | SHUTDOWN
+ * 工作进程 → 协调者: HELLO(workerId, slots, mac) | HEARTBEAT | RESULT(jobId, result) | FAILURE(jobId, message)
+ * </pre>
+ *
+ * <p>连接建立后协调者先发送随机挑战，工作进程以共享密钥对挑战和自身标识计算 HMAC-SHA256 作为应答，
+ * 密钥不在网络上传输。读取时所有长度字段都有上限，异常长度直接断开连接，避免对端通过伪造长度耗尽内存
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+final class DistributedProtocol {
+
+    static final int MAGIC = 0x57514430;
+    static final int VERSION = 2;
+
+    static final byte HELLO = 1;
+    static final byte HEARTBEAT = 2;
+    static final byte JOB = 3;
+    static final byte RESULT = 4;
+    static final byte FAILURE = 5;
+    static final byte SHUTDOWN = 6;
+    static final byte CHALLENGE = 7;
+
+    static final int NONCE_LENGTH = 32;
+    static final int MAX_SLOTS = 1024;
+
+    private static final int MAX_PARAMS = 1024;
+    private static final int MAX_SYMBOLS = 1 << 16;
+    private static final int MAX_ENTRIES = 1 << 20;
+    private static final int MAX_SERIES_LENGTH = 1 << 22;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_STRING = 5;
+
+    private DistributedProtocol() {
+    }
+
+    /**
+     * 计算握手应答，密钥先做 SHA-256 摘要，未配置密钥时使用空串的摘要
+     * @param secret 共享密钥，可为 null
+     * @param nonce 协调者发出的挑战
+     * @param workerId 工作进程标识
+     * @return HMAC-SHA256 应答
+     */
+    static byte[] authenticate(String secret, byte[] nonce, String workerId) {
+        try {
+            byte[] key = MessageDigest.getInstance("SHA-256")
+                    .digest((secret == null ? "" : secret).getBytes(StandardCharsets.UTF_8));
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            mac.update(nonce);
+            mac.update(workerId.getBytes(StandardCharsets.UTF_8));
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    /**
+     * 读取长度字段并检查范围
+     * @param in 输入
+     * @param max 允许的最大值
+     * @param what 字段说明，用于错误信息
+     * @return 长度
+     * @throws IOException 长度为负或超过上限
+     */
+    static int readLength(DataInput in, int max, String what) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > max) {
+            throw new IOException("Invalid " + what + " length: " + length);
+        }
+        return length;
+    }
+
+    static void writeParamSet(DataOutput out, ParamSet paramSet) throws IOException {
+        Map<String, Object> params = paramSet.getAllParams();
+        out.writeInt(params.size());
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            out.writeUTF(entry.getKey());
+            Object value = entry.getValue();
+            if (value == null) {
+                out.writeByte(TYPE_NULL);
+            } else if (value instanceof Integer) {
+                out.writeByte(TYPE_INT);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                out.writeByte(TYPE_LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                out.writeByte(TYPE_DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte(TYPE_BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof String) {
+                out.writeByte(TYPE_STRING);
+                out.writeUTF((String) value);
+            } else {
+                throw new IllegalArgumentException("Unsupported parameter type for " + entry.getKey() + ": " + value.getClass().getName());
+            }
+        }
+    }
+
+    static ParamSet readParamSet(DataInput in) throws IOException {
+        ParamSet paramSet = new ParamSet();
+        int count = readLength(in, MAX_PARAMS, "parameter");
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            byte type = in.readByte();
+            switch (type) {
+                case TYPE_NULL:
+                    paramSet.addParam(name, null);
+                    break;
+                case TYPE_INT:
+                    paramSet.addParam(name, in.readInt());
+                    break;
+                case TYPE_LONG:
+                    paramSet.addParam(name, in.readLong());
+                    break;
+                case TYPE_DOUBLE:
+                    paramSet.addParam(name, in.readDouble());
+                    break;
+                case TYPE_BOOLEAN:
+                    paramSet.addParam(name, in.readBoolean());
+                    break;
+                case TYPE_STRING:
+                    paramSet.addParam(name, in.readUTF());
+                    break;
+                default:
+                    throw new IOException("Unknown parameter type: " + type);
+            }
+        }
+        return paramSet;
+    }
+
+    /**
+     * 写出回测配置中影响回测结果的字段，检查点和并行设置由工作进程自行决定
+     */
+    static void writeConfig(DataOutput out, BacktestConfig config) throws IOException {
+        writeDateTime(out, config.getStartDate());
+        writeDateTime(out, config.getEndDate());
+        out.writeInt(config.getSymbols().size());
+        for (String symbol : config.getSymbols()) {
+            out.writeUTF(symbol);
+        }
+        out.writeDouble(config.getInitialCapital());
+        out.writeDouble(config.getFixedCommission());
+        out.writeDouble(config.getCommissionRate());
+        out.writeDouble(config.getSlippageRate());
+        out.writeInt(config.getMaxPositions());
+        out.writeDouble(config.getMaxPositionWeight());
+        out.writeDouble(config.getRiskFreeRate());
+        out.writeDouble(config.getPeriodsPerYear());
+    }
+
+    static BacktestConfig readConfig(DataInput in) throws IOException {
+        BacktestConfig config = new BacktestConfig();
+        config.setStartDate(readDateTime(in));
+        config.setEndDate(readDateTime(in));
+        int symbolCount = readLength(in, MAX_SYMBOLS, "symbol");
+        Set<String> symbols = new HashSet<>(symbolCount * 2);
+        for (int i = 0; i < symbolCount; i++) {
+            symbols.add(in.readUTF());
+        }
+        config.setSymbols(symbols);
+        config.setInitialCapital(in.readDouble());
+        config.setFixedCommission(in.readDouble());
+        config.setCommissionRate(in.readDouble());
+        config.setSlippageRate(in.readDouble());
+        config.setMaxPositions(in.readInt());
+        config.setMaxPositionWeight(in.readDouble());
+        config.setRiskFreeRate(in.readDouble());
+        config.setPeriodsPerYear(in.readDouble());
+        config.setCheckpointDirectory(null);
+        return config;
+    }
+
+    /**
+     * 写出回测结果，回测配置不随结果回传，由协调者以任务配置重新关联
+     */
+    static void writeResult(DataOutput out, BacktestResult result) throws IOException {
+        writeDoubleMap(out, result.getMetrics());
+        writeDoubleMap(out, result.getPnl());
+
+        out.writeInt(result.getOrders().size());
+        for (Map.Entry<String, List<Order>> entry : result.getOrders().entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Order order : entry.getValue()) {
+                CheckpointCodec.writeOrder(out, order);
+            }
+        }
+        out.writeInt(result.getPositions().size());
+        for (Map.Entry<String, List<Position>> entry : result.getPositions().entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Position position : entry.getValue()) {
+                CheckpointCodec.writePosition(out, position);
+            }
+        }
+
+        out.writeInt(result.getTradeCount());
+        out.writeInt(result.getWinCount());
+        out.writeInt(result.getLossCount());
+
+        long[] timestamps = result.getEquityTimestamps();
+        double[] equity = result.getEquityCurve();
+        out.writeInt(timestamps.length);
+        for (int i = 0; i < timestamps.length; i++) {
+            out.writeLong(timestamps[i]);
+            out.writeDouble(equity[i]);
+        }
+        writeDoubles(out, result.getDailyReturns());
+        writeDoubles(out, result.getTradePnls());
+    }
+
+    static BacktestResult readResult(DataInput in, BacktestConfig config) throws IOException {
+        Map<String, Double> metrics = readDoubleMap(in);
+        Map<String, Double> pnl = readDoubleMap(in);
+
+        int orderKeys = readLength(in, MAX_ENTRIES, "order map");
+        Map<String, List<Order>> orders = new HashMap<>(orderKeys * 2);
+        for (int i = 0; i < orderKeys; i++) {
+            String key = in.readUTF();
+            int count = readLength(in, MAX_ENTRIES, "order list");
+            List<Order> list = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                list.add(CheckpointCodec.readOrder(in));
+            }
+            orders.put(key, list);
+        }
+        int positionKeys = readLength(in, MAX_ENTRIES, "position map");
+        Map<String, List<Position>> positions = new HashMap<>(positionKeys * 2);
+        for (int i = 0; i < positionKeys; i++) {
+            String key = in.readUTF();
+            int count = readLength(in, MAX_ENTRIES, "position list");
+            List<Position> list = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                list.add(CheckpointCodec.readPosition(in));
+            }
+            positions.put(key, list);
+        }
+
+        int tradeCount = in.readInt();
+        int winCount = in.readInt();
+        int lossCount = in.readInt();
+
+        int points = readLength(in, MAX_SERIES_LENGTH, "equity curve");
+        long[] timestamps = new long[points];
+        double[] equity = new double[points];
+        for (int i = 0; i < points; i++) {
+            timestamps[i] = in.readLong();
+            equity[i] = in.readDouble();
+        }
+
+        return BacktestResult.builder()
+                .config(config)
+                .metrics(metrics)
+                .pnl(pnl)
+                .orders(orders)
+                .positions(positions)
+                .tradeCount(tradeCount)
+                .winCount(winCount)
+                .lossCount(lossCount)
+                .equityCurve(timestamps, equity)
+                .dailyReturns(readDoubles(in))
+                .tradePnls(readDoubles(in))
+                .build();
+    }
+
+    private static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readDateTime(DataInput in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeDoubleMap(DataOutput out, Map<String, Double> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, Double> entry : map.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeDouble(entry.getValue());
+        }
+    }
+
+    private static Map<String, Double> readDoubleMap(DataInput in) throws IOException {
+        int count = readLength(in, MAX_ENTRIES, "metric map");
+        Map<String, Double> map = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            map.put(in.readUTF(), in.readDouble());
+        }
+        return map;
+    }
+
+    private static void writeDoubles(DataOutput out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static double[] readDoubles(DataInput in) throws IOException {
+        double[] values = new double[readLength(in, MAX_SERIES_LENGTH, "series")];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+}
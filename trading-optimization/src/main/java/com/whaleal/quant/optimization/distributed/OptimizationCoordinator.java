@@ -0,0 +1,912 @@
+package com.whaleal.quant.optimization.distributed;
+
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.model.PerformanceTracker;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.model.trading.Order;
+import com.whaleal.quant.model.trading.Position;
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+import com.whaleal.quant.optimization.scorer.StrategyScorer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分布式优化协调者
+ * 监听 TCP 端口，接受任意数量的 {@link OptimizationWorker} 进程连接，将参数组合或股票分区拆分为任务分发给工作进程，
+ * 并汇总回传的回测结果
+ *
+ * <p>工作进程定期发送心跳；超过心跳超时未收到心跳或连接断开的工作进程被视为丢失，
+ * 其未完成的任务重新放回队列分发给其他工作进程。单个任务最多尝试 {@code maxAttempts} 次，
+ * 仍失败时按回测失败处理（与 {@link StrategyOptimizer} 一致，评分为 0）
+ *
+ * <p>默认只监听回环地址；监听其他地址时必须配置共享密钥，工作进程需以相同密钥通过握手挑战才能接入。
+ * 握手在独立线程上进行，不会阻塞后续连接的接受
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class OptimizationCoordinator implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimizationCoordinator.class);
+
+    /**
+     * 同时进行中的握手上限，超出的连接直接关闭
+     */
+    private static final int MAX_PENDING_HANDSHAKES = 64;
+
+    private final int port;
+    private final String bindAddress;
+    private final StrategyScorer scorer;
+    private final BacktestConfig backtestConfig;
+    private final long heartbeatTimeoutMillis;
+    private final int maxAttempts;
+    private final String sharedSecret;
+    private final long workerWaitTimeoutMillis;
+    private final SecureRandom random = new SecureRandom();
+    private final Semaphore handshakeSlots = new Semaphore(MAX_PENDING_HANDSHAKES);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, WorkerConnection> workers = new LinkedHashMap<>();
+    private final Deque<DistributedJob> pending = new ArrayDeque<>();
+    private final Map<Long, BacktestResult> completed = new HashMap<>();
+    private final Set<Long> failed = new HashSet<>();
+
+    private ServerSocket serverSocket;
+    private Thread acceptThread;
+    private Thread dispatchThread;
+    private Thread monitorThread;
+    private volatile boolean running;
+    private long nextJobId;
+    private int redispatchCount;
+
+    private OptimizationCoordinator(Builder builder) {
+        this.port = builder.port;
+        this.bindAddress = builder.bindAddress;
+        this.scorer = builder.scorer;
+        this.backtestConfig = builder.backtestConfig;
+        this.heartbeatTimeoutMillis = builder.heartbeatTimeoutMillis;
+        this.maxAttempts = builder.maxAttempts;
+        this.sharedSecret = builder.sharedSecret;
+        this.workerWaitTimeoutMillis = builder.workerWaitTimeoutMillis;
+    }
+
+    /**
+     * 启动协调者，开始接受工作进程连接
+     * @return 协调者
+     * @throws IOException 端口绑定失败
+     */
+    public OptimizationCoordinator start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("Coordinator is already running");
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(InetAddress.getByName(bindAddress), port));
+        running = true;
+
+        acceptThread = startDaemon("coordinator-accept", this::acceptLoop);
+        dispatchThread = startDaemon("coordinator-dispatch", this::dispatchLoop);
+        monitorThread = startDaemon("coordinator-monitor", this::monitorLoop);
+        log.info("Optimization coordinator listening on {}", serverSocket.getLocalSocketAddress());
+        return this;
+    }
+
+    /**
+     * 获取实际监听端口，端口配置为 0 时由系统分配
+     * @return 监听端口
+     */
+    public int getLocalPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : port;
+    }
+
+    /**
+     * 获取当前已连接的工作进程数
+     * @return 工作进程数
+     */
+    public int getWorkerCount() {
+        lock.lock();
+        try {
+            return workers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取因工作进程丢失或任务失败而重新分发的任务次数
+     * @return 重新分发次数
+     */
+    public int getRedispatchCount() {
+        lock.lock();
+        try {
+            return redispatchCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 等待至少指定数量的工作进程连接
+     * @param count 工作进程数
+     * @param timeout 超时时间
+     * @param unit 时间单位
+     * @return 是否在超时前达到数量
+     * @throws InterruptedException 线程被中断
+     */
+    public boolean awaitWorkers(int count, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (workers.size() < count) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                changed.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 在工作进程上评估参数组合并按评分排序
+     * @param paramSets 参数组合列表
+     * @return 优化结果
+     */
+    public OptimizationResult optimize(List<ParamSet> paramSets) {
+        List<DistributedJob> jobs = new ArrayList<>(paramSets.size());
+        for (ParamSet paramSet : paramSets) {
+            jobs.add(new DistributedJob(paramSet, backtestConfig));
+        }
+        List<BacktestResult> results = execute(jobs);
+
+        List<StrategyOptimizer.OptimizationCandidate> candidates = new ArrayList<>(jobs.size());
+        for (int i = 0; i < jobs.size(); i++) {
+            BacktestResult result = results.get(i);
+            double score = result != null ? scorer.score(result) : 0.0;
+            candidates.add(new StrategyOptimizer.OptimizationCandidate(paramSets.get(i), result, score));
+        }
+        candidates.sort(Comparator.comparingDouble(StrategyOptimizer.OptimizationCandidate::getScore).reversed());
+        return new OptimizationResult(candidates);
+    }
+
+    /**
+     * 将股票列表按分区分发给工作进程回测同一组参数，再合并为一个回测结果
+     * 各分区独立使用完整的初始资金，合并结果的初始资金为各分区之和
+     * @param paramSet 参数组合
+     * @param partitions 股票分区，分区之间不应重叠
+     * @return 合并后的回测结果
+     */
+    public BacktestResult backtestPartitioned(ParamSet paramSet, List<Set<String>> partitions) {
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("At least one partition is required");
+        }
+        List<DistributedJob> jobs = new ArrayList<>(partitions.size());
+        for (Set<String> partition : partitions) {
+            BacktestConfig partitionConfig = new BacktestConfig(backtestConfig).setSymbols(new HashSet<>(partition));
+            jobs.add(new DistributedJob(paramSet, partitionConfig));
+        }
+        List<BacktestResult> results = execute(jobs);
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                throw new RuntimeException("Backtest failed for partition " + partitions.get(i));
+            }
+        }
+        return mergePartitions(backtestConfig, results);
+    }
+
+    /**
+     * 执行一批任务，阻塞直到全部完成或达到最大尝试次数
+     * 没有任何工作进程连接的时间超过 {@code workerWaitTimeoutMillis} 时放弃本批任务
+     * @param jobs 任务列表
+     * @return 与任务顺序一致的回测结果，失败的任务为 null
+     */
+    private synchronized List<BacktestResult> execute(List<DistributedJob> jobs) {
+        if (!running) {
+            throw new IllegalStateException("Coordinator is not running");
+        }
+        lock.lock();
+        try {
+            for (DistributedJob job : jobs) {
+                job.id = nextJobId++;
+                pending.addLast(job);
+            }
+            changed.signalAll();
+
+            long idleSince = System.nanoTime();
+            while (!allDone(jobs)) {
+                if (!running) {
+                    abandon(jobs);
+                    throw new IllegalStateException("Coordinator was closed");
+                }
+                if (!workers.isEmpty()) {
+                    changed.await();
+                    idleSince = System.nanoTime();
+                    continue;
+                }
+                long remaining = TimeUnit.MILLISECONDS.toNanos(workerWaitTimeoutMillis) - (System.nanoTime() - idleSince);
+                if (remaining <= 0) {
+                    abandon(jobs);
+                    throw new IllegalStateException("No workers connected for " + workerWaitTimeoutMillis + " ms");
+                }
+                changed.awaitNanos(remaining);
+            }
+
+            List<BacktestResult> results = new ArrayList<>(jobs.size());
+            for (DistributedJob job : jobs) {
+                results.add(completed.remove(job.id));
+                failed.remove(job.id);
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Distributed optimization interrupted", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 从队列和结果中移除本批任务，调用方需持有锁
+     */
+    private void abandon(List<DistributedJob> jobs) {
+        Set<Long> ids = new HashSet<>();
+        for (DistributedJob job : jobs) {
+            ids.add(job.id);
+        }
+        pending.removeIf(job -> ids.contains(job.id));
+        completed.keySet().removeAll(ids);
+        failed.removeAll(ids);
+    }
+
+    private boolean allDone(List<DistributedJob> jobs) {
+        for (DistributedJob job : jobs) {
+            if (!completed.containsKey(job.id) && !failed.contains(job.id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Failed to accept worker connection", e);
+                }
+                continue;
+            }
+            if (!handshakeSlots.tryAcquire()) {
+                log.warn("Too many pending handshakes, rejecting {}", socket.getRemoteSocketAddress());
+                closeQuietly(socket);
+                continue;
+            }
+            startDaemon("coordinator-handshake", () -> {
+                try {
+                    handshake(socket);
+                } finally {
+                    handshakeSlots.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * 向新连接发出挑战并校验应答，通过后登记为工作进程
+     */
+    private void handshake(Socket socket) {
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, heartbeatTimeoutMillis));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            byte[] nonce = new byte[DistributedProtocol.NONCE_LENGTH];
+            random.nextBytes(nonce);
+            out.writeByte(DistributedProtocol.CHALLENGE);
+            out.writeInt(DistributedProtocol.MAGIC);
+            out.writeInt(DistributedProtocol.VERSION);
+            out.write(nonce);
+            out.flush();
+
+            if (in.readByte() != DistributedProtocol.HELLO
+                    || in.readInt() != DistributedProtocol.MAGIC
+                    || in.readInt() != DistributedProtocol.VERSION) {
+                throw new IOException("Unexpected handshake from " + socket.getRemoteSocketAddress());
+            }
+            String workerId = in.readUTF();
+            int slots = in.readInt();
+            byte[] response = new byte[DistributedProtocol.NONCE_LENGTH];
+            in.readFully(response);
+            if (!MessageDigest.isEqual(response, DistributedProtocol.authenticate(sharedSecret, nonce, workerId))) {
+                throw new IOException("Authentication failed for " + socket.getRemoteSocketAddress());
+            }
+            if (slots <= 0 || slots > DistributedProtocol.MAX_SLOTS) {
+                throw new IOException("Invalid slot count from " + workerId + ": " + slots);
+            }
+            WorkerConnection worker = new WorkerConnection(workerId, slots, socket, in, out);
+
+            lock.lock();
+            try {
+                if (!running) {
+                    throw new IOException("Coordinator is closing");
+                }
+                WorkerConnection previous = workers.put(workerId, worker);
+                if (previous != null) {
+                    workerLost(previous, "replaced by a new connection");
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            startDaemon("coordinator-reader-" + workerId, () -> readLoop(worker));
+            log.info("Worker {} connected from {} with {} slots", workerId, socket.getRemoteSocketAddress(), slots);
+        } catch (IOException e) {
+            if (running) {
+                log.warn("Rejected worker connection: {}", e.getMessage());
+            }
+            closeQuietly(socket);
+        }
+    }
+
+    private void readLoop(WorkerConnection worker) {
+        try {
+            while (running) {
+                byte type = worker.in.readByte();
+                worker.lastHeartbeat = System.currentTimeMillis();
+                if (type == DistributedProtocol.HEARTBEAT) {
+                    continue;
+                }
+                long jobId = worker.in.readLong();
+                if (type == DistributedProtocol.RESULT) {
+                    DistributedJob job = findAssigned(worker, jobId);
+                    BacktestConfig config = job != null ? job.config : backtestConfig;
+                    BacktestResult result = DistributedProtocol.readResult(worker.in, config);
+                    onResult(worker, jobId, result);
+                } else if (type == DistributedProtocol.FAILURE) {
+                    onFailure(worker, jobId, worker.in.readUTF());
+                } else {
+                    throw new IOException("Unexpected message type: " + type);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 无法解析的消息同样视为工作进程故障，其任务重新分发
+            lock.lock();
+            try {
+                workerLost(worker, String.valueOf(e));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private DistributedJob findAssigned(WorkerConnection worker, long jobId) {
+        lock.lock();
+        try {
+            return worker.assigned.get(jobId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onResult(WorkerConnection worker, long jobId, BacktestResult result) {
+        lock.lock();
+        try {
+            DistributedJob job = worker.assigned.remove(jobId);
+            if (job != null && !completed.containsKey(jobId)) {
+                completed.put(jobId, result);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onFailure(WorkerConnection worker, long jobId, String message) {
+        lock.lock();
+        try {
+            DistributedJob job = worker.assigned.remove(jobId);
+            if (job != null) {
+                log.warn("Job {} failed on worker {}: {}", jobId, worker.workerId, message);
+                requeue(job);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 处理丢失的工作进程，调用方需持有锁
+     */
+    private void workerLost(WorkerConnection worker, String reason) {
+        if (workers.get(worker.workerId) == worker) {
+            workers.remove(worker.workerId);
+        }
+        if (!worker.closed) {
+            worker.closed = true;
+            closeQuietly(worker.socket);
+            if (running) {
+                log.warn("Worker {} lost ({}), re-dispatching {} jobs", worker.workerId, reason, worker.assigned.size());
+            }
+        }
+        for (DistributedJob job : worker.assigned.values()) {
+            requeue(job);
+        }
+        worker.assigned.clear();
+        changed.signalAll();
+    }
+
+    /**
+     * 重新放回队列，超过最大尝试次数则标记失败，调用方需持有锁
+     */
+    private void requeue(DistributedJob job) {
+        if (job.attempts >= maxAttempts) {
+            failed.add(job.id);
+            return;
+        }
+        redispatchCount++;
+        pending.addFirst(job);
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            WorkerConnection target = null;
+            DistributedJob job = null;
+            lock.lock();
+            try {
+                while (running && (pending.isEmpty() || (target = selectWorker()) == null)) {
+                    changed.await();
+                }
+                if (!running) {
+                    return;
+                }
+                job = pending.pollFirst();
+                job.attempts++;
+                target.assigned.put(job.id, job);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                target.sendJob(job);
+            } catch (IOException | RuntimeException e) {
+                lock.lock();
+                try {
+                    if (e instanceof IOException) {
+                        workerLost(target, e.getMessage());
+                    } else {
+                        // 任务本身无法编码，重试没有意义
+                        target.assigned.remove(job.id);
+                        failed.add(job.id);
+                        log.warn("Job {} could not be encoded", job.id, e);
+                        changed.signalAll();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * 选择空闲槽位最多的工作进程，调用方需持有锁
+     */
+    private WorkerConnection selectWorker() {
+        WorkerConnection best = null;
+        int bestFree = 0;
+        for (WorkerConnection worker : workers.values()) {
+            int free = worker.slots - worker.assigned.size();
+            if (free > bestFree) {
+                best = worker;
+                bestFree = free;
+            }
+        }
+        return best;
+    }
+
+    private void monitorLoop() {
+        long interval = Math.max(10L, heartbeatTimeoutMillis / 4);
+        while (running) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long now = System.currentTimeMillis();
+            lock.lock();
+            try {
+                for (WorkerConnection worker : new ArrayList<>(workers.values())) {
+                    if (now - worker.lastHeartbeat > heartbeatTimeoutMillis) {
+                        workerLost(worker, "heartbeat timeout");
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 合并各分区的回测结果
+     * 权益曲线按时间戳对齐求和（分区在某时间点无记录时沿用其上一次权益），并据此重新计算绩效指标
+     * @param backtestConfig 基础回测配置
+     * @param results 分区回测结果
+     * @return 合并后的回测结果
+     */
+    static BacktestResult mergePartitions(BacktestConfig backtestConfig, List<BacktestResult> results) {
+        BacktestConfig mergedConfig = new BacktestConfig(backtestConfig).setSymbols(new HashSet<>());
+        double totalCapital = 0.0;
+        Map<String, List<Order>> orders = new HashMap<>();
+        Map<String, List<Position>> positions = new HashMap<>();
+        Map<String, Double> pnl = new HashMap<>();
+        int tradeCount = 0;
+        int winCount = 0;
+        int lossCount = 0;
+        int tradePnlCount = 0;
+        TreeMap<Long, double[]> timeline = new TreeMap<>();
+
+        for (int p = 0; p < results.size(); p++) {
+            BacktestResult result = results.get(p);
+            mergedConfig.getSymbols().addAll(result.getConfig().getSymbols());
+            totalCapital += result.getConfig().getInitialCapital();
+            orders.putAll(result.getOrders());
+            positions.putAll(result.getPositions());
+            for (Map.Entry<String, Double> entry : result.getPnl().entrySet()) {
+                pnl.merge(entry.getKey(), entry.getValue(), Double::sum);
+            }
+            tradeCount += result.getTradeCount();
+            winCount += result.getWinCount();
+            lossCount += result.getLossCount();
+            tradePnlCount += result.getTradePnls().length;
+
+            long[] timestamps = result.getEquityTimestamps();
+            double[] equity = result.getEquityCurve();
+            for (int i = 0; i < timestamps.length; i++) {
+                double[] row = timeline.computeIfAbsent(timestamps[i], k -> newMissingRow(results.size()));
+                row[p] = equity[i];
+            }
+        }
+        mergedConfig.setInitialCapital(totalCapital);
+
+        PerformanceTracker performance = new PerformanceTracker(totalCapital, mergedConfig.getPeriodsPerYear(), mergedConfig.getRiskFreeRate());
+        double[] lastEquity = new double[results.size()];
+        for (int p = 0; p < results.size(); p++) {
+            lastEquity[p] = results.get(p).getConfig().getInitialCapital();
+        }
+        for (Map.Entry<Long, double[]> entry : timeline.entrySet()) {
+            double[] row = entry.getValue();
+            double sum = 0.0;
+            for (int p = 0; p < row.length; p++) {
+                if (!Double.isNaN(row[p])) {
+                    lastEquity[p] = row[p];
+                }
+                sum += lastEquity[p];
+            }
+            performance.record(entry.getKey(), sum);
+        }
+
+        double[] tradePnls = new double[tradePnlCount];
+        int offset = 0;
+        for (BacktestResult result : results) {
+            double[] partitionPnls = result.getTradePnls();
+            System.arraycopy(partitionPnls, 0, tradePnls, offset, partitionPnls.length);
+            offset += partitionPnls.length;
+        }
+
+        Map<String, Double> metrics = new HashMap<>();
+        performance.writeMetrics(metrics);
+        metrics.put("totalPnl", performance.getLastEquity() - totalCapital);
+        metrics.put("winRate", tradeCount > 0 ? (double) winCount / tradeCount : 0.0);
+
+        return BacktestResult.builder()
+                .config(mergedConfig)
+                .orders(orders)
+                .positions(positions)
+                .pnl(pnl)
+                .metrics(metrics)
+                .equityCurve(performance.getTimestamps(), performance.getEquityCurve())
+                .dailyReturns(performance.getReturns())
+                .tradePnls(tradePnls)
+                .tradeCount(tradeCount)
+                .winCount(winCount)
+                .lossCount(lossCount)
+                .build();
+    }
+
+    private static double[] newMissingRow(int size) {
+        double[] row = new double[size];
+        Arrays.fill(row, Double.NaN);
+        return row;
+    }
+
+    /**
+     * 关闭协调者，通知所有工作进程退出
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        closeQuietly(serverSocket);
+
+        List<WorkerConnection> connected;
+        lock.lock();
+        try {
+            connected = new ArrayList<>(workers.values());
+            for (WorkerConnection worker : connected) {
+                worker.closed = true;
+            }
+            workers.clear();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        for (WorkerConnection worker : connected) {
+            try {
+                worker.sendShutdown();
+            } catch (IOException e) {
+                // 工作进程可能已经断开
+            }
+            closeQuietly(worker.socket);
+        }
+
+        dispatchThread.interrupt();
+        monitorThread.interrupt();
+        try {
+            acceptThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Thread startDaemon(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // 忽略关闭异常
+        }
+    }
+
+    /**
+     * 创建 Builder 实例
+     * @return Builder 实例
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 分布式任务
+     */
+    private static final class DistributedJob {
+        private final ParamSet paramSet;
+        private final BacktestConfig config;
+        private long id;
+        private int attempts;
+
+        DistributedJob(ParamSet paramSet, BacktestConfig config) {
+            this.paramSet = paramSet;
+            this.config = config;
+        }
+    }
+
+    /**
+     * 工作进程连接
+     */
+    private static final class WorkerConnection {
+        private final String workerId;
+        private final int slots;
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final Map<Long, DistributedJob> assigned = new LinkedHashMap<>();
+        private volatile long lastHeartbeat;
+        private boolean closed;
+
+        WorkerConnection(String workerId, int slots, Socket socket, DataInputStream in, DataOutputStream out) {
+            this.workerId = workerId;
+            this.slots = slots;
+            this.socket = socket;
+            this.in = in;
+            this.out = out;
+            this.lastHeartbeat = System.currentTimeMillis();
+        }
+
+        void sendJob(DistributedJob job) throws IOException {
+            synchronized (out) {
+                if (socket.isClosed()) {
+                    throw new SocketException("Worker connection closed");
+                }
+                out.writeByte(DistributedProtocol.JOB);
+                out.writeLong(job.id);
+                DistributedProtocol.writeParamSet(out, job.paramSet);
+                DistributedProtocol.writeConfig(out, job.config);
+                out.flush();
+            }
+        }
+
+        void sendShutdown() throws IOException {
+            synchronized (out) {
+                out.writeByte(DistributedProtocol.SHUTDOWN);
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private int port;
+        private String bindAddress;
+        private StrategyScorer scorer;
+        private BacktestConfig backtestConfig;
+        private long heartbeatTimeoutMillis;
+        private int maxAttempts;
+        private String sharedSecret;
+        private long workerWaitTimeoutMillis;
+
+        public Builder() {
+            this.port = 0;
+            this.bindAddress = "127.0.0.1";
+            this.heartbeatTimeoutMillis = 15000L;
+            this.maxAttempts = 3;
+            this.workerWaitTimeoutMillis = 60000L;
+        }
+
+        /**
+         * 设置监听端口，0 表示由系统分配
+         * @param port 监听端口
+         * @return Builder 实例
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * 设置监听地址，默认只监听回环地址；监听其他地址时必须设置共享密钥
+         * @param bindAddress 监听地址
+         * @return Builder 实例
+         */
+        public Builder bindAddress(String bindAddress) {
+            this.bindAddress = bindAddress;
+            return this;
+        }
+
+        /**
+         * 设置共享密钥，工作进程需配置相同密钥才能通过握手
+         * @param sharedSecret 共享密钥
+         * @return Builder 实例
+         */
+        public Builder sharedSecret(String sharedSecret) {
+            this.sharedSecret = sharedSecret;
+            return this;
+        }
+
+        /**
+         * 设置没有工作进程连接时任务的最长等待时间，超时后本批任务以异常结束
+         * @param workerWaitTimeoutMillis 等待时间（毫秒）
+         * @return Builder 实例
+         */
+        public Builder workerWaitTimeoutMillis(long workerWaitTimeoutMillis) {
+            this.workerWaitTimeoutMillis = workerWaitTimeoutMillis;
+            return this;
+        }
+
+        public Builder scorer(StrategyScorer scorer) {
+            this.scorer = scorer;
+            return this;
+        }
+
+        public Builder backtestConfig(BacktestConfig backtestConfig) {
+            this.backtestConfig = backtestConfig;
+            return this;
+        }
+
+        /**
+         * 设置心跳超时，应明显大于工作进程的心跳间隔
+         * @param heartbeatTimeoutMillis 心跳超时（毫秒）
+         * @return Builder 实例
+         */
+        public Builder heartbeatTimeoutMillis(long heartbeatTimeoutMillis) {
+            this.heartbeatTimeoutMillis = heartbeatTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * 设置单个任务的最大尝试次数
+         * @param maxAttempts 最大尝试次数
+         * @return Builder 实例
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public OptimizationCoordinator build() {
+            if (scorer == null) {
+                throw new IllegalArgumentException("Scorer is required");
+            }
+            if (backtestConfig == null) {
+                backtestConfig = new BacktestConfig();
+            }
+            if (heartbeatTimeoutMillis <= 0) {
+                throw new IllegalArgumentException("Heartbeat timeout must be positive");
+            }
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("Max attempts must be positive");
+            }
+            if (workerWaitTimeoutMillis <= 0) {
+                throw new IllegalArgumentException("Worker wait timeout must be positive");
+            }
+            if ((sharedSecret == null || sharedSecret.isEmpty()) && !isLoopback(bindAddress)) {
+                throw new IllegalArgumentException("Shared secret is required when binding to non-loopback address " + bindAddress);
+            }
+            return new OptimizationCoordinator(this);
+        }
+
+        private static boolean isLoopback(String address) {
+            try {
+                return InetAddress.getByName(address).isLoopbackAddress();
+            } catch (UnknownHostException e) {
+                throw new IllegalArgumentException("Unknown bind address: " + address, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.whaleal.quant.optimization.distributed;
+
+import com.whaleal.quant.backtest.data.BacktestDataProvider;
+import com.whaleal.quant.backtest.engine.BacktestEngine;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 分布式优化工作进程
+ * 连接到 {@link OptimizationCoordinator}，接收任务后在本地回测并回传结果，同时定期发送心跳
+ *
+ * <p>策略无法通过网络传输，工作进程需与协调者使用相同的类路径，并以相同的策略工厂和数据提供者启动；
+ * 任务中只携带参数组合和回测配置。多个任务并发共享同一个数据提供者，
+ * 建议使用 {@link com.whaleal.quant.backtest.data.MarketDataSnapshot} 预先加载数据。
+ * 协调者配置了共享密钥时，工作进程需设置相同的密钥
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class OptimizationWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimizationWorker.class);
+
+    private final String host;
+    private final int port;
+    private final String workerId;
+    private final int slots;
+    private final long heartbeatIntervalMillis;
+    private final String sharedSecret;
+    private final Function<ParamSet, StrategyEngine> strategyFactory;
+    private final BacktestDataProvider dataProvider;
+
+    private volatile Socket socket;
+    private volatile boolean running;
+
+    private OptimizationWorker(Builder builder) {
+        this.host = builder.host;
+        this.port = builder.port;
+        this.workerId = builder.workerId;
+        this.slots = builder.slots;
+        this.heartbeatIntervalMillis = builder.heartbeatIntervalMillis;
+        this.sharedSecret = builder.sharedSecret;
+        this.strategyFactory = builder.strategyFactory;
+        this.dataProvider = builder.dataProvider;
+    }
+
+    /**
+     * 连接协调者并处理任务，阻塞直到协调者发出关闭指令或连接断开
+     * @throws IOException 连接失败或连接异常断开
+     */
+    public void run() throws IOException {
+        if (running) {
+            throw new IllegalStateException("Worker is already running");
+        }
+        running = true;
+
+        Socket connection = new Socket();
+        connection.setTcpNoDelay(true);
+        connection.connect(new InetSocketAddress(host, port));
+        socket = connection;
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+
+        ExecutorService jobExecutor = Executors.newFixedThreadPool(slots);
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "worker-heartbeat-" + workerId);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            if (in.readByte() != DistributedProtocol.CHALLENGE
+                    || in.readInt() != DistributedProtocol.MAGIC
+                    || in.readInt() != DistributedProtocol.VERSION) {
+                throw new IOException("Unexpected handshake from coordinator " + host + ":" + port);
+            }
+            byte[] nonce = new byte[DistributedProtocol.NONCE_LENGTH];
+            in.readFully(nonce);
+            synchronized (out) {
+                out.writeByte(DistributedProtocol.HELLO);
+                out.writeInt(DistributedProtocol.MAGIC);
+                out.writeInt(DistributedProtocol.VERSION);
+                out.writeUTF(workerId);
+                out.writeInt(slots);
+                out.write(DistributedProtocol.authenticate(sharedSecret, nonce, workerId));
+                out.flush();
+            }
+            heartbeat.scheduleAtFixedRate(() -> sendHeartbeat(out), heartbeatIntervalMillis, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+            log.info("Worker {} connected to {}:{} with {} slots", workerId, host, port, slots);
+
+            while (running) {
+                byte type = in.readByte();
+                if (type == DistributedProtocol.SHUTDOWN) {
+                    log.info("Worker {} received shutdown", workerId);
+                    break;
+                }
+                if (type != DistributedProtocol.JOB) {
+                    throw new IOException("Unexpected message type: " + type);
+                }
+                long jobId = in.readLong();
+                ParamSet paramSet = DistributedProtocol.readParamSet(in);
+                BacktestConfig config = DistributedProtocol.readConfig(in);
+                jobExecutor.execute(() -> executeJob(out, jobId, paramSet, config));
+            }
+        } catch (EOFException e) {
+            if (running) {
+                throw new IOException("Coordinator closed the connection", e);
+            }
+        } catch (IOException e) {
+            if (running) {
+                throw e;
+            }
+        } finally {
+            running = false;
+            heartbeat.shutdownNow();
+            jobExecutor.shutdownNow();
+            connection.close();
+        }
+    }
+
+    /**
+     * 停止工作进程并断开连接，未完成的任务将由协调者重新分发
+     */
+    public void stop() {
+        running = false;
+        Socket connection = socket;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                // 忽略关闭异常
+            }
+        }
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    private void executeJob(DataOutputStream out, long jobId, ParamSet paramSet, BacktestConfig config) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        boolean success;
+        try {
+            BacktestEngine backtestEngine = BacktestEngine.builder()
+                    .config(config)
+                    .dataProvider(dataProvider)
+                    .strategyEngine(strategyFactory.apply(paramSet))
+                    .build();
+            BacktestResult result = backtestEngine.run();
+
+            // 先在本地编码，避免编码失败时向连接写入半条消息
+            DistributedProtocol.writeResult(new DataOutputStream(buffer), result);
+            success = true;
+        } catch (Exception e) {
+            log.warn("Job {} failed on worker {}", jobId, workerId, e);
+            buffer.reset();
+            try {
+                new DataOutputStream(buffer).writeUTF(String.valueOf(e.getMessage()));
+            } catch (IOException ignored) {
+                // 写入内存缓冲不会失败
+            }
+            success = false;
+        }
+
+        try {
+            synchronized (out) {
+                out.writeByte(success ? DistributedProtocol.RESULT : DistributedProtocol.FAILURE);
+                out.writeLong(jobId);
+                buffer.writeTo(out);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // 连接已断开，主循环会退出，协调者会重新分发该任务
+            stop();
+        }
+    }
+
+    private void sendHeartbeat(DataOutputStream out) {
+        try {
+            synchronized (out) {
+                out.writeByte(DistributedProtocol.HEARTBEAT);
+                out.flush();
+            }
+        } catch (IOException e) {
+            stop();
+        }
+    }
+
+    /**
+     * 创建 Builder 实例
+     * @return Builder 实例
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private String host;
+        private int port;
+        private String workerId;
+        private int slots;
+        private long heartbeatIntervalMillis;
+        private String sharedSecret;
+        private Function<ParamSet, StrategyEngine> strategyFactory;
+        private BacktestDataProvider dataProvider;
+
+        public Builder() {
+            this.host = "localhost";
+            this.workerId = ManagementFactory.getRuntimeMXBean().getName() + "-" + Long.toHexString(System.nanoTime());
+            this.slots = Runtime.getRuntime().availableProcessors();
+            this.heartbeatIntervalMillis = 3000L;
+        }
+
+        /**
+         * 设置协调者地址
+         * @param host 主机名
+         * @param port 端口
+         * @return Builder 实例
+         */
+        public Builder coordinator(String host, int port) {
+            this.host = host;
+            this.port = port;
+            return this;
+        }
+
+        public Builder workerId(String workerId) {
+            this.workerId = workerId;
+            return this;
+        }
+
+        /**
+         * 设置可同时执行的任务数
+         * @param slots 任务槽位数
+         * @return Builder 实例
+         */
+        public Builder slots(int slots) {
+            this.slots = slots;
+            return this;
+        }
+
+        public Builder heartbeatIntervalMillis(long heartbeatIntervalMillis) {
+            this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+            return this;
+        }
+
+        /**
+         * 设置与协调者一致的共享密钥
+         * @param sharedSecret 共享密钥
+         * @return Builder 实例
+         */
+        public Builder sharedSecret(String sharedSecret) {
+            this.sharedSecret = sharedSecret;
+            return this;
+        }
+
+        public Builder strategyFactory(Function<ParamSet, StrategyEngine> strategyFactory) {
+            this.strategyFactory = strategyFactory;
+            return this;
+        }
+
+        public Builder dataProvider(BacktestDataProvider dataProvider) {
+            this.dataProvider = dataProvider;
+            return this;
+        }
+
+        public OptimizationWorker build() {
+            if (port <= 0) {
+                throw new IllegalArgumentException("Coordinator port is required");
+            }
+            if (strategyFactory == null) {
+                throw new IllegalArgumentException("Strategy factory is required");
+            }
+            if (dataProvider == null) {
+                throw new IllegalArgumentException("Data provider is required");
+            }
+            if (slots <= 0 || slots > DistributedProtocol.MAX_SLOTS) {
+                throw new IllegalArgumentException("Slots must be between 1 and " + DistributedProtocol.MAX_SLOTS);
+            }
+            if (heartbeatIntervalMillis <= 0) {
+                throw new IllegalArgumentException("Heartbeat interval must be positive");
+            }
+            return new OptimizationWorker(this);
+        }
+    }
+}
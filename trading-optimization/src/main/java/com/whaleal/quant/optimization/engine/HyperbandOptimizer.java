@@ -0,0 +1,388 @@
+package com.whaleal.quant.optimization.engine;
+
+import com.whaleal.quant.backtest.data.BacktestDataProvider;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+import com.whaleal.quant.optimization.scorer.StrategyScorer;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Hyperband 参数优化器
+ * 以回测区间的长度作为预算做逐次减半：所有候选先回测区间开头的一小段，按评分保留前 1/eta 的候选并把区间延长 eta 倍，
+ * 直到剩下的候选回测完整区间。Hyperband 依次运行多组不同起始预算的逐次减半，避免起始预算过短时误淘汰慢热的参数
+ *
+ * <p>每个候选有独立的检查点目录，延长区间时从上一段结束处的检查点继续回测而不是从头开始；
+ * 被淘汰的候选的检查点随即删除。检查点指纹包含参数组合，目录中残留的其他参数组合的检查点不会被误恢复。
+ * 策略工厂对同一参数组合必须生成相同的策略，带内部状态的因子需实现
+ * {@link com.whaleal.quant.backtest.checkpoint.Checkpointable}，否则继续回测的结果与从头回测不一致
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class HyperbandOptimizer {
+
+    private static final Logger log = LoggerFactory.getLogger(HyperbandOptimizer.class);
+
+    private final ParamSpace paramSpace;
+    private final StrategyScorer scorer;
+    private final Function<ParamSet, StrategyEngine> strategyFactory;
+    private final BacktestDataProvider dataProvider;
+    private final BacktestConfig backtestConfig;
+    private final Period minPeriod;
+    private final int eta;
+    private final int brackets;
+    private final Path checkpointDirectory;
+    private final int parallelThreads;
+    private final boolean compactResults;
+    private final long seed;
+
+    /**
+     * 构造方法
+     * @param builder Builder
+     */
+    private HyperbandOptimizer(Builder builder) {
+        this.paramSpace = builder.paramSpace;
+        this.scorer = builder.scorer;
+        this.strategyFactory = builder.strategyFactory;
+        this.dataProvider = builder.dataProvider;
+        this.backtestConfig = builder.backtestConfig;
+        this.minPeriod = builder.minPeriod;
+        this.eta = builder.eta;
+        this.brackets = builder.brackets;
+        this.checkpointDirectory = builder.checkpointDirectory;
+        this.parallelThreads = builder.parallelThreads;
+        this.compactResults = builder.compactResults;
+        this.seed = builder.seed;
+    }
+
+    /**
+     * 执行优化
+     * @return 优化结果，只包含回测了完整区间的候选
+     */
+    public OptimizationResult optimize() {
+        LocalDateTime start = backtestConfig.getStartDate();
+        long totalDays = ChronoUnit.DAYS.between(start, backtestConfig.getEndDate()) + 1;
+        long minDays = Math.max(1, Math.min(totalDays, ChronoUnit.DAYS.between(start, start.plus(minPeriod))));
+        int maxStage = (int) Math.floor(Math.log((double) totalDays / minDays) / Math.log(eta) + 1e-9);
+        int bracketCount = brackets > 0 ? Math.min(brackets, maxStage + 1) : maxStage + 1;
+
+        StrategyOptimizer optimizer = StrategyOptimizer.builder()
+                .paramSpace(paramSpace)
+                .scorer(scorer)
+                .strategyFactory(strategyFactory)
+                .dataProvider(dataProvider)
+                .backtestConfig(backtestConfig)
+                .parallelThreads(parallelThreads)
+                .parallelEnabled(true)
+                .compactResults(compactResults)
+                .build();
+
+        boolean temporaryDirectory = checkpointDirectory == null;
+        Path root;
+        try {
+            root = temporaryDirectory ? Files.createTempDirectory("hyperband") : checkpointDirectory;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create checkpoint directory", e);
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<StrategyOptimizer.OptimizationCandidate> finalists = new ArrayList<>();
+        try {
+            for (int stage = maxStage; stage > maxStage - bracketCount; stage--) {
+                int count = (int) Math.min(paramSpace.size(),
+                        (long) Math.ceil((double) (maxStage + 1) / (stage + 1) * Math.pow(eta, stage)));
+                finalists.addAll(runBracket(optimizer, root.resolve("bracket-" + stage), stage, sample(count, random), totalDays));
+            }
+        } finally {
+            if (temporaryDirectory) {
+                deleteRecursively(root);
+            }
+        }
+
+        finalists.sort(Comparator.comparingDouble(StrategyOptimizer.OptimizationCandidate::getScore).reversed());
+        return new OptimizationResult(finalists);
+    }
+
+    /**
+     * 执行一组逐次减半
+     * @param optimizer 策略优化器
+     * @param directory 本组检查点目录
+     * @param stage 减半次数
+     * @param paramSets 初始候选
+     * @param totalDays 完整区间天数
+     * @return 回测了完整区间的候选
+     */
+    private List<StrategyOptimizer.OptimizationCandidate> runBracket(StrategyOptimizer optimizer, Path directory, int stage,
+                                                                     List<ParamSet> paramSets, long totalDays) {
+        List<Trial> survivors = new ArrayList<>(paramSets.size());
+        for (int i = 0; i < paramSets.size(); i++) {
+            survivors.add(new Trial(paramSets.get(i), directory.resolve("trial-" + i)));
+        }
+
+        for (int rung = 0; rung <= stage; rung++) {
+            boolean last = rung == stage;
+            long days = last ? totalDays : Math.max(1, Math.round(totalDays * Math.pow(eta, rung - stage)));
+            LocalDateTime end = last ? backtestConfig.getEndDate() : backtestConfig.getStartDate().plusDays(days - 1);
+            log.info("Hyperband bracket {} rung {}: {} candidates through {}", stage, rung, survivors.size(), end);
+
+            List<ParamSet> rungParamSets = new ArrayList<>(survivors.size());
+            List<BacktestConfig> rungConfigs = new ArrayList<>(survivors.size());
+            for (Trial trial : survivors) {
+                rungParamSets.add(trial.paramSet);
+                rungConfigs.add(new BacktestConfig(backtestConfig)
+                        .setEndDate(end)
+                        .setCheckpointDirectory(trial.directory.toString())
+                        .setCheckpointTag(checkpointTag(trial.paramSet))
+                        .setResumeFromCheckpoint(true)
+                        .setRetainFinalCheckpoint(!last));
+            }
+            List<StrategyOptimizer.OptimizationCandidate> evaluated = optimizer.evaluate(rungParamSets, rungConfigs);
+
+            if (last) {
+                for (Trial trial : survivors) {
+                    deleteRecursively(trial.directory);
+                }
+                return evaluated;
+            }
+
+            // 保留评分最高的 1/eta，评分为 NaN 的候选排在最后
+            Integer[] order = new Integer[survivors.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble((Integer i) -> rank(evaluated.get(i).getScore())).reversed());
+            int keep = Math.max(1, survivors.size() / eta);
+            List<Trial> next = new ArrayList<>(keep);
+            for (int i = 0; i < order.length; i++) {
+                Trial trial = survivors.get(order[i]);
+                if (i < keep) {
+                    next.add(trial);
+                } else {
+                    deleteRecursively(trial.directory);
+                }
+            }
+            survivors = next;
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 随机抽取互不重复的参数组合，数量不小于参数组合总数时返回全部组合
+     * @param count 数量
+     * @param random 随机数生成器
+     * @return 参数组合
+     */
+    private List<ParamSet> sample(int count, SplittableRandom random) {
+        long size = paramSpace.size();
+        if (count >= size) {
+            return paramSpace.generateParamSets();
+        }
+        Set<Long> chosen = new HashSet<>();
+        List<ParamSet> paramSets = new ArrayList<>(count);
+        while (paramSets.size() < count) {
+            long index = random.nextLong(size);
+            if (chosen.add(index)) {
+                paramSets.add(paramSpace.getParamSet(index));
+            }
+        }
+        return paramSets;
+    }
+
+    /**
+     * 参数组合的检查点标识，按参数名排序，与参数的插入顺序无关
+     * @param paramSet 参数组合
+     * @return 检查点标识
+     */
+    static String checkpointTag(ParamSet paramSet) {
+        return new TreeMap<>(paramSet.getAllParams()).toString();
+    }
+
+    private static double rank(double score) {
+        return Double.isNaN(score) ? Double.NEGATIVE_INFINITY : score;
+    }
+
+    private static void deleteRecursively(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException e) {
+                    log.warn("Failed to delete {}", p, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to delete {}", path, e);
+        }
+    }
+
+    /**
+     * 逐次减半中的一个候选
+     */
+    private static final class Trial {
+        private final ParamSet paramSet;
+        private final Path directory;
+
+        private Trial(ParamSet paramSet, Path directory) {
+            this.paramSet = paramSet;
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private ParamSpace paramSpace;
+        private StrategyScorer scorer;
+        private Function<ParamSet, StrategyEngine> strategyFactory;
+        private BacktestDataProvider dataProvider;
+        private BacktestConfig backtestConfig;
+        private Period minPeriod = Period.ofYears(1);
+        private int eta = 3;
+        private int brackets;
+        private Path checkpointDirectory;
+        private int parallelThreads = Runtime.getRuntime().availableProcessors();
+        private boolean compactResults;
+        private long seed = 42L;
+
+        public Builder paramSpace(ParamSpace paramSpace) {
+            this.paramSpace = paramSpace;
+            return this;
+        }
+
+        public Builder scorer(StrategyScorer scorer) {
+            this.scorer = scorer;
+            return this;
+        }
+
+        public Builder strategyFactory(Function<ParamSet, StrategyEngine> strategyFactory) {
+            this.strategyFactory = strategyFactory;
+            return this;
+        }
+
+        public Builder dataProvider(BacktestDataProvider dataProvider) {
+            this.dataProvider = dataProvider;
+            return this;
+        }
+
+        public Builder backtestConfig(BacktestConfig backtestConfig) {
+            this.backtestConfig = backtestConfig;
+            return this;
+        }
+
+        /**
+         * 设置最短回测区间，即第一轮的预算
+         * @param minPeriod 最短回测区间
+         * @return Builder 实例
+         */
+        public Builder minPeriod(Period minPeriod) {
+            this.minPeriod = minPeriod;
+            return this;
+        }
+
+        /**
+         * 设置每轮的淘汰倍数，每轮保留 1/eta 的候选并把区间延长 eta 倍
+         * @param eta 淘汰倍数
+         * @return Builder 实例
+         */
+        public Builder eta(int eta) {
+            this.eta = eta;
+            return this;
+        }
+
+        /**
+         * 设置运行的逐次减半组数，从起始预算最短的一组开始；1 即单组逐次减半，不大于 0 时运行全部组
+         * @param brackets 组数
+         * @return Builder 实例
+         */
+        public Builder brackets(int brackets) {
+            this.brackets = brackets;
+            return this;
+        }
+
+        /**
+         * 设置检查点根目录，为空时使用临时目录并在结束后删除
+         * @param checkpointDirectory 检查点根目录
+         * @return Builder 实例
+         */
+        public Builder checkpointDirectory(Path checkpointDirectory) {
+            this.checkpointDirectory = checkpointDirectory;
+            return this;
+        }
+
+        public Builder parallelThreads(int parallelThreads) {
+            this.parallelThreads = parallelThreads;
+            return this;
+        }
+
+        public Builder compactResults(boolean compactResults) {
+            this.compactResults = compactResults;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public HyperbandOptimizer build() {
+            if (paramSpace == null) {
+                throw new IllegalArgumentException("Param space is required");
+            }
+            if (scorer == null) {
+                throw new IllegalArgumentException("Scorer is required");
+            }
+            if (strategyFactory == null) {
+                throw new IllegalArgumentException("Strategy factory is required");
+            }
+            if (dataProvider == null) {
+                throw new IllegalArgumentException("Data provider is required");
+            }
+            if (backtestConfig == null) {
+                backtestConfig = new BacktestConfig();
+            }
+            if (minPeriod == null || minPeriod.isZero() || minPeriod.isNegative()) {
+                throw new IllegalArgumentException("Min period must be positive");
+            }
+            if (eta < 2) {
+                throw new IllegalArgumentException("Eta must be at least 2");
+            }
+            if (parallelThreads <= 0) {
+                throw new IllegalArgumentException("Parallel threads must be positive");
+            }
+            return new HyperbandOptimizer(this);
+        }
+    }
+
+    /**
+     * 创建 Builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+}
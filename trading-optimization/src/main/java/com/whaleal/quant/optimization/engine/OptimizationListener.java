@@ -0,0 +1,28 @@
+package com.whaleal.quant.optimization.engine;
+
+/**
+ * 优化监听器
+ * 每个参数组合评估完成后立即回调，不必等整批回测结束；回调在回测线程中执行，实现需线程安全且尽量轻量
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public interface OptimizationListener {
+
+    /**
+     * 候选评估完成事件
+     * @param candidate 刚完成的优化候选
+     * @param progress 当前进度
+     */
+    default void onCandidateCompleted(StrategyOptimizer.OptimizationCandidate candidate, OptimizationProgress progress) {
+    }
+
+    /**
+     * 候选回测失败事件，失败的候选评分为 0
+     * @param candidate 失败的优化候选
+     * @param error 异常
+     * @param progress 当前进度
+     */
+    default void onCandidateFailed(StrategyOptimizer.OptimizationCandidate candidate, Throwable error, OptimizationProgress progress) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.whaleal.quant.optimization.engine;
+
+/**
+ * 优化进度
+ * 某一时刻的进度快照，包括完成数、吞吐量、预计剩余时间和当前最佳候选。
+ * 剩余时间按开始以来的平均吞吐量估算；使用搜索算法时总数为已提交的参数组合数，随批次增加
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class OptimizationProgress {
+
+    private final long total;
+    private final long completed;
+    private final long failed;
+    private final long cached;
+    private final long elapsedMillis;
+    private final StrategyOptimizer.OptimizationCandidate bestCandidate;
+
+    OptimizationProgress(long total, long completed, long failed, long cached, long elapsedMillis,
+                         StrategyOptimizer.OptimizationCandidate bestCandidate) {
+        this.total = total;
+        this.completed = completed;
+        this.failed = failed;
+        this.cached = cached;
+        this.elapsedMillis = elapsedMillis;
+        this.bestCandidate = bestCandidate;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getCached() {
+        return cached;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * 获取完成比例
+     * @return 完成比例，范围 [0, 1]
+     */
+    public double getFraction() {
+        return total > 0 ? Math.min(1.0, (double) completed / total) : 0.0;
+    }
+
+    /**
+     * 获取吞吐量
+     * @return 每秒完成的参数组合数
+     */
+    public double getThroughput() {
+        return elapsedMillis > 0 ? completed * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    /**
+     * 获取预计剩余时间
+     * @return 预计剩余毫秒数，尚无完成的参数组合时返回 -1
+     */
+    public long getEtaMillis() {
+        if (completed == 0) {
+            return -1;
+        }
+        long remaining = Math.max(0, total - completed);
+        return (long) (remaining * ((double) elapsedMillis / completed));
+    }
+
+    /**
+     * 获取当前最佳候选
+     * @return 当前最佳候选，没有成功完成的候选时返回空
+     */
+    public StrategyOptimizer.OptimizationCandidate getBestCandidate() {
+        return bestCandidate;
+    }
+
+    /**
+     * 获取当前最佳评分
+     * @return 当前最佳评分，没有成功完成的候选时返回 NaN
+     */
+    public double getBestScore() {
+        return bestCandidate != null ? bestCandidate.getScore() : Double.NaN;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OptimizationProgress{%d/%d (%.1f%%), failed=%d, cached=%d, %.2f/s, eta=%ds, best=%.6f}",
+                completed, total, getFraction() * 100, failed, cached, getThroughput(),
+                getEtaMillis() < 0 ? -1 : getEtaMillis() / 1000, getBestScore());
+    }
+}
@@ -0,0 +1,83 @@
+package com.whaleal.quant.optimization.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * 优化进度统计
+ * 由各回测线程并发更新，计数使用原子变量，最佳候选通过 CAS 更新
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+final class ProgressTracker {
+
+    private final LongSupplier nanoTime;
+    private final long startNanos;
+    private final AtomicLong total;
+    private final AtomicLong completed;
+    private final AtomicLong failed;
+    private final AtomicLong cached;
+    private final AtomicReference<StrategyOptimizer.OptimizationCandidate> best;
+
+    ProgressTracker() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * 构造方法
+     * @param nanoTime 纳秒时钟，用于计算耗时、吞吐量和剩余时间
+     */
+    ProgressTracker(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.startNanos = nanoTime.getAsLong();
+        this.total = new AtomicLong();
+        this.completed = new AtomicLong();
+        this.failed = new AtomicLong();
+        this.cached = new AtomicLong();
+        this.best = new AtomicReference<>();
+    }
+
+    /**
+     * 增加待评估的参数组合数
+     * @param count 参数组合数
+     */
+    void submit(long count) {
+        total.addAndGet(count);
+    }
+
+    /**
+     * 记录一个完成的候选
+     * @param candidate 优化候选
+     * @param isFailed 是否回测失败
+     * @param isCached 是否来自评估缓存
+     * @return 记录后的进度
+     */
+    OptimizationProgress record(StrategyOptimizer.OptimizationCandidate candidate, boolean isFailed, boolean isCached) {
+        if (isFailed) {
+            failed.incrementAndGet();
+        } else {
+            if (isCached) {
+                cached.incrementAndGet();
+            }
+            StrategyOptimizer.OptimizationCandidate current = best.get();
+            while (!Double.isNaN(candidate.getScore())
+                    && (current == null || candidate.getScore() > current.getScore())
+                    && !best.compareAndSet(current, candidate)) {
+                current = best.get();
+            }
+        }
+        completed.incrementAndGet();
+        return snapshot();
+    }
+
+    /**
+     * 获取当前进度
+     * @return 进度快照
+     */
+    OptimizationProgress snapshot() {
+        return new OptimizationProgress(total.get(), completed.get(), failed.get(), cached.get(),
+                (nanoTime.getAsLong() - startNanos) / 1_000_000L, best.get());
+    }
+}
@@ -1,23 +1,38 @@
 package com.whaleal.quant.optimization.engine;
 
 import com.whaleal.quant.backtest.data.BacktestDataProvider;
+import com.whaleal.quant.backtest.data.MarketDataSnapshot;
 import com.whaleal.quant.backtest.engine.BacktestEngine;
 import com.whaleal.quant.backtest.model.BacktestConfig;
 import com.whaleal.quant.backtest.result.BacktestResult;
-import com.whaleal.quant.engine.strategy.core.StrategyEngine;
+import com.whaleal.quant.backtest.result.CompactBacktestResult;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import com.whaleal.quant.optimization.cache.EvaluationCache;
+import com.whaleal.quant.optimization.indicator.IndicatorPrecomputer;
+import com.whaleal.quant.optimization.indicator.IndicatorSpec;
+import com.whaleal.quant.optimization.indicator.IndicatorStore;
 import com.whaleal.quant.optimization.param.ParamSet;
 import com.whaleal.quant.optimization.param.ParamSpace;
 import com.whaleal.quant.optimization.result.OptimizationResult;
 import com.whaleal.quant.optimization.scorer.StrategyScorer;
+import com.whaleal.quant.optimization.search.ParamSearch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
 
 /**
  * 策略优化器
@@ -28,14 +43,25 @@ import java.util.function.Function;
  */
 public class StrategyOptimizer {
 
+    private static final Logger log = LoggerFactory.getLogger(StrategyOptimizer.class);
+
     private final ParamSpace paramSpace;
     private final StrategyScorer scorer;
-    private final Function<ParamSet, StrategyEngine> strategyFactory;
+    private final BiFunction<ParamSet, IndicatorStore, StrategyEngine> strategyFactory;
     private final BacktestDataProvider dataProvider;
     private final BacktestConfig backtestConfig;
 
     private int parallelThreads;
     private boolean parallelEnabled;
+    private boolean compactResults;
+    private int maxInFlight;
+    private EvaluationCache evaluationCache;
+    private volatile MarketDataSnapshot marketData;
+    private Function<ParamSet, Collection<IndicatorSpec>> indicatorRequirements;
+    private volatile IndicatorStore indicatorStore;
+    private OptimizationListener listener;
+    private volatile ProgressTracker progress;
+    private LongSupplier nanoTime;
 
     /**
      * 构造方法
@@ -46,6 +72,19 @@ public class StrategyOptimizer {
      * @param backtestConfig 回测配置
      */
     public StrategyOptimizer(ParamSpace paramSpace, StrategyScorer scorer, Function<ParamSet, StrategyEngine> strategyFactory, BacktestDataProvider dataProvider, BacktestConfig backtestConfig) {
+        this(paramSpace, scorer, (paramSet, indicators) -> strategyFactory.apply(paramSet), dataProvider, backtestConfig);
+    }
+
+    /**
+     * 构造方法
+     * 策略工厂同时接收参数组合和预计算的指标存储，未设置指标需求时指标存储为空
+     * @param paramSpace 参数空间
+     * @param scorer 评分器
+     * @param strategyFactory 策略工厂函数
+     * @param dataProvider 数据提供者
+     * @param backtestConfig 回测配置
+     */
+    public StrategyOptimizer(ParamSpace paramSpace, StrategyScorer scorer, BiFunction<ParamSet, IndicatorStore, StrategyEngine> strategyFactory, BacktestDataProvider dataProvider, BacktestConfig backtestConfig) {
         this.paramSpace = paramSpace;
         this.scorer = scorer;
         this.strategyFactory = strategyFactory;
@@ -53,6 +92,7 @@ public class StrategyOptimizer {
         this.backtestConfig = backtestConfig;
         this.parallelThreads = Runtime.getRuntime().availableProcessors();
         this.parallelEnabled = true;
+        this.nanoTime = System::nanoTime;
     }
 
     /**
@@ -75,20 +115,100 @@ public class StrategyOptimizer {
         return this;
     }
 
+    /**
+     * 设置是否只保留紧凑回测结果
+     * 参数组合很多时，候选只持有列式的紧凑结果，避免完整结果占满堆内存
+     * @param compactResults 是否只保留紧凑结果
+     * @return 策略优化器
+     */
+    public StrategyOptimizer setCompactResults(boolean compactResults) {
+        this.compactResults = compactResults;
+        return this;
+    }
+
+    /**
+     * 设置并行优化时最多同时提交的回测数
+     * 参数组合按需解码并逐个提交，未完成的回测达到上限时暂停提交
+     * @param maxInFlight 最多同时提交的回测数，不大于 0 时为并行线程数的两倍
+     * @return 策略优化器
+     */
+    public StrategyOptimizer setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * 设置评估缓存
+     * 命中缓存的参数组合不再回测，新完成的评估追加到缓存文件，中断后重新运行会跳过已完成的评估
+     * @param evaluationCache 评估缓存，为空时不使用缓存
+     * @return 策略优化器
+     */
+    public StrategyOptimizer setEvaluationCache(EvaluationCache evaluationCache) {
+        this.evaluationCache = evaluationCache;
+        return this;
+    }
+
+    /**
+     * 设置指标需求
+     * 首次回测前遍历参数空间收集各参数组合需要的指标，基于市场数据快照去重预计算一次，
+     * 所有参数组合共享同一个只读的指标存储，由策略工厂传给策略
+     * @param indicatorRequirements 参数组合到所需指标的映射，为空时不预计算
+     * @return 策略优化器
+     */
+    public StrategyOptimizer setIndicatorRequirements(Function<ParamSet, Collection<IndicatorSpec>> indicatorRequirements) {
+        this.indicatorRequirements = indicatorRequirements;
+        return this;
+    }
+
+    /**
+     * 设置优化监听器
+     * 每个参数组合评估完成后在回测线程中回调，可用于输出进度或实时保存候选
+     * @param listener 优化监听器，为空时不回调
+     * @return 策略优化器
+     */
+    public StrategyOptimizer setListener(OptimizationListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * 设置进度统计使用的纳秒时钟
+     * @param nanoTime 纳秒时钟
+     * @return 策略优化器
+     */
+    StrategyOptimizer setNanoTime(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        return this;
+    }
+
+    /**
+     * 获取当前优化进度
+     * 可在其他线程中随时调用，返回完成数、吞吐量、预计剩余时间和当前最佳候选
+     * @return 进度快照
+     */
+    public OptimizationProgress getProgress() {
+        return tracker().snapshot();
+    }
+
     /**
      * 执行优化
      * @return 优化结果
      */
     public OptimizationResult optimize() {
-        List<ParamSet> paramSets = paramSpace.generateParamSets();
-        List<OptimizationCandidate> candidates = new ArrayList<>();
+        long size = paramSpace.size();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Param space too large for exhaustive search: " + size + " combinations");
+        }
+        progress = new ProgressTracker(nanoTime);
+        progress.submit(size);
+        List<OptimizationCandidate> candidates;
 
-        if (parallelEnabled && paramSets.size() > 1) {
+        if (parallelEnabled && size > 1) {
             // 并行执行优化
-            candidates = executeParallelOptimization(paramSets);
+            candidates = executeParallelOptimization(paramSpace.spliterator(), (int) size, index -> backtestConfig);
         } else {
             // 串行执行优化
-            candidates = executeSerialOptimization(paramSets);
+            candidates = executeSerialOptimization(paramSpace.spliterator(), (int) size, index -> backtestConfig);
         }
 
         // 按评分排序
@@ -99,73 +219,160 @@ public class StrategyOptimizer {
     }
 
     /**
-     * 串行执行优化
+     * 使用指定搜索算法执行优化
+     * 搜索算法决定评估哪些参数组合，回测按批并行执行
+     * @param search 参数搜索算法
+     * @return 优化结果
+     */
+    public OptimizationResult optimize(ParamSearch search) {
+        progress = new ProgressTracker(nanoTime);
+        return search.search(paramSpace, this::evaluate);
+    }
+
+    /**
+     * 批量评估参数组合
+     * 启用并行时按批并行回测，同时在途的回测数不超过上限
      * @param paramSets 参数组合列表
-     * @return 优化候选列表
+     * @return 优化候选列表，与参数组合顺序一致
      */
-    private List<OptimizationCandidate> executeSerialOptimization(List<ParamSet> paramSets) {
-        List<OptimizationCandidate> candidates = new ArrayList<>();
+    public List<OptimizationCandidate> evaluate(List<ParamSet> paramSets) {
+        return evaluate(paramSets, index -> backtestConfig);
+    }
 
-        for (ParamSet paramSet : paramSets) {
-            OptimizationCandidate candidate = evaluateParamSet(paramSet);
-            candidates.add(candidate);
+    /**
+     * 使用各自的回测配置批量评估参数组合
+     * 用于按不同回测区间或检查点目录评估候选
+     * @param paramSets 参数组合列表
+     * @param configs 回测配置列表，与参数组合一一对应
+     * @return 优化候选列表，与参数组合顺序一致
+     */
+    public List<OptimizationCandidate> evaluate(List<ParamSet> paramSets, List<BacktestConfig> configs) {
+        if (configs.size() != paramSets.size()) {
+            throw new IllegalArgumentException("Expected " + paramSets.size() + " backtest configs, got " + configs.size());
+        }
+        return evaluate(paramSets, configs::get);
+    }
+
+    /**
+     * 批量评估参数组合
+     * @param paramSets 参数组合列表
+     * @param configs 按参数组合序号获取回测配置
+     * @return 优化候选列表，与参数组合顺序一致
+     */
+    private List<OptimizationCandidate> evaluate(List<ParamSet> paramSets, IntFunction<BacktestConfig> configs) {
+        tracker().submit(paramSets.size());
+        if (parallelEnabled && paramSets.size() > 1) {
+            return executeParallelOptimization(paramSets.spliterator(), paramSets.size(), configs);
         }
+        return executeSerialOptimization(paramSets.spliterator(), paramSets.size(), configs);
+    }
+
+    /**
+     * 获取回测配置
+     * @return 回测配置
+     */
+    public BacktestConfig getBacktestConfig() {
+        return backtestConfig;
+    }
 
+    /**
+     * 串行执行优化
+     * @param paramSets 参数组合迭代器
+     * @param size 参数组合数
+     * @param configs 按参数组合序号获取回测配置
+     * @return 优化候选列表
+     */
+    private List<OptimizationCandidate> executeSerialOptimization(Spliterator<ParamSet> paramSets, int size, IntFunction<BacktestConfig> configs) {
+        List<OptimizationCandidate> candidates = new ArrayList<>(size);
+        paramSets.forEachRemaining(paramSet -> candidates.add(evaluateParamSet(paramSet, configs.apply(candidates.size()))));
         return candidates;
     }
 
     /**
      * 并行执行优化
-     * @param paramSets 参数组合列表
+     * 参数组合边解码边提交到工作窃取线程池，同时在途的回测数不超过上限，耗时差异很大的回测不会让空闲线程等待；
+     * 候选完成后立即通知监听器，全部完成后按参数组合顺序返回
+     * @param paramSets 参数组合迭代器
+     * @param size 参数组合数
+     * @param configs 按参数组合序号获取回测配置
      * @return 优化候选列表
      */
-    private List<OptimizationCandidate> executeParallelOptimization(List<ParamSet> paramSets) {
-        List<OptimizationCandidate> candidates = new ArrayList<>();
-        ExecutorService executor = Executors.newFixedThreadPool(parallelThreads);
-        List<Future<OptimizationCandidate>> futures = new ArrayList<>();
+    private List<OptimizationCandidate> executeParallelOptimization(Spliterator<ParamSet> paramSets, int size, IntFunction<BacktestConfig> configs) {
+        AtomicReferenceArray<OptimizationCandidate> candidates = new AtomicReferenceArray<>(size);
+        ForkJoinPool executor = new ForkJoinPool(parallelThreads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        Semaphore inFlight = new Semaphore(maxInFlight > 0 ? maxInFlight : parallelThreads * 2);
+        int[] next = new int[1];
 
         try {
-            // 提交所有任务
-            for (ParamSet paramSet : paramSets) {
-                Future<OptimizationCandidate> future = executor.submit(() -> evaluateParamSet(paramSet));
-                futures.add(future);
-            }
-
-            // 收集结果
-            for (Future<OptimizationCandidate> future : futures) {
+            paramSets.forEachRemaining(paramSet -> {
+                int index = next[0]++;
+                BacktestConfig config = configs.apply(index);
                 try {
-                    OptimizationCandidate candidate = future.get();
-                    candidates.add(candidate);
-                } catch (Exception e) {
-                    e.printStackTrace();
+                    inFlight.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Optimization interrupted", e);
                 }
-            }
+                try {
+                    executor.execute(() -> {
+                        try {
+                            candidates.set(index, evaluateParamSet(paramSet, config));
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+            });
         } finally {
             executor.shutdown();
             try {
-                executor.awaitTermination(1, TimeUnit.HOURS);
+                // 单个回测可能运行很久，等待全部完成而不是设置总超时
+                while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.debug("Optimization in progress: {}", getProgress());
+                }
             } catch (InterruptedException e) {
+                executor.shutdownNow();
                 Thread.currentThread().interrupt();
             }
         }
 
-        return candidates;
+        List<OptimizationCandidate> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            OptimizationCandidate candidate = candidates.get(i);
+            if (candidate != null) {
+                result.add(candidate);
+            }
+        }
+        return result;
     }
 
     /**
      * 评估参数组合
      * @param paramSet 参数组合
+     * @param config 回测配置
      * @return 优化候选
      */
-    private OptimizationCandidate evaluateParamSet(ParamSet paramSet) {
+    private OptimizationCandidate evaluateParamSet(ParamSet paramSet, BacktestConfig config) {
+        String cacheKey = null;
+        if (evaluationCache != null) {
+            cacheKey = evaluationCache.key(paramSet, config, scorer);
+            OptimizationCandidate cached = fromCache(paramSet, cacheKey);
+            if (cached != null) {
+                return completed(cached, true);
+            }
+        }
+
         try {
             // 使用参数创建策略引擎
-            StrategyEngine strategyEngine = strategyFactory.apply(paramSet);
+            StrategyEngine strategyEngine = strategyFactory.apply(paramSet, getIndicatorStore());
 
-            // 创建回测引擎
+            // 创建回测引擎，所有候选共享同一份只读数据快照
             BacktestEngine backtestEngine = BacktestEngine.builder()
-                    .config(backtestConfig)
-                    .dataProvider(dataProvider)
+                    .config(config)
+                    .dataProvider(getMarketData())
                     .strategyEngine(strategyEngine)
                     .build();
 
@@ -175,12 +382,138 @@ public class StrategyOptimizer {
             // 计算评分
             double score = scorer.score(result);
 
+            CompactBacktestResult compact = compactResults || evaluationCache != null ? CompactBacktestResult.from(result) : null;
+            if (evaluationCache != null) {
+                try {
+                    evaluationCache.put(cacheKey, score, compact);
+                } catch (IOException e) {
+                    log.warn("Failed to write evaluation cache {}", evaluationCache.getFile(), e);
+                }
+            }
+
             // 创建优化候选
-            return new OptimizationCandidate(paramSet, result, score);
+            if (compactResults) {
+                return completed(OptimizationCandidate.compact(paramSet, compact, score), false);
+            }
+            return completed(new OptimizationCandidate(paramSet, result, score), false);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("Backtest failed for {}", paramSet, e);
             // 如果回测失败，返回评分很低的候选
-            return new OptimizationCandidate(paramSet, null, 0.0);
+            OptimizationCandidate failed = new OptimizationCandidate(paramSet, null, 0.0);
+            OptimizationProgress snapshot = tracker().record(failed, true, false);
+            if (listener != null) {
+                try {
+                    listener.onCandidateFailed(failed, e, snapshot);
+                } catch (RuntimeException listenerError) {
+                    log.warn("Optimization listener failed", listenerError);
+                }
+            }
+            return failed;
+        }
+    }
+
+    /**
+     * 记录完成的候选并通知监听器
+     * @param candidate 优化候选
+     * @param cached 是否来自评估缓存
+     * @return 优化候选
+     */
+    private OptimizationCandidate completed(OptimizationCandidate candidate, boolean cached) {
+        OptimizationProgress snapshot = tracker().record(candidate, false, cached);
+        if (listener != null) {
+            try {
+                listener.onCandidateCompleted(candidate, snapshot);
+            } catch (RuntimeException e) {
+                // 监听器异常不影响优化
+                log.warn("Optimization listener failed", e);
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * 获取进度统计，未开始优化时创建
+     * @return 进度统计
+     */
+    private ProgressTracker tracker() {
+        ProgressTracker tracker = progress;
+        if (tracker == null) {
+            synchronized (this) {
+                tracker = progress;
+                if (tracker == null) {
+                    tracker = new ProgressTracker(nanoTime);
+                    progress = tracker;
+                }
+            }
+        }
+        return tracker;
+    }
+
+    /**
+     * 获取市场数据快照
+     * 首次回测时从数据提供者加载整个回测区间并复制为不可变快照，之后的回测并发读取，不再重复加载
+     * @return 市场数据快照
+     */
+    public MarketDataSnapshot getMarketData() {
+        MarketDataSnapshot snapshot = marketData;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = marketData;
+                if (snapshot == null) {
+                    snapshot = MarketDataSnapshot.capture(dataProvider, backtestConfig.getSymbols(),
+                            backtestConfig.getStartDate(), backtestConfig.getEndDate());
+                    marketData = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 获取预计算的指标存储
+     * 首次调用时从市场数据快照的K线预计算参数空间引用的全部指标，之后直接复用
+     * @return 指标存储，未设置指标需求时返回空
+     */
+    public IndicatorStore getIndicatorStore() {
+        if (indicatorRequirements == null) {
+            return null;
+        }
+        IndicatorStore store = indicatorStore;
+        if (store == null) {
+            synchronized (this) {
+                store = indicatorStore;
+                if (store == null) {
+                    store = new IndicatorPrecomputer(Math.max(1, parallelThreads))
+                            .precompute(paramSpace, indicatorRequirements, getMarketData().getBars());
+                    indicatorStore = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * 从评估缓存中还原优化候选
+     * 保存了回测结果的缓存项用当前评分器重新评分，只保存评分的缓存项依赖缓存键中的评分器标识
+     * @param paramSet 参数组合
+     * @param cacheKey 缓存键
+     * @return 优化候选，未命中或读取失败时返回空
+     */
+    private OptimizationCandidate fromCache(ParamSet paramSet, String cacheKey) {
+        EvaluationCache.Entry entry = evaluationCache.get(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.hasResult()) {
+            return new OptimizationCandidate(paramSet, null, entry.getScore());
+        }
+        try {
+            CompactBacktestResult compact = evaluationCache.loadResult(entry);
+            return OptimizationCandidate.compact(paramSet, compact, scorer.score(compact.toBacktestResult()));
+        } catch (IOException | RuntimeException e) {
+            // 缓存的结果损坏时重新回测
+            log.warn("Failed to load cached result for {}", paramSet, e);
+            return null;
         }
     }
 
@@ -191,22 +524,58 @@ public class StrategyOptimizer {
     public static class OptimizationCandidate {
         private final ParamSet paramSet;
         private final BacktestResult result;
+        private final CompactBacktestResult compactResult;
         private final double score;
 
         public OptimizationCandidate(ParamSet paramSet, BacktestResult result, double score) {
+            this(paramSet, result, null, score);
+        }
+
+        private OptimizationCandidate(ParamSet paramSet, BacktestResult result, CompactBacktestResult compactResult, double score) {
             this.paramSet = paramSet;
             this.result = result;
+            this.compactResult = compactResult;
             this.score = score;
         }
 
+        /**
+         * 创建只持有紧凑结果的候选
+         * @param paramSet 参数组合
+         * @param compactResult 紧凑回测结果
+         * @param score 评分
+         * @return 优化候选
+         */
+        public static OptimizationCandidate compact(ParamSet paramSet, CompactBacktestResult compactResult, double score) {
+            return new OptimizationCandidate(paramSet, null, compactResult, score);
+        }
+
         public ParamSet getParamSet() {
             return paramSet;
         }
 
+        /**
+         * 获取回测结果
+         * 只持有紧凑结果时每次调用都会重新还原
+         * @return 回测结果
+         */
         public BacktestResult getResult() {
+            if (result == null && compactResult != null) {
+                return compactResult.toBacktestResult();
+            }
             return result;
         }
 
+        /**
+         * 获取紧凑回测结果
+         * @return 紧凑回测结果，未持有任何结果时返回空
+         */
+        public CompactBacktestResult getCompactResult() {
+            if (compactResult == null && result != null) {
+                return CompactBacktestResult.from(result);
+            }
+            return compactResult;
+        }
+
         public double getScore() {
             return score;
         }
@@ -226,11 +595,16 @@ public class StrategyOptimizer {
     public static class Builder {
         private ParamSpace paramSpace;
         private StrategyScorer scorer;
-        private Function<ParamSet, StrategyEngine> strategyFactory;
+        private BiFunction<ParamSet, IndicatorStore, StrategyEngine> strategyFactory;
         private BacktestDataProvider dataProvider;
         private BacktestConfig backtestConfig;
         private int parallelThreads;
         private boolean parallelEnabled;
+        private boolean compactResults;
+        private int maxInFlight;
+        private EvaluationCache evaluationCache;
+        private Function<ParamSet, Collection<IndicatorSpec>> indicatorRequirements;
+        private OptimizationListener listener;
 
         public Builder paramSpace(ParamSpace paramSpace) {
             this.paramSpace = paramSpace;
@@ -243,6 +617,14 @@ public class StrategyOptimizer {
         }
 
         public Builder strategyFactory(Function<ParamSet, StrategyEngine> strategyFactory) {
+            this.strategyFactory = strategyFactory == null ? null : (paramSet, indicators) -> strategyFactory.apply(paramSet);
+            return this;
+        }
+
+        /**
+         * 接收预计算指标存储的策略工厂，配合 {@link #indicators} 使用
+         */
+        public Builder strategyFactory(BiFunction<ParamSet, IndicatorStore, StrategyEngine> strategyFactory) {
             this.strategyFactory = strategyFactory;
             return this;
         }
@@ -267,6 +649,34 @@ public class StrategyOptimizer {
             return this;
         }
 
+        public Builder compactResults(boolean compactResults) {
+            this.compactResults = compactResults;
+            return this;
+        }
+
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder evaluationCache(EvaluationCache evaluationCache) {
+            this.evaluationCache = evaluationCache;
+            return this;
+        }
+
+        /**
+         * 参数组合到所需指标的映射，设置后指标只预计算一次并传给策略工厂
+         */
+        public Builder indicators(Function<ParamSet, Collection<IndicatorSpec>> indicatorRequirements) {
+            this.indicatorRequirements = indicatorRequirements;
+            return this;
+        }
+
+        public Builder listener(OptimizationListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
         public StrategyOptimizer build() {
             if (paramSpace == null) {
                 throw new IllegalArgumentException("Param space is required");
@@ -291,6 +701,11 @@ public class StrategyOptimizer {
             if (parallelEnabled) {
                 optimizer.setParallelEnabled(parallelEnabled);
             }
+            optimizer.setCompactResults(compactResults);
+            optimizer.setMaxInFlight(maxInFlight);
+            optimizer.setEvaluationCache(evaluationCache);
+            optimizer.setIndicatorRequirements(indicatorRequirements);
+            optimizer.setListener(listener);
 
             return optimizer;
         }
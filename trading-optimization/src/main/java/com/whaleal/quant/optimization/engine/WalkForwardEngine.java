@@ -0,0 +1,408 @@
+package com.whaleal.quant.optimization.engine;
+
+import com.whaleal.quant.backtest.data.BacktestDataProvider;
+import com.whaleal.quant.backtest.data.MarketDataSnapshot;
+import com.whaleal.quant.backtest.engine.BacktestEngine;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.model.PerformanceTracker;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+import com.whaleal.quant.optimization.result.WalkForwardResult;
+import com.whaleal.quant.optimization.scorer.StrategyScorer;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * 滚动前推分析引擎
+ * 在回测区间上划分滚动的样本内/样本外窗口，每个折先在样本内做参数优化，再用最优参数在样本外回测；
+ * 各折共享一次性预加载的只读市场数据并发执行，最后拼接样本外权益曲线并给出各折及汇总指标
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class WalkForwardEngine {
+
+    private final ParamSpace paramSpace;
+    private final StrategyScorer scorer;
+    private final Function<ParamSet, StrategyEngine> strategyFactory;
+    private final BacktestDataProvider dataProvider;
+    private final BacktestConfig backtestConfig;
+    private final Period trainPeriod;
+    private final Period testPeriod;
+    private final Period stepPeriod;
+    private final boolean anchored;
+    private final int parallelThreads;
+
+    /**
+     * 构造方法
+     * @param builder Builder
+     */
+    private WalkForwardEngine(Builder builder) {
+        this.paramSpace = builder.paramSpace;
+        this.scorer = builder.scorer;
+        this.strategyFactory = builder.strategyFactory;
+        this.dataProvider = builder.dataProvider;
+        this.backtestConfig = builder.backtestConfig;
+        this.trainPeriod = builder.trainPeriod;
+        this.testPeriod = builder.testPeriod;
+        this.stepPeriod = builder.stepPeriod;
+        this.anchored = builder.anchored;
+        this.parallelThreads = builder.parallelThreads;
+    }
+
+    /**
+     * 执行滚动前推分析
+     * @return 滚动前推分析结果
+     */
+    public WalkForwardResult run() {
+        List<Window> windows = generateWindows();
+        if (windows.isEmpty()) {
+            throw new IllegalStateException("Backtest range is too short for the configured train/test windows");
+        }
+
+        // 全区间数据只加载一次，各折只读共享
+        MarketDataSnapshot sharedData = MarketDataSnapshot.capture(dataProvider,
+                backtestConfig.getSymbols(), backtestConfig.getStartDate(), backtestConfig.getEndDate());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelThreads, windows.size())));
+        try {
+            List<Future<WalkForwardResult.FoldResult>> futures = new ArrayList<>();
+            for (Window window : windows) {
+                futures.add(executor.submit(() -> runFold(window, sharedData)));
+            }
+
+            List<WalkForwardResult.FoldResult> folds = new ArrayList<>(windows.size());
+            for (Future<WalkForwardResult.FoldResult> future : futures) {
+                try {
+                    folds.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Walk-forward fold failed", e.getCause());
+                }
+            }
+            return stitch(folds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Walk-forward analysis interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 生成样本内/样本外窗口
+     * @return 窗口列表
+     */
+    public List<Window> generateWindows() {
+        List<Window> windows = new ArrayList<>();
+        LocalDateTime start = backtestConfig.getStartDate();
+        LocalDateTime end = backtestConfig.getEndDate();
+
+        LocalDateTime cursor = start;
+        while (true) {
+            LocalDateTime trainStart = anchored ? start : cursor;
+            LocalDateTime testStart = cursor.plus(trainPeriod);
+            if (testStart.isAfter(end)) {
+                break;
+            }
+            LocalDateTime trainEnd = testStart.minusDays(1);
+            LocalDateTime testEnd = testStart.plus(testPeriod).minusDays(1);
+            if (testEnd.isAfter(end)) {
+                testEnd = end;
+            }
+            windows.add(new Window(windows.size(), trainStart, trainEnd, testStart, testEnd));
+            cursor = cursor.plus(stepPeriod);
+        }
+        return windows;
+    }
+
+    /**
+     * 执行单折：样本内优化，样本外验证
+     * @param window 窗口
+     * @param sharedData 共享数据
+     * @return 单折结果
+     */
+    private WalkForwardResult.FoldResult runFold(Window window, BacktestDataProvider sharedData) {
+        BacktestConfig trainConfig = foldConfig(window.getTrainStart(), window.getTrainEnd());
+        StrategyOptimizer optimizer = StrategyOptimizer.builder()
+                .paramSpace(paramSpace)
+                .scorer(scorer)
+                .strategyFactory(strategyFactory)
+                .dataProvider(sharedData)
+                .backtestConfig(trainConfig)
+                .build();
+        // 并行度由折间并发提供
+        optimizer.setParallelEnabled(false);
+
+        OptimizationResult inSample = optimizer.optimize();
+        StrategyOptimizer.OptimizationCandidate best = inSample.getBestCandidate();
+        if (best == null) {
+            return new WalkForwardResult.FoldResult(window, null, 0.0, null, 0.0);
+        }
+
+        BacktestConfig testConfig = foldConfig(window.getTestStart(), window.getTestEnd());
+        BacktestResult outOfSample = BacktestEngine.builder()
+                .config(testConfig)
+                .dataProvider(sharedData)
+                .strategyEngine(strategyFactory.apply(best.getParamSet()))
+                .build()
+                .run();
+
+        return new WalkForwardResult.FoldResult(window, best.getParamSet(), best.getScore(), outOfSample, scorer.score(outOfSample));
+    }
+
+    /**
+     * 创建单个窗口的回测配置
+     * @param start 开始日期
+     * @param end 结束日期
+     * @return 回测配置
+     */
+    private BacktestConfig foldConfig(LocalDateTime start, LocalDateTime end) {
+        // 各折的策略同名，关闭检查点避免互相覆盖
+        return new BacktestConfig(backtestConfig)
+                .setStartDate(start)
+                .setEndDate(end)
+                .setCheckpointDirectory(null);
+    }
+
+    /**
+     * 按时间顺序复利拼接各折样本外收益，并计算汇总指标
+     * @param folds 各折结果
+     * @return 滚动前推分析结果
+     */
+    WalkForwardResult stitch(List<WalkForwardResult.FoldResult> folds) {
+        PerformanceTracker tracker = new PerformanceTracker(backtestConfig.getInitialCapital(), backtestConfig.getPeriodsPerYear(), backtestConfig.getRiskFreeRate());
+        double equity = backtestConfig.getInitialCapital();
+        long lastTimestamp = Long.MIN_VALUE;
+
+        double inSampleScoreSum = 0.0;
+        double outOfSampleScoreSum = 0.0;
+        int evaluatedFolds = 0;
+        int profitableFolds = 0;
+
+        for (WalkForwardResult.FoldResult fold : folds) {
+            BacktestResult result = fold.getOutOfSampleResult();
+            if (result == null) {
+                continue;
+            }
+            evaluatedFolds++;
+            inSampleScoreSum += fold.getInSampleScore();
+            outOfSampleScoreSum += fold.getOutOfSampleScore();
+            if (result.getTotalReturn() > 0) {
+                profitableFolds++;
+            }
+
+            long[] timestamps = result.getEquityTimestamps();
+            double[] returns = result.getDailyReturns();
+            for (int i = 0; i < returns.length; i++) {
+                // 步长小于样本外窗口时窗口重叠，重叠部分只计一次
+                if (timestamps[i] <= lastTimestamp) {
+                    continue;
+                }
+                equity *= 1.0 + returns[i];
+                tracker.record(timestamps[i], equity);
+                lastTimestamp = timestamps[i];
+            }
+        }
+
+        Map<String, Double> aggregate = new LinkedHashMap<>();
+        tracker.writeMetrics(aggregate);
+        aggregate.put("foldCount", (double) folds.size());
+        aggregate.put("evaluatedFoldCount", (double) evaluatedFolds);
+        if (evaluatedFolds > 0) {
+            double meanInSample = inSampleScoreSum / evaluatedFolds;
+            double meanOutOfSample = outOfSampleScoreSum / evaluatedFolds;
+            aggregate.put("meanInSampleScore", meanInSample);
+            aggregate.put("meanOutOfSampleScore", meanOutOfSample);
+            aggregate.put("walkForwardEfficiency", meanInSample != 0 ? meanOutOfSample / meanInSample : 0.0);
+            aggregate.put("profitableFoldRatio", (double) profitableFolds / evaluatedFolds);
+        }
+
+        return new WalkForwardResult(folds, tracker.getTimestamps(), tracker.getEquityCurve(), aggregate);
+    }
+
+    /**
+     * 样本内/样本外窗口
+     */
+    public static class Window {
+        private final int index;
+        private final LocalDateTime trainStart;
+        private final LocalDateTime trainEnd;
+        private final LocalDateTime testStart;
+        private final LocalDateTime testEnd;
+
+        public Window(int index, LocalDateTime trainStart, LocalDateTime trainEnd, LocalDateTime testStart, LocalDateTime testEnd) {
+            this.index = index;
+            this.trainStart = trainStart;
+            this.trainEnd = trainEnd;
+            this.testStart = testStart;
+            this.testEnd = testEnd;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public LocalDateTime getTrainStart() {
+            return trainStart;
+        }
+
+        public LocalDateTime getTrainEnd() {
+            return trainEnd;
+        }
+
+        public LocalDateTime getTestStart() {
+            return testStart;
+        }
+
+        public LocalDateTime getTestEnd() {
+            return testEnd;
+        }
+
+        @Override
+        public String toString() {
+            return "Window{" +
+                    "index=" + index +
+                    ", train=" + trainStart + "~" + trainEnd +
+                    ", test=" + testStart + "~" + testEnd +
+                    '}';
+        }
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private ParamSpace paramSpace;
+        private StrategyScorer scorer;
+        private Function<ParamSet, StrategyEngine> strategyFactory;
+        private BacktestDataProvider dataProvider;
+        private BacktestConfig backtestConfig;
+        private Period trainPeriod;
+        private Period testPeriod;
+        private Period stepPeriod;
+        private boolean anchored;
+        private int parallelThreads = Runtime.getRuntime().availableProcessors();
+
+        public Builder paramSpace(ParamSpace paramSpace) {
+            this.paramSpace = paramSpace;
+            return this;
+        }
+
+        public Builder scorer(StrategyScorer scorer) {
+            this.scorer = scorer;
+            return this;
+        }
+
+        public Builder strategyFactory(Function<ParamSet, StrategyEngine> strategyFactory) {
+            this.strategyFactory = strategyFactory;
+            return this;
+        }
+
+        public Builder dataProvider(BacktestDataProvider dataProvider) {
+            this.dataProvider = dataProvider;
+            return this;
+        }
+
+        public Builder backtestConfig(BacktestConfig backtestConfig) {
+            this.backtestConfig = backtestConfig;
+            return this;
+        }
+
+        /**
+         * 设置样本内窗口长度
+         * @param trainPeriod 样本内窗口长度
+         * @return Builder
+         */
+        public Builder trainPeriod(Period trainPeriod) {
+            this.trainPeriod = trainPeriod;
+            return this;
+        }
+
+        /**
+         * 设置样本外窗口长度
+         * @param testPeriod 样本外窗口长度
+         * @return Builder
+         */
+        public Builder testPeriod(Period testPeriod) {
+            this.testPeriod = testPeriod;
+            return this;
+        }
+
+        /**
+         * 设置窗口滚动步长，默认等于样本外窗口长度
+         * @param stepPeriod 滚动步长
+         * @return Builder
+         */
+        public Builder stepPeriod(Period stepPeriod) {
+            this.stepPeriod = stepPeriod;
+            return this;
+        }
+
+        /**
+         * 设置是否锚定样本内起点（扩展窗口）
+         * @param anchored 是否锚定
+         * @return Builder
+         */
+        public Builder anchored(boolean anchored) {
+            this.anchored = anchored;
+            return this;
+        }
+
+        public Builder parallelThreads(int parallelThreads) {
+            this.parallelThreads = parallelThreads;
+            return this;
+        }
+
+        public WalkForwardEngine build() {
+            if (paramSpace == null) {
+                throw new IllegalArgumentException("Param space is required");
+            }
+            if (scorer == null) {
+                throw new IllegalArgumentException("Scorer is required");
+            }
+            if (strategyFactory == null) {
+                throw new IllegalArgumentException("Strategy factory is required");
+            }
+            if (dataProvider == null) {
+                throw new IllegalArgumentException("Data provider is required");
+            }
+            if (trainPeriod == null || trainPeriod.isZero() || trainPeriod.isNegative()) {
+                throw new IllegalArgumentException("Positive train period is required");
+            }
+            if (testPeriod == null || testPeriod.isZero() || testPeriod.isNegative()) {
+                throw new IllegalArgumentException("Positive test period is required");
+            }
+            if (backtestConfig == null) {
+                backtestConfig = new BacktestConfig();
+            }
+            if (stepPeriod == null) {
+                stepPeriod = testPeriod;
+            }
+            if (stepPeriod.isZero() || stepPeriod.isNegative()) {
+                throw new IllegalArgumentException("Step period must be positive");
+            }
+            return new WalkForwardEngine(this);
+        }
+    }
+
+    /**
+     * 创建 Builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+}
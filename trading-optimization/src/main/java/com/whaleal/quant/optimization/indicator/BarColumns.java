@@ -0,0 +1,85 @@
+package com.whaleal.quant.optimization.indicator;
+
+import com.whaleal.quant.model.Bar;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 列式K线
+ * 单个品种的K线按列转换为 double 数组，每个品种只转换一次，供所有指标计算共享
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class BarColumns {
+
+    private final String symbol;
+    private final long[] timestamps;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final double[] volume;
+
+    /**
+     * 构造方法
+     * @param symbol 品种代码
+     * @param bars 按时间升序排列的K线
+     */
+    public BarColumns(String symbol, List<Bar> bars) {
+        int size = bars.size();
+        this.symbol = symbol;
+        this.timestamps = new long[size];
+        this.open = new double[size];
+        this.high = new double[size];
+        this.low = new double[size];
+        this.close = new double[size];
+        this.volume = new double[size];
+        for (int i = 0; i < size; i++) {
+            Bar bar = bars.get(i);
+            timestamps[i] = bar.getTimestamp().toEpochMilli();
+            open[i] = toDouble(bar.getOpen());
+            high[i] = toDouble(bar.getHigh());
+            low[i] = toDouble(bar.getLow());
+            close[i] = toDouble(bar.getClose());
+            volume[i] = toDouble(bar.getVolume());
+        }
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public double[] getOpen() {
+        return open;
+    }
+
+    public double[] getHigh() {
+        return high;
+    }
+
+    public double[] getLow() {
+        return low;
+    }
+
+    public double[] getClose() {
+        return close;
+    }
+
+    public double[] getVolume() {
+        return volume;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+}
@@ -0,0 +1,122 @@
+package com.whaleal.quant.optimization.indicator;
+
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * 指标预计算器
+ * 参数寻优时大量参数组合引用相同的指标（例如不同止损参数共用同一条均线），
+ * 先遍历参数空间收集去重后的指标定义，每个 (指标, 参数, 品种) 只计算一次写入共享的只读存储，
+ * 策略工厂持有该存储，策略运行时按时间查表而不是各自重复计算
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class IndicatorPrecomputer {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicatorPrecomputer.class);
+
+    private final int parallelThreads;
+
+    /**
+     * 构造方法
+     * @param parallelThreads 并行线程数
+     */
+    public IndicatorPrecomputer(int parallelThreads) {
+        if (parallelThreads <= 0) {
+            throw new IllegalArgumentException("Parallel threads must be positive");
+        }
+        this.parallelThreads = parallelThreads;
+    }
+
+    /**
+     * 构造方法，使用全部可用处理器
+     */
+    public IndicatorPrecomputer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 收集参数空间中所有参数组合需要的指标，去重后预计算
+     * @param paramSpace 参数空间
+     * @param requirements 参数组合到所需指标的映射
+     * @param bars 按品种分组、按时间升序排列的K线
+     * @return 指标存储
+     */
+    public IndicatorStore precompute(ParamSpace paramSpace, Function<ParamSet, Collection<IndicatorSpec>> requirements,
+                                     Map<String, List<Bar>> bars) {
+        Set<IndicatorSpec> specs = new LinkedHashSet<>();
+        paramSpace.stream().forEach(paramSet -> specs.addAll(requirements.apply(paramSet)));
+        log.info("Parameter space of {} sets references {} distinct indicators", paramSpace.size(), specs.size());
+        return precompute(specs, bars);
+    }
+
+    /**
+     * 预计算指定的指标
+     * @param specs 指标定义
+     * @param bars 按品种分组、按时间升序排列的K线
+     * @return 指标存储
+     */
+    public IndicatorStore precompute(Collection<IndicatorSpec> specs, Map<String, List<Bar>> bars) {
+        Map<String, BarColumns> columns = new LinkedHashMap<>();
+        Map<String, long[]> timestamps = new HashMap<>();
+        for (Map.Entry<String, List<Bar>> entry : bars.entrySet()) {
+            BarColumns barColumns = new BarColumns(entry.getKey(), entry.getValue());
+            columns.put(entry.getKey(), barColumns);
+            timestamps.put(entry.getKey(), barColumns.getTimestamps());
+        }
+
+        Set<IndicatorSpec> distinct = new LinkedHashSet<>(specs);
+        Map<IndicatorSpec, Map<String, double[]>> series = new HashMap<>();
+        for (IndicatorSpec spec : distinct) {
+            series.put(spec, new ConcurrentHashMap<>());
+        }
+
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelThreads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(distinct.size() * columns.size());
+            for (IndicatorSpec spec : distinct) {
+                Map<String, double[]> bySymbol = series.get(spec);
+                for (BarColumns barColumns : columns.values()) {
+                    futures.add(executor.submit(() -> bySymbol.put(barColumns.getSymbol(), spec.compute(barColumns))));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Indicator precomputation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Indicator precomputation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info("Precomputed {} indicators x {} symbols in {} ms",
+                distinct.size(), columns.size(), System.currentTimeMillis() - startTime);
+        return new IndicatorStore(timestamps, series);
+    }
+}
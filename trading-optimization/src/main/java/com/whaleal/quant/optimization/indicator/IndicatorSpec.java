@@ -0,0 +1,208 @@
+package com.whaleal.quant.optimization.indicator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * 指标定义
+ * 由名称和参数唯一确定一个指标序列的计算方式，名称和参数相同的定义视为同一指标，只计算一次。
+ * 计算函数输入单个品种的列式K线，输出与K线逐根对齐的序列，数据不足的位置为 NaN。
+ * 内置指标遇到缺失的收盘价（NaN）时，窗口内含缺失值的位置输出 NaN，缺失之后重新累积窗口，不会污染后续的值
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class IndicatorSpec {
+
+    private final String name;
+    private final Map<String, Object> params;
+    private final Function<BarColumns, double[]> calculation;
+    private final int hashCode;
+
+    /**
+     * 构造方法
+     * @param name 指标名称
+     * @param params 指标参数
+     * @param calculation 计算函数
+     */
+    public IndicatorSpec(String name, Map<String, Object> params, Function<BarColumns, double[]> calculation) {
+        if (name == null || calculation == null) {
+            throw new IllegalArgumentException("Indicator name and calculation are required");
+        }
+        this.name = name;
+        this.params = Collections.unmodifiableMap(new TreeMap<>(params));
+        this.calculation = calculation;
+        this.hashCode = 31 * name.hashCode() + this.params.hashCode();
+    }
+
+    /**
+     * 简单移动平均
+     * @param window 窗口
+     * @return 指标定义
+     */
+    public static IndicatorSpec sma(int window) {
+        checkWindow(window);
+        return new IndicatorSpec("SMA", Collections.singletonMap("window", window), bars -> {
+            double[] close = bars.getClose();
+            double[] result = nanArray(close.length);
+            double sum = 0.0;
+            // 窗口内缺失值的个数，缺失值不计入窗口和
+            int missing = 0;
+            for (int i = 0; i < close.length; i++) {
+                if (Double.isNaN(close[i])) {
+                    missing++;
+                } else {
+                    sum += close[i];
+                }
+                if (i >= window) {
+                    if (Double.isNaN(close[i - window])) {
+                        missing--;
+                    } else {
+                        sum -= close[i - window];
+                    }
+                }
+                if (i >= window - 1 && missing == 0) {
+                    result[i] = sum / window;
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 指数移动平均，以连续 window 根的简单平均作为初值
+     * @param window 窗口
+     * @return 指标定义
+     */
+    public static IndicatorSpec ema(int window) {
+        checkWindow(window);
+        return new IndicatorSpec("EMA", Collections.singletonMap("window", window), bars -> {
+            double[] close = bars.getClose();
+            double[] result = nanArray(close.length);
+            double alpha = 2.0 / (window + 1);
+            double value = 0.0;
+            // 自上次缺失以来连续有效的K线数
+            int count = 0;
+            for (int i = 0; i < close.length; i++) {
+                if (Double.isNaN(close[i])) {
+                    value = 0.0;
+                    count = 0;
+                    continue;
+                }
+                if (count < window) {
+                    value += close[i];
+                    if (++count == window) {
+                        value /= window;
+                        result[i] = value;
+                    }
+                } else {
+                    value += alpha * (close[i] - value);
+                    result[i] = value;
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 相对强弱指标，使用 Wilder 平滑
+     * @param window 窗口
+     * @return 指标定义
+     */
+    public static IndicatorSpec rsi(int window) {
+        checkWindow(window);
+        return new IndicatorSpec("RSI", Collections.singletonMap("window", window), bars -> {
+            double[] close = bars.getClose();
+            double[] result = nanArray(close.length);
+            double gain = 0.0;
+            double loss = 0.0;
+            // 自上次缺失以来连续有效的涨跌幅个数
+            int count = 0;
+            for (int i = 1; i < close.length; i++) {
+                double change = close[i] - close[i - 1];
+                if (Double.isNaN(change)) {
+                    gain = 0.0;
+                    loss = 0.0;
+                    count = 0;
+                    continue;
+                }
+                if (count < window) {
+                    gain += Math.max(change, 0.0);
+                    loss += Math.max(-change, 0.0);
+                    if (++count == window) {
+                        gain /= window;
+                        loss /= window;
+                        result[i] = rsi(gain, loss);
+                    }
+                } else {
+                    gain = (gain * (window - 1) + Math.max(change, 0.0)) / window;
+                    loss = (loss * (window - 1) + Math.max(-change, 0.0)) / window;
+                    result[i] = rsi(gain, loss);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 计算指标序列
+     * @param bars 列式K线
+     * @return 与K线逐根对齐的序列
+     */
+    double[] compute(BarColumns bars) {
+        double[] series = calculation.apply(bars);
+        if (series == null || series.length != bars.size()) {
+            throw new IllegalStateException("Indicator " + this + " returned " + (series == null ? "null" : series.length + " values")
+                    + " for " + bars.size() + " bars of " + bars.getSymbol());
+        }
+        return series;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> getParams() {
+        return params;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IndicatorSpec that = (IndicatorSpec) o;
+        return name.equals(that.name) && params.equals(that.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return name + params;
+    }
+
+    private static double rsi(double gain, double loss) {
+        if (loss == 0.0) {
+            return gain == 0.0 ? 50.0 : 100.0;
+        }
+        return 100.0 - 100.0 / (1.0 + gain / loss);
+    }
+
+    private static double[] nanArray(int length) {
+        double[] values = new double[length];
+        Arrays.fill(values, Double.NaN);
+        return values;
+    }
+
+    private static void checkWindow(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+    }
+}
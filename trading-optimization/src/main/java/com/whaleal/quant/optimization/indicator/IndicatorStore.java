@@ -0,0 +1,109 @@
+package com.whaleal.quant.optimization.indicator;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 指标存储
+ * 保存预计算好的 (指标, 品种) 序列，构建完成后只读，可被优化中的所有参数组合并发共享。
+ * 序列按K线下标对齐，查询某一时刻的值时取该时刻及之前最近一根K线对应的值
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class IndicatorStore {
+
+    private final Map<String, long[]> timestamps;
+    private final Map<IndicatorSpec, Map<String, double[]>> series;
+
+    IndicatorStore(Map<String, long[]> timestamps, Map<IndicatorSpec, Map<String, double[]>> series) {
+        this.timestamps = Collections.unmodifiableMap(timestamps);
+        this.series = Collections.unmodifiableMap(series);
+    }
+
+    /**
+     * 获取指标序列
+     * 为避免复制直接返回内部数组，调用方不得修改
+     * @param spec 指标定义
+     * @param symbol 品种代码
+     * @return 与K线逐根对齐的序列
+     */
+    public double[] getSeries(IndicatorSpec spec, String symbol) {
+        Map<String, double[]> bySymbol = series.get(spec);
+        double[] values = bySymbol == null ? null : bySymbol.get(symbol);
+        if (values == null) {
+            throw new IllegalArgumentException("Indicator " + spec + " was not precomputed for " + symbol);
+        }
+        return values;
+    }
+
+    /**
+     * 获取指定时刻的指标值
+     * @param spec 指标定义
+     * @param symbol 品种代码
+     * @param time 时刻
+     * @return 该时刻及之前最近一根K线的指标值，时刻早于首根K线时返回 NaN
+     */
+    public double getValue(IndicatorSpec spec, String symbol, Instant time) {
+        double[] values = getSeries(spec, symbol);
+        int index = indexOf(symbol, time);
+        return index < 0 ? Double.NaN : values[index];
+    }
+
+    /**
+     * 查找指定时刻对应的K线下标
+     * @param symbol 品种代码
+     * @param time 时刻
+     * @return 该时刻及之前最近一根K线的下标，时刻早于首根K线时返回 -1
+     */
+    public int indexOf(String symbol, Instant time) {
+        long[] times = getTimestamps(symbol);
+        int index = Arrays.binarySearch(times, time.toEpochMilli());
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * 获取品种的K线时间戳（毫秒），调用方不得修改
+     * @param symbol 品种代码
+     * @return 时间戳
+     */
+    public long[] getTimestamps(String symbol) {
+        long[] times = timestamps.get(symbol);
+        if (times == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        }
+        return times;
+    }
+
+    /**
+     * 是否包含指标
+     * @param spec 指标定义
+     * @return 是否已预计算
+     */
+    public boolean contains(IndicatorSpec spec) {
+        return series.containsKey(spec);
+    }
+
+    public Set<IndicatorSpec> getSpecs() {
+        return series.keySet();
+    }
+
+    public Set<String> getSymbols() {
+        return timestamps.keySet();
+    }
+
+    /**
+     * 获取序列总数
+     * @return 指标数乘以品种数
+     */
+    public int getSeriesCount() {
+        int count = 0;
+        for (Map<String, double[]> bySymbol : series.values()) {
+            count += bySymbol.size();
+        }
+        return count;
+    }
+}
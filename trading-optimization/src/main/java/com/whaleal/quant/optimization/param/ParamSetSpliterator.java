@@ -0,0 +1,124 @@
+package com.whaleal.quant.optimization.param;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 参数组合分割迭代器
+ * 把参数组合看作混合进制数：第 i 位的基数是第 i 个参数的取值个数，最后一个参数变化最快，
+ * 与 {@link ParamSpace#generateParamSets()} 的顺序一致。
+ * 迭代器只持有下标区间，按需解码参数组合，二分下标区间即可得到大小精确的子迭代器
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class ParamSetSpliterator implements Spliterator<ParamSet> {
+
+    private static final long MIN_SPLIT_SIZE = 2;
+
+    private final String[] names;
+    private final Object[][] values;
+    private long origin;
+    private final long fence;
+
+    /**
+     * 构造方法
+     * @param names 参数名称
+     * @param values 各参数的取值
+     * @param origin 起始下标（包含）
+     * @param fence 结束下标（不包含）
+     */
+    ParamSetSpliterator(String[] names, Object[][] values, long origin, long fence) {
+        this.names = names;
+        this.values = values;
+        this.origin = origin;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ParamSet> action) {
+        if (origin >= fence) {
+            return false;
+        }
+        action.accept(decode(names, values, origin++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super ParamSet> action) {
+        long index = origin;
+        long end = fence;
+        origin = end;
+        if (index >= end) {
+            return;
+        }
+
+        // 只解码一次起点，之后按进位逐个递增
+        int[] digits = digits(values, index);
+        while (true) {
+            ParamSet paramSet = new ParamSet();
+            for (int i = 0; i < names.length; i++) {
+                paramSet.addParam(names[i], values[i][digits[i]]);
+            }
+            action.accept(paramSet);
+            if (++index >= end) {
+                return;
+            }
+            for (int i = digits.length - 1; i >= 0; i--) {
+                if (++digits[i] < values[i].length) {
+                    break;
+                }
+                digits[i] = 0;
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<ParamSet> trySplit() {
+        long remaining = fence - origin;
+        if (remaining < MIN_SPLIT_SIZE) {
+            return null;
+        }
+        long mid = origin + (remaining >>> 1);
+        ParamSetSpliterator prefix = new ParamSetSpliterator(names, values, origin, mid);
+        origin = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - origin;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | DISTINCT | NONNULL | IMMUTABLE;
+    }
+
+    /**
+     * 按下标解码参数组合
+     * @param names 参数名称
+     * @param values 各参数的取值
+     * @param index 下标
+     * @return 参数组合
+     */
+    static ParamSet decode(String[] names, Object[][] values, long index) {
+        int[] digits = digits(values, index);
+        ParamSet paramSet = new ParamSet();
+        for (int i = 0; i < names.length; i++) {
+            paramSet.addParam(names[i], values[i][digits[i]]);
+        }
+        return paramSet;
+    }
+
+    private static int[] digits(Object[][] values, long index) {
+        int[] digits = new int[values.length];
+        long remainder = index;
+        for (int i = values.length - 1; i >= 0; i--) {
+            int radix = values[i].length;
+            digits[i] = (int) (remainder % radix);
+            remainder /= radix;
+        }
+        return digits;
+    }
+}
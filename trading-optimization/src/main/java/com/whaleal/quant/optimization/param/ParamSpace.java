@@ -2,7 +2,11 @@ package com.whaleal.quant.optimization.param;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 参数空间
@@ -92,36 +96,93 @@ public class ParamSpace {
         return paramDefinitions;
     }
 
+    /**
+     * 获取参数组合总数
+     * @return 参数组合总数
+     * @throws IllegalStateException 组合总数超出 long 范围
+     */
+    public long size() {
+        long size = 1;
+        for (ParamDefinition<?> paramDef : paramDefinitions) {
+            try {
+                size = Math.multiplyExact(size, paramDef.getValues().size());
+            } catch (ArithmeticException e) {
+                throw new IllegalStateException("Param space size overflows long", e);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 按下标获取参数组合
+     * 下标按混合进制解码，最后一个参数变化最快；批量遍历请使用 {@link #stream()}
+     * @param index 下标，范围[0, size())
+     * @return 参数组合
+     */
+    public ParamSet getParamSet(long index) {
+        long size = size();
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Param set index out of range: " + index + ", size: " + size);
+        }
+        return ParamSetSpliterator.decode(names(), values(), index);
+    }
+
+    /**
+     * 创建参数组合的分割迭代器
+     * 参数组合按需解码，不会一次性生成全部组合
+     * @return 分割迭代器
+     */
+    public Spliterator<ParamSet> spliterator() {
+        return new ParamSetSpliterator(names(), values(), 0, size());
+    }
+
+    /**
+     * 顺序遍历所有参数组合
+     * @return 参数组合流
+     */
+    public Stream<ParamSet> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * 并行遍历所有参数组合
+     * @return 参数组合流
+     */
+    public Stream<ParamSet> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     /**
      * 生成所有参数组合
+     * 参数组合很多时会占用大量内存，建议使用 {@link #stream()} 或 {@link #spliterator()}
      * @return 参数组合列表
      */
     public List<ParamSet> generateParamSets() {
-        List<ParamSet> paramSets = new ArrayList<>();
-        generateParamSetsRecursive(paramSets, new ParamSet(), 0);
-        return paramSets;
+        return stream().collect(Collectors.toList());
     }
 
     /**
-     * 递归生成参数组合
-     * @param paramSets 参数组合列表
-     * @param currentSet 当前参数集
-     * @param index 当前参数索引
+     * 获取参数名称快照
+     * @return 参数名称
      */
-    private void generateParamSetsRecursive(List<ParamSet> paramSets, ParamSet currentSet, int index) {
-        if (index >= paramDefinitions.size()) {
-            paramSets.add(currentSet);
-            return;
+    private String[] names() {
+        String[] names = new String[paramDefinitions.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = paramDefinitions.get(i).getName();
         }
+        return names;
+    }
 
-        ParamDefinition<?> paramDef = paramDefinitions.get(index);
-        List<?> values = paramDef.getValues();
-
-        for (Object value : values) {
-            ParamSet newSet = new ParamSet(currentSet);
-            newSet.addParam(paramDef.getName(), value);
-            generateParamSetsRecursive(paramSets, newSet, index + 1);
+    /**
+     * 获取各参数取值快照
+     * @return 各参数的取值
+     */
+    private Object[][] values() {
+        Object[][] values = new Object[paramDefinitions.size()][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = paramDefinitions.get(i).getValues().toArray();
         }
+        return values;
     }
 
     /**
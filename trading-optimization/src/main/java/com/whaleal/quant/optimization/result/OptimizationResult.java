@@ -1,9 +1,16 @@
 package com.whaleal.quant.optimization.result;
 
+import com.whaleal.quant.backtest.result.BacktestResultStore;
+import com.whaleal.quant.backtest.result.CompactBacktestResult;
+import com.whaleal.quant.backtest.result.EquityCurveComparison;
 import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.scorer.StrategyScorer;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 优化结果
@@ -15,13 +22,24 @@ import java.util.List;
 public class OptimizationResult {
 
     private final List<StrategyOptimizer.OptimizationCandidate> candidates;
+    private final ParetoFront paretoFront;
 
     /**
      * 构造方法
      * @param candidates 优化候选列表
      */
     public OptimizationResult(List<StrategyOptimizer.OptimizationCandidate> candidates) {
+        this(candidates, null);
+    }
+
+    /**
+     * 构造方法
+     * @param candidates 优化候选列表
+     * @param paretoFront 多目标优化的帕累托前沿，单目标优化时为空
+     */
+    public OptimizationResult(List<StrategyOptimizer.OptimizationCandidate> candidates, ParetoFront paretoFront) {
         this.candidates = new ArrayList<>(candidates);
+        this.paretoFront = paretoFront;
     }
 
     /**
@@ -61,6 +79,62 @@ public class OptimizationResult {
         return candidates.size();
     }
 
+    /**
+     * 获取帕累托前沿
+     * @return 多目标优化的帕累托前沿，单目标优化时为空
+     */
+    public ParetoFront getParetoFront() {
+        return paretoFront;
+    }
+
+    /**
+     * 按给定目标从全部候选中提取帕累托前沿，可用于单目标优化之后的多目标权衡
+     * @param objectives 各目标的评分器
+     * @return 帕累托前沿
+     */
+    public ParetoFront computeParetoFront(List<StrategyScorer> objectives) {
+        return ParetoFront.of(candidates, objectives);
+    }
+
+    /**
+     * 对比前N个最佳候选的权益曲线
+     * @param n 数量
+     * @return 权益曲线对比，运行编号为 candidate-排名
+     */
+    public EquityCurveComparison compareTopCandidates(int n) {
+        return new EquityCurveComparison(topCompactResults(n));
+    }
+
+    /**
+     * 把前N个最佳候选的紧凑结果保存到结果存储
+     * @param store 结果存储
+     * @param n 数量
+     * @return 保存的运行编号，为 candidate-排名
+     * @throws IOException 写入失败
+     */
+    public List<String> saveTopCandidates(BacktestResultStore store, int n) throws IOException {
+        Map<String, CompactBacktestResult> results = topCompactResults(n);
+        for (Map.Entry<String, CompactBacktestResult> entry : results.entrySet()) {
+            store.save(entry.getKey(), entry.getValue());
+        }
+        return new ArrayList<>(results.keySet());
+    }
+
+    /**
+     * 获取前N个有回测结果的候选，按排名生成运行编号
+     */
+    private Map<String, CompactBacktestResult> topCompactResults(int n) {
+        Map<String, CompactBacktestResult> results = new LinkedHashMap<>();
+        List<StrategyOptimizer.OptimizationCandidate> top = getTopCandidates(n);
+        for (int i = 0; i < top.size(); i++) {
+            CompactBacktestResult compact = top.get(i).getCompactResult();
+            if (compact != null) {
+                results.put(String.format("candidate-%04d", i + 1), compact);
+            }
+        }
+        return results;
+    }
+
     /**
      * 生成优化报告
      * @return 优化报告
@@ -91,6 +165,11 @@ public class OptimizationResult {
                 }
             }
         }
+
+        if (paretoFront != null) {
+            report.append("\n帕累托前沿 (" + paretoFront.size() + " 个候选):\n");
+            report.append(paretoFront.generateTable());
+        }
         
         report.append("================\n");
         return report.toString();
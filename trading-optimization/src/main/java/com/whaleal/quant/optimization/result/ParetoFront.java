@@ -0,0 +1,170 @@
+package com.whaleal.quant.optimization.result;
+
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.scorer.StrategyScorer;
+import com.whaleal.quant.optimization.search.NonDominatedSorting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 帕累托前沿
+ * 多目标优化中不被任何其他候选支配的候选集合，按第一个目标降序排列，
+ * 保留各目标取值和拥挤距离，用于在收益、回撤、换手等指标之间权衡选择
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class ParetoFront {
+
+    private final List<String> objectiveNames;
+    private final List<StrategyOptimizer.OptimizationCandidate> candidates;
+    private final double[][] objectives;
+    private final double[] crowdingDistances;
+
+    private ParetoFront(List<String> objectiveNames, List<StrategyOptimizer.OptimizationCandidate> candidates,
+                        double[][] objectives, double[] crowdingDistances) {
+        this.objectiveNames = Collections.unmodifiableList(new ArrayList<>(objectiveNames));
+        this.candidates = Collections.unmodifiableList(candidates);
+        this.objectives = objectives;
+        this.crowdingDistances = crowdingDistances;
+    }
+
+    /**
+     * 用评分器计算候选的目标向量，没有回测结果的候选各目标为负无穷
+     * @param candidates 候选列表
+     * @param scorers 各目标的评分器
+     * @return 目标向量
+     */
+    public static double[][] evaluate(List<StrategyOptimizer.OptimizationCandidate> candidates, List<StrategyScorer> scorers) {
+        double[][] objectives = new double[candidates.size()][];
+        for (int i = 0; i < objectives.length; i++) {
+            objectives[i] = evaluate(candidates.get(i), scorers);
+        }
+        return objectives;
+    }
+
+    /**
+     * 用评分器计算单个候选的目标向量
+     * @param candidate 候选
+     * @param scorers 各目标的评分器
+     * @return 目标向量，没有回测结果时各目标为负无穷
+     */
+    public static double[] evaluate(StrategyOptimizer.OptimizationCandidate candidate, List<StrategyScorer> scorers) {
+        double[] values = new double[scorers.size()];
+        BacktestResult result = candidate.getResult();
+        for (int m = 0; m < values.length; m++) {
+            values[m] = result == null ? Double.NEGATIVE_INFINITY : scorers.get(m).score(result);
+        }
+        return values;
+    }
+
+    /**
+     * 从候选中提取帕累托前沿
+     * @param objectiveNames 目标名称
+     * @param candidates 候选列表
+     * @param objectives 与候选对应的目标向量
+     * @return 帕累托前沿
+     */
+    public static ParetoFront of(List<String> objectiveNames, List<StrategyOptimizer.OptimizationCandidate> candidates, double[][] objectives) {
+        if (candidates.size() != objectives.length) {
+            throw new IllegalArgumentException("Candidates and objectives must have the same size");
+        }
+        int[] ranks = NonDominatedSorting.sort(objectives);
+        List<Integer> members = new ArrayList<>();
+        for (int i = 0; i < ranks.length; i++) {
+            // 回测失败的候选不进入前沿
+            if (ranks[i] == 0 && !isFailed(objectives[i])) {
+                members.add(i);
+            }
+        }
+        members.sort((a, b) -> Double.compare(objectives[b][0], objectives[a][0]));
+
+        int count = members.size();
+        int[] indices = new int[count];
+        List<StrategyOptimizer.OptimizationCandidate> front = new ArrayList<>(count);
+        double[][] frontObjectives = new double[count][];
+        for (int i = 0; i < count; i++) {
+            indices[i] = members.get(i);
+            front.add(candidates.get(indices[i]));
+            frontObjectives[i] = objectives[indices[i]].clone();
+        }
+        return new ParetoFront(objectiveNames, front, frontObjectives, NonDominatedSorting.crowdingDistance(objectives, indices));
+    }
+
+    /**
+     * 用评分器计算目标后从候选中提取帕累托前沿
+     * @param candidates 候选列表
+     * @param scorers 各目标的评分器
+     * @return 帕累托前沿
+     */
+    public static ParetoFront of(List<StrategyOptimizer.OptimizationCandidate> candidates, List<StrategyScorer> scorers) {
+        List<String> names = new ArrayList<>(scorers.size());
+        for (StrategyScorer scorer : scorers) {
+            names.add(scorer.getName());
+        }
+        return of(names, candidates, evaluate(candidates, scorers));
+    }
+
+    public List<String> getObjectiveNames() {
+        return objectiveNames;
+    }
+
+    public List<StrategyOptimizer.OptimizationCandidate> getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * 获取候选的目标向量
+     * @param index 候选在前沿中的下标
+     * @return 目标向量
+     */
+    public double[] getObjectives(int index) {
+        return objectives[index].clone();
+    }
+
+    /**
+     * 获取候选的拥挤距离，越大表示附近的候选越少
+     * @param index 候选在前沿中的下标
+     * @return 拥挤距离
+     */
+    public double getCrowdingDistance(int index) {
+        return crowdingDistances[index];
+    }
+
+    public int size() {
+        return candidates.size();
+    }
+
+    /**
+     * 生成前沿表格
+     * @return 前沿表格
+     */
+    public String generateTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-4s", "#"));
+        for (String name : objectiveNames) {
+            table.append(String.format(" %20s", name));
+        }
+        table.append("  参数组合\n");
+        for (int i = 0; i < candidates.size(); i++) {
+            table.append(String.format("%-4d", i + 1));
+            for (double value : objectives[i]) {
+                table.append(String.format(" %20.4f", value));
+            }
+            table.append("  ").append(candidates.get(i).getParamSet()).append("\n");
+        }
+        return table.toString();
+    }
+
+    private static boolean isFailed(double[] objectives) {
+        for (double value : objectives) {
+            if (!(value > Double.NEGATIVE_INFINITY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,150 @@
+package com.whaleal.quant.optimization.result;
+
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.optimization.engine.WalkForwardEngine;
+import com.whaleal.quant.optimization.param.ParamSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 滚动前推分析结果
+ * 包含每个折的样本内最优参数与样本外表现，以及拼接后的样本外权益曲线和汇总指标
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class WalkForwardResult {
+
+    private final List<FoldResult> folds;
+    private final long[] outOfSampleTimestamps;
+    private final double[] outOfSampleEquity;
+    private final Map<String, Double> aggregateMetrics;
+
+    /**
+     * 构造方法
+     * @param folds 各折结果
+     * @param outOfSampleTimestamps 拼接后的样本外权益曲线时间戳（毫秒）
+     * @param outOfSampleEquity 拼接后的样本外权益曲线
+     * @param aggregateMetrics 汇总指标
+     */
+    public WalkForwardResult(List<FoldResult> folds, long[] outOfSampleTimestamps, double[] outOfSampleEquity, Map<String, Double> aggregateMetrics) {
+        this.folds = new ArrayList<>(folds);
+        this.outOfSampleTimestamps = outOfSampleTimestamps;
+        this.outOfSampleEquity = outOfSampleEquity;
+        this.aggregateMetrics = aggregateMetrics;
+    }
+
+    /**
+     * 获取各折结果
+     * @return 各折结果
+     */
+    public List<FoldResult> getFolds() {
+        return new ArrayList<>(folds);
+    }
+
+    /**
+     * 获取拼接后的样本外权益曲线时间戳
+     * @return 时间戳（毫秒）
+     */
+    public long[] getOutOfSampleTimestamps() {
+        return outOfSampleTimestamps;
+    }
+
+    /**
+     * 获取拼接后的样本外权益曲线
+     * @return 权益曲线
+     */
+    public double[] getOutOfSampleEquity() {
+        return outOfSampleEquity;
+    }
+
+    /**
+     * 获取汇总指标
+     * @return 汇总指标映射
+     */
+    public Map<String, Double> getAggregateMetrics() {
+        return aggregateMetrics;
+    }
+
+    /**
+     * 生成滚动前推分析报告
+     * @return 报告
+     */
+    public String generateReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("=== 滚动前推分析报告 ===\n");
+        report.append("折数: " + folds.size() + "\n");
+
+        for (FoldResult fold : folds) {
+            WalkForwardEngine.Window window = fold.getWindow();
+            report.append("\n折 " + (window.getIndex() + 1) + ":\n");
+            report.append("  样本内: " + window.getTrainStart() + " 到 " + window.getTrainEnd() + "\n");
+            report.append("  样本外: " + window.getTestStart() + " 到 " + window.getTestEnd() + "\n");
+            report.append("  最优参数: " + fold.getBestParamSet() + "\n");
+            report.append("  样本内评分: " + fold.getInSampleScore() + "\n");
+            report.append("  样本外评分: " + fold.getOutOfSampleScore() + "\n");
+            if (fold.getOutOfSampleResult() != null) {
+                report.append("  样本外收益率: " + (fold.getOutOfSampleResult().getTotalReturn() * 100) + "%\n");
+                report.append("  样本外夏普比率: " + fold.getOutOfSampleResult().getSharpeRatio() + "\n");
+            }
+        }
+
+        report.append("\n汇总指标:\n");
+        for (Map.Entry<String, Double> entry : aggregateMetrics.entrySet()) {
+            report.append("  " + entry.getKey() + ": " + entry.getValue() + "\n");
+        }
+        report.append("================\n");
+        return report.toString();
+    }
+
+    /**
+     * 单折结果
+     */
+    public static class FoldResult {
+        private final WalkForwardEngine.Window window;
+        private final ParamSet bestParamSet;
+        private final double inSampleScore;
+        private final BacktestResult outOfSampleResult;
+        private final double outOfSampleScore;
+
+        public FoldResult(WalkForwardEngine.Window window, ParamSet bestParamSet, double inSampleScore, BacktestResult outOfSampleResult, double outOfSampleScore) {
+            this.window = window;
+            this.bestParamSet = bestParamSet;
+            this.inSampleScore = inSampleScore;
+            this.outOfSampleResult = outOfSampleResult;
+            this.outOfSampleScore = outOfSampleScore;
+        }
+
+        public WalkForwardEngine.Window getWindow() {
+            return window;
+        }
+
+        public ParamSet getBestParamSet() {
+            return bestParamSet;
+        }
+
+        public double getInSampleScore() {
+            return inSampleScore;
+        }
+
+        public BacktestResult getOutOfSampleResult() {
+            return outOfSampleResult;
+        }
+
+        public double getOutOfSampleScore() {
+            return outOfSampleScore;
+        }
+
+        @Override
+        public String toString() {
+            return "FoldResult{" +
+                    "window=" + window +
+                    ", bestParamSet=" + bestParamSet +
+                    ", inSampleScore=" + inSampleScore +
+                    ", outOfSampleScore=" + outOfSampleScore +
+                    '}';
+        }
+    }
+}
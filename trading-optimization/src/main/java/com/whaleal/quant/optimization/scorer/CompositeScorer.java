@@ -73,4 +73,18 @@ public class CompositeScorer implements StrategyScorer {
         name.append("]");
         return name.toString();
     }
+
+    @Override
+    public String getCacheKey() {
+        // 名称中的权重只保留两位小数，缓存键使用完整精度
+        StringBuilder key = new StringBuilder("CompositeScorer[");
+        for (int i = 0; i < scorers.size(); i++) {
+            if (i > 0) {
+                key.append(", ");
+            }
+            key.append(scorers.get(i).getCacheKey()).append("(").append(weights.get(i)).append(")");
+        }
+        key.append("]");
+        return key.toString();
+    }
 }
\ No newline at end of file
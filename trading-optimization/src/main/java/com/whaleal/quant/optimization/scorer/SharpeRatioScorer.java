@@ -43,4 +43,9 @@ public class SharpeRatioScorer implements StrategyScorer {
     public String getName() {
         return "SharpeRatioScorer";
     }
+
+    @Override
+    public String getCacheKey() {
+        return getName() + "(riskFreeRate=" + riskFreeRate + ")";
+    }
 }
\ No newline at end of file
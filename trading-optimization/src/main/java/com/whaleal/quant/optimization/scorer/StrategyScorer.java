@@ -23,4 +23,13 @@ public interface StrategyScorer {
      * @return 评分器名称
      */
     String getName();
+
+    /**
+     * 获取评分器标识，参与评估缓存键
+     * 默认为评分器名称，带参数的评分器应包含影响评分的参数，参数变化后不会命中旧的缓存评分
+     * @return 评分器标识
+     */
+    default String getCacheKey() {
+        return getName();
+    }
 }
\ No newline at end of file
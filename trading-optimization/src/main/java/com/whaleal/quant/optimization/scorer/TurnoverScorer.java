@@ -0,0 +1,91 @@
+package com.whaleal.quant.optimization.scorer;
+
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.model.trading.Order;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 换手率评分器
+ * 基于年化换手率（成交额 / 平均权益）进行评分，换手越低交易成本和容量压力越小，评分越高
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class TurnoverScorer implements StrategyScorer {
+
+    private final double referenceTurnover;
+
+    /**
+     * 构造方法
+     * @param referenceTurnover 参考年化换手率，换手率等于该值时评分为 0.5
+     */
+    public TurnoverScorer(double referenceTurnover) {
+        if (referenceTurnover <= 0) {
+            throw new IllegalArgumentException("Reference turnover must be positive");
+        }
+        this.referenceTurnover = referenceTurnover;
+    }
+
+    /**
+     * 构造方法
+     * 使用默认参考年化换手率 10
+     */
+    public TurnoverScorer() {
+        this(10.0);
+    }
+
+    @Override
+    public double score(BacktestResult result) {
+        double turnover = annualTurnover(result);
+
+        // 将年化换手率映射到 (0, 1] 范围，无交易时为 1
+        return 1.0 / (1.0 + turnover / referenceTurnover);
+    }
+
+    /**
+     * 计算年化换手率
+     * @param result 回测结果
+     * @return 年化换手率
+     */
+    public static double annualTurnover(BacktestResult result) {
+        double[] equityCurve = result.getEquityCurve();
+        if (equityCurve == null || equityCurve.length == 0 || result.getOrders() == null) {
+            return 0.0;
+        }
+
+        double traded = 0.0;
+        for (List<Order> orders : result.getOrders().values()) {
+            for (Order order : orders) {
+                BigDecimal quantity = order.getExecutedQty();
+                BigDecimal price = order.getAvgPrice() != null ? order.getAvgPrice() : order.getPrice();
+                if (quantity != null && price != null) {
+                    traded += Math.abs(quantity.doubleValue() * price.doubleValue());
+                }
+            }
+        }
+
+        double equity = 0.0;
+        for (double value : equityCurve) {
+            equity += value;
+        }
+        equity /= equityCurve.length;
+        if (equity <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double periodsPerYear = result.getConfig() != null ? result.getConfig().getPeriodsPerYear() : 252;
+        return traded / equity * periodsPerYear / equityCurve.length;
+    }
+
+    @Override
+    public String getName() {
+        return "TurnoverScorer";
+    }
+
+    @Override
+    public String getCacheKey() {
+        return getName() + "(referenceTurnover=" + referenceTurnover + ")";
+    }
+}
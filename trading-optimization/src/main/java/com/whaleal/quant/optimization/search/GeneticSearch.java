@@ -0,0 +1,408 @@
+package com.whaleal.quant.optimization.search;
+
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * 遗传算法参数搜索
+ * 基因组为各参数取值下标组成的数组，每代通过锦标赛选择父代、均匀交叉和按参数类型变异产生子代，并保留精英个体。
+ * 整数和双精度参数按下标做高斯步长变异，交叉时可取两个父代之间的下标；布尔、枚举和自定义参数变异为另一个随机取值
+ *
+ * <p>每代中未评估过的基因组作为一批并行回测；评估过的基因组直接从评分缓存中取分，不会重复回测。
+ * 连续若干代最佳评分没有提高时提前停止
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class GeneticSearch implements ParamSearch {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneticSearch.class);
+
+    private static final int MAX_DUPLICATE_ATTEMPTS = 16;
+
+    private final int populationSize;
+    private final int maxGenerations;
+    private final int maxEvaluations;
+    private final int tournamentSize;
+    private final int eliteCount;
+    private final double crossoverRate;
+    private final double mutationRate;
+    private final int stagnationGenerations;
+    private final double minImprovement;
+    private final long seed;
+
+    private GeneticSearch(Builder builder) {
+        this.populationSize = builder.populationSize;
+        this.maxGenerations = builder.maxGenerations;
+        this.maxEvaluations = builder.maxEvaluations;
+        this.tournamentSize = builder.tournamentSize;
+        this.eliteCount = builder.eliteCount;
+        this.crossoverRate = builder.crossoverRate;
+        this.mutationRate = builder.mutationRate;
+        this.stagnationGenerations = builder.stagnationGenerations;
+        this.minImprovement = builder.minImprovement;
+        this.seed = builder.seed;
+    }
+
+    @Override
+    public String getName() {
+        return "Genetic";
+    }
+
+    @Override
+    public OptimizationResult search(ParamSpace paramSpace, Function<List<ParamSet>, List<StrategyOptimizer.OptimizationCandidate>> evaluator) {
+        SearchSpace space = new SearchSpace(paramSpace);
+        SplittableRandom random = new SplittableRandom(seed);
+        int budget = (int) Math.min(maxEvaluations, space.size());
+        Map<Long, StrategyOptimizer.OptimizationCandidate> cache = new LinkedHashMap<>();
+        double rate = mutationRate >= 0 ? mutationRate : 1.0 / Math.max(1, space.dimensions());
+
+        List<int[]> population = new ArrayList<>(populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            population.add(space.randomDigits(random));
+        }
+        double[] fitness = evaluate(space, population, cache, evaluator, budget);
+
+        double best = max(fitness);
+        int stagnant = 0;
+        for (int generation = 1; generation < maxGenerations && cache.size() < budget; generation++) {
+            List<int[]> offspring = new ArrayList<>(populationSize);
+
+            // 精英个体直接进入下一代
+            Integer[] order = rankOrder(fitness);
+            for (int i = 0; i < Math.min(eliteCount, population.size()); i++) {
+                offspring.add(population.get(order[i]));
+            }
+
+            while (offspring.size() < populationSize) {
+                int[] child = null;
+                for (int attempt = 0; attempt < MAX_DUPLICATE_ATTEMPTS; attempt++) {
+                    int[] first = population.get(tournament(fitness, random));
+                    int[] second = population.get(tournament(fitness, random));
+                    child = random.nextDouble() < crossoverRate ? crossover(space, first, second, random) : first.clone();
+                    mutate(space, child, rate, random);
+                    // 尽量产生新的基因组，空间很小时允许重复
+                    if (!cache.containsKey(space.index(child))) {
+                        break;
+                    }
+                }
+                offspring.add(child);
+            }
+
+            population = offspring;
+            fitness = evaluate(space, population, cache, evaluator, budget);
+
+            double generationBest = max(fitness);
+            if (generationBest > best + minImprovement) {
+                best = generationBest;
+                stagnant = 0;
+            } else if (++stagnant >= stagnationGenerations) {
+                log.info("Genetic search stopped after {} stagnant generations at generation {}", stagnant, generation);
+                break;
+            }
+        }
+
+        List<StrategyOptimizer.OptimizationCandidate> candidates = new ArrayList<>(cache.values());
+        candidates.sort(Comparator.comparingDouble(StrategyOptimizer.OptimizationCandidate::getScore).reversed());
+        return new OptimizationResult(candidates);
+    }
+
+    /**
+     * 评估一代个体，只回测缓存中没有的基因组
+     * 预算用完时未评估的个体适应度为负无穷
+     * @param space 搜索空间
+     * @param population 种群
+     * @param cache 评分缓存
+     * @param evaluator 批量评估函数
+     * @param budget 最多评估的基因组数
+     * @return 适应度
+     */
+    private double[] evaluate(SearchSpace space, List<int[]> population, Map<Long, StrategyOptimizer.OptimizationCandidate> cache,
+                              Function<List<ParamSet>, List<StrategyOptimizer.OptimizationCandidate>> evaluator, int budget) {
+        Map<Long, int[]> pending = new LinkedHashMap<>();
+        for (int[] genome : population) {
+            long index = space.index(genome);
+            if (!cache.containsKey(index) && cache.size() + pending.size() < budget) {
+                pending.putIfAbsent(index, genome);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            List<ParamSet> paramSets = new ArrayList<>(pending.size());
+            for (int[] genome : pending.values()) {
+                paramSets.add(space.toParamSet(genome));
+            }
+            List<StrategyOptimizer.OptimizationCandidate> evaluated = evaluator.apply(paramSets);
+            if (evaluated.size() != paramSets.size()) {
+                throw new IllegalStateException("Evaluator returned " + evaluated.size() + " candidates for " + paramSets.size() + " param sets");
+            }
+            int i = 0;
+            for (Long index : pending.keySet()) {
+                cache.put(index, evaluated.get(i++));
+            }
+        }
+
+        double[] fitness = new double[population.size()];
+        for (int i = 0; i < fitness.length; i++) {
+            StrategyOptimizer.OptimizationCandidate candidate = cache.get(space.index(population.get(i)));
+            fitness[i] = candidate == null || Double.isNaN(candidate.getScore()) ? Double.NEGATIVE_INFINITY : candidate.getScore();
+        }
+        return fitness;
+    }
+
+    private int tournament(double[] fitness, SplittableRandom random) {
+        int winner = random.nextInt(fitness.length);
+        for (int i = 1; i < tournamentSize; i++) {
+            int challenger = random.nextInt(fitness.length);
+            if (fitness[challenger] > fitness[winner]) {
+                winner = challenger;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * 均匀交叉，有序参数有一半概率取两个父代之间的随机下标
+     */
+    static int[] crossover(SearchSpace space, int[] first, int[] second, SplittableRandom random) {
+        int[] child = new int[first.length];
+        for (int d = 0; d < child.length; d++) {
+            if (space.isOrdered(d) && first[d] != second[d] && random.nextBoolean()) {
+                int low = Math.min(first[d], second[d]);
+                int high = Math.max(first[d], second[d]);
+                child[d] = low + random.nextInt(high - low + 1);
+            } else {
+                child[d] = random.nextBoolean() ? first[d] : second[d];
+            }
+        }
+        return child;
+    }
+
+    /**
+     * 按参数类型变异
+     */
+    static void mutate(SearchSpace space, int[] genome, double rate, SplittableRandom random) {
+        for (int d = 0; d < genome.length; d++) {
+            int radix = space.radix(d);
+            if (radix < 2 || random.nextDouble() >= rate) {
+                continue;
+            }
+            if (space.isOrdered(d)) {
+                // 步长约为取值个数的十分之一，至少移动一格
+                double sigma = Math.max(1.0, radix / 10.0);
+                int step = (int) Math.round(gaussian(random) * sigma);
+                if (step == 0) {
+                    step = random.nextBoolean() ? 1 : -1;
+                }
+                genome[d] = Math.max(0, Math.min(radix - 1, genome[d] + step));
+            } else {
+                int value = random.nextInt(radix - 1);
+                genome[d] = value >= genome[d] ? value + 1 : value;
+            }
+        }
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    private static Integer[] rankOrder(double[] fitness) {
+        Integer[] order = new Integer[fitness.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(fitness[b], fitness[a]));
+        return order;
+    }
+
+    private static double max(double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    public int getPopulationSize() {
+        return populationSize;
+    }
+
+    public int getMaxGenerations() {
+        return maxGenerations;
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private int populationSize;
+        private int maxGenerations;
+        private int maxEvaluations;
+        private int tournamentSize;
+        private int eliteCount;
+        private double crossoverRate;
+        private double mutationRate;
+        private int stagnationGenerations;
+        private double minImprovement;
+        private long seed;
+
+        public Builder() {
+            this.populationSize = 50;
+            this.maxGenerations = 100;
+            this.maxEvaluations = Integer.MAX_VALUE;
+            this.tournamentSize = 3;
+            this.eliteCount = 2;
+            this.crossoverRate = 0.9;
+            this.mutationRate = -1;
+            this.stagnationGenerations = 10;
+            this.minImprovement = 1e-9;
+            this.seed = 42L;
+        }
+
+        /**
+         * 设置种群大小
+         * @param populationSize 种群大小
+         * @return Builder 实例
+         */
+        public Builder populationSize(int populationSize) {
+            this.populationSize = populationSize;
+            return this;
+        }
+
+        /**
+         * 设置最大代数
+         * @param maxGenerations 最大代数
+         * @return Builder 实例
+         */
+        public Builder maxGenerations(int maxGenerations) {
+            this.maxGenerations = maxGenerations;
+            return this;
+        }
+
+        /**
+         * 设置最多回测的基因组数
+         * @param maxEvaluations 最多回测的基因组数
+         * @return Builder 实例
+         */
+        public Builder maxEvaluations(int maxEvaluations) {
+            this.maxEvaluations = maxEvaluations;
+            return this;
+        }
+
+        /**
+         * 设置锦标赛规模
+         * @param tournamentSize 每次选择时比较的个体数
+         * @return Builder 实例
+         */
+        public Builder tournamentSize(int tournamentSize) {
+            this.tournamentSize = tournamentSize;
+            return this;
+        }
+
+        /**
+         * 设置每代直接保留的精英个数
+         * @param eliteCount 精英个数
+         * @return Builder 实例
+         */
+        public Builder eliteCount(int eliteCount) {
+            this.eliteCount = eliteCount;
+            return this;
+        }
+
+        /**
+         * 设置交叉概率
+         * @param crossoverRate 交叉概率
+         * @return Builder 实例
+         */
+        public Builder crossoverRate(double crossoverRate) {
+            this.crossoverRate = crossoverRate;
+            return this;
+        }
+
+        /**
+         * 设置每个参数的变异概率，默认为 1/参数个数
+         * @param mutationRate 变异概率
+         * @return Builder 实例
+         */
+        public Builder mutationRate(double mutationRate) {
+            this.mutationRate = mutationRate;
+            return this;
+        }
+
+        /**
+         * 设置停滞代数，连续这么多代最佳评分没有提高时停止
+         * @param stagnationGenerations 停滞代数
+         * @return Builder 实例
+         */
+        public Builder stagnationGenerations(int stagnationGenerations) {
+            this.stagnationGenerations = stagnationGenerations;
+            return this;
+        }
+
+        /**
+         * 设置视为提高的最小评分增量
+         * @param minImprovement 最小评分增量
+         * @return Builder 实例
+         */
+        public Builder minImprovement(double minImprovement) {
+            this.minImprovement = minImprovement;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public GeneticSearch build() {
+            if (populationSize < 2) {
+                throw new IllegalArgumentException("Population size must be at least 2");
+            }
+            if (maxGenerations <= 0) {
+                throw new IllegalArgumentException("Max generations must be positive");
+            }
+            if (maxEvaluations <= 0) {
+                throw new IllegalArgumentException("Max evaluations must be positive");
+            }
+            if (tournamentSize <= 0) {
+                throw new IllegalArgumentException("Tournament size must be positive");
+            }
+            if (eliteCount < 0 || eliteCount >= populationSize) {
+                throw new IllegalArgumentException("Elite count must be in [0, population size)");
+            }
+            if (crossoverRate < 0 || crossoverRate > 1) {
+                throw new IllegalArgumentException("Crossover rate must be in [0, 1]");
+            }
+            if (mutationRate > 1) {
+                throw new IllegalArgumentException("Mutation rate must not exceed 1");
+            }
+            if (stagnationGenerations <= 0) {
+                throw new IllegalArgumentException("Stagnation generations must be positive");
+            }
+            return new GeneticSearch(this);
+        }
+    }
+
+    /**
+     * 创建 Builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+}
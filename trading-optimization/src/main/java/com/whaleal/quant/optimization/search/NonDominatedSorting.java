@@ -0,0 +1,162 @@
+package com.whaleal.quant.optimization.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 快速非支配排序
+ * 所有目标均为越大越好。先按目标向量字典序降序排列，这样每个解只可能被排在它前面的解支配；
+ * 再按顺序把每个解放入第一个没有成员支配它的前沿。被第 k 层支配的解必然被前面各层支配，
+ * 因此可以对前沿层级做二分查找（ENS-BS），通常远少于 O(MN²) 次比较，适合上万个候选
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class NonDominatedSorting {
+
+    private NonDominatedSorting() {
+    }
+
+    /**
+     * 计算每个解所在的前沿层级
+     * @param objectives 每个解的目标向量，NaN 视为负无穷，-0.0 视为 0.0
+     * @return 前沿层级，0 为帕累托前沿
+     */
+    public static int[] sort(double[][] objectives) {
+        int n = objectives.length;
+        int[] ranks = new int[n];
+        if (n == 0) {
+            return ranks;
+        }
+
+        double[][] values = new double[n][];
+        for (int i = 0; i < n; i++) {
+            values[i] = objectives[i].clone();
+            for (int m = 0; m < values[i].length; m++) {
+                if (Double.isNaN(values[i][m])) {
+                    values[i][m] = Double.NEGATIVE_INFINITY;
+                } else if (values[i][m] == 0.0) {
+                    // 排序时 -0.0 小于 0.0，支配判断中两者相等，统一为 0.0 保证排在前面的解不会被后面的解支配
+                    values[i][m] = 0.0;
+                }
+            }
+        }
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            for (int m = 0; m < values[a].length; m++) {
+                int cmp = Double.compare(values[b][m], values[a][m]);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        });
+
+        List<int[]> fronts = new ArrayList<>();
+        int[] sizes = new int[n];
+        for (int s : order) {
+            int low = 0;
+            int high = fronts.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (dominatedByFront(values, fronts.get(mid), sizes[mid], s)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low == fronts.size()) {
+                fronts.add(new int[4]);
+            }
+            int[] front = fronts.get(low);
+            if (sizes[low] == front.length) {
+                front = Arrays.copyOf(front, front.length * 2);
+                fronts.set(low, front);
+            }
+            front[sizes[low]++] = s;
+            ranks[s] = low;
+        }
+        return ranks;
+    }
+
+    /**
+     * 计算拥挤距离
+     * 每个目标上边界解为正无穷，其余为相邻两个解在该目标上的归一化间距之和
+     * @param objectives 所有解的目标向量
+     * @param members 同一前沿的解下标
+     * @return 与 members 对应的拥挤距离
+     */
+    public static double[] crowdingDistance(double[][] objectives, int[] members) {
+        int size = members.length;
+        double[] distance = new double[size];
+        if (size <= 2) {
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+            return distance;
+        }
+
+        int dimensions = objectives[members[0]].length;
+        Integer[] order = new Integer[size];
+        for (int m = 0; m < dimensions; m++) {
+            int objective = m;
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(value(objectives, members[a], objective), value(objectives, members[b], objective)));
+
+            double min = value(objectives, members[order[0]], objective);
+            double max = value(objectives, members[order[size - 1]], objective);
+            distance[order[0]] = Double.POSITIVE_INFINITY;
+            distance[order[size - 1]] = Double.POSITIVE_INFINITY;
+            double range = max - min;
+            if (!(range > 0) || Double.isInfinite(range)) {
+                continue;
+            }
+            for (int i = 1; i < size - 1; i++) {
+                distance[order[i]] += (value(objectives, members[order[i + 1]], objective)
+                        - value(objectives, members[order[i - 1]], objective)) / range;
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * 判断第一个解是否支配第二个解：所有目标不差且至少一个目标更好
+     * @param first 第一个解的目标向量
+     * @param second 第二个解的目标向量
+     * @return 是否支配
+     */
+    public static boolean dominates(double[] first, double[] second) {
+        boolean better = false;
+        for (int m = 0; m < first.length; m++) {
+            if (first[m] < second[m]) {
+                return false;
+            }
+            if (first[m] > second[m]) {
+                better = true;
+            }
+        }
+        return better;
+    }
+
+    /**
+     * 判断解是否被前沿中的某个成员支配，从最近加入的成员开始比较
+     */
+    private static boolean dominatedByFront(double[][] values, int[] front, int size, int s) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (dominates(values[front[i]], values[s])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double value(double[][] objectives, int index, int objective) {
+        double value = objectives[index][objective];
+        return Double.isNaN(value) ? Double.NEGATIVE_INFINITY : value;
+    }
+}
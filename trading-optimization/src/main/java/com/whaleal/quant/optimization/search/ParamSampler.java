@@ -0,0 +1,221 @@
+package com.whaleal.quant.optimization.search;
+
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 参数采样器
+ * 在参数空间中按预算生成固定数量的参数组合，使样本在各参数上都均匀分布，而不是像网格那样在不重要的参数上重复取值。
+ * 先在单位超立方体中生成样本点，再把每一维映射到该参数的取值下标；双精度参数使用较小的步长即可接近连续采样，而无需遍历整个网格
+ *
+ * <p>样本映射到相同参数组合时只保留一个，因此参数空间很小时返回的组合数可能少于预算；预算不小于参数空间大小时直接返回全部组合
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class ParamSampler {
+
+    /**
+     * Sobol 方向数（Joe-Kuo），每行为 {s, a, m_1, ..., m_s}，对应第 2 维起的各维
+     */
+    private static final int[][] SOBOL_DIRECTIONS = {
+            {1, 0, 1},
+            {2, 1, 1, 3},
+            {3, 1, 1, 3, 1},
+            {3, 2, 1, 1, 1},
+            {4, 1, 1, 1, 3, 3},
+            {4, 4, 1, 3, 5, 13},
+            {5, 2, 1, 1, 5, 5, 17},
+            {5, 4, 1, 1, 5, 5, 5},
+            {5, 7, 1, 1, 7, 11, 19},
+            {5, 11, 1, 1, 5, 1, 1},
+            {5, 13, 1, 1, 1, 3, 11},
+            {5, 14, 1, 3, 5, 5, 31},
+            {6, 1, 1, 3, 3, 9, 7, 49},
+            {6, 13, 1, 1, 1, 15, 21, 21},
+            {6, 16, 1, 3, 1, 13, 27, 49},
+            {6, 19, 1, 1, 1, 15, 7, 5},
+            {6, 22, 1, 3, 1, 15, 13, 25},
+            {6, 25, 1, 1, 5, 5, 19, 61},
+            {7, 1, 1, 3, 7, 11, 23, 15, 103},
+            {7, 4, 1, 3, 7, 13, 13, 15, 69}
+    };
+
+    private static final int BITS = 32;
+    private static final double SCALE = 1.0 / (1L << BITS);
+
+    /**
+     * 采样方法
+     */
+    public enum Method {
+        /**
+         * Sobol 低差异序列，前 2^k 个点在每个二进制分块中都均匀分布，最多支持 21 个参数
+         */
+        SOBOL,
+        /**
+         * 拉丁超立方，每个参数的取值范围等分为样本数个区间，每个区间恰好一个样本
+         */
+        LATIN_HYPERCUBE,
+        /**
+         * 均匀随机
+         */
+        RANDOM
+    }
+
+    private ParamSampler() {
+    }
+
+    /**
+     * 生成参数组合
+     * @param paramSpace 参数空间
+     * @param method 采样方法
+     * @param samples 样本数
+     * @param seed 随机种子，Sobol 序列用于随机数字平移
+     * @return 参数组合列表
+     */
+    public static List<ParamSet> sample(ParamSpace paramSpace, Method method, int samples, long seed) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("Samples must be positive");
+        }
+        if (samples >= paramSpace.size()) {
+            return paramSpace.generateParamSets();
+        }
+
+        SearchSpace space = new SearchSpace(paramSpace);
+        double[][] points;
+        switch (method) {
+            case SOBOL:
+                points = sobol(space.dimensions(), samples, seed);
+                break;
+            case LATIN_HYPERCUBE:
+                points = latinHypercube(space.dimensions(), samples, seed);
+                break;
+            case RANDOM:
+                points = random(space.dimensions(), samples, seed);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported sampling method: " + method);
+        }
+
+        Map<Long, int[]> unique = new LinkedHashMap<>();
+        for (double[] point : points) {
+            int[] digits = new int[space.dimensions()];
+            for (int d = 0; d < digits.length; d++) {
+                digits[d] = Math.min(space.radix(d) - 1, (int) (point[d] * space.radix(d)));
+            }
+            unique.putIfAbsent(space.index(digits), digits);
+        }
+
+        List<ParamSet> paramSets = new ArrayList<>(unique.size());
+        for (int[] digits : unique.values()) {
+            paramSets.add(space.toParamSet(digits));
+        }
+        return paramSets;
+    }
+
+    /**
+     * 生成 Sobol 序列，并对每一维做随机数字平移（异或）；平移后原点不再特殊，因此不跳过，
+     * 前 2^k 个点保持分块均匀
+     * @param dimensions 维数
+     * @param samples 样本数
+     * @param seed 随机种子
+     * @return 单位超立方体中的样本点
+     */
+    static double[][] sobol(int dimensions, int samples, long seed) {
+        if (dimensions > SOBOL_DIRECTIONS.length + 1) {
+            throw new IllegalArgumentException("Sobol sampling supports at most " + (SOBOL_DIRECTIONS.length + 1) + " parameters");
+        }
+        long[][] directions = new long[dimensions][BITS + 1];
+        for (int d = 0; d < dimensions; d++) {
+            if (d == 0) {
+                for (int k = 1; k <= BITS; k++) {
+                    directions[d][k] = 1L << (BITS - k);
+                }
+                continue;
+            }
+            int[] row = SOBOL_DIRECTIONS[d - 1];
+            int s = row[0];
+            int a = row[1];
+            for (int k = 1; k <= Math.min(s, BITS); k++) {
+                directions[d][k] = (long) row[k + 1] << (BITS - k);
+            }
+            for (int k = s + 1; k <= BITS; k++) {
+                long v = directions[d][k - s] ^ (directions[d][k - s] >>> s);
+                for (int j = 1; j < s; j++) {
+                    v ^= ((a >>> (s - 1 - j)) & 1L) * directions[d][k - j];
+                }
+                directions[d][k] = v;
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] shift = new long[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            shift[d] = random.nextLong() & 0xFFFFFFFFL;
+        }
+
+        double[][] points = new double[samples][dimensions];
+        long[] x = new long[dimensions];
+        for (int i = 0; i < samples; i++) {
+            // 格雷码顺序：第 i+1 个点由第 i 个点异或 i 最低位 0 所在位置的方向数得到
+            int c = Long.numberOfTrailingZeros(~(long) i) + 1;
+            for (int d = 0; d < dimensions; d++) {
+                points[i][d] = (x[d] ^ shift[d]) * SCALE;
+                x[d] ^= directions[d][c];
+            }
+        }
+        return points;
+    }
+
+    /**
+     * 生成拉丁超立方样本
+     * @param dimensions 维数
+     * @param samples 样本数
+     * @param seed 随机种子
+     * @return 单位超立方体中的样本点
+     */
+    static double[][] latinHypercube(int dimensions, int samples, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] points = new double[samples][dimensions];
+        int[] strata = new int[samples];
+        for (int d = 0; d < dimensions; d++) {
+            for (int i = 0; i < samples; i++) {
+                strata[i] = i;
+            }
+            for (int i = samples - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = strata[i];
+                strata[i] = strata[j];
+                strata[j] = tmp;
+            }
+            for (int i = 0; i < samples; i++) {
+                points[i][d] = (strata[i] + random.nextDouble()) / samples;
+            }
+        }
+        return points;
+    }
+
+    /**
+     * 生成均匀随机样本
+     * @param dimensions 维数
+     * @param samples 样本数
+     * @param seed 随机种子
+     * @return 单位超立方体中的样本点
+     */
+    static double[][] random(int dimensions, int samples, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] points = new double[samples][dimensions];
+        for (double[] point : points) {
+            for (int d = 0; d < dimensions; d++) {
+                point[d] = random.nextDouble();
+            }
+        }
+        return points;
+    }
+}
@@ -0,0 +1,33 @@
+package com.whaleal.quant.optimization.search;
+
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 参数搜索算法
+ * 决定评估参数空间中的哪些参数组合；回测由评估函数按批并行执行
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public interface ParamSearch {
+
+    /**
+     * 获取搜索算法名称
+     * @return 搜索算法名称
+     */
+    String getName();
+
+    /**
+     * 执行搜索
+     * @param paramSpace 参数空间
+     * @param evaluator 批量评估函数，按输入顺序返回每个参数组合的优化候选
+     * @return 优化结果，候选按评分从高到低排序
+     */
+    OptimizationResult search(ParamSpace paramSpace, Function<List<ParamSet>, List<StrategyOptimizer.OptimizationCandidate>> evaluator);
+}
@@ -0,0 +1,407 @@
+package com.whaleal.quant.optimization.search;
+
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+import com.whaleal.quant.optimization.result.ParetoFront;
+import com.whaleal.quant.optimization.scorer.StrategyScorer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * 多目标帕累托参数搜索（NSGA-II）
+ * 不把多个评分器加权合成一个分数，而是对每个候选分别计算各目标，按非支配层级和拥挤距离选择下一代，
+ * 使种群逐步逼近并铺开帕累托前沿。交叉和变异与 {@link GeneticSearch} 相同
+ *
+ * <p>评估过的基因组保存在存档中不会重复回测；搜索结束后对存档中全部候选做一次非支配排序，
+ * 返回的优化结果中候选仍按优化器评分降序排列，帕累托前沿通过 {@link OptimizationResult#getParetoFront()} 获取
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class ParetoSearch implements ParamSearch {
+
+    private static final int MAX_DUPLICATE_ATTEMPTS = 16;
+
+    private final List<StrategyScorer> objectives;
+    private final int populationSize;
+    private final int maxGenerations;
+    private final int maxEvaluations;
+    private final double crossoverRate;
+    private final double mutationRate;
+    private final long seed;
+
+    private ParetoSearch(Builder builder) {
+        this.objectives = new ArrayList<>(builder.objectives);
+        this.populationSize = builder.populationSize;
+        this.maxGenerations = builder.maxGenerations;
+        this.maxEvaluations = builder.maxEvaluations;
+        this.crossoverRate = builder.crossoverRate;
+        this.mutationRate = builder.mutationRate;
+        this.seed = builder.seed;
+    }
+
+    @Override
+    public String getName() {
+        return "NSGA-II";
+    }
+
+    @Override
+    public OptimizationResult search(ParamSpace paramSpace, Function<List<ParamSet>, List<StrategyOptimizer.OptimizationCandidate>> evaluator) {
+        SearchSpace space = new SearchSpace(paramSpace);
+        SplittableRandom random = new SplittableRandom(seed);
+        int budget = (int) Math.min(maxEvaluations, space.size());
+        Map<Long, Evaluated> archive = new LinkedHashMap<>();
+        double rate = mutationRate >= 0 ? mutationRate : 1.0 / Math.max(1, space.dimensions());
+
+        List<int[]> initial = new ArrayList<>(populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            initial.add(space.randomDigits(random));
+        }
+        List<Evaluated> population = evaluate(space, initial, archive, evaluator, budget);
+
+        for (int generation = 1; generation < maxGenerations && archive.size() < budget && !population.isEmpty(); generation++) {
+            Ranking ranking = rank(population);
+
+            List<int[]> offspring = new ArrayList<>(populationSize);
+            while (offspring.size() < populationSize) {
+                int[] child = null;
+                for (int attempt = 0; attempt < MAX_DUPLICATE_ATTEMPTS; attempt++) {
+                    int[] first = population.get(tournament(ranking, random)).genome;
+                    int[] second = population.get(tournament(ranking, random)).genome;
+                    child = random.nextDouble() < crossoverRate ? GeneticSearch.crossover(space, first, second, random) : first.clone();
+                    GeneticSearch.mutate(space, child, rate, random);
+                    if (!archive.containsKey(space.index(child))) {
+                        break;
+                    }
+                }
+                offspring.add(child);
+            }
+
+            // 父代与子代合并后按非支配层级和拥挤距离截断
+            Map<Long, Evaluated> combined = new LinkedHashMap<>();
+            for (Evaluated parent : population) {
+                combined.put(parent.index, parent);
+            }
+            for (Evaluated child : evaluate(space, offspring, archive, evaluator, budget)) {
+                combined.putIfAbsent(child.index, child);
+            }
+            population = select(new ArrayList<>(combined.values()), populationSize);
+        }
+
+        List<StrategyOptimizer.OptimizationCandidate> candidates = new ArrayList<>(archive.size());
+        double[][] values = new double[archive.size()][];
+        int i = 0;
+        for (Evaluated evaluated : archive.values()) {
+            candidates.add(evaluated.candidate);
+            values[i++] = evaluated.objectives;
+        }
+        List<String> names = new ArrayList<>(objectives.size());
+        for (StrategyScorer objective : objectives) {
+            names.add(objective.getName());
+        }
+        ParetoFront front = ParetoFront.of(names, candidates, values);
+
+        candidates.sort(Comparator.comparingDouble(StrategyOptimizer.OptimizationCandidate::getScore).reversed());
+        return new OptimizationResult(candidates, front);
+    }
+
+    /**
+     * 评估个体，只回测存档中没有的基因组，预算用完时跳过未评估的个体
+     * @param space 搜索空间
+     * @param genomes 基因组
+     * @param archive 评估存档
+     * @param evaluator 批量评估函数
+     * @param budget 最多评估的基因组数
+     * @return 已评估的个体
+     */
+    private List<Evaluated> evaluate(SearchSpace space, List<int[]> genomes, Map<Long, Evaluated> archive,
+                                     Function<List<ParamSet>, List<StrategyOptimizer.OptimizationCandidate>> evaluator, int budget) {
+        Map<Long, int[]> pending = new LinkedHashMap<>();
+        for (int[] genome : genomes) {
+            long index = space.index(genome);
+            if (!archive.containsKey(index) && archive.size() + pending.size() < budget) {
+                pending.putIfAbsent(index, genome);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            List<ParamSet> paramSets = new ArrayList<>(pending.size());
+            for (int[] genome : pending.values()) {
+                paramSets.add(space.toParamSet(genome));
+            }
+            List<StrategyOptimizer.OptimizationCandidate> evaluated = evaluator.apply(paramSets);
+            if (evaluated.size() != paramSets.size()) {
+                throw new IllegalStateException("Evaluator returned " + evaluated.size() + " candidates for " + paramSets.size() + " param sets");
+            }
+            int i = 0;
+            for (Map.Entry<Long, int[]> entry : pending.entrySet()) {
+                StrategyOptimizer.OptimizationCandidate candidate = evaluated.get(i++);
+                archive.put(entry.getKey(), new Evaluated(entry.getKey(), entry.getValue(), candidate,
+                        ParetoFront.evaluate(candidate, objectives)));
+            }
+        }
+
+        List<Evaluated> result = new ArrayList<>(genomes.size());
+        for (int[] genome : genomes) {
+            Evaluated evaluated = archive.get(space.index(genome));
+            if (evaluated != null) {
+                result.add(evaluated);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按非支配层级选出下一代，最后一层按拥挤距离降序截断
+     */
+    private static List<Evaluated> select(List<Evaluated> combined, int size) {
+        if (combined.size() <= size) {
+            return combined;
+        }
+        Ranking ranking = rank(combined);
+        Integer[] order = new Integer[combined.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> ranking.compare(a, b));
+
+        List<Evaluated> selected = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            selected.add(combined.get(order[i]));
+        }
+        return selected;
+    }
+
+    /**
+     * 二元锦标赛，层级低者胜，同层拥挤距离大者胜
+     */
+    private static int tournament(Ranking ranking, SplittableRandom random) {
+        int first = random.nextInt(ranking.ranks.length);
+        int second = random.nextInt(ranking.ranks.length);
+        return ranking.compare(first, second) <= 0 ? first : second;
+    }
+
+    /**
+     * 计算非支配层级和各层内的拥挤距离
+     */
+    private static Ranking rank(List<Evaluated> population) {
+        double[][] values = new double[population.size()][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = population.get(i).objectives;
+        }
+        int[] ranks = NonDominatedSorting.sort(values);
+
+        int fronts = 0;
+        for (int rank : ranks) {
+            fronts = Math.max(fronts, rank + 1);
+        }
+        int[] counts = new int[fronts];
+        for (int rank : ranks) {
+            counts[rank]++;
+        }
+        int[][] members = new int[fronts][];
+        for (int f = 0; f < fronts; f++) {
+            members[f] = new int[counts[f]];
+            counts[f] = 0;
+        }
+        for (int i = 0; i < ranks.length; i++) {
+            members[ranks[i]][counts[ranks[i]]++] = i;
+        }
+
+        double[] crowding = new double[ranks.length];
+        for (int[] front : members) {
+            double[] distances = NonDominatedSorting.crowdingDistance(values, front);
+            for (int i = 0; i < front.length; i++) {
+                crowding[front[i]] = distances[i];
+            }
+        }
+        return new Ranking(ranks, crowding);
+    }
+
+    public List<StrategyScorer> getObjectives() {
+        return objectives;
+    }
+
+    public int getPopulationSize() {
+        return populationSize;
+    }
+
+    public int getMaxGenerations() {
+        return maxGenerations;
+    }
+
+    /**
+     * 已评估的个体
+     */
+    private static final class Evaluated {
+        private final long index;
+        private final int[] genome;
+        private final StrategyOptimizer.OptimizationCandidate candidate;
+        private final double[] objectives;
+
+        private Evaluated(long index, int[] genome, StrategyOptimizer.OptimizationCandidate candidate, double[] objectives) {
+            this.index = index;
+            this.genome = genome;
+            this.candidate = candidate;
+            this.objectives = objectives;
+        }
+    }
+
+    /**
+     * 非支配层级和拥挤距离
+     */
+    private static final class Ranking {
+        private final int[] ranks;
+        private final double[] crowding;
+
+        private Ranking(int[] ranks, double[] crowding) {
+            this.ranks = ranks;
+            this.crowding = crowding;
+        }
+
+        private int compare(int a, int b) {
+            if (ranks[a] != ranks[b]) {
+                return Integer.compare(ranks[a], ranks[b]);
+            }
+            return Double.compare(crowding[b], crowding[a]);
+        }
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private final List<StrategyScorer> objectives;
+        private int populationSize;
+        private int maxGenerations;
+        private int maxEvaluations;
+        private double crossoverRate;
+        private double mutationRate;
+        private long seed;
+
+        public Builder() {
+            this.objectives = new ArrayList<>();
+            this.populationSize = 100;
+            this.maxGenerations = 100;
+            this.maxEvaluations = Integer.MAX_VALUE;
+            this.crossoverRate = 0.9;
+            this.mutationRate = -1;
+            this.seed = 42L;
+        }
+
+        /**
+         * 添加优化目标，评分越大越好
+         * @param objective 目标评分器
+         * @return Builder 实例
+         */
+        public Builder objective(StrategyScorer objective) {
+            this.objectives.add(objective);
+            return this;
+        }
+
+        /**
+         * 设置优化目标，评分越大越好
+         * @param objectives 目标评分器
+         * @return Builder 实例
+         */
+        public Builder objectives(List<StrategyScorer> objectives) {
+            this.objectives.clear();
+            this.objectives.addAll(objectives);
+            return this;
+        }
+
+        /**
+         * 设置种群大小
+         * @param populationSize 种群大小
+         * @return Builder 实例
+         */
+        public Builder populationSize(int populationSize) {
+            this.populationSize = populationSize;
+            return this;
+        }
+
+        /**
+         * 设置最大代数
+         * @param maxGenerations 最大代数
+         * @return Builder 实例
+         */
+        public Builder maxGenerations(int maxGenerations) {
+            this.maxGenerations = maxGenerations;
+            return this;
+        }
+
+        /**
+         * 设置最多回测的基因组数
+         * @param maxEvaluations 最多回测的基因组数
+         * @return Builder 实例
+         */
+        public Builder maxEvaluations(int maxEvaluations) {
+            this.maxEvaluations = maxEvaluations;
+            return this;
+        }
+
+        /**
+         * 设置交叉概率
+         * @param crossoverRate 交叉概率
+         * @return Builder 实例
+         */
+        public Builder crossoverRate(double crossoverRate) {
+            this.crossoverRate = crossoverRate;
+            return this;
+        }
+
+        /**
+         * 设置每个参数的变异概率，默认为 1/参数个数
+         * @param mutationRate 变异概率
+         * @return Builder 实例
+         */
+        public Builder mutationRate(double mutationRate) {
+            this.mutationRate = mutationRate;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public ParetoSearch build() {
+            if (objectives.size() < 2) {
+                throw new IllegalArgumentException("At least two objectives are required");
+            }
+            if (populationSize < 2) {
+                throw new IllegalArgumentException("Population size must be at least 2");
+            }
+            if (maxGenerations <= 0) {
+                throw new IllegalArgumentException("Max generations must be positive");
+            }
+            if (maxEvaluations <= 0) {
+                throw new IllegalArgumentException("Max evaluations must be positive");
+            }
+            if (crossoverRate < 0 || crossoverRate > 1) {
+                throw new IllegalArgumentException("Crossover rate must be in [0, 1]");
+            }
+            if (mutationRate > 1) {
+                throw new IllegalArgumentException("Mutation rate must not exceed 1");
+            }
+            return new ParetoSearch(this);
+        }
+    }
+
+    /**
+     * 创建 Builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+}
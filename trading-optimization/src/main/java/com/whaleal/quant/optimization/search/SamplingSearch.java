@@ -0,0 +1,111 @@
+package com.whaleal.quant.optimization.search;
+
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 采样参数搜索
+ * 按预算用 Sobol 序列、拉丁超立方或均匀随机采样固定数量的参数组合，作为一批并行回测。
+ * 相同计算量下比等步长网格覆盖参数空间更均匀，适合参数较多或网格过大时的初步探索
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class SamplingSearch implements ParamSearch {
+
+    private final ParamSampler.Method method;
+    private final int samples;
+    private final long seed;
+
+    private SamplingSearch(Builder builder) {
+        this.method = builder.method;
+        this.samples = builder.samples;
+        this.seed = builder.seed;
+    }
+
+    @Override
+    public String getName() {
+        return "Sampling(" + method + ")";
+    }
+
+    @Override
+    public OptimizationResult search(ParamSpace paramSpace, Function<List<ParamSet>, List<StrategyOptimizer.OptimizationCandidate>> evaluator) {
+        List<ParamSet> paramSets = ParamSampler.sample(paramSpace, method, samples, seed);
+        List<StrategyOptimizer.OptimizationCandidate> candidates = new ArrayList<>(evaluator.apply(paramSets));
+        candidates.sort(Comparator.comparingDouble(StrategyOptimizer.OptimizationCandidate::getScore).reversed());
+        return new OptimizationResult(candidates);
+    }
+
+    public ParamSampler.Method getMethod() {
+        return method;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private ParamSampler.Method method;
+        private int samples;
+        private long seed;
+
+        public Builder() {
+            this.method = ParamSampler.Method.SOBOL;
+            this.samples = 100;
+            this.seed = 42L;
+        }
+
+        /**
+         * 设置采样方法
+         * @param method 采样方法
+         * @return Builder 实例
+         */
+        public Builder method(ParamSampler.Method method) {
+            this.method = method;
+            return this;
+        }
+
+        /**
+         * 设置样本数，即回测预算
+         * @param samples 样本数
+         * @return Builder 实例
+         */
+        public Builder samples(int samples) {
+            this.samples = samples;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public SamplingSearch build() {
+            if (method == null) {
+                throw new IllegalArgumentException("Sampling method is required");
+            }
+            if (samples <= 0) {
+                throw new IllegalArgumentException("Samples must be positive");
+            }
+            return new SamplingSearch(this);
+        }
+    }
+
+    /**
+     * 创建 Builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+}
@@ -0,0 +1,129 @@
+package com.whaleal.quant.optimization.search;
+
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 搜索空间
+ * 参数空间的快照，每个参数组合表示为各参数取值下标组成的数组，
+ * 下标数组与 {@link ParamSpace#getParamSet(long)} 使用的混合进制下标一一对应
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+final class SearchSpace {
+
+    private final String[] names;
+    private final Object[][] values;
+    private final boolean[] ordered;
+    private final long size;
+
+    SearchSpace(ParamSpace paramSpace) {
+        List<ParamSpace.ParamDefinition<?>> definitions = paramSpace.getParamDefinitions();
+        this.names = new String[definitions.size()];
+        this.values = new Object[definitions.size()][];
+        this.ordered = new boolean[definitions.size()];
+        for (int i = 0; i < names.length; i++) {
+            ParamSpace.ParamDefinition<?> definition = definitions.get(i);
+            names[i] = definition.getName();
+            values[i] = definition.getValues().toArray();
+            if (values[i].length == 0) {
+                throw new IllegalArgumentException("Param has no values: " + names[i]);
+            }
+            ordered[i] = definition instanceof ParamSpace.IntParamDefinition
+                    || definition instanceof ParamSpace.DoubleParamDefinition;
+        }
+        this.size = paramSpace.size();
+    }
+
+    /**
+     * 获取参数个数
+     * @return 参数个数
+     */
+    int dimensions() {
+        return names.length;
+    }
+
+    /**
+     * 获取参数取值个数
+     * @param dimension 参数序号
+     * @return 取值个数
+     */
+    int radix(int dimension) {
+        return values[dimension].length;
+    }
+
+    /**
+     * 参数取值是否有序（整数和双精度参数），有序参数的相邻下标取值相近
+     * @param dimension 参数序号
+     * @return 是否有序
+     */
+    boolean isOrdered(int dimension) {
+        return ordered[dimension];
+    }
+
+    /**
+     * 获取参数组合总数
+     * @return 参数组合总数
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * 下标数组转换为混合进制下标
+     * @param digits 下标数组
+     * @return 混合进制下标
+     */
+    long index(int[] digits) {
+        long index = 0;
+        for (int i = 0; i < digits.length; i++) {
+            index = index * values[i].length + digits[i];
+        }
+        return index;
+    }
+
+    /**
+     * 混合进制下标转换为下标数组
+     * @param index 混合进制下标
+     * @return 下标数组
+     */
+    int[] digits(long index) {
+        int[] digits = new int[names.length];
+        long remainder = index;
+        for (int i = names.length - 1; i >= 0; i--) {
+            digits[i] = (int) (remainder % values[i].length);
+            remainder /= values[i].length;
+        }
+        return digits;
+    }
+
+    /**
+     * 随机生成下标数组
+     * @param random 随机数生成器
+     * @return 下标数组
+     */
+    int[] randomDigits(SplittableRandom random) {
+        int[] digits = new int[names.length];
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = random.nextInt(values[i].length);
+        }
+        return digits;
+    }
+
+    /**
+     * 下标数组转换为参数组合
+     * @param digits 下标数组
+     * @return 参数组合
+     */
+    ParamSet toParamSet(int[] digits) {
+        ParamSet paramSet = new ParamSet();
+        for (int i = 0; i < names.length; i++) {
+            paramSet.addParam(names[i], values[i][digits[i]]);
+        }
+        return paramSet;
+    }
+}
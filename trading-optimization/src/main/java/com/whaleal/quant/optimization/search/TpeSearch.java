@@ -0,0 +1,396 @@
+package com.whaleal.quant.optimization.search;
+
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * TPE 参数搜索
+ * Tree-structured Parzen Estimator：按评分把已评估的参数组合分为较好的前 gamma 部分和其余部分，
+ * 对每个参数分别估计两部分的取值密度 l(x) 和 g(x)，从 l(x) 中采样并选择 l(x)/g(x) 最大的组合继续评估。
+ * 整数和双精度参数在取值下标上使用高斯核，布尔、枚举和自定义参数按频数估计；两者都加入均匀先验，保证每个取值都可能被采样
+ *
+ * <p>每轮按模型提出一批互不重复的参数组合并行回测，评分回来后重新拟合模型。
+ * 前若干次评估随机采样，用于建立初始模型
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class TpeSearch implements ParamSearch {
+
+    private static final int MAX_RANDOM_ATTEMPTS = 64;
+
+    private final int maxEvaluations;
+    private final int batchSize;
+    private final int startupEvaluations;
+    private final double gamma;
+    private final int candidateSamples;
+    private final double priorWeight;
+    private final long seed;
+
+    private TpeSearch(Builder builder) {
+        this.maxEvaluations = builder.maxEvaluations;
+        this.batchSize = builder.batchSize;
+        this.startupEvaluations = builder.startupEvaluations;
+        this.gamma = builder.gamma;
+        this.candidateSamples = builder.candidateSamples;
+        this.priorWeight = builder.priorWeight;
+        this.seed = builder.seed;
+    }
+
+    @Override
+    public String getName() {
+        return "TPE";
+    }
+
+    @Override
+    public OptimizationResult search(ParamSpace paramSpace, Function<List<ParamSet>, List<StrategyOptimizer.OptimizationCandidate>> evaluator) {
+        SearchSpace space = new SearchSpace(paramSpace);
+        SplittableRandom random = new SplittableRandom(seed);
+        int budget = (int) Math.min(maxEvaluations, space.size());
+
+        Set<Long> seen = new HashSet<>();
+        List<int[]> observed = new ArrayList<>(budget);
+        List<Double> scores = new ArrayList<>(budget);
+        List<StrategyOptimizer.OptimizationCandidate> candidates = new ArrayList<>(budget);
+
+        while (candidates.size() < budget) {
+            int count = Math.min(batchSize, budget - candidates.size());
+            Model model = observed.size() >= Math.max(1, startupEvaluations) ? fit(space, observed, scores) : null;
+
+            List<int[]> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int[] digits = model != null ? propose(space, model, seen, random) : randomUnseen(space, seen, random);
+                if (digits == null) {
+                    break;
+                }
+                seen.add(space.index(digits));
+                batch.add(digits);
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<ParamSet> paramSets = new ArrayList<>(batch.size());
+            for (int[] digits : batch) {
+                paramSets.add(space.toParamSet(digits));
+            }
+            List<StrategyOptimizer.OptimizationCandidate> evaluated = evaluator.apply(paramSets);
+            if (evaluated.size() != batch.size()) {
+                throw new IllegalStateException("Evaluator returned " + evaluated.size() + " candidates for " + batch.size() + " param sets");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                StrategyOptimizer.OptimizationCandidate candidate = evaluated.get(i);
+                candidates.add(candidate);
+                observed.add(batch.get(i));
+                scores.add(candidate.getScore());
+            }
+        }
+
+        candidates.sort(Comparator.comparingDouble(StrategyOptimizer.OptimizationCandidate::getScore).reversed());
+        return new OptimizationResult(candidates);
+    }
+
+    public int getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 拟合 l(x) 和 g(x)
+     * @param space 搜索空间
+     * @param observed 已评估的参数组合
+     * @param scores 对应评分
+     * @return 模型
+     */
+    private Model fit(SearchSpace space, List<int[]> observed, List<Double> scores) {
+        int n = observed.size();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        // 评分为 NaN 的组合视为最差
+        Arrays.sort(order, (a, b) -> Double.compare(rank(scores.get(b)), rank(scores.get(a))));
+        int goodCount = Math.max(1, (int) Math.ceil(gamma * n));
+
+        int dimensions = space.dimensions();
+        double[][] good = new double[dimensions][];
+        double[][] bad = new double[dimensions][];
+        for (int d = 0; d < dimensions; d++) {
+            int[] goodDigits = new int[goodCount];
+            int[] badDigits = new int[n - goodCount];
+            for (int i = 0; i < n; i++) {
+                int digit = observed.get(order[i])[d];
+                if (i < goodCount) {
+                    goodDigits[i] = digit;
+                } else {
+                    badDigits[i - goodCount] = digit;
+                }
+            }
+            good[d] = density(space.radix(d), space.isOrdered(d), goodDigits);
+            bad[d] = density(space.radix(d), space.isOrdered(d), badDigits);
+        }
+        return new Model(good, bad);
+    }
+
+    /**
+     * 估计单个参数取值下标的概率分布
+     * @param radix 取值个数
+     * @param ordered 是否有序
+     * @param digits 观测到的取值下标
+     * @return 概率分布
+     */
+    private double[] density(int radix, boolean ordered, int[] digits) {
+        double[] weights = new double[radix];
+        Arrays.fill(weights, priorWeight / radix);
+
+        if (ordered && radix > 1) {
+            // 观测越多带宽越窄，至少覆盖相邻取值
+            double bandwidth = Math.max(1.0, (radix - 1) / (2.0 * Math.sqrt(digits.length + 1)));
+            double[] kernel = new double[radix];
+            for (int digit : digits) {
+                double sum = 0.0;
+                for (int k = 0; k < radix; k++) {
+                    double z = (k - digit) / bandwidth;
+                    kernel[k] = Math.exp(-0.5 * z * z);
+                    sum += kernel[k];
+                }
+                for (int k = 0; k < radix; k++) {
+                    weights[k] += kernel[k] / sum;
+                }
+            }
+        } else {
+            for (int digit : digits) {
+                weights[digit] += 1.0;
+            }
+        }
+
+        double total = 0.0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        for (int k = 0; k < radix; k++) {
+            weights[k] /= total;
+        }
+        return weights;
+    }
+
+    /**
+     * 从 l(x) 中采样候选，选择 l(x)/g(x) 最大且未评估过的组合
+     * @param space 搜索空间
+     * @param model 模型
+     * @param seen 已评估或已提出的组合
+     * @param random 随机数生成器
+     * @return 下标数组，空间已穷尽时返回空
+     */
+    private int[] propose(SearchSpace space, Model model, Set<Long> seen, SplittableRandom random) {
+        int[] best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int s = 0; s < candidateSamples; s++) {
+            int[] digits = new int[space.dimensions()];
+            double score = 0.0;
+            for (int d = 0; d < digits.length; d++) {
+                digits[d] = sample(model.good[d], random);
+                score += Math.log(model.good[d][digits[d]]) - Math.log(model.bad[d][digits[d]]);
+            }
+            if (score > bestScore && !seen.contains(space.index(digits))) {
+                best = digits;
+                bestScore = score;
+            }
+        }
+        return best != null ? best : randomUnseen(space, seen, random);
+    }
+
+    /**
+     * 随机选择一个未评估过的组合
+     * @param space 搜索空间
+     * @param seen 已评估或已提出的组合
+     * @param random 随机数生成器
+     * @return 下标数组，空间已穷尽时返回空
+     */
+    static int[] randomUnseen(SearchSpace space, Set<Long> seen, SplittableRandom random) {
+        if (seen.size() >= space.size()) {
+            return null;
+        }
+        for (int attempt = 0; attempt < MAX_RANDOM_ATTEMPTS; attempt++) {
+            int[] digits = space.randomDigits(random);
+            if (!seen.contains(space.index(digits))) {
+                return digits;
+            }
+        }
+        // 空间接近穷尽时顺序查找
+        long start = random.nextLong(space.size());
+        for (long k = 0; k < space.size(); k++) {
+            long index = (start + k) % space.size();
+            if (!seen.contains(index)) {
+                return space.digits(index);
+            }
+        }
+        return null;
+    }
+
+    private static int sample(double[] probabilities, SplittableRandom random) {
+        double u = random.nextDouble();
+        double cumulative = 0.0;
+        for (int k = 0; k < probabilities.length; k++) {
+            cumulative += probabilities[k];
+            if (u < cumulative) {
+                return k;
+            }
+        }
+        return probabilities.length - 1;
+    }
+
+    private static double rank(double score) {
+        return Double.isNaN(score) ? Double.NEGATIVE_INFINITY : score;
+    }
+
+    /**
+     * 较好部分和其余部分的逐参数概率分布
+     */
+    private static final class Model {
+        private final double[][] good;
+        private final double[][] bad;
+
+        private Model(double[][] good, double[][] bad) {
+            this.good = good;
+            this.bad = bad;
+        }
+    }
+
+    /**
+     * Builder 类
+     */
+    public static class Builder {
+        private int maxEvaluations;
+        private int batchSize;
+        private int startupEvaluations;
+        private double gamma;
+        private int candidateSamples;
+        private double priorWeight;
+        private long seed;
+
+        public Builder() {
+            this.maxEvaluations = 100;
+            this.batchSize = Runtime.getRuntime().availableProcessors();
+            this.startupEvaluations = 10;
+            this.gamma = 0.25;
+            this.candidateSamples = 24;
+            this.priorWeight = 1.0;
+            this.seed = 42L;
+        }
+
+        /**
+         * 设置最多评估的参数组合数
+         * @param maxEvaluations 最多评估的参数组合数
+         * @return Builder 实例
+         */
+        public Builder maxEvaluations(int maxEvaluations) {
+            this.maxEvaluations = maxEvaluations;
+            return this;
+        }
+
+        /**
+         * 设置每批并行评估的参数组合数
+         * @param batchSize 每批参数组合数
+         * @return Builder 实例
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * 设置建立模型前随机评估的参数组合数
+         * @param startupEvaluations 随机评估数
+         * @return Builder 实例
+         */
+        public Builder startupEvaluations(int startupEvaluations) {
+            this.startupEvaluations = startupEvaluations;
+            return this;
+        }
+
+        /**
+         * 设置较好部分的比例
+         * @param gamma 比例，范围(0, 1)
+         * @return Builder 实例
+         */
+        public Builder gamma(double gamma) {
+            this.gamma = gamma;
+            return this;
+        }
+
+        /**
+         * 设置每次提出组合时从 l(x) 采样的候选数
+         * @param candidateSamples 候选数
+         * @return Builder 实例
+         */
+        public Builder candidateSamples(int candidateSamples) {
+            this.candidateSamples = candidateSamples;
+            return this;
+        }
+
+        /**
+         * 设置均匀先验的权重，相当于多少个观测
+         * @param priorWeight 先验权重
+         * @return Builder 实例
+         */
+        public Builder priorWeight(double priorWeight) {
+            this.priorWeight = priorWeight;
+            return this;
+        }
+
+        /**
+         * 设置随机种子
+         * @param seed 随机种子
+         * @return Builder 实例
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public TpeSearch build() {
+            if (maxEvaluations <= 0) {
+                throw new IllegalArgumentException("Max evaluations must be positive");
+            }
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive");
+            }
+            if (startupEvaluations < 0) {
+                throw new IllegalArgumentException("Startup evaluations must not be negative");
+            }
+            if (gamma <= 0 || gamma >= 1) {
+                throw new IllegalArgumentException("Gamma must be in (0, 1)");
+            }
+            if (candidateSamples <= 0) {
+                throw new IllegalArgumentException("Candidate samples must be positive");
+            }
+            if (priorWeight <= 0) {
+                throw new IllegalArgumentException("Prior weight must be positive");
+            }
+            return new TpeSearch(this);
+        }
+    }
+
+    /**
+     * 创建 Builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+}
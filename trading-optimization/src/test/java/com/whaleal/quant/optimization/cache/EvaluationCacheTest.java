@@ -0,0 +1,244 @@
+package com.whaleal.quant.optimization.cache;
+
+import com.whaleal.quant.backtest.data.BarSeriesDataProvider;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+import com.whaleal.quant.optimization.scorer.SharpeRatioScorer;
+import com.whaleal.quant.optimization.scorer.StrategyScorer;
+import com.whaleal.quant.optimization.scorer.TurnoverScorer;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 评估缓存测试
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class EvaluationCacheTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 31, 0, 0);
+
+    @Test
+    public void testLaterRecordOverridesEarlier() throws IOException {
+        Path file = Files.createTempDirectory("evaluation-cache").resolve("cache.bin");
+        String key;
+        try (EvaluationCache cache = EvaluationCache.open(file, "data-1", "strategy-1")) {
+            key = cache.key(params(1), config(), new SharpeRatioScorer());
+            cache.put(key, 0.25, null);
+            cache.put(key, 0.75, null);
+            assertEquals(1, cache.size());
+            assertEquals(0.75, cache.get(key).getScore(), 0.0);
+        }
+        try (EvaluationCache cache = EvaluationCache.open(file, "data-1", "strategy-1")) {
+            assertEquals(1, cache.size());
+            assertEquals(0.75, cache.get(key).getScore(), 0.0);
+        }
+    }
+
+    @Test
+    public void testTornTailIsTruncatedOnReopen() throws IOException {
+        Path file = Files.createTempDirectory("evaluation-cache").resolve("cache.bin");
+        String first;
+        String second;
+        long intact;
+        try (EvaluationCache cache = EvaluationCache.open(file, "data-1", "strategy-1")) {
+            first = cache.key(params(1), config(), new SharpeRatioScorer());
+            second = cache.key(params(2), config(), new SharpeRatioScorer());
+            cache.put(first, 0.5, null);
+            intact = Files.size(file);
+            cache.put(second, 0.6, null);
+        }
+        // 模拟写入第二条记录途中进程退出
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 5);
+        }
+
+        try (EvaluationCache cache = EvaluationCache.open(file, "data-1", "strategy-1")) {
+            assertEquals(1, cache.size());
+            assertEquals(0.5, cache.get(first).getScore(), 0.0);
+            assertNull(cache.get(second));
+            assertEquals(intact, Files.size(file));
+            cache.put(second, 0.6, null);
+        }
+        try (EvaluationCache cache = EvaluationCache.open(file, "data-1", "strategy-1")) {
+            assertEquals(2, cache.size());
+            assertEquals(0.6, cache.get(second).getScore(), 0.0);
+        }
+    }
+
+    @Test
+    public void testCorruptedTailIsTruncatedOnReopen() throws IOException {
+        Path file = Files.createTempDirectory("evaluation-cache").resolve("cache.bin");
+        String first;
+        long intact;
+        try (EvaluationCache cache = EvaluationCache.open(file, "data-1", "strategy-1")) {
+            first = cache.key(params(1), config(), new SharpeRatioScorer());
+            cache.put(first, 0.5, null);
+            intact = Files.size(file);
+            cache.put(cache.key(params(2), config(), new SharpeRatioScorer()), 0.6, null);
+        }
+        // 改写第二条记录的评分，校验和不再匹配
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), Files.size(file) - 6);
+        }
+
+        try (EvaluationCache cache = EvaluationCache.open(file, "data-1", "strategy-1")) {
+            assertEquals(1, cache.size());
+            assertNotNull(cache.get(first));
+            assertEquals(intact, Files.size(file));
+        }
+    }
+
+    @Test
+    public void testKeyChangesWithConfigVersionsAndScorer() throws IOException {
+        Path directory = Files.createTempDirectory("evaluation-cache");
+        try (EvaluationCache cache = EvaluationCache.open(directory.resolve("a.bin"), "data-1", "strategy-1");
+             EvaluationCache otherData = EvaluationCache.open(directory.resolve("b.bin"), "data-2", "strategy-1");
+             EvaluationCache otherStrategy = EvaluationCache.open(directory.resolve("c.bin"), "data-1", "strategy-2")) {
+            String key = cache.key(params(1), config(), new SharpeRatioScorer());
+            cache.put(key, 0.5, null);
+
+            // 相同输入命中
+            assertNotNull(cache.get(cache.key(params(1), config(), new SharpeRatioScorer())));
+
+            assertNull(cache.get(cache.key(params(2), config(), new SharpeRatioScorer())));
+            assertNull(cache.get(cache.key(params(1), config().setInitialCapital(200000), new SharpeRatioScorer())));
+            assertNull(cache.get(cache.key(params(1), config().setEndDate(END.minusDays(1)), new SharpeRatioScorer())));
+            assertNull(cache.get(cache.key(params(1), config(), new SharpeRatioScorer(0.03))));
+            assertNull(cache.get(cache.key(params(1), config(), new TurnoverScorer())));
+            assertNotEquals(key, otherData.key(params(1), config(), new SharpeRatioScorer()));
+            assertNotEquals(key, otherStrategy.key(params(1), config(), new SharpeRatioScorer()));
+        }
+    }
+
+    @Test
+    public void testStoredResultIsRescoredWithCurrentScorer() throws IOException {
+        Path file = Files.createTempDirectory("evaluation-cache").resolve("cache.bin");
+        try (EvaluationCache cache = EvaluationCache.open(file, "data-1", "strategy-1")) {
+            OptimizationResult first = optimizer(cache, new FixedScorer(0.2)).optimize();
+            assertEquals(3, cache.size());
+            assertEquals(0.2, first.getBestCandidate().getScore(), 0.0);
+        }
+        try (EvaluationCache cache = EvaluationCache.open(file, "data-1", "strategy-1")) {
+            // 评分器标识相同但评分逻辑已变，命中缓存的回测结果并用当前评分器重新评分
+            StrategyOptimizer optimizer = optimizer(cache, new FixedScorer(0.9));
+            OptimizationResult second = optimizer.optimize();
+            assertEquals(3, optimizer.getProgress().getCached());
+            for (StrategyOptimizer.OptimizationCandidate candidate : second.getAllCandidates()) {
+                assertEquals(0.9, candidate.getScore(), 0.0);
+                assertNotNull(candidate.getCompactResult());
+            }
+        }
+    }
+
+    @Test
+    public void testScoreOnlyEntriesMissWhenScorerChanges() throws IOException {
+        Path file = Files.createTempDirectory("evaluation-cache").resolve("cache.bin");
+        try (EvaluationCache cache = EvaluationCache.open(file, "data-1", "strategy-1", false)) {
+            optimizer(cache, new SharpeRatioScorer()).optimize();
+            assertEquals(3, cache.size());
+            assertFalse(cache.get(cache.key(new ParamSet().addParam("n", 1), config(), new SharpeRatioScorer())).hasResult());
+
+            StrategyOptimizer same = optimizer(cache, new SharpeRatioScorer());
+            same.optimize();
+            assertEquals(3, same.getProgress().getCached());
+
+            StrategyOptimizer changed = optimizer(cache, new SharpeRatioScorer(0.05));
+            changed.optimize();
+            assertEquals(0, changed.getProgress().getCached());
+            assertEquals(6, cache.size());
+        }
+    }
+
+    private static StrategyOptimizer optimizer(EvaluationCache cache, StrategyScorer scorer) {
+        return StrategyOptimizer.builder()
+                .paramSpace(new ParamSpace().addIntParam("n", 1, 3, 1))
+                .scorer(scorer)
+                .strategyFactory(paramSet -> StrategyEngine.builder().strategyName("cache-" + paramSet).build())
+                .dataProvider(weekdayBars())
+                .backtestConfig(config())
+                .evaluationCache(cache)
+                .build();
+    }
+
+    private static ParamSet params(int n) {
+        ParamSet paramSet = new ParamSet();
+        paramSet.addParam("n", n);
+        paramSet.addParam("mode", "fast");
+        return paramSet;
+    }
+
+    private static BacktestConfig config() {
+        return new BacktestConfig()
+                .setStartDate(START)
+                .setEndDate(END)
+                .setSymbols(new HashSet<>(Collections.singletonList("AAA")));
+    }
+
+    private static BarSeriesDataProvider weekdayBars() {
+        List<Bar> bars = new ArrayList<>();
+        for (LocalDateTime day = START; !day.isAfter(END); day = day.plusDays(1)) {
+            if (day.getDayOfWeek().getValue() < 6) {
+                Bar bar = new Bar();
+                bar.setSymbol("AAA");
+                bar.setTimestamp(day.toInstant(ZoneOffset.UTC));
+                bar.setClose(BigDecimal.valueOf(100 + day.getDayOfMonth()));
+                bars.add(bar);
+            }
+        }
+        Map<String, List<Bar>> barsBySymbol = new HashMap<>();
+        barsBySymbol.put("AAA", bars);
+        return new BarSeriesDataProvider(barsBySymbol, Interval.DAY_1);
+    }
+
+    /**
+     * 返回固定评分且不带参数标识的评分器，模拟评分逻辑变化但标识不变
+     */
+    private static final class FixedScorer implements StrategyScorer {
+        private final double score;
+
+        private FixedScorer(double score) {
+            this.score = score;
+        }
+
+        @Override
+        public double score(BacktestResult result) {
+            return score;
+        }
+
+        @Override
+        public String getName() {
+            return "FixedScorer";
+        }
+    }
+}
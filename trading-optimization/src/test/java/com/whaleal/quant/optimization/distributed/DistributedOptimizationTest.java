@@ -0,0 +1,491 @@
+package com.whaleal.quant.optimization.distributed;
+
+import com.whaleal.quant.alpha.factor.BuyFactor;
+import com.whaleal.quant.backtest.data.BacktestDataProvider;
+import com.whaleal.quant.backtest.data.BarSeriesDataProvider;
+import com.whaleal.quant.backtest.data.MarketDataSnapshot;
+import com.whaleal.quant.backtest.engine.BacktestEngine;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.model.PerformanceTracker;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+import com.whaleal.quant.optimization.scorer.SharpeRatioScorer;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 分布式优化测试
+ * 工作进程以独立 JVM 在本机启动，通过 TCP 连接协调者
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class DistributedOptimizationTest {
+
+    private static final String SECRET = "test-secret";
+
+    @Test
+    public void testJobsAreDispatchedToWorkerProcesses() throws Exception {
+        List<WorkerProcess> processes = new ArrayList<>();
+        try (OptimizationCoordinator coordinator = coordinator(3)) {
+            for (int i = 0; i < 3; i++) {
+                processes.add(WorkerProcess.start(coordinator.getLocalPort(), SECRET, "normal"));
+            }
+            assertTrue(coordinator.awaitWorkers(3, 30, TimeUnit.SECONDS));
+
+            List<ParamSet> paramSets = new ParamSpace().addIntParam("n", 1, 30, 1).generateParamSets();
+            OptimizationResult result = coordinator.optimize(paramSets);
+
+            assertEquals(30, result.getCandidateCount());
+            for (StrategyOptimizer.OptimizationCandidate candidate : result.getAllCandidates()) {
+                assertNotNull(candidate.getResult());
+            }
+            assertEquals(0, coordinator.getRedispatchCount());
+        } finally {
+            processes.forEach(WorkerProcess::kill);
+        }
+    }
+
+    @Test
+    public void testJobOfKilledWorkerIsRedispatched() throws Exception {
+        List<WorkerProcess> processes = new ArrayList<>();
+        try (OptimizationCoordinator coordinator = coordinator(3)) {
+            WorkerProcess slow = WorkerProcess.start(coordinator.getLocalPort(), SECRET, "slow");
+            processes.add(slow);
+            assertTrue(coordinator.awaitWorkers(1, 30, TimeUnit.SECONDS));
+
+            List<ParamSet> paramSets = new ParamSpace().addIntParam("n", 1, 6, 1).generateParamSets();
+            CompletableFuture<OptimizationResult> running = CompletableFuture.supplyAsync(() -> coordinator.optimize(paramSets));
+
+            // 慢进程拿到任务后再启动正常进程并杀掉慢进程
+            assertTrue(slow.awaitJobStarted(30, TimeUnit.SECONDS));
+            processes.add(WorkerProcess.start(coordinator.getLocalPort(), SECRET, "normal"));
+            assertTrue(coordinator.awaitWorkers(2, 30, TimeUnit.SECONDS));
+            slow.kill();
+
+            OptimizationResult result = running.get(60, TimeUnit.SECONDS);
+            assertEquals(6, result.getCandidateCount());
+            for (StrategyOptimizer.OptimizationCandidate candidate : result.getAllCandidates()) {
+                assertNotNull(candidate.getResult());
+            }
+            assertTrue(coordinator.getRedispatchCount() >= 1);
+        } finally {
+            processes.forEach(WorkerProcess::kill);
+        }
+    }
+
+    @Test
+    public void testJobFailsAfterMaxAttempts() throws Exception {
+        List<WorkerProcess> processes = new ArrayList<>();
+        try (OptimizationCoordinator coordinator = coordinator(2)) {
+            processes.add(WorkerProcess.start(coordinator.getLocalPort(), SECRET, "fail"));
+            processes.add(WorkerProcess.start(coordinator.getLocalPort(), SECRET, "fail"));
+            assertTrue(coordinator.awaitWorkers(2, 30, TimeUnit.SECONDS));
+
+            List<ParamSet> paramSets = new ParamSpace().addIntParam("n", 1, 4, 1).generateParamSets();
+            OptimizationResult result = coordinator.optimize(paramSets);
+
+            assertEquals(4, result.getCandidateCount());
+            for (StrategyOptimizer.OptimizationCandidate candidate : result.getAllCandidates()) {
+                assertNull(candidate.getResult());
+                assertEquals(0.0, candidate.getScore(), 0.0);
+            }
+            // 每个任务尝试 2 次，只重新分发 1 次
+            assertEquals(4, coordinator.getRedispatchCount());
+        } finally {
+            processes.forEach(WorkerProcess::kill);
+        }
+    }
+
+    @Test
+    public void testWorkerWithWrongSecretIsRejected() throws Exception {
+        try (OptimizationCoordinator coordinator = coordinator(3)) {
+            OptimizationWorker worker = OptimizationWorker.builder()
+                    .coordinator("127.0.0.1", coordinator.getLocalPort())
+                    .sharedSecret("wrong-secret")
+                    .strategyFactory(paramSet -> null)
+                    .dataProvider(new BarSeriesDataProvider(new HashMap<>(), Interval.DAY_1))
+                    .build();
+            try {
+                worker.run();
+                fail("Worker with a wrong secret should be disconnected");
+            } catch (IOException expected) {
+                // 协调者校验失败后直接断开
+            }
+            assertEquals(0, coordinator.getWorkerCount());
+        }
+    }
+
+    @Test
+    public void testSilentClientDoesNotBlockOtherWorkers() throws Exception {
+        List<WorkerProcess> processes = new ArrayList<>();
+        try (OptimizationCoordinator coordinator = OptimizationCoordinator.builder()
+                .scorer(new SharpeRatioScorer())
+                .backtestConfig(WorkerProcessMain.config())
+                .sharedSecret(SECRET)
+                .heartbeatTimeoutMillis(60000)
+                .build()
+                .start();
+             Socket silent = new Socket("127.0.0.1", coordinator.getLocalPort())) {
+            processes.add(WorkerProcess.start(coordinator.getLocalPort(), SECRET, "normal"));
+            assertTrue(coordinator.awaitWorkers(1, 30, TimeUnit.SECONDS));
+            assertFalse(silent.isClosed());
+        } finally {
+            processes.forEach(WorkerProcess::kill);
+        }
+    }
+
+    @Test
+    public void testExecuteFailsWithoutWorkers() throws Exception {
+        try (OptimizationCoordinator coordinator = OptimizationCoordinator.builder()
+                .scorer(new SharpeRatioScorer())
+                .backtestConfig(WorkerProcessMain.config())
+                .workerWaitTimeoutMillis(200)
+                .build()
+                .start()) {
+            try {
+                coordinator.optimize(new ParamSpace().addIntParam("n", 1, 2, 1).generateParamSets());
+                fail("Optimization without workers should time out");
+            } catch (IllegalStateException expected) {
+                assertTrue(expected.getMessage().contains("No workers"));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonLoopbackBindRequiresSecret() {
+        OptimizationCoordinator.builder()
+                .scorer(new SharpeRatioScorer())
+                .bindAddress("0.0.0.0")
+                .build();
+    }
+
+    @Test
+    public void testOversizedLengthIsRejected() throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        // 指标、盈亏、订单、持仓均为空，交易统计为 0，权益曲线长度伪造为 Integer.MAX_VALUE
+        for (int i = 0; i < 4; i++) {
+            out.writeInt(0);
+        }
+        for (int i = 0; i < 3; i++) {
+            out.writeInt(0);
+        }
+        out.writeInt(Integer.MAX_VALUE);
+        out.flush();
+        try {
+            DistributedProtocol.readResult(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())), WorkerProcessMain.config());
+            fail("Oversized length should be rejected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("equity curve"));
+        }
+    }
+
+    @Test
+    public void testPartitionsOverSharedSnapshotMergeToSingleRun() throws Exception {
+        MarketDataSnapshot snapshot = WorkerProcessMain.snapshot();
+        List<Set<String>> seenByEngine = new CopyOnWriteArrayList<>();
+        try (OptimizationCoordinator coordinator = coordinator(1)) {
+            startInProcessWorker(coordinator, snapshot, paramSet -> {
+                Set<String> seen = ConcurrentHashMap.newKeySet();
+                seenByEngine.add(seen);
+                return recordingStrategy(seen);
+            });
+            assertTrue(coordinator.awaitWorkers(1, 30, TimeUnit.SECONDS));
+
+            BacktestResult merged = coordinator.backtestPartitioned(new ParamSet().addParam("n", 1),
+                    Arrays.asList(Collections.singleton("AAA"), Collections.singleton("BBB")));
+
+            // 每个分区的引擎只读到本分区的交易对
+            assertEquals(2, seenByEngine.size());
+            Set<String> union = new HashSet<>();
+            for (Set<String> seen : seenByEngine) {
+                assertEquals(1, seen.size());
+                union.addAll(seen);
+            }
+            assertEquals(WorkerProcessMain.SYMBOLS, union);
+
+            // 单次回测两个交易对，初始资金为两个分区之和
+            BacktestConfig singleConfig = WorkerProcessMain.config().setInitialCapital(2 * WorkerProcessMain.config().getInitialCapital());
+            BacktestResult single = BacktestEngine.builder()
+                    .config(singleConfig)
+                    .dataProvider(snapshot)
+                    .strategyEngine(recordingStrategy(ConcurrentHashMap.newKeySet()))
+                    .build()
+                    .run();
+
+            assertEquals(WorkerProcessMain.SYMBOLS, merged.getConfig().getSymbols());
+            assertEquals(singleConfig.getInitialCapital(), merged.getConfig().getInitialCapital(), 0.0);
+            assertArrayEquals(single.getEquityTimestamps(), merged.getEquityTimestamps());
+            assertArrayEquals(single.getEquityCurve(), merged.getEquityCurve(), 1e-9);
+            assertEquals(single.getMetrics(), merged.getMetrics());
+        }
+    }
+
+    @Test
+    public void testMergePartitionsAlignsTimestampsAndRecomputesMetrics() {
+        BacktestConfig base = WorkerProcessMain.config();
+        BacktestResult first = BacktestResult.builder()
+                .config(new BacktestConfig(base).setSymbols(new HashSet<>(Collections.singleton("AAA"))).setInitialCapital(100.0))
+                .equityCurve(new long[]{1L, 2L, 4L}, new double[]{100.0, 110.0, 120.0})
+                .tradePnls(new double[]{10.0})
+                .tradeCount(1)
+                .winCount(1)
+                .build();
+        BacktestResult second = BacktestResult.builder()
+                .config(new BacktestConfig(base).setSymbols(new HashSet<>(Collections.singleton("BBB"))).setInitialCapital(200.0))
+                .equityCurve(new long[]{2L, 3L, 4L}, new double[]{190.0, 180.0, 220.0})
+                .tradePnls(new double[]{-10.0, 30.0})
+                .tradeCount(2)
+                .winCount(1)
+                .lossCount(1)
+                .build();
+
+        BacktestResult merged = OptimizationCoordinator.mergePartitions(base, Arrays.asList(first, second));
+
+        assertEquals(WorkerProcessMain.SYMBOLS, merged.getConfig().getSymbols());
+        assertEquals(300.0, merged.getConfig().getInitialCapital(), 0.0);
+        // 时间戳取并集，分区在某时间点无记录时沿用上一次权益，首个记录之前按初始资金计
+        assertArrayEquals(new long[]{1L, 2L, 3L, 4L}, merged.getEquityTimestamps());
+        assertArrayEquals(new double[]{300.0, 300.0, 290.0, 340.0}, merged.getEquityCurve(), 1e-9);
+
+        // 指标按合并后的权益曲线重新计算
+        PerformanceTracker expected = new PerformanceTracker(300.0, base.getPeriodsPerYear(), base.getRiskFreeRate());
+        long[] timestamps = merged.getEquityTimestamps();
+        double[] equity = {300.0, 300.0, 290.0, 340.0};
+        for (int i = 0; i < timestamps.length; i++) {
+            expected.record(timestamps[i], equity[i]);
+        }
+        Map<String, Double> expectedMetrics = new HashMap<>();
+        expected.writeMetrics(expectedMetrics);
+        for (Map.Entry<String, Double> entry : expectedMetrics.entrySet()) {
+            assertEquals(entry.getKey(), entry.getValue(), merged.getMetrics().get(entry.getKey()), 1e-12);
+        }
+        assertEquals(40.0 / 300.0, merged.getTotalReturn(), 1e-12);
+        assertTrue(merged.getMaxDrawdown() > 0.0);
+        assertEquals(40.0, merged.getMetrics().get("totalPnl"), 1e-9);
+        assertEquals(2.0 / 3.0, merged.getMetrics().get("winRate"), 1e-12);
+
+        assertEquals(3, merged.getTradeCount());
+        assertEquals(2, merged.getWinCount());
+        assertEquals(1, merged.getLossCount());
+        assertArrayEquals(new double[]{10.0, -10.0, 30.0}, merged.getTradePnls(), 0.0);
+    }
+
+    @Test
+    public void testMalformedResultCountsAsWorkerFailure() throws Exception {
+        try (OptimizationCoordinator coordinator = OptimizationCoordinator.builder()
+                .scorer(new SharpeRatioScorer())
+                .backtestConfig(WorkerProcessMain.config())
+                .sharedSecret(SECRET)
+                .heartbeatTimeoutMillis(60000)
+                .maxAttempts(2)
+                .build()
+                .start();
+             Socket rogue = new Socket("127.0.0.1", coordinator.getLocalPort())) {
+            DataInputStream in = new DataInputStream(rogue.getInputStream());
+            DataOutputStream out = new DataOutputStream(rogue.getOutputStream());
+            assertEquals(DistributedProtocol.CHALLENGE, in.readByte());
+            assertEquals(DistributedProtocol.MAGIC, in.readInt());
+            assertEquals(DistributedProtocol.VERSION, in.readInt());
+            byte[] nonce = new byte[DistributedProtocol.NONCE_LENGTH];
+            in.readFully(nonce);
+            out.writeByte(DistributedProtocol.HELLO);
+            out.writeInt(DistributedProtocol.MAGIC);
+            out.writeInt(DistributedProtocol.VERSION);
+            out.writeUTF("rogue");
+            out.writeInt(1);
+            out.write(DistributedProtocol.authenticate(SECRET, nonce, "rogue"));
+            out.flush();
+            assertTrue(coordinator.awaitWorkers(1, 30, TimeUnit.SECONDS));
+
+            CompletableFuture<OptimizationResult> future = CompletableFuture.supplyAsync(
+                    () -> coordinator.optimize(Collections.singletonList(new ParamSet().addParam("n", 1))));
+            assertEquals(DistributedProtocol.JOB, in.readByte());
+            long jobId = in.readLong();
+            DistributedProtocol.readParamSet(in);
+            DistributedProtocol.readConfig(in);
+
+            // 指标、盈亏为空，一个订单的时间戳超出 Instant 范围，解析时抛出运行时异常而不是 IOException
+            out.writeByte(DistributedProtocol.RESULT);
+            out.writeLong(jobId);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeInt(1);
+            out.writeUTF("AAA");
+            out.writeInt(1);
+            for (int i = 0; i < 6; i++) {
+                out.writeBoolean(false);
+            }
+            for (int i = 0; i < 7; i++) {
+                out.writeByte(-1);
+            }
+            out.writeBoolean(true);
+            out.writeLong(Long.MAX_VALUE);
+            out.writeInt(0);
+            out.flush();
+
+            // 协调者断开该连接，任务重新分发给其他工作进程
+            rogue.setSoTimeout(10000);
+            try {
+                assertEquals(-1, in.read());
+            } catch (SocketException reset) {
+                // 连接被重置同样说明已断开
+            }
+            startInProcessWorker(coordinator, WorkerProcessMain.snapshot(),
+                    paramSet -> StrategyEngine.builder().strategyName("worker-" + paramSet).build());
+            OptimizationResult result = future.get(30, TimeUnit.SECONDS);
+            assertEquals(1, result.getCandidateCount());
+            assertNotNull(result.getBestCandidate().getResult());
+        }
+    }
+
+    /**
+     * 在当前进程中启动工作进程，协调者关闭后线程退出
+     */
+    private static void startInProcessWorker(OptimizationCoordinator coordinator, BacktestDataProvider dataProvider,
+                                             Function<ParamSet, StrategyEngine> strategyFactory) {
+        OptimizationWorker worker = OptimizationWorker.builder()
+                .coordinator("127.0.0.1", coordinator.getLocalPort())
+                .sharedSecret(SECRET)
+                .slots(2)
+                .heartbeatIntervalMillis(200)
+                .dataProvider(dataProvider)
+                .strategyFactory(strategyFactory)
+                .build();
+        Thread workerThread = new Thread(() -> {
+            try {
+                worker.run();
+            } catch (IOException e) {
+                // 协调者关闭后连接断开
+            }
+        }, "in-process-worker");
+        workerThread.setDaemon(true);
+        workerThread.start();
+    }
+
+    /**
+     * 股票池包含全部交易对，买入因子记录收到行情的交易对
+     */
+    private static StrategyEngine recordingStrategy(Set<String> seen) {
+        BuyFactor recorder = new BuyFactor() {
+            @Override
+            public String getName() {
+                return "recorder";
+            }
+
+            @Override
+            public double calculateBuySignal(String symbol, List<Bar> bars, Ticker ticker) {
+                seen.add(symbol);
+                return 0.0;
+            }
+        };
+        StrategyEngine strategyEngine = StrategyEngine.builder()
+                .strategyName("recorder")
+                .buyFactors(Collections.singletonList(recorder))
+                .build();
+        strategyEngine.setStockPool(new HashSet<>(WorkerProcessMain.SYMBOLS));
+        return strategyEngine;
+    }
+
+    private static OptimizationCoordinator coordinator(int maxAttempts) throws IOException {
+        return OptimizationCoordinator.builder()
+                .scorer(new SharpeRatioScorer())
+                .backtestConfig(WorkerProcessMain.config())
+                .sharedSecret(SECRET)
+                .heartbeatTimeoutMillis(5000)
+                .maxAttempts(maxAttempts)
+                .build()
+                .start();
+    }
+
+    /**
+     * 独立 JVM 中运行的工作进程
+     */
+    private static final class WorkerProcess {
+        private final Process process;
+        private final CountDownLatch jobStarted = new CountDownLatch(1);
+
+        private WorkerProcess(Process process) {
+            this.process = process;
+            Thread reader = new Thread(this::drainOutput, "worker-process-output");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        static WorkerProcess start(int port, String secret, String mode) throws IOException {
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    WorkerProcessMain.class.getName(), String.valueOf(port), secret, mode)
+                    .redirectErrorStream(true)
+                    .start();
+            return new WorkerProcess(process);
+        }
+
+        boolean awaitJobStarted(long timeout, TimeUnit unit) throws InterruptedException {
+            return jobStarted.await(timeout, unit);
+        }
+
+        void kill() {
+            process.destroyForcibly();
+            try {
+                process.waitFor(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void drainOutput() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.contains(WorkerProcessMain.JOB_STARTED)) {
+                        jobStarted.countDown();
+                    }
+                }
+            } catch (IOException e) {
+                // 进程被杀掉后输出流关闭
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.whaleal.quant.optimization.distributed;
+
+import com.whaleal.quant.backtest.data.BarSeriesDataProvider;
+import com.whaleal.quant.backtest.data.MarketDataSnapshot;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 测试用工作进程入口，由 {@link DistributedOptimizationTest} 以独立 JVM 启动
+ *
+ * <p>参数：协调者端口、共享密钥、模式。模式 {@code normal} 正常回测；{@code slow} 只开一个槽位，
+ * 收到任务后输出 {@link #JOB_STARTED} 并长时间阻塞，用于模拟执行中被杀掉的进程；
+ * {@code fail} 每个任务都抛出异常
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public final class WorkerProcessMain {
+
+    static final String JOB_STARTED = "JOB_STARTED";
+    static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    static final LocalDateTime END = LocalDateTime.of(2024, 1, 31, 0, 0);
+    static final Set<String> SYMBOLS = new HashSet<>(Arrays.asList("AAA", "BBB"));
+
+    private WorkerProcessMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(args[0]);
+        String secret = args[1];
+        String mode = args[2];
+
+        OptimizationWorker.builder()
+                .coordinator("127.0.0.1", port)
+                .sharedSecret(secret)
+                .slots("slow".equals(mode) ? 1 : 2)
+                .heartbeatIntervalMillis(200)
+                .dataProvider(snapshot())
+                .strategyFactory(paramSet -> {
+                    if ("slow".equals(mode)) {
+                        System.out.println(JOB_STARTED);
+                        System.out.flush();
+                        try {
+                            Thread.sleep(60000);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    } else if ("fail".equals(mode)) {
+                        throw new IllegalStateException("injected failure");
+                    }
+                    return StrategyEngine.builder().strategyName("worker-" + paramSet).build();
+                })
+                .build()
+                .run();
+    }
+
+    static BacktestConfig config() {
+        return new BacktestConfig()
+                .setStartDate(START)
+                .setEndDate(END)
+                .setSymbols(new HashSet<>(SYMBOLS));
+    }
+
+    static MarketDataSnapshot snapshot() {
+        return MarketDataSnapshot.capture(weekdayBars(), SYMBOLS, START, END);
+    }
+
+    private static BarSeriesDataProvider weekdayBars() {
+        Map<String, List<Bar>> barsBySymbol = new HashMap<>();
+        for (String symbol : SYMBOLS) {
+            List<Bar> bars = new ArrayList<>();
+            for (LocalDateTime day = START; !day.isAfter(END); day = day.plusDays(1)) {
+                if (day.getDayOfWeek().getValue() < 6) {
+                    Bar bar = new Bar();
+                    bar.setSymbol(symbol);
+                    bar.setTimestamp(day.toInstant(ZoneOffset.UTC));
+                    bar.setClose(BigDecimal.valueOf(100 + day.getDayOfMonth()));
+                    bars.add(bar);
+                }
+            }
+            barsBySymbol.put(symbol, bars);
+        }
+        return new BarSeriesDataProvider(barsBySymbol, Interval.DAY_1);
+    }
+}
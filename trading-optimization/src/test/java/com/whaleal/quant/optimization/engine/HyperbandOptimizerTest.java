@@ -0,0 +1,310 @@
+package com.whaleal.quant.optimization.engine;
+
+import com.whaleal.quant.alpha.factor.BuyFactor;
+import com.whaleal.quant.backtest.checkpoint.Checkpointable;
+import com.whaleal.quant.backtest.data.BarSeriesDataProvider;
+import com.whaleal.quant.backtest.engine.BacktestEngine;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.model.Ticker;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+import com.whaleal.quant.optimization.scorer.StrategyScorer;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import org.junit.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Hyperband 参数优化器测试
+ * 完整区间 27 天、最短区间 3 天、eta 为 3 时，单组逐次减半的三轮分别回测 9、3、1 个候选，
+ * 区间依次为前 3 天、前 9 天和完整区间
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class HyperbandOptimizerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 27, 0, 0);
+    private static final LocalDateTime RUNG_0_END = LocalDateTime.of(2024, 1, 3, 0, 0);
+    private static final LocalDateTime RUNG_1_END = LocalDateTime.of(2024, 1, 9, 0, 0);
+    private static final String SYMBOL = "AAA";
+
+    @Test
+    public void testRungSizesSurvivorsAndCheckpointCleanup() throws IOException {
+        Path root = Files.createTempDirectory("hyperband-test");
+        try {
+            RecordingScorer scorer = new RecordingScorer();
+            Map<String, CountingFactor> factors = new ConcurrentHashMap<>();
+            OptimizationResult result = optimizer(scorer, factors, root).optimize();
+
+            // 每轮回测的候选数
+            Map<LocalDateTime, List<Evaluation>> byRung = scorer.evaluations.stream()
+                    .collect(Collectors.groupingBy(e -> e.endDate));
+            assertEquals(3, byRung.size());
+            assertEquals(9, byRung.get(RUNG_0_END).size());
+            assertEquals(3, byRung.get(RUNG_1_END).size());
+            assertEquals(1, byRung.get(END).size());
+
+            // 每轮保留评分最高的 1/eta
+            List<Integer> rung0 = values(byRung.get(RUNG_0_END));
+            List<Integer> rung1 = values(byRung.get(RUNG_1_END));
+            List<Integer> rung2 = values(byRung.get(END));
+            assertEquals(topThirdOf(rung0), new HashSet<>(rung1));
+            assertEquals(topThirdOf(rung1), new HashSet<>(rung2));
+            assertEquals(1, result.getCandidateCount());
+            assertEquals(Collections.max(rung0).intValue(), result.getBestCandidate().getParamSet().getIntParam("n", -1));
+
+            // 被淘汰候选的检查点在下一轮开始前已删除，下一轮评分时目录中只剩晋级候选
+            for (LocalDateTime rungEnd : new LocalDateTime[]{RUNG_1_END, END}) {
+                Set<String> rungDirectories = new HashSet<>();
+                for (Evaluation evaluation : byRung.get(rungEnd)) {
+                    rungDirectories.add(evaluation.directory);
+                }
+                for (Evaluation evaluation : byRung.get(rungEnd)) {
+                    assertEquals(rungDirectories, evaluation.existingDirectories);
+                }
+            }
+            // 结束后不残留任何检查点
+            try (Stream<Path> paths = Files.walk(root)) {
+                assertFalse(paths.anyMatch(p -> p.toString().endsWith(".ckpt")));
+            }
+        } finally {
+            deleteRecursively(root);
+        }
+    }
+
+    @Test
+    public void testResumedFinalistMatchesFullRun() throws IOException {
+        Path root = Files.createTempDirectory("hyperband-test");
+        try {
+            Map<String, CountingFactor> factors = new ConcurrentHashMap<>();
+            OptimizationResult result = optimizer(new RecordingScorer(), factors, root).optimize();
+            StrategyOptimizer.OptimizationCandidate best = result.getBestCandidate();
+
+            // 同一参数组合一次跑完完整区间
+            CountingFactor fullFactor = new CountingFactor();
+            BacktestResult full = BacktestEngine.builder()
+                    .config(config())
+                    .dataProvider(weekdayBars())
+                    .strategyEngine(strategy(fullFactor))
+                    .build()
+                    .run();
+
+            // 分三段续跑的结果与一次跑完一致，包括因子内部状态
+            BacktestResult resumed = best.getResult();
+            assertArrayEquals(full.getEquityTimestamps(), resumed.getEquityTimestamps());
+            assertArrayEquals(full.getEquityCurve(), resumed.getEquityCurve(), 0.0);
+            assertEquals(full.getMetrics(), resumed.getMetrics());
+            CountingFactor resumedFactor = factors.get(HyperbandOptimizer.checkpointTag(best.getParamSet()));
+            assertEquals(fullFactor.count, resumedFactor.count);
+            assertEquals(fullFactor.closeSum, resumedFactor.closeSum);
+        } finally {
+            deleteRecursively(root);
+        }
+    }
+
+    @Test
+    public void testCheckpointTagIgnoresInsertionOrder() {
+        ParamSet first = new ParamSet().addParam("a", 1).addParam("b", 2);
+        ParamSet second = new ParamSet().addParam("b", 2).addParam("a", 1);
+        assertEquals(HyperbandOptimizer.checkpointTag(first), HyperbandOptimizer.checkpointTag(second));
+        assertNotEquals(HyperbandOptimizer.checkpointTag(first),
+                HyperbandOptimizer.checkpointTag(new ParamSet().addParam("a", 1).addParam("b", 3)));
+    }
+
+    private static HyperbandOptimizer optimizer(StrategyScorer scorer, Map<String, CountingFactor> factors, Path root) {
+        return HyperbandOptimizer.builder()
+                .paramSpace(new ParamSpace().addIntParam("n", 1, 12, 1))
+                .scorer(scorer)
+                .strategyFactory(paramSet -> {
+                    CountingFactor factor = new CountingFactor();
+                    // 每轮新建策略，记录最后一轮的因子
+                    factors.put(HyperbandOptimizer.checkpointTag(paramSet), factor);
+                    return strategy(factor);
+                })
+                .dataProvider(weekdayBars())
+                .backtestConfig(config())
+                .minPeriod(Period.ofDays(3))
+                .eta(3)
+                .brackets(1)
+                .checkpointDirectory(root)
+                .parallelThreads(4)
+                .seed(7L)
+                .build();
+    }
+
+    private static Set<Integer> topThirdOf(List<Integer> values) {
+        List<Integer> sorted = new ArrayList<>(values);
+        sorted.sort(Comparator.reverseOrder());
+        return new HashSet<>(sorted.subList(0, sorted.size() / 3));
+    }
+
+    private static List<Integer> values(List<Evaluation> evaluations) {
+        List<Integer> values = new ArrayList<>();
+        for (Evaluation evaluation : evaluations) {
+            values.add(evaluation.value);
+        }
+        return values;
+    }
+
+    private static BacktestConfig config() {
+        return new BacktestConfig()
+                .setStartDate(START)
+                .setEndDate(END)
+                .setSymbols(new HashSet<>(Collections.singleton(SYMBOL)));
+    }
+
+    private static StrategyEngine strategy(CountingFactor factor) {
+        StrategyEngine strategyEngine = StrategyEngine.builder()
+                .strategyName("hyperband")
+                .buyFactors(Collections.singletonList(factor))
+                .build();
+        strategyEngine.setStockPool(new HashSet<>(Collections.singleton(SYMBOL)));
+        return strategyEngine;
+    }
+
+    private static BarSeriesDataProvider weekdayBars() {
+        List<Bar> bars = new ArrayList<>();
+        for (LocalDateTime day = START; !day.isAfter(END); day = day.plusDays(1)) {
+            if (day.getDayOfWeek().getValue() < 6) {
+                Bar bar = new Bar();
+                bar.setSymbol(SYMBOL);
+                bar.setTimestamp(day.toInstant(ZoneOffset.UTC));
+                bar.setClose(BigDecimal.valueOf(100 + day.getDayOfMonth()));
+                bars.add(bar);
+            }
+        }
+        Map<String, List<Bar>> barsBySymbol = new HashMap<>();
+        barsBySymbol.put(SYMBOL, bars);
+        return new BarSeriesDataProvider(barsBySymbol, Interval.DAY_1);
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    /**
+     * 一次评分记录
+     */
+    private static final class Evaluation {
+        private final LocalDateTime endDate;
+        private final int value;
+        private final String directory;
+        private final Set<String> existingDirectories;
+
+        private Evaluation(LocalDateTime endDate, int value, String directory, Set<String> existingDirectories) {
+            this.endDate = endDate;
+            this.value = value;
+            this.directory = directory;
+            this.existingDirectories = existingDirectories;
+        }
+    }
+
+    /**
+     * 以参数 n 作为评分，并记录评分时所在组目录中仍存在的候选目录
+     * 回测结果中的配置带有检查点标识，据此找回参数组合
+     */
+    private static final class RecordingScorer implements StrategyScorer {
+        private final List<Evaluation> evaluations = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public double score(BacktestResult result) {
+            BacktestConfig config = result.getConfig();
+            int value = Integer.parseInt(parseTag(config.getCheckpointTag()).get("n"));
+            Path directory = Paths.get(config.getCheckpointDirectory());
+            Set<String> existing = new HashSet<>();
+            try (Stream<Path> siblings = Files.list(directory.getParent())) {
+                siblings.forEach(p -> existing.add(p.toString()));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            evaluations.add(new Evaluation(config.getEndDate(), value, directory.toString(), existing));
+            return value;
+        }
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        private static Map<String, String> parseTag(String tag) {
+            Map<String, String> params = new HashMap<>();
+            for (String entry : tag.substring(1, tag.length() - 1).split(", ")) {
+                String[] pair = entry.split("=");
+                params.put(pair[0], pair[1]);
+            }
+            return params;
+        }
+    }
+
+    /**
+     * 带内部状态的买入因子，记录收到的K线数和收盘价之和
+     */
+    private static final class CountingFactor implements BuyFactor, Checkpointable {
+        private int count;
+        private BigDecimal closeSum = BigDecimal.ZERO;
+
+        @Override
+        public String getName() {
+            return "counting";
+        }
+
+        @Override
+        public synchronized double calculateBuySignal(String symbol, List<Bar> bars, Ticker ticker) {
+            count++;
+            closeSum = closeSum.add(bars.get(bars.size() - 1).getClose());
+            return 0.0;
+        }
+
+        @Override
+        public String getCheckpointKey() {
+            return "factor:counting";
+        }
+
+        @Override
+        public synchronized void writeState(DataOutput out) throws IOException {
+            out.writeInt(count);
+            out.writeUTF(closeSum.toPlainString());
+        }
+
+        @Override
+        public synchronized void readState(DataInput in) throws IOException {
+            count = in.readInt();
+            closeSum = new BigDecimal(in.readUTF());
+        }
+    }
+}
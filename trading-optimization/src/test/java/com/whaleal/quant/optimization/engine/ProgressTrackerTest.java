@@ -0,0 +1,245 @@
+package com.whaleal.quant.optimization.engine;
+
+import com.whaleal.quant.backtest.data.BarSeriesDataProvider;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.scorer.StrategyScorer;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 优化进度统计测试
+ * 使用注入的时钟，校验耗时、吞吐量、预计剩余时间、最佳候选以及监听器回调
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class ProgressTrackerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 12, 0, 0);
+    private static final String SYMBOL = "AAA";
+
+    @Test
+    public void testEtaAndThroughputFollowClock() {
+        AtomicLong nanos = new AtomicLong(5_000_000_000L);
+        ProgressTracker tracker = new ProgressTracker(nanos::get);
+        tracker.submit(10);
+
+        // 尚无完成的参数组合
+        OptimizationProgress initial = tracker.snapshot();
+        assertEquals(10, initial.getTotal());
+        assertEquals(0, initial.getElapsedMillis());
+        assertEquals(-1, initial.getEtaMillis());
+        assertEquals(0.0, initial.getThroughput(), 0.0);
+        assertEquals(Double.NaN, initial.getBestScore(), 0.0);
+
+        advance(nanos, 500);
+        tracker.record(candidate(1, 0.5), false, false);
+        advance(nanos, 500);
+        StrategyOptimizer.OptimizationCandidate best = candidate(2, 2.0);
+        tracker.record(best, false, true);
+        advance(nanos, 500);
+        tracker.record(candidate(3, 0.0), true, false);
+        advance(nanos, 500);
+        // 评分为 NaN 的候选不会成为最佳候选
+        tracker.record(candidate(4, Double.NaN), false, false);
+
+        OptimizationProgress progress = tracker.snapshot();
+        assertEquals(4, progress.getCompleted());
+        assertEquals(1, progress.getFailed());
+        assertEquals(1, progress.getCached());
+        assertEquals(2000, progress.getElapsedMillis());
+        assertEquals(0.4, progress.getFraction(), 1e-12);
+        assertEquals(2.0, progress.getThroughput(), 1e-12);
+        // 剩余 6 个，平均每个 500 毫秒
+        assertEquals(3000, progress.getEtaMillis());
+        assertSame(best, progress.getBestCandidate());
+
+        // 搜索算法追加批次时总数增加
+        tracker.submit(4);
+        assertEquals(5000, tracker.snapshot().getEtaMillis());
+    }
+
+    @Test
+    public void testEtaIsZeroWhenComplete() {
+        AtomicLong nanos = new AtomicLong();
+        ProgressTracker tracker = new ProgressTracker(nanos::get);
+        tracker.submit(2);
+        advance(nanos, 300);
+        tracker.record(candidate(1, 1.0), false, false);
+        advance(nanos, 300);
+        OptimizationProgress progress = tracker.record(candidate(2, 1.0), false, false);
+
+        assertEquals(0, progress.getEtaMillis());
+        assertEquals(1.0, progress.getFraction(), 0.0);
+        assertEquals(600, progress.getElapsedMillis());
+    }
+
+    @Test
+    public void testListenerReceivesProgressForEveryCandidate() {
+        AtomicLong nanos = new AtomicLong();
+        AtomicInteger current = new AtomicInteger();
+        List<OptimizationProgress> completed = Collections.synchronizedList(new ArrayList<>());
+        List<OptimizationProgress> failed = Collections.synchronizedList(new ArrayList<>());
+
+        StrategyOptimizer optimizer = StrategyOptimizer.builder()
+                .paramSpace(new ParamSpace().addIntParam("n", 1, 4, 1))
+                .scorer(new CurrentParamScorer(current))
+                .strategyFactory(paramSet -> {
+                    // 每次回测耗时 1 秒
+                    advance(nanos, 1000);
+                    int n = paramSet.getIntParam("n", 0);
+                    if (n == 3) {
+                        throw new IllegalStateException("injected failure");
+                    }
+                    current.set(n);
+                    return strategy();
+                })
+                .dataProvider(weekdayBars())
+                .backtestConfig(config())
+                .listener(new OptimizationListener() {
+                    @Override
+                    public void onCandidateCompleted(StrategyOptimizer.OptimizationCandidate candidate, OptimizationProgress progress) {
+                        completed.add(progress);
+                    }
+
+                    @Override
+                    public void onCandidateFailed(StrategyOptimizer.OptimizationCandidate candidate, Throwable error, OptimizationProgress progress) {
+                        assertTrue(error instanceof IllegalStateException);
+                        failed.add(progress);
+                    }
+                })
+                .build()
+                .setNanoTime(nanos::get);
+        optimizer.setParallelEnabled(false);
+        optimizer.optimize();
+
+        assertEquals(3, completed.size());
+        assertEquals(1, failed.size());
+
+        OptimizationProgress first = completed.get(0);
+        assertEquals(4, first.getTotal());
+        assertEquals(1, first.getCompleted());
+        assertEquals(1000, first.getElapsedMillis());
+        assertEquals(1.0, first.getThroughput(), 1e-12);
+        assertEquals(3000, first.getEtaMillis());
+        assertEquals(1.0, first.getBestScore(), 0.0);
+
+        OptimizationProgress second = completed.get(1);
+        assertEquals(2, second.getCompleted());
+        assertEquals(2000, second.getEtaMillis());
+        assertEquals(2.0, second.getBestScore(), 0.0);
+
+        OptimizationProgress failure = failed.get(0);
+        assertEquals(3, failure.getCompleted());
+        assertEquals(1, failure.getFailed());
+        assertEquals(3000, failure.getElapsedMillis());
+        assertEquals(1000, failure.getEtaMillis());
+        // 失败的候选不影响最佳评分
+        assertEquals(2.0, failure.getBestScore(), 0.0);
+
+        OptimizationProgress last = completed.get(2);
+        assertEquals(4, last.getCompleted());
+        assertEquals(0, last.getEtaMillis());
+        assertEquals(4.0, last.getBestScore(), 0.0);
+
+        OptimizationProgress progress = optimizer.getProgress();
+        assertEquals(4000, progress.getElapsedMillis());
+        assertEquals(1.0, progress.getThroughput(), 1e-12);
+    }
+
+    @Test
+    public void testUnstartedOptimizerReportsEmptyProgress() {
+        StrategyOptimizer optimizer = StrategyOptimizer.builder()
+                .paramSpace(new ParamSpace().addIntParam("n", 1, 4, 1))
+                .scorer(new CurrentParamScorer(new AtomicInteger()))
+                .strategyFactory(paramSet -> strategy())
+                .dataProvider(weekdayBars())
+                .build()
+                .setNanoTime(() -> 0L);
+
+        OptimizationProgress progress = optimizer.getProgress();
+        assertEquals(0, progress.getTotal());
+        assertEquals(-1, progress.getEtaMillis());
+        assertNull(progress.getBestCandidate());
+    }
+
+    private static void advance(AtomicLong nanos, long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static StrategyOptimizer.OptimizationCandidate candidate(int n, double score) {
+        return new StrategyOptimizer.OptimizationCandidate(new ParamSet().addParam("n", n), null, score);
+    }
+
+    private static BacktestConfig config() {
+        return new BacktestConfig()
+                .setStartDate(START)
+                .setEndDate(END)
+                .setSymbols(new HashSet<>(Collections.singleton(SYMBOL)));
+    }
+
+    private static StrategyEngine strategy() {
+        StrategyEngine strategyEngine = StrategyEngine.builder().strategyName("progress").build();
+        strategyEngine.setStockPool(new HashSet<>(Collections.singleton(SYMBOL)));
+        return strategyEngine;
+    }
+
+    private static BarSeriesDataProvider weekdayBars() {
+        List<Bar> bars = new ArrayList<>();
+        for (LocalDateTime day = START; !day.isAfter(END); day = day.plusDays(1)) {
+            if (day.getDayOfWeek().getValue() < 6) {
+                Bar bar = new Bar();
+                bar.setSymbol(SYMBOL);
+                bar.setTimestamp(day.toInstant(ZoneOffset.UTC));
+                bar.setClose(BigDecimal.valueOf(100 + day.getDayOfMonth()));
+                bars.add(bar);
+            }
+        }
+        Map<String, List<Bar>> barsBySymbol = Collections.singletonMap(SYMBOL, bars);
+        return new BarSeriesDataProvider(barsBySymbol, Interval.DAY_1);
+    }
+
+    /**
+     * 串行优化时以当前回测的参数 n 作为评分
+     */
+    private static final class CurrentParamScorer implements StrategyScorer {
+        private final AtomicInteger current;
+
+        private CurrentParamScorer(AtomicInteger current) {
+            this.current = current;
+        }
+
+        @Override
+        public double score(BacktestResult result) {
+            return current.get();
+        }
+
+        @Override
+        public String getName() {
+            return "current";
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.whaleal.quant.optimization.engine;
+
+import com.whaleal.quant.backtest.data.BarSeriesDataProvider;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.backtest.result.BacktestResult;
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.WalkForwardResult;
+import com.whaleal.quant.optimization.scorer.SharpeRatioScorer;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 滚动前推分析引擎测试
+ * 覆盖滚动/锚定窗口划分（含步长大于或小于样本外窗口时的间隔与重叠）以及样本外权益曲线拼接
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class WalkForwardEngineTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 12, 31, 0, 0);
+
+    @Test
+    public void testRollingWindowsAreContiguous() {
+        List<WalkForwardEngine.Window> windows = engine(Period.ofMonths(3), Period.ofMonths(1), null, false)
+                .generateWindows();
+
+        // 样本外从 4 月到 12 月逐月滚动
+        assertEquals(9, windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            WalkForwardEngine.Window window = windows.get(i);
+            assertEquals(i, window.getIndex());
+            assertEquals(START.plusMonths(i), window.getTrainStart());
+            assertEquals(window.getTestStart().minusDays(1), window.getTrainEnd());
+            assertEquals(START.plusMonths(3 + i), window.getTestStart());
+            assertEquals(window.getTestStart().plusMonths(1).minusDays(1), window.getTestEnd());
+            if (i > 0) {
+                assertEquals(windows.get(i - 1).getTestEnd().plusDays(1), window.getTestStart());
+            }
+        }
+        assertEquals(END, windows.get(windows.size() - 1).getTestEnd());
+    }
+
+    @Test
+    public void testAnchoredWindowsKeepTrainStart() {
+        List<WalkForwardEngine.Window> windows = engine(Period.ofMonths(3), Period.ofMonths(1), null, true)
+                .generateWindows();
+
+        assertEquals(9, windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            WalkForwardEngine.Window window = windows.get(i);
+            // 样本内起点固定，终点随样本外窗口前移
+            assertEquals(START, window.getTrainStart());
+            assertEquals(START.plusMonths(3 + i).minusDays(1), window.getTrainEnd());
+            assertEquals(START.plusMonths(3 + i), window.getTestStart());
+        }
+    }
+
+    @Test
+    public void testStepLongerThanTestLeavesGaps() {
+        List<WalkForwardEngine.Window> windows = engine(Period.ofMonths(3), Period.ofMonths(1), Period.ofMonths(2), false)
+                .generateWindows();
+
+        // 样本外起点为 4、6、8、10、12 月
+        assertEquals(5, windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            WalkForwardEngine.Window window = windows.get(i);
+            assertEquals(START.plusMonths(2 * i), window.getTrainStart());
+            assertEquals(START.plusMonths(3 + 2 * i), window.getTestStart());
+            if (i > 0) {
+                // 相邻样本外窗口之间空出一个月，这段时间不参与任何一折的验证
+                WalkForwardEngine.Window previous = windows.get(i - 1);
+                assertEquals(previous.getTestStart().plusMonths(2), window.getTestStart());
+                assertTrue(previous.getTestEnd().plusMonths(1).isBefore(window.getTestStart()));
+            }
+        }
+    }
+
+    @Test
+    public void testStepShorterThanTestOverlapsAndClampsToEnd() {
+        List<WalkForwardEngine.Window> windows = engine(Period.ofMonths(3), Period.ofMonths(2), Period.ofMonths(1), false)
+                .generateWindows();
+
+        assertEquals(9, windows.size());
+        for (int i = 1; i < windows.size(); i++) {
+            // 相邻样本外窗口重叠一个月
+            assertTrue(windows.get(i).getTestStart().isBefore(windows.get(i - 1).getTestEnd()));
+            assertEquals(windows.get(i - 1).getTestStart().plusMonths(1), windows.get(i).getTestStart());
+        }
+        // 最后一个样本外窗口截断到回测结束日
+        WalkForwardEngine.Window last = windows.get(windows.size() - 1);
+        assertEquals(LocalDateTime.of(2024, 12, 1, 0, 0), last.getTestStart());
+        assertEquals(END, last.getTestEnd());
+    }
+
+    @Test
+    public void testRangeShorterThanTrainPeriodYieldsNoWindows() {
+        assertTrue(engine(Period.ofYears(2), Period.ofMonths(1), null, false).generateWindows().isEmpty());
+    }
+
+    @Test
+    public void testStitchCompoundsOverlappingTimestampsOnce() {
+        WalkForwardEngine engine = engine(Period.ofMonths(3), Period.ofMonths(1), null, false);
+        WalkForwardEngine.Window window = engine.generateWindows().get(0);
+        ParamSet paramSet = new ParamSet().addParam("n", 1);
+
+        WalkForwardResult.FoldResult first = new WalkForwardResult.FoldResult(window, paramSet, 1.0,
+                result(new long[]{1L, 2L, 3L}, new double[]{0.10, 0.0, -0.05}, -0.045), 0.5);
+        // 与上一折在时间戳 2、3 上重叠，重叠部分的收益不再计入
+        WalkForwardResult.FoldResult second = new WalkForwardResult.FoldResult(window, paramSet, 3.0,
+                result(new long[]{2L, 3L, 4L, 5L}, new double[]{0.5, 0.5, 0.02, 0.03}, 0.5), 1.5);
+        // 样本内无可用候选的折不参与拼接和均值
+        WalkForwardResult.FoldResult empty = new WalkForwardResult.FoldResult(window, null, 0.0, null, 0.0);
+
+        WalkForwardResult stitched = engine.stitch(Arrays.asList(first, second, empty));
+
+        assertArrayEquals(new long[]{1L, 2L, 3L, 4L, 5L}, stitched.getOutOfSampleTimestamps());
+        double capital = new BacktestConfig().getInitialCapital();
+        double[] expected = {
+                capital * 1.10,
+                capital * 1.10,
+                capital * 1.10 * 0.95,
+                capital * 1.10 * 0.95 * 1.02,
+                capital * 1.10 * 0.95 * 1.02 * 1.03
+        };
+        assertArrayEquals(expected, stitched.getOutOfSampleEquity(), 1e-6);
+
+        Map<String, Double> aggregate = stitched.getAggregateMetrics();
+        assertEquals(3.0, aggregate.get("foldCount"), 0.0);
+        assertEquals(2.0, aggregate.get("evaluatedFoldCount"), 0.0);
+        assertEquals(2.0, aggregate.get("meanInSampleScore"), 1e-12);
+        assertEquals(1.0, aggregate.get("meanOutOfSampleScore"), 1e-12);
+        assertEquals(0.5, aggregate.get("walkForwardEfficiency"), 1e-12);
+        assertEquals(0.5, aggregate.get("profitableFoldRatio"), 1e-12);
+    }
+
+    private static BacktestResult result(long[] timestamps, double[] returns, double totalReturn) {
+        double[] equity = new double[returns.length];
+        double value = 1.0;
+        for (int i = 0; i < returns.length; i++) {
+            value *= 1.0 + returns[i];
+            equity[i] = value;
+        }
+        return BacktestResult.builder()
+                .config(new BacktestConfig())
+                .equityCurve(timestamps, equity)
+                .dailyReturns(returns)
+                .metrics(Collections.singletonMap("totalReturn", totalReturn))
+                .build();
+    }
+
+    private static WalkForwardEngine engine(Period trainPeriod, Period testPeriod, Period stepPeriod, boolean anchored) {
+        return WalkForwardEngine.builder()
+                .paramSpace(new ParamSpace().addIntParam("n", 1, 3, 1))
+                .scorer(new SharpeRatioScorer())
+                .strategyFactory(paramSet -> StrategyEngine.builder().strategyName("walk-forward").build())
+                .dataProvider(new BarSeriesDataProvider(Collections.emptyMap(), Interval.DAY_1))
+                .backtestConfig(new BacktestConfig().setStartDate(START).setEndDate(END))
+                .trainPeriod(trainPeriod)
+                .testPeriod(testPeriod)
+                .stepPeriod(stepPeriod)
+                .anchored(anchored)
+                .build();
+    }
+}
@@ -0,0 +1,276 @@
+package com.whaleal.quant.optimization.indicator;
+
+import com.whaleal.quant.backtest.data.BarSeriesDataProvider;
+import com.whaleal.quant.backtest.model.BacktestConfig;
+import com.whaleal.quant.enums.Interval;
+import com.whaleal.quant.model.Bar;
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.scorer.SharpeRatioScorer;
+import com.whaleal.quant.strategy.core.StrategyEngine;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 指标预计算测试
+ * 内置指标与逐点直接计算的朴素实现对比
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class IndicatorPrecomputerTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    public void testSmaMatchesNaive() {
+        double[] close = randomWalk(500, 1);
+        for (int window : new int[]{1, 5, 20, 499, 500, 501}) {
+            assertSeries(naiveSma(close, window), compute(IndicatorSpec.sma(window), close));
+        }
+    }
+
+    @Test
+    public void testSmaRecoversAfterMissingClose() {
+        double[] close = randomWalk(200, 2);
+        close[50] = Double.NaN;
+        close[51] = Double.NaN;
+        double[] sma = compute(IndicatorSpec.sma(10), close);
+
+        assertSeries(naiveSma(close, 10), sma);
+        assertTrue(Double.isNaN(sma[60]));
+        assertEquals(mean(close, 52, 62), sma[61], TOLERANCE);
+        assertEquals(mean(close, 190, 200), sma[199], TOLERANCE);
+    }
+
+    @Test
+    public void testEmaMatchesNaive() {
+        double[] close = randomWalk(300, 3);
+        for (int window : new int[]{1, 3, 12, 26, 300, 301}) {
+            assertSeries(naiveEma(close, window), compute(IndicatorSpec.ema(window), close));
+        }
+    }
+
+    @Test
+    public void testRsiMatchesNaive() {
+        double[] close = randomWalk(300, 4);
+        for (int window : new int[]{1, 6, 14, 299, 300}) {
+            assertSeries(naiveRsi(close, window), compute(IndicatorSpec.rsi(window), close));
+        }
+    }
+
+    @Test
+    public void testEmaAndRsiRestartAfterMissingClose() {
+        double[] close = randomWalk(200, 5);
+        close[80] = Double.NaN;
+        double[] tail = Arrays.copyOfRange(close, 81, close.length);
+
+        double[] ema = compute(IndicatorSpec.ema(10), close);
+        double[] rsi = compute(IndicatorSpec.rsi(14), close);
+        double[] expectedEma = naiveEma(tail, 10);
+        double[] expectedRsi = naiveRsi(tail, 14);
+        assertTrue(Double.isNaN(ema[80]));
+        assertTrue(Double.isNaN(rsi[81]));
+        for (int i = 0; i < tail.length; i++) {
+            assertClose(expectedEma[i], ema[81 + i]);
+            assertClose(expectedRsi[i], rsi[81 + i]);
+        }
+    }
+
+    @Test
+    public void testGetValueUsesLastBarAtOrBeforeTime() {
+        List<Bar> bars = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bars.add(bar("AAA", Instant.ofEpochMilli(1000L * (i + 1)), 10 + i));
+        }
+        IndicatorSpec sma = IndicatorSpec.sma(2);
+        IndicatorStore store = new IndicatorPrecomputer(2)
+                .precompute(Collections.singletonList(sma), Collections.singletonMap("AAA", bars));
+
+        assertTrue(Double.isNaN(store.getValue(sma, "AAA", Instant.ofEpochMilli(999))));
+        // 首根K线数据不足
+        assertTrue(Double.isNaN(store.getValue(sma, "AAA", Instant.ofEpochMilli(1000))));
+        assertEquals(10.5, store.getValue(sma, "AAA", Instant.ofEpochMilli(2000)), 0.0);
+        assertEquals(10.5, store.getValue(sma, "AAA", Instant.ofEpochMilli(2999)), 0.0);
+        assertEquals(11.5, store.getValue(sma, "AAA", Instant.ofEpochMilli(3000)), 0.0);
+        assertEquals(13.5, store.getValue(sma, "AAA", Instant.ofEpochMilli(60000)), 0.0);
+        assertEquals(-1, store.indexOf("AAA", Instant.ofEpochMilli(0)));
+        assertEquals(4, store.indexOf("AAA", Instant.ofEpochMilli(5000)));
+    }
+
+    @Test
+    public void testOptimizerSharesPrecomputedStore() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 3, 31, 0, 0);
+        List<Bar> bars = new ArrayList<>();
+        Random random = new Random(6);
+        double price = 100;
+        for (LocalDateTime day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            price += random.nextGaussian();
+            bars.add(bar("AAA", day.toInstant(ZoneOffset.UTC), price));
+        }
+        Map<String, List<Bar>> barsBySymbol = new HashMap<>();
+        barsBySymbol.put("AAA", bars);
+
+        Set<IndicatorStore> seen = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        StrategyOptimizer optimizer = StrategyOptimizer.builder()
+                .paramSpace(new ParamSpace().addIntParam("window", 5, 20, 5).addIntParam("stop", 1, 3, 1))
+                .scorer(new SharpeRatioScorer())
+                .dataProvider(new BarSeriesDataProvider(barsBySymbol, Interval.DAY_1))
+                .backtestConfig(new BacktestConfig()
+                        .setStartDate(start)
+                        .setEndDate(end)
+                        .setSymbols(new HashSet<>(Collections.singletonList("AAA"))))
+                .indicators(paramSet -> Collections.singletonList(IndicatorSpec.sma(paramSet.getIntParam("window", 0))))
+                .strategyFactory((paramSet, indicators) -> {
+                    assertTrue(indicators.contains(IndicatorSpec.sma(paramSet.getIntParam("window", 0))));
+                    seen.add(indicators);
+                    return StrategyEngine.builder().strategyName("indicators-" + paramSet).build();
+                })
+                .build();
+
+        assertEquals(12, optimizer.optimize().getCandidateCount());
+        // 策略工厂中的断言失败会被记为回测失败
+        assertEquals(0, optimizer.getProgress().getFailed());
+        assertEquals(1, seen.size());
+        IndicatorStore store = optimizer.getIndicatorStore();
+        assertNotNull(store);
+        assertSame(store, seen.iterator().next());
+        // 12 组参数只引用 4 条不同的均线
+        assertEquals(4, store.getSpecs().size());
+
+        double[] close = new double[bars.size()];
+        for (int i = 0; i < close.length; i++) {
+            close[i] = bars.get(i).getClose().doubleValue();
+        }
+        assertSeries(naiveSma(close, 15), store.getSeries(IndicatorSpec.sma(15), "AAA"));
+    }
+
+    private static double[] compute(IndicatorSpec spec, double[] close) {
+        List<Bar> bars = new ArrayList<>(close.length);
+        for (int i = 0; i < close.length; i++) {
+            Bar bar = bar("AAA", Instant.ofEpochMilli(i), 0);
+            bar.setClose(Double.isNaN(close[i]) ? null : BigDecimal.valueOf(close[i]));
+            bars.add(bar);
+        }
+        return spec.compute(new BarColumns("AAA", bars));
+    }
+
+    private static double[] naiveSma(double[] close, int window) {
+        double[] result = new double[close.length];
+        for (int i = 0; i < close.length; i++) {
+            result[i] = i + 1 < window ? Double.NaN : mean(close, i + 1 - window, i + 1);
+        }
+        return result;
+    }
+
+    /**
+     * 展开递推式：以前 window 根的均值为初值，之后每根的权重按 (1 - alpha) 的幂次衰减
+     */
+    private static double[] naiveEma(double[] close, int window) {
+        return naiveSmoothed(close, window, 2.0 / (window + 1));
+    }
+
+    /**
+     * Wilder 平滑等价于 alpha = 1 / window 的指数平均，分别对涨幅和跌幅展开
+     */
+    private static double[] naiveRsi(double[] close, int window) {
+        double[] result = new double[close.length];
+        Arrays.fill(result, Double.NaN);
+        if (close.length < 2) {
+            return result;
+        }
+        double[] gains = new double[close.length - 1];
+        double[] losses = new double[close.length - 1];
+        for (int i = 1; i < close.length; i++) {
+            gains[i - 1] = Math.max(close[i] - close[i - 1], 0.0);
+            losses[i - 1] = Math.max(close[i - 1] - close[i], 0.0);
+        }
+        double[] gain = naiveSmoothed(gains, window, 1.0 / window);
+        double[] loss = naiveSmoothed(losses, window, 1.0 / window);
+        for (int i = 0; i < gain.length; i++) {
+            if (!Double.isNaN(gain[i])) {
+                result[i + 1] = gain[i] + loss[i] == 0.0 ? 50.0 : 100.0 * gain[i] / (gain[i] + loss[i]);
+            }
+        }
+        return result;
+    }
+
+    private static double[] naiveSmoothed(double[] values, int window, double alpha) {
+        double[] result = new double[values.length];
+        Arrays.fill(result, Double.NaN);
+        if (values.length < window) {
+            return result;
+        }
+        double seed = mean(values, 0, window);
+        for (int i = window - 1; i < values.length; i++) {
+            double value = Math.pow(1 - alpha, i - window + 1) * seed;
+            for (int k = window; k <= i; k++) {
+                value += alpha * Math.pow(1 - alpha, i - k) * values[k];
+            }
+            result[i] = value;
+        }
+        return result;
+    }
+
+    private static double mean(double[] values, int from, int to) {
+        double sum = 0.0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+
+    private static double[] randomWalk(int length, long seed) {
+        Random random = new Random(seed);
+        double[] close = new double[length];
+        double price = 100.0;
+        for (int i = 0; i < length; i++) {
+            price = Math.max(1.0, price + random.nextGaussian());
+            close[i] = price;
+        }
+        return close;
+    }
+
+    private static Bar bar(String symbol, Instant timestamp, double close) {
+        Bar bar = new Bar();
+        bar.setSymbol(symbol);
+        bar.setTimestamp(timestamp);
+        bar.setClose(BigDecimal.valueOf(close));
+        return bar;
+    }
+
+    private static void assertSeries(double[] expected, double[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertClose(expected[i], actual[i]);
+        }
+    }
+
+    private static void assertClose(double expected, double actual) {
+        if (Double.isNaN(expected)) {
+            assertTrue("Expected NaN but was " + actual, Double.isNaN(actual));
+        } else {
+            assertEquals(expected, actual, TOLERANCE * Math.max(1.0, Math.abs(expected)));
+        }
+    }
+}
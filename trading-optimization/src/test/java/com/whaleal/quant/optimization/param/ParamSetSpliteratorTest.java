@@ -0,0 +1,150 @@
+package com.whaleal.quant.optimization.param;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 参数组合分割迭代器测试
+ * 以递归展开的全量枚举为基准，校验混合进制解码的顺序、二分的不重不漏以及大小估计
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class ParamSetSpliteratorTest {
+
+    @Test
+    public void testDecodeMatchesEagerEnumeration() {
+        ParamSpace paramSpace = paramSpace();
+        List<ParamSet> expected = eager(paramSpace);
+
+        assertEquals(expected.size(), paramSpace.size());
+        assertEquals(expected, paramSpace.generateParamSets());
+        assertEquals(expected, paramSpace.parallelStream().collect(Collectors.toList()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), paramSpace.getParamSet(i));
+        }
+
+        // 逐个推进与批量推进结果一致
+        List<ParamSet> advanced = new ArrayList<>();
+        Spliterator<ParamSet> spliterator = paramSpace.spliterator();
+        while (spliterator.tryAdvance(advanced::add)) {
+            // 逐个取出
+        }
+        assertEquals(expected, advanced);
+    }
+
+    @Test
+    public void testRepeatedSplitsAreDisjointAndCoverSpace() {
+        ParamSpace paramSpace = paramSpace();
+        List<ParamSet> expected = eager(paramSpace);
+
+        // 反复二分直到无法再分，每个叶子的大小估计精确，各叶子按顺序拼接后恰好是完整枚举
+        List<ParamSet> collected = new ArrayList<>();
+        Deque<Spliterator<ParamSet>> pending = new ArrayDeque<>();
+        pending.push(paramSpace.spliterator());
+        int leaves = 0;
+        while (!pending.isEmpty()) {
+            Spliterator<ParamSet> suffix = pending.pop();
+            long size = suffix.estimateSize();
+            Spliterator<ParamSet> prefix = suffix.trySplit();
+            if (prefix == null) {
+                List<ParamSet> leaf = new ArrayList<>();
+                suffix.forEachRemaining(leaf::add);
+                assertEquals(size, leaf.size());
+                assertEquals(0, suffix.estimateSize());
+                collected.addAll(leaf);
+                leaves++;
+                continue;
+            }
+            assertEquals(size, prefix.estimateSize() + suffix.estimateSize());
+            assertTrue(Math.abs(prefix.estimateSize() - suffix.estimateSize()) <= 1);
+            // 先处理前半段以保持顺序
+            pending.push(suffix);
+            pending.push(prefix);
+        }
+
+        assertTrue(leaves > 1);
+        assertEquals(expected, collected);
+        assertEquals(expected.size(), new HashSet<>(collected).size());
+    }
+
+    @Test
+    public void testEstimateSizeIsExactWhileAdvancing() {
+        ParamSpace paramSpace = paramSpace();
+        Spliterator<ParamSet> spliterator = paramSpace.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+
+        long remaining = paramSpace.size();
+        assertEquals(remaining, spliterator.estimateSize());
+        assertEquals(remaining, spliterator.getExactSizeIfKnown());
+        while (spliterator.tryAdvance(paramSet -> { })) {
+            remaining--;
+            assertEquals(remaining, spliterator.estimateSize());
+        }
+        assertEquals(0, remaining);
+        assertNull(spliterator.trySplit());
+    }
+
+    @Test
+    public void testSplitAfterPartialAdvanceKeepsRemainder() {
+        ParamSpace paramSpace = paramSpace();
+        List<ParamSet> expected = eager(paramSpace);
+        Spliterator<ParamSet> suffix = paramSpace.spliterator();
+        for (int i = 0; i < 5; i++) {
+            suffix.tryAdvance(paramSet -> { });
+        }
+
+        Spliterator<ParamSet> prefix = suffix.trySplit();
+        Set<ParamSet> rest = new HashSet<>();
+        prefix.forEachRemaining(rest::add);
+        suffix.forEachRemaining(rest::add);
+        assertEquals(new HashSet<>(expected.subList(5, expected.size())), rest);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetParamSetRejectsOutOfRangeIndex() {
+        ParamSpace paramSpace = paramSpace();
+        paramSpace.getParamSet(paramSpace.size());
+    }
+
+    private static ParamSpace paramSpace() {
+        return new ParamSpace()
+                .addIntParam("fast", 1, 5, 1)
+                .addBooleanParam("long")
+                .addDoubleParam("threshold", 0.5, 1.5, 0.5)
+                .addEnumParam("mode", "a", "b", "c", "d");
+    }
+
+    /**
+     * 递归展开全部参数组合，最后一个参数变化最快
+     */
+    private static List<ParamSet> eager(ParamSpace paramSpace) {
+        List<ParamSet> paramSets = new ArrayList<>();
+        eager(paramSpace.getParamDefinitions(), paramSets, new ParamSet(), 0);
+        return paramSets;
+    }
+
+    private static void eager(List<ParamSpace.ParamDefinition<?>> definitions, List<ParamSet> paramSets,
+                              ParamSet current, int index) {
+        if (index >= definitions.size()) {
+            paramSets.add(current);
+            return;
+        }
+        ParamSpace.ParamDefinition<?> definition = definitions.get(index);
+        for (Object value : definition.getValues()) {
+            eager(definitions, paramSets, new ParamSet(current).addParam(definition.getName(), value), index + 1);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.whaleal.quant.optimization.search;
+
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 遗传算法参数搜索测试
+ * 固定随机种子，校验评分缓存、停滞提前停止以及交叉和变异不越出参数空间
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class GeneticSearchTest {
+
+    @Test
+    public void testDuplicateGenomesAreNotReEvaluated() {
+        // 8 个组合、种群 10，每代必然出现重复基因组
+        ParamSpace paramSpace = new ParamSpace().addIntParam("x", 0, 3, 1).addBooleanParam("flag");
+        RecordingEvaluator evaluator = new RecordingEvaluator(p -> p.getIntParam("x", 0));
+        OptimizationResult result = GeneticSearch.builder()
+                .populationSize(10)
+                .maxGenerations(20)
+                .stagnationGenerations(20)
+                .seed(5L)
+                .build()
+                .search(paramSpace, evaluator);
+
+        List<ParamSet> all = new ArrayList<>();
+        for (List<ParamSet> batch : evaluator.batches) {
+            assertEquals(batch.size(), new HashSet<>(batch).size());
+            all.addAll(batch);
+        }
+        assertEquals(all.size(), new HashSet<>(all).size());
+        assertTrue(all.size() <= paramSpace.size());
+        assertEquals(all.size(), result.getCandidateCount());
+        assertEquals(3, result.getBestCandidate().getParamSet().getIntParam("x", -1));
+    }
+
+    @Test
+    public void testMaxEvaluationsCapsDistinctBacktests() {
+        RecordingEvaluator evaluator = new RecordingEvaluator(GeneticSearchTest::peak);
+        OptimizationResult result = GeneticSearch.builder()
+                .populationSize(20)
+                .maxGenerations(50)
+                .maxEvaluations(70)
+                .seed(9L)
+                .build()
+                .search(largeSpace(), evaluator);
+
+        assertEquals(70, evaluator.evaluatedCount());
+        assertEquals(70, result.getCandidateCount());
+    }
+
+    @Test
+    public void testStopsAfterStagnantGenerations() {
+        // 评分恒定，初始代之后每代都没有提高
+        RecordingEvaluator evaluator = new RecordingEvaluator(p -> 1.0);
+        GeneticSearch.builder()
+                .populationSize(10)
+                .maxGenerations(100)
+                .stagnationGenerations(3)
+                .seed(7L)
+                .build()
+                .search(largeSpace(), evaluator);
+
+        // 初始代加上 3 个停滞代
+        assertEquals(4, evaluator.batches.size());
+    }
+
+    @Test
+    public void testImprovementResetsStagnation() {
+        RecordingEvaluator evaluator = new RecordingEvaluator(GeneticSearchTest::peak);
+        OptimizationResult result = GeneticSearch.builder()
+                .populationSize(16)
+                .maxGenerations(200)
+                .stagnationGenerations(8)
+                .seed(13L)
+                .build()
+                .search(largeSpace(), evaluator);
+
+        // 评分持续提高时不会在 8 代内停止，最终接近最优点
+        assertTrue(evaluator.batches.size() > 9);
+        assertTrue(evaluator.batches.size() < 200);
+        assertTrue("best " + result.getBestCandidate().getScore(), result.getBestCandidate().getScore() > -10.0);
+    }
+
+    @Test
+    public void testCrossoverAndMutationStayInsideParamSpace() {
+        SearchSpace space = new SearchSpace(largeSpace());
+        SplittableRandom random = new SplittableRandom(17L);
+        for (int trial = 0; trial < 5000; trial++) {
+            int[] first = space.randomDigits(random);
+            int[] second = space.randomDigits(random);
+
+            int[] child = GeneticSearch.crossover(space, first, second, random);
+            for (int d = 0; d < space.dimensions(); d++) {
+                if (space.isOrdered(d)) {
+                    // 有序参数取两个父代之间的下标
+                    assertTrue(child[d] >= Math.min(first[d], second[d]));
+                    assertTrue(child[d] <= Math.max(first[d], second[d]));
+                } else {
+                    assertTrue(child[d] == first[d] || child[d] == second[d]);
+                }
+            }
+
+            int[] mutated = child.clone();
+            GeneticSearch.mutate(space, mutated, 1.0, random);
+            for (int d = 0; d < space.dimensions(); d++) {
+                assertTrue(mutated[d] >= 0 && mutated[d] < space.radix(d));
+                // 变异概率为 1 时每个参数都换成另一个取值，有序参数在边界处可能被截断回原值
+                if (!space.isOrdered(d)) {
+                    assertNotEquals(child[d], mutated[d]);
+                }
+            }
+        }
+    }
+
+    private static ParamSpace largeSpace() {
+        return new ParamSpace()
+                .addIntParam("x", 0, 99, 1)
+                .addDoubleParam("y", 0.0, 4.9, 0.1)
+                .addEnumParam("mode", "a", "b", "c")
+                .addBooleanParam("flag");
+    }
+
+    /**
+     * 合成评分：最优点为 x=60、mode="b"
+     */
+    private static double peak(ParamSet paramSet) {
+        double dx = paramSet.getIntParam("x", 0) - 60;
+        return -(dx * dx) - ("b".equals(paramSet.getParam("mode")) ? 0.0 : 50.0);
+    }
+
+    /**
+     * 记录每批评估的参数组合
+     */
+    private static final class RecordingEvaluator implements Function<List<ParamSet>, List<StrategyOptimizer.OptimizationCandidate>> {
+        private final ToDoubleFunction<ParamSet> scorer;
+        private final List<List<ParamSet>> batches = new ArrayList<>();
+
+        private RecordingEvaluator(ToDoubleFunction<ParamSet> scorer) {
+            this.scorer = scorer;
+        }
+
+        @Override
+        public List<StrategyOptimizer.OptimizationCandidate> apply(List<ParamSet> paramSets) {
+            batches.add(new ArrayList<>(paramSets));
+            List<StrategyOptimizer.OptimizationCandidate> candidates = new ArrayList<>(paramSets.size());
+            for (ParamSet paramSet : paramSets) {
+                candidates.add(new StrategyOptimizer.OptimizationCandidate(paramSet, null, scorer.applyAsDouble(paramSet)));
+            }
+            return candidates;
+        }
+
+        private int evaluatedCount() {
+            int count = 0;
+            for (List<ParamSet> batch : batches) {
+                count += batch.size();
+            }
+            return count;
+        }
+    }
+}
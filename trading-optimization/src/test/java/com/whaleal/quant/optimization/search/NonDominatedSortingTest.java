@@ -0,0 +1,148 @@
+package com.whaleal.quant.optimization.search;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 非支配排序测试
+ * 与逐层剥离前沿的朴素 O(MN²) 实现对比层级
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class NonDominatedSortingTest {
+
+    @Test
+    public void testRandomVectorsMatchNaiveSort() {
+        Random random = new Random(1);
+        for (int dimensions = 1; dimensions <= 5; dimensions++) {
+            for (int trial = 0; trial < 5; trial++) {
+                double[][] objectives = new double[300][dimensions];
+                for (double[] vector : objectives) {
+                    for (int m = 0; m < dimensions; m++) {
+                        vector[m] = random.nextGaussian();
+                    }
+                }
+                assertArrayEquals(naiveSort(objectives), NonDominatedSorting.sort(objectives));
+            }
+        }
+    }
+
+    @Test
+    public void testDuplicateHeavyVectorsMatchNaiveSort() {
+        Random random = new Random(2);
+        for (int dimensions = 2; dimensions <= 4; dimensions++) {
+            for (int trial = 0; trial < 10; trial++) {
+                // 每个目标只取 3 个值，大量重复和相等分量
+                double[][] objectives = new double[400][dimensions];
+                for (double[] vector : objectives) {
+                    for (int m = 0; m < dimensions; m++) {
+                        vector[m] = random.nextInt(3);
+                    }
+                }
+                assertArrayEquals(naiveSort(objectives), NonDominatedSorting.sort(objectives));
+            }
+        }
+    }
+
+    @Test
+    public void testNaNAndInfinitiesMatchNaiveSort() {
+        Random random = new Random(3);
+        double[] specials = {Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0.0, -0.0};
+        for (int trial = 0; trial < 20; trial++) {
+            double[][] objectives = new double[200][3];
+            for (double[] vector : objectives) {
+                for (int m = 0; m < vector.length; m++) {
+                    vector[m] = random.nextInt(4) == 0 ? specials[random.nextInt(specials.length)] : random.nextInt(5);
+                }
+            }
+            assertArrayEquals(naiveSort(objectives), NonDominatedSorting.sort(objectives));
+        }
+    }
+
+    @Test
+    public void testNaNIsWorseThanAnyNumber() {
+        double[][] objectives = {
+                {Double.NaN, 1.0},
+                {-1e300, 1.0},
+                {Double.NaN, Double.NaN},
+                {Double.NEGATIVE_INFINITY, 1.0}
+        };
+        // NaN 与负无穷相等，互不支配
+        assertArrayEquals(new int[]{1, 0, 2, 1}, NonDominatedSorting.sort(objectives));
+    }
+
+    @Test
+    public void testNegativeZeroEqualsZero() {
+        double[][] objectives = {
+                {0.0, 1.0},
+                {-0.0, 5.0}
+        };
+        assertArrayEquals(new int[]{1, 0}, NonDominatedSorting.sort(objectives));
+    }
+
+    @Test
+    public void testIdenticalVectorsShareFront() {
+        double[][] objectives = new double[50][];
+        for (int i = 0; i < objectives.length; i++) {
+            objectives[i] = new double[]{1.0, 2.0};
+        }
+        assertArrayEquals(new int[50], NonDominatedSorting.sort(objectives));
+        assertEquals(0, NonDominatedSorting.sort(new double[0][]).length);
+    }
+
+    /**
+     * 朴素实现：每轮找出未分层的解中不被其他未分层解支配的解，作为下一层
+     */
+    private static int[] naiveSort(double[][] objectives) {
+        int n = objectives.length;
+        double[][] values = new double[n][];
+        for (int i = 0; i < n; i++) {
+            values[i] = objectives[i].clone();
+            for (int m = 0; m < values[i].length; m++) {
+                if (Double.isNaN(values[i][m])) {
+                    values[i][m] = Double.NEGATIVE_INFINITY;
+                }
+            }
+        }
+
+        int[] ranks = new int[n];
+        boolean[] assigned = new boolean[n];
+        int remaining = n;
+        for (int rank = 0; remaining > 0; rank++) {
+            boolean[] front = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                if (assigned[i]) {
+                    continue;
+                }
+                boolean dominated = false;
+                for (int j = 0; j < n && !dominated; j++) {
+                    dominated = !assigned[j] && j != i && naiveDominates(values[j], values[i]);
+                }
+                front[i] = !dominated;
+            }
+            for (int i = 0; i < n; i++) {
+                if (front[i]) {
+                    ranks[i] = rank;
+                    assigned[i] = true;
+                    remaining--;
+                }
+            }
+        }
+        return ranks;
+    }
+
+    private static boolean naiveDominates(double[] first, double[] second) {
+        boolean allNotWorse = true;
+        boolean anyBetter = false;
+        for (int m = 0; m < first.length; m++) {
+            allNotWorse &= first[m] >= second[m];
+            anyBetter |= first[m] > second[m];
+        }
+        return allNotWorse && anyBetter;
+    }
+}
@@ -0,0 +1,154 @@
+package com.whaleal.quant.optimization.search;
+
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 参数采样测试
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class ParamSamplerTest {
+
+    @Test
+    public void testSobolMatchesReferenceValues() {
+        double[][] points = ParamSampler.sobol(2, 8, 42L);
+        // 撤销随机数字平移后应为格雷码顺序的标准 Sobol 序列
+        double[][] expected = {
+                {0.0, 0.0}, {0.5, 0.5}, {0.75, 0.25}, {0.25, 0.75},
+                {0.375, 0.375}, {0.875, 0.875}, {0.625, 0.125}, {0.125, 0.625}
+        };
+        for (int i = 0; i < points.length; i++) {
+            for (int d = 0; d < 2; d++) {
+                assertEquals(expected[i][d], unshift(points[i][d], points[0][d]), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testSobolFirstPowerOfTwoPointsAreStratifiedInEveryDimension() {
+        for (int k = 1; k <= 10; k++) {
+            int samples = 1 << k;
+            double[][] points = ParamSampler.sobol(21, samples, k);
+            for (int d = 0; d < 21; d++) {
+                boolean[] seen = new boolean[samples];
+                for (double[] point : points) {
+                    int stratum = (int) (point[d] * samples);
+                    assertTrue("dimension " + d + " has two points in stratum " + stratum + " of " + samples, !seen[stratum]);
+                    seen[stratum] = true;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSobolFirstTwoDimensionsAreStratifiedInElementaryIntervals() {
+        int k = 8;
+        int samples = 1 << k;
+        double[][] points = ParamSampler.sobol(2, samples, 7L);
+        // 前两维构成 (0, 2) 序列：任意 2^a x 2^(k-a) 的划分中每个小矩形恰好一个点
+        for (int a = 0; a <= k; a++) {
+            int columns = 1 << a;
+            int rows = 1 << (k - a);
+            boolean[] seen = new boolean[samples];
+            for (double[] point : points) {
+                int cell = (int) (point[0] * columns) * rows + (int) (point[1] * rows);
+                assertTrue(!seen[cell]);
+                seen[cell] = true;
+            }
+        }
+    }
+
+    @Test
+    public void testLatinHypercubePutsOneSamplePerStratum() {
+        int samples = 37;
+        double[][] points = ParamSampler.latinHypercube(5, samples, 3L);
+        for (int d = 0; d < 5; d++) {
+            int[] counts = new int[samples];
+            for (double[] point : points) {
+                counts[(int) (point[d] * samples)]++;
+            }
+            for (int count : counts) {
+                assertEquals(1, count);
+            }
+        }
+    }
+
+    @Test
+    public void testLatinHypercubeCoversEveryValueWhenSamplesEqualValueCount() {
+        ParamSpace space = new ParamSpace()
+                .addIntParam("a", 1, 10, 1)
+                .addIntParam("b", 1, 10, 1)
+                .addIntParam("c", 1, 10, 1);
+        List<ParamSet> paramSets = ParamSampler.sample(space, ParamSampler.Method.LATIN_HYPERCUBE, 10, 11L);
+        assertEquals(10, paramSets.size());
+        for (String name : new String[]{"a", "b", "c"}) {
+            Set<Integer> values = new HashSet<>();
+            for (ParamSet paramSet : paramSets) {
+                values.add(paramSet.getIntParam(name, 0));
+            }
+            assertEquals(10, values.size());
+        }
+    }
+
+    @Test
+    public void testSobolCoversEveryValueWhenSamplesEqualValueCount() {
+        ParamSpace space = new ParamSpace()
+                .addIntParam("a", 1, 8, 1)
+                .addIntParam("b", 1, 8, 1)
+                .addIntParam("c", 1, 8, 1);
+        List<ParamSet> paramSets = ParamSampler.sample(space, ParamSampler.Method.SOBOL, 8, 5L);
+        assertEquals(8, paramSets.size());
+        for (String name : new String[]{"a", "b", "c"}) {
+            Set<Integer> values = new HashSet<>();
+            for (ParamSet paramSet : paramSets) {
+                values.add(paramSet.getIntParam(name, 0));
+            }
+            assertEquals(8, values.size());
+        }
+    }
+
+    @Test
+    public void testBudgetNotSmallerThanSpaceReturnsFullGrid() {
+        ParamSpace space = new ParamSpace()
+                .addIntParam("a", 1, 4, 1)
+                .addBooleanParam("b")
+                .addEnumParam("c", "x", "y");
+        List<ParamSet> grid = space.generateParamSets();
+        assertEquals(16, grid.size());
+        for (ParamSampler.Method method : ParamSampler.Method.values()) {
+            assertEquals(grid, ParamSampler.sample(space, method, 16, 1L));
+            assertEquals(grid, ParamSampler.sample(space, method, 1000, 1L));
+        }
+    }
+
+    @Test
+    public void testSamplesAreDistinctAndDeterministic() {
+        ParamSpace space = new ParamSpace()
+                .addIntParam("a", 1, 50, 1)
+                .addDoubleParam("b", 0.0, 1.0, 0.01);
+        for (ParamSampler.Method method : ParamSampler.Method.values()) {
+            List<ParamSet> first = ParamSampler.sample(space, method, 200, 9L);
+            assertTrue(first.size() <= 200);
+            assertEquals(first.size(), new HashSet<>(first).size());
+            assertEquals(first, ParamSampler.sample(space, method, 200, 9L));
+        }
+    }
+
+    /**
+     * 随机数字平移是对 32 位定点数异或，首个点即为平移量
+     */
+    private static double unshift(double value, double shift) {
+        long bits = (long) (value * (1L << 32)) ^ (long) (shift * (1L << 32));
+        return bits / (double) (1L << 32);
+    }
+}
@@ -0,0 +1,138 @@
+package com.whaleal.quant.optimization.search;
+
+import com.whaleal.quant.optimization.engine.StrategyOptimizer;
+import com.whaleal.quant.optimization.param.ParamSet;
+import com.whaleal.quant.optimization.param.ParamSpace;
+import com.whaleal.quant.optimization.result.OptimizationResult;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * TPE 参数搜索测试
+ * 以已知最优点的合成评分函数代替回测，固定随机种子，校验收敛、取值范围和可复现性
+ *
+ * @author whaleal
+ * @version 1.0.0
+ */
+public class TpeSearchTest {
+
+    private static final int BUDGET = 60;
+    private static final int BEST_X = 37;
+    private static final int BEST_Y = 12;
+
+    @Test
+    public void testConvergesTowardsOptimumBetterThanRandomSampling() {
+        double tpeRegret = 0.0;
+        double randomRegret = 0.0;
+        for (long seed = 1; seed <= 5; seed++) {
+            OptimizationResult tpe = TpeSearch.builder()
+                    .maxEvaluations(BUDGET)
+                    .batchSize(4)
+                    .startupEvaluations(10)
+                    .seed(seed)
+                    .build()
+                    .search(paramSpace(), new SyntheticEvaluator());
+            OptimizationResult random = SamplingSearch.builder()
+                    .method(ParamSampler.Method.RANDOM)
+                    .samples(BUDGET)
+                    .seed(seed)
+                    .build()
+                    .search(paramSpace(), new SyntheticEvaluator());
+
+            assertEquals(BUDGET, tpe.getCandidateCount());
+            // 合成评分的最大值为 0，取负即为与最优点的差距
+            tpeRegret -= tpe.getBestCandidate().getScore();
+            randomRegret -= random.getBestCandidate().getScore();
+        }
+        tpeRegret /= 5;
+        randomRegret /= 5;
+
+        assertTrue("TPE regret " + tpeRegret + " vs random " + randomRegret, tpeRegret < randomRegret);
+        assertTrue("TPE regret " + tpeRegret, tpeRegret <= 20.0);
+    }
+
+    @Test
+    public void testSamplesStayWithinParamSpaceAndNeverRepeat() {
+        ParamSpace paramSpace = paramSpace();
+        SyntheticEvaluator evaluator = new SyntheticEvaluator();
+        TpeSearch.builder()
+                .maxEvaluations(BUDGET)
+                .batchSize(7)
+                .startupEvaluations(5)
+                .seed(11L)
+                .build()
+                .search(paramSpace, evaluator);
+
+        assertEquals(BUDGET, evaluator.evaluated.size());
+        assertEquals(BUDGET, new HashSet<>(evaluator.evaluated).size());
+        for (ParamSet paramSet : evaluator.evaluated) {
+            Map<String, Object> params = paramSet.getAllParams();
+            assertEquals(paramSpace.getParamDefinitions().size(), params.size());
+            for (ParamSpace.ParamDefinition<?> definition : paramSpace.getParamDefinitions()) {
+                assertTrue(definition.getName() + "=" + params.get(definition.getName()),
+                        definition.getValues().contains(params.get(definition.getName())));
+            }
+        }
+    }
+
+    @Test
+    public void testExhaustsSmallSpaceWithoutDuplicates() {
+        ParamSpace paramSpace = new ParamSpace().addIntParam("x", 0, 4, 1).addBooleanParam("flag");
+        SyntheticEvaluator evaluator = new SyntheticEvaluator();
+        OptimizationResult result = TpeSearch.builder()
+                .maxEvaluations(BUDGET)
+                .batchSize(3)
+                .startupEvaluations(2)
+                .build()
+                .search(paramSpace, evaluator);
+
+        // 预算超过空间大小时每个组合恰好评估一次
+        assertEquals(paramSpace.size(), result.getCandidateCount());
+        assertEquals(new HashSet<>(paramSpace.generateParamSets()), new HashSet<>(evaluator.evaluated));
+    }
+
+    @Test
+    public void testSameSeedReproducesSearch() {
+        SyntheticEvaluator first = new SyntheticEvaluator();
+        SyntheticEvaluator second = new SyntheticEvaluator();
+        TpeSearch search = TpeSearch.builder().maxEvaluations(30).batchSize(4).startupEvaluations(8).seed(3L).build();
+        search.search(paramSpace(), first);
+        search.search(paramSpace(), second);
+        assertEquals(first.evaluated, second.evaluated);
+    }
+
+    private static ParamSpace paramSpace() {
+        return new ParamSpace()
+                .addIntParam("x", 0, 50, 1)
+                .addIntParam("y", 0, 50, 1)
+                .addEnumParam("mode", "a", "b", "c");
+    }
+
+    /**
+     * 合成评分：与最优点 (37, 12, "b") 的距离平方取负，最大值为 0
+     */
+    private static final class SyntheticEvaluator implements Function<List<ParamSet>, List<StrategyOptimizer.OptimizationCandidate>> {
+        private final List<ParamSet> evaluated = new ArrayList<>();
+
+        @Override
+        public List<StrategyOptimizer.OptimizationCandidate> apply(List<ParamSet> paramSets) {
+            List<StrategyOptimizer.OptimizationCandidate> candidates = new ArrayList<>(paramSets.size());
+            for (ParamSet paramSet : paramSets) {
+                evaluated.add(paramSet);
+                double dx = paramSet.getIntParam("x", 0) - BEST_X;
+                double dy = paramSet.getIntParam("y", 0) - BEST_Y;
+                double penalty = "b".equals(paramSet.getParam("mode")) ? 0.0 : 25.0;
+                candidates.add(new StrategyOptimizer.OptimizationCandidate(paramSet, null, -(dx * dx + dy * dy + penalty)));
+            }
+            return candidates;
+        }
+    }
+}